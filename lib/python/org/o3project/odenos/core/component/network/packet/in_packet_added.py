@@ -0,0 +1,33 @@
+# -*- coding:utf-8 -*-
+
+# Copyright 2015 NEC Corporation.                                          #
+#                                                                          #
+# Licensed under the Apache License, Version 2.0 (the "License");          #
+# you may not use this file except in compliance with the License.         #
+# You may obtain a copy of the License at                                  #
+#                                                                          #
+#   http://www.apache.org/licenses/LICENSE-2.0                             #
+#                                                                          #
+# Unless required by applicable law or agreed to in writing, software      #
+# distributed under the License is distributed on an "AS IS" BASIS,        #
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. #
+# See the License for the specific language governing permissions and      #
+# limitations under the License.                                           #
+
+
+class InPacketAdded(object):
+    TYPE = "InPacketAdded"
+
+    # property key
+    ID = "id"
+
+    def __init__(self, id_):
+        self.__id = id_
+
+    @property
+    def id(self):
+        return self.__id
+
+    @classmethod
+    def create_from_packed(cls, packed):
+        return cls(packed[cls.ID])
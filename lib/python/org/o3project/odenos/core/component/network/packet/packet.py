@@ -0,0 +1,41 @@
+# -*- coding:utf-8 -*-
+
+# Copyright 2015 NEC Corporation.                                          #
+#                                                                          #
+# Licensed under the Apache License, Version 2.0 (the "License");          #
+# you may not use this file except in compliance with the License.         #
+# You may obtain a copy of the License at                                  #
+#                                                                          #
+#   http://www.apache.org/licenses/LICENSE-2.0                             #
+#                                                                          #
+# Unless required by applicable law or agreed to in writing, software      #
+# distributed under the License is distributed on an "AS IS" BASIS,        #
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. #
+# See the License for the specific language governing permissions and      #
+# limitations under the License.                                           #
+
+
+class Packet(object):
+    # property key
+    PACKET_ID = "packet_id"
+    TYPE = "type"
+    ATTRIBUTES = "attributes"
+
+    def __init__(self, id_, type_, attributes):
+        self._body = {
+            self.PACKET_ID: id_,
+            self.TYPE: type_,
+            self.ATTRIBUTES: attributes
+        }
+
+    @property
+    def packet_id(self):
+        return self._body[self.PACKET_ID]
+
+    @property
+    def type(self):
+        return self._body[self.TYPE]
+
+    @property
+    def attributes(self):
+        return self._body[self.ATTRIBUTES]
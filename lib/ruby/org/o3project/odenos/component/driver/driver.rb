@@ -0,0 +1,36 @@
+# -*- coding:utf-8 -*-
+
+# Copyright 2015 NEC Corporation.                                          #
+#                                                                          #
+# Licensed under the Apache License, Version 2.0 (the "License");          #
+# you may not use this file except in compliance with the License.         #
+# You may obtain a copy of the License at                                  #
+#                                                                          #
+#   http://www.apache.org/licenses/LICENSE-2.0                             #
+#                                                                          #
+# Unless required by applicable law or agreed to in writing, software      #
+# distributed under the License is distributed on an "AS IS" BASIS,        #
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. #
+# See the License for the specific language governing permissions and      #
+# limitations under the License.                                           #
+
+require 'odenos/core/component'
+require 'odenos/remoteobject'
+require 'odenos/core/util'
+require 'odenos/core/component/logic'
+
+module Odenos
+  module Component
+    module Driver
+      class Driver < Odenos::Component::Logic
+        include Odenos::Util
+        def initialize(remote_object_id, dispatcher)
+          debug 'Driver#initialize'
+          @super_type = 'Driver'
+          @connection_types = 'original:1'
+          super
+        end
+      end
+    end
+  end
+end
@@ -0,0 +1,24 @@
+
+# Copyright 2015 NEC Corporation.                                          #
+#                                                                          #
+# Licensed under the Apache License, Version 2.0 (the "License");          #
+# you may not use this file except in compliance with the License.         #
+# You may obtain a copy of the License at                                  #
+#                                                                          #
+#   http://www.apache.org/licenses/LICENSE-2.0                             #
+#                                                                          #
+# Unless required by applicable law or agreed to in writing, software      #
+# distributed under the License is distributed on an "AS IS" BASIS,        #
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. #
+# See the License for the specific language governing permissions and      #
+# limitations under the License.                                           #
+
+require 'odenos/component/driver/of_driver/monkey_patch'
+require 'odenos/component/driver/of_driver/transactions'
+require 'odenos/component/driver/of_driver/flow_entry'
+require 'odenos/component/driver/of_driver/openflow_controller'
+require 'odenos/component/driver/of_driver/request_errors'
+require 'odenos/component/driver/of_driver/flow_map'
+require 'odenos/component/driver/of_driver/openflow_driver'
+require 'odenos/component/driver/of_driver/request_helpers'
+require 'odenos/component/driver/of_driver/topology_map'
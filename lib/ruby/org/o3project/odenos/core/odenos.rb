@@ -0,0 +1,21 @@
+
+# Copyright 2015 NEC Corporation.                                          #
+#                                                                          #
+# Licensed under the Apache License, Version 2.0 (the "License");          #
+# you may not use this file except in compliance with the License.         #
+# You may obtain a copy of the License at                                  #
+#                                                                          #
+#   http://www.apache.org/licenses/LICENSE-2.0                             #
+#                                                                          #
+# Unless required by applicable law or agreed to in writing, software      #
+# distributed under the License is distributed on an "AS IS" BASIS,        #
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. #
+# See the License for the specific language governing permissions and      #
+# limitations under the License.                                           #
+
+$LOAD_PATH.unshift File.expand_path(File.join File.dirname(__FILE__), '../../')
+
+require 'rubygems'
+require 'odenos/component/driver/of_driver'
+require 'odenos/component/driver/of_driver/openflow_controller'
+require 'odenos/remoteobject/manager/of_component_manager'
@@ -0,0 +1,24 @@
+
+# Copyright 2015 NEC Corporation.                                          #
+#                                                                          #
+# Licensed under the Apache License, Version 2.0 (the "License");          #
+# you may not use this file except in compliance with the License.         #
+# You may obtain a copy of the License at                                  #
+#                                                                          #
+#   http://www.apache.org/licenses/LICENSE-2.0                             #
+#                                                                          #
+# Unless required by applicable law or agreed to in writing, software      #
+# distributed under the License is distributed on an "AS IS" BASIS,        #
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. #
+# See the License for the specific language governing permissions and      #
+# limitations under the License.                                           #
+
+require 'odenos/remoteobject/component_connection'
+require 'odenos/remoteobject/event'
+require 'odenos/remoteobject/remote_object'
+require 'odenos/remoteobject/response'
+require 'odenos/remoteobject/component_connection_logic_and_network'
+require 'odenos/remoteobject/message_dispatcher'
+require 'odenos/remoteobject/request'
+require 'odenos/remoteobject/transport'
+require 'odenos/remoteobject/manager'
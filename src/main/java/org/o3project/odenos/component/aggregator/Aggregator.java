@@ -1061,8 +1061,8 @@ public class Aggregator extends Logic {
       if (orgTopology == null) {
         return;
       }
-      Map<String, Node> orgNodes = orgTopology.nodes;
-      Map<String, Link> orgLinks = orgTopology.links;
+      Map<String, Node> orgNodes = orgTopology.getNodeMap();
+      Map<String, Link> orgLinks = orgTopology.getLinkMap();
 
       for (String nodeId : orgNodes.keySet()) {
         // add Node & Port.
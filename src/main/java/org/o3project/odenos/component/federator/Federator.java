@@ -730,7 +730,7 @@ public class Federator extends Logic {
       return false;
     }
 
-    InPacket inPacket = getInPacket(nwIf, msg.getId());
+    InPacket inPacket = getInPacket(nwIf, msg);
     if (inPacket == null) {
       return false;
     }
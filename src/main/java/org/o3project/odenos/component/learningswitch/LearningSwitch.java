@@ -696,8 +696,7 @@ public class LearningSwitch extends Logic {
     }
     // Create NetworkInterface
     NetworkInterface networkIf = networkInterfaces().get(networkId);
-    String packetId = msg.getId();
-    InPacket inPacket = getInPacket(networkIf, packetId);
+    InPacket inPacket = getInPacket(networkIf, msg);
 
     // Packet Check.
     if (inPacket == null) {
@@ -721,8 +720,10 @@ public class LearningSwitch extends Logic {
       log.info(">> Invalid InPacket's header.");
       return;
     }
-    // Delete Network's InPacket.
-    networkIf.delInPacket(inPacket.getPacketId());
+    // Delete Network's InPacket, unless dequeued for the inline event.
+    if (!msg.isConsumed()) {
+      networkIf.delInPacket(inPacket.getPacketId());
+    }
 
     // Learning ether address.
     String newValue = header.getInNode() + "::" + header.getInPort();
@@ -1253,7 +1253,7 @@ public class LinkLayerizer extends Logic {
       return false;
     }
 
-    InPacket inPacket = getInPacket(upperNwIf, msg.getId());
+    InPacket inPacket = getInPacket(upperNwIf, msg);
     if (inPacket == null) {
       return false;
     }
@@ -826,7 +826,7 @@ public class Slicer extends Logic {
     }
 
     NetworkInterface networkIf = networkInterfaces().get(networkId);
-    InPacket body = delInPacket(networkIf, msg.getId());
+    InPacket body = delInPacket(networkIf, msg);
     if (body == null) {
       log.error("invalid DELETE Packet.");
       return;
@@ -888,8 +888,8 @@ public class Slicer extends Logic {
       if (orgTopology == null) {
         return;
       }
-      Map<String, Node> orgNodes = orgTopology.nodes;
-      Map<String, Link> orgLinks = orgTopology.links;
+      Map<String, Node> orgNodes = orgTopology.getNodeMap();
+      Map<String, Link> orgLinks = orgTopology.getLinkMap();
 
       for (String nodeId : orgNodes.keySet()) {
         // Add Node & Port.
@@ -43,6 +43,7 @@ import org.o3project.odenos.remoteobject.manager.EventManager;
 import org.o3project.odenos.remoteobject.messagingclient.Config;
 import org.o3project.odenos.remoteobject.messagingclient.Config.MODE;
 import org.o3project.odenos.remoteobject.messagingclient.ConfigBuilder;
+import org.o3project.odenos.remoteobject.messagingclient.FlightRecorder;
 import org.o3project.odenos.remoteobject.messagingclient.MessageDispatcher;
 import org.o3project.odenos.remoteobject.rest.RESTTranslator;
 
@@ -54,7 +55,9 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 @SuppressWarnings("restriction")
@@ -88,6 +91,10 @@ public final class Odenos {
   private String restroot;
   private int txoffset;
   private boolean monitorEnabled;
+  private Map<String, Double> monitorSamplingRates;
+  private int monitorBandwidth;
+  private String flightRecorderFile;
+  private int flightRecorderSize;
   private Collection<String> objectIds;
   private static boolean zooKeeperEmbedded = false;
 
@@ -111,6 +118,11 @@ public final class Odenos {
       options.addOption("t", "txoffset", true, "base number of transaction ID to logging");
       options.addOption("m", "monitor", true, "Output message to monitor");
       options.addOption("l", "monitor_logging", true, "Output message to logger");
+      options.addOption("M", "monitor_sampling", true,
+          "Sampling rates of monitor (e.g., REQUEST=1.0,InPacketAdded=0.01)");
+      options.addOption("B", "monitor_bandwidth", true, "Bandwidth of monitor in bytes/sec");
+      options.addOption("f", "flight_recorder", true, "File of binary flight recorder");
+      options.addOption("F", "flight_recorder_size", true, "Size of flight recorder in bytes");
       options.addOption("z", "zookeeper_host", true, "ZooKeeper server host name or IP address");
       options.addOption("n", "zookeeper_port", true, "port number of ZooKeeper server");
       options.addOption("e", "zookeeper_embed", false, "ZooKeeper server run in JVM for system manager");
@@ -204,6 +216,34 @@ public final class Odenos {
       }
     }
 
+    public final Map<String, Double> getMonitorSampling() {
+      Map<String, Double> rates = new HashMap<>();
+      if (line.hasOption("monitor_sampling")) {
+        for (String rate : line.getOptionValue("monitor_sampling").split("\\s*,\\s*")) {
+          String[] pair = rate.split("\\s*=\\s*");
+          if (pair.length == 2) {
+            rates.put(pair[0], Double.parseDouble(pair[1]));
+          }
+        }
+      }
+      return rates;
+    }
+
+    public final int getMonitorBandwidth() {
+      return line.hasOption("monitor_bandwidth")
+          ? Integer.parseInt(line.getOptionValue("monitor_bandwidth")) : 0;
+    }
+
+    public final String getFlightRecorder() {
+      return line.hasOption("flight_recorder") ? line.getOptionValue("flight_recorder") : null;
+    }
+
+    public final int getFlightRecorderSize() {
+      return line.hasOption("flight_recorder_size")
+          ? Integer.parseInt(line.getOptionValue("flight_recorder_size"))
+          : FlightRecorder.DEFAULT_SIZE;
+    }
+
     public final String getZooKeeperHost() {
       if (line.hasOption("zookeeper_host")) {
         String zookeeper_host = line.getOptionValue("zookeeper_host");
@@ -254,6 +294,10 @@ public final class Odenos {
     txoffset = parser.getTxOffset();
     monitorEnabled = parser.getMonitor();
     objectIds = parser.getMonitorLogging();
+    monitorSamplingRates = parser.getMonitorSampling();
+    monitorBandwidth = parser.getMonitorBandwidth();
+    flightRecorderFile = parser.getFlightRecorder();
+    flightRecorderSize = parser.getFlightRecorderSize();
   }
 
   /**
@@ -286,6 +330,10 @@ public final class Odenos {
           //.setRemoteTransactionsInitialTimeout(3)
           //.setRemoteTransactionsFinalTimeout(30)
           .setObjectIds(objectIds)
+          .setMonitorSamplingRates(monitorSamplingRates)
+          .setMonitorBandwidth(monitorBandwidth)
+          .setFlightRecorderFile(flightRecorderFile)
+          .setFlightRecorderSize(flightRecorderSize)
           .build();
 
       log.info("--  ----------------------------------> ");
@@ -35,6 +35,7 @@ public abstract class Component extends RemoteObject {
   public static final String LINK_CHANGED = "LINK_CHANGED";
   public static final String FLOW_CHANGED = "FLOW_CHANGED";
   public static final String IN_PACKET_ADDED = "IN_PACKET_ADDED";
+  public static final String IN_PACKET_ADDED_INLINE = "IN_PACKET_ADDED_INLINE";
   public static final String OUT_PACKET_ADDED = "OUT_PACKET_ADDED";
   public static final String STATUS_UP = "UP";
   public static final String STATUS_DOWN = "DOWN";
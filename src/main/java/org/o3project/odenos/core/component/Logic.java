@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.o3project.odenos.core.component.network.NetworkChangedDelta;
 import org.o3project.odenos.core.component.network.flow.Flow;
 import org.o3project.odenos.core.component.network.flow.FlowChanged;
 import org.o3project.odenos.core.component.network.flow.FlowObject;
@@ -46,6 +47,7 @@ import org.o3project.odenos.core.component.network.topology.PortChanged;
 import org.o3project.odenos.core.manager.system.ComponentConnection;
 import org.o3project.odenos.core.manager.system.ComponentConnectionLogicAndNetwork;
 import org.o3project.odenos.core.manager.system.event.ComponentConnectionChanged;
+import org.o3project.odenos.remoteobject.actor.MailClass;
 import org.o3project.odenos.remoteobject.message.Event;
 import org.o3project.odenos.remoteobject.message.MessageBodyUnpacker.ParseBodyException;
 import org.o3project.odenos.remoteobject.message.Response;
@@ -156,6 +158,10 @@ public abstract class Logic extends Component {
     this.conversionTable = new ConversionTable();
     this.systemMngInterface = new SystemManagerInterface(dispatcher, objectId);
     this.networkInterfaces = new HashMap<String, NetworkInterface>();
+    // packet events must not delay requests and topology events.
+    setEventMailClass(InPacketAdded.TYPE, MailClass.BULK);
+    setEventMailClass(InPacketAdded.INLINE_TYPE, MailClass.BULK);
+    setEventMailClass(OutPacketAdded.TYPE, MailClass.BULK);
   }
 
   // //////////////////////////////////////////////////
@@ -287,6 +293,12 @@ public abstract class Logic extends Component {
       subscriptionTable.put(String.format(
           "%s::%s", IN_PACKET_ADDED, nwcId), null);
     }
+    if (event.equals(IN_PACKET_ADDED_INLINE)) {
+      eventSubscription.addFilter(nwcId,
+          InPacketAdded.INLINE_TYPE);
+      subscriptionTable.put(String.format(
+          "%s::%s", IN_PACKET_ADDED_INLINE, nwcId), null);
+    }
     if (event.equals("OUT_PACKET_ADDED")) {
       eventSubscription.addFilter(nwcId,
           OutPacketAdded.TYPE);
@@ -333,6 +345,12 @@ public abstract class Logic extends Component {
       subscriptionTable.remove(String.format(
           "%s::%s", IN_PACKET_ADDED, nwcId));
     }
+    if (event.equals(IN_PACKET_ADDED_INLINE)) {
+      eventSubscription.removeFilter(nwcId,
+          InPacketAdded.INLINE_TYPE);
+      subscriptionTable.remove(String.format(
+          "%s::%s", IN_PACKET_ADDED_INLINE, nwcId));
+    }
     if (event.equals(OUT_PACKET_ADDED)) {
       eventSubscription.removeFilter(nwcId,
           OutPacketAdded.TYPE);
@@ -419,6 +437,7 @@ public abstract class Logic extends Component {
               event.getBody(FlowChanged.class));
           break;
         case InPacketAdded.TYPE:
+        case InPacketAdded.INLINE_TYPE:
           onInPacketAdded(event.publisherId,
               event.getBody(InPacketAdded.class));
           break;
@@ -426,6 +445,33 @@ public abstract class Logic extends Component {
           onOutPacketAdded(event.publisherId,
               event.getBody(OutPacketAdded.class));
           break;
+        case NodeChanged.DELTA_TYPE:
+        case PortChanged.DELTA_TYPE:
+        case LinkChanged.DELTA_TYPE:
+        case FlowChanged.DELTA_TYPE:
+          onNetworkChangedDelta(event.publisherId, event.eventType,
+              event.getBody(NetworkChangedDelta.class));
+          break;
+        case NodeChanged.BATCH_TYPE:
+          for (NodeChanged msg : event.getBodyAsList(NodeChanged.class)) {
+            onNodeChanged(event.publisherId, msg);
+          }
+          break;
+        case PortChanged.BATCH_TYPE:
+          for (PortChanged msg : event.getBodyAsList(PortChanged.class)) {
+            onPortChanged(event.publisherId, msg);
+          }
+          break;
+        case LinkChanged.BATCH_TYPE:
+          for (LinkChanged msg : event.getBodyAsList(LinkChanged.class)) {
+            onLinkChanged(event.publisherId, msg);
+          }
+          break;
+        case FlowChanged.BATCH_TYPE:
+          for (FlowChanged msg : event.getBodyAsList(FlowChanged.class)) {
+            onFlowChanged(event.publisherId, msg);
+          }
+          break;
         default:
           log.info("Unexpected event: {}", event.eventType);
           break;
@@ -548,6 +594,22 @@ public abstract class Logic extends Component {
     }
   }
 
+  /**
+   * Called when a compact change event (e.g. FlowChanged.DELTA_TYPE),
+   * subscribed by adding its filter to the event subscription, is received.
+   * @param networkId network ID.
+   * @param eventType delta event type.
+   * @param msg compact change event.
+   * @throws Exception if the event cannot be processed.
+   */
+  protected void onNetworkChangedDelta(
+      final String networkId,
+      final String eventType,
+      final NetworkChangedDelta msg)
+      throws Exception {
+    log.debug("Recieved {} [{}]networkId:{}", eventType, msg.action, networkId);
+  }
+
   protected void onFlowChanged(
       final String networkId,
       final FlowChanged msg)
@@ -1079,7 +1141,7 @@ public abstract class Logic extends Component {
         return respList;
       }
 
-      InPacket body = delInPacket(networkIf, msg.getId());
+      InPacket body = delInPacket(networkIf, msg);
       if (body == null) {
         log.error("invalid DELETE Packet.");
         return respList;
@@ -1689,6 +1751,22 @@ public abstract class Logic extends Component {
     return nwIf.getInPacket(packetId);
   }
 
+  /**
+   * Returns the packet of an InPacketAdded event, without a request if the
+   * packet is carried inline.
+   * @param nwIf network interface.
+   * @param msg InPacketAdded event.
+   * @return packet IN. null if not found.
+   */
+  protected InPacket getInPacket(
+      final NetworkInterface nwIf,
+      final InPacketAdded msg) {
+    if (msg.getPacket() != null) {
+      return msg.getPacket();
+    }
+    return getInPacket(nwIf, msg.getId());
+  }
+
   protected OutPacket getOutPacket(
       final NetworkInterface nwIf,
       final String packetId) {
@@ -1711,6 +1789,22 @@ public abstract class Logic extends Component {
     }
   }
 
+  /**
+   * Claims the packet of an InPacketAdded event. No request is made if the
+   * Network has already dequeued the packet for the inline subscribers.
+   * @param nwIf network interface.
+   * @param msg InPacketAdded event.
+   * @return packet IN. null if claimed by others.
+   */
+  protected InPacket delInPacket(
+      final NetworkInterface nwIf,
+      final InPacketAdded msg) {
+    if (msg.getPacket() != null && msg.isConsumed()) {
+      return msg.getPacket();
+    }
+    return delInPacket(nwIf, msg.getId());
+  }
+
   protected OutPacket delOutPacket(
       final NetworkInterface nwIf,
       final String packetId) {
@@ -16,6 +16,10 @@
 
 package org.o3project.odenos.core.component;
 
+import org.o3project.odenos.core.component.network.ChangesQuery;
+import org.o3project.odenos.core.component.network.NetworkChanges;
+import org.o3project.odenos.core.component.network.Page;
+import org.o3project.odenos.core.component.network.PageQuery;
 import org.o3project.odenos.core.component.network.flow.Flow;
 import org.o3project.odenos.core.component.network.flow.FlowObject;
 import org.o3project.odenos.core.component.network.flow.FlowSet;
@@ -27,6 +31,7 @@ import org.o3project.odenos.core.component.network.topology.Link;
 import org.o3project.odenos.core.component.network.topology.Node;
 import org.o3project.odenos.core.component.network.topology.Port;
 import org.o3project.odenos.core.component.network.topology.Topology;
+import org.o3project.odenos.remoteobject.message.BaseObject;
 import org.o3project.odenos.remoteobject.message.Request;
 import org.o3project.odenos.remoteobject.message.Response;
 import org.o3project.odenos.remoteobject.messagingclient.MessageDispatcher;
@@ -35,6 +40,8 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import org.o3project.odenos.core.logging.message.LogMessage;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +69,8 @@ public class NetworkInterface {
   // Flow
   public static final String FLOW_PATH = "flows/%s";
   public static final String FLOWS_PATH = "flows";
+  // Change log
+  public static final String CHANGES_PATH = "changes";
   // Packet
   public static final String INPACKET_PATH = "packets/in/%s";
   public static final String INPACKETS_PATH = "packets/in";
@@ -76,6 +85,10 @@ public class NetworkInterface {
 
   private String sourceObjectId;
 
+  // read replicas of the network. GETs go to the current one.
+  private List<String> replicaIds = new ArrayList<String>();
+  private int replicaIndex = 0;
+
   /**
    * Constructor.
    * @param dispatcher Message Dispatcher object.
@@ -121,6 +134,22 @@ public class NetworkInterface {
     this.networkId = networkId;
   }
 
+  /**
+   * Sets the read replicas of the network.
+   *
+   * <p>
+   * GETs of the topology and the flows go to one of the replicas, which
+   * may be behind the network within its replica_max_staleness. If the
+   * replica fails, the GET goes to the network, and the next GET goes to
+   * the next replica. The change log is always read from the network.
+   *
+   * @param replicaIds IDs of the replicas. empty to read the network only.
+   */
+  public synchronized void setReadReplicas(List<String> replicaIds) {
+    this.replicaIds = new ArrayList<String>(replicaIds);
+    this.replicaIndex = 0;
+  }
+
   // //////////////////////////////////////
   //
   // Topology's Request
@@ -152,6 +181,35 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a conditional "GET Topology".
+   * <pre>
+   * {@literal
+   * GET Topology.
+   * ( GET <base_uri>/topology?if_version_differs=<version> )
+   * }
+   * </pre>
+   * @param cached the topology the caller already has, or null.
+   * @return cached if its version is unchanged; otherwise the current
+   *     value of the topology.
+   */
+  public final Topology getTopology(final Topology cached) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    Response resp = getObjectIfModified(this.networkId, TOPOLOGY_PATH, cached);
+    if (resp == null) {
+      return null;
+    }
+    if (resp.statusCode == Response.NOT_MODIFIED) {
+      return cached;
+    }
+    try {
+      return resp.getBody(Topology.class);
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
   /**
    * Requests a "PUT Topology".
    * <pre>
@@ -217,6 +275,25 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a page of "GET Nodes".
+   * <pre>
+   * {@literal
+   * GET Nodes.
+   * ( GET <base_uri>/topology/nodes?limit=<limit>&cursor=<cursor> )
+   * }
+   * </pre>
+   * @param limit max number of nodes in the page.
+   * @param cursor cursor returned with the previous page. null for the
+   *     first page.
+   * @return page of the nodes. null if failed, e.g., the nodes have been
+   *     modified since the cursor was returned.
+   */
+  public final Page<Node> getNodes(final int limit, final String cursor) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    return getPageToNetwork(this.networkId, NODES_PATH, limit, cursor, Node.class);
+  }
+
   /**
    * Requests a "GET Node".
    * <pre>
@@ -243,6 +320,36 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a conditional "GET Node".
+   * <pre>
+   * {@literal
+   * GET Node.
+   * ( GET <base_uri>/topology/nodes/<node_id>?if_version_differs=<version> )
+   * }
+   * </pre>
+   * @param nodeId node ID.
+   * @param cached the node the caller already has, or null.
+   * @return cached if its version is unchanged; otherwise the current
+   *     value of the node.
+   */
+  public final Node getNode(final String nodeId, final Node cached) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    Response resp = getObjectIfModified(this.networkId, String.format(NODE_PATH, nodeId), cached);
+    if (resp == null) {
+      return null;
+    }
+    if (resp.statusCode == Response.NOT_MODIFIED) {
+      return cached;
+    }
+    try {
+      return resp.getBody(Node.class);
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
   /**
    * Requests a "PUT Node".
    * <pre>
@@ -424,6 +531,28 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a page of "GET Ports".
+   * <pre>
+   * {@literal
+   * GET Ports.
+   * ( GET <base_uri>/topology/nodes/<node_id>/ports?limit=<limit>&cursor=<cursor> )
+   * }
+   * </pre>
+   * @param nodeId node ID.
+   * @param limit max number of ports in the page.
+   * @param cursor cursor returned with the previous page. null for the
+   *     first page.
+   * @return page of the ports. null if failed, e.g., the ports have been
+   *     modified since the cursor was returned.
+   */
+  public final Page<Port> getPorts(final String nodeId, final int limit,
+      final String cursor) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    return getPageToNetwork(this.networkId, String.format(PORTS_PATH, nodeId),
+        limit, cursor, Port.class);
+  }
+
   /**
    * Requests a "GET Port".
    * <pre>
@@ -452,6 +581,39 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a conditional "GET Port".
+   * <pre>
+   * {@literal
+   * GET Port.
+   * ( GET <base_uri>/topology/nodes/<node_id>/ports/<port_id>?if_version_differs=<version> )
+   * }
+   * </pre>
+   * @param nodeId node ID.
+   * @param portId port ID.
+   * @param cached the port the caller already has, or null.
+   * @return cached if its version is unchanged; otherwise the current
+   *     value of the port.
+   */
+  public final Port getPort(
+      final String nodeId, final String portId, final Port cached) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    Response resp = getObjectIfModified(this.networkId,
+        String.format(PORT_PATH, nodeId, portId), cached);
+    if (resp == null) {
+      return null;
+    }
+    if (resp.statusCode == Response.NOT_MODIFIED) {
+      return cached;
+    }
+    try {
+      return resp.getBody(Port.class);
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
   /**
    * Requests a "PUT Port".
    * <pre>
@@ -637,6 +799,25 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a page of "GET Links".
+   * <pre>
+   * {@literal
+   * GET Links.
+   * ( GET <base_uri>/topology/links?limit=<limit>&cursor=<cursor> )
+   * }
+   * </pre>
+   * @param limit max number of links in the page.
+   * @param cursor cursor returned with the previous page. null for the
+   *     first page.
+   * @return page of the links. null if failed, e.g., the links have been
+   *     modified since the cursor was returned.
+   */
+  public final Page<Link> getLinks(final int limit, final String cursor) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    return getPageToNetwork(this.networkId, LINKS_PATH, limit, cursor, Link.class);
+  }
+
   /**
    * Requests a "GET Link".
    * <pre>
@@ -663,6 +844,36 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a conditional "GET Link".
+   * <pre>
+   * {@literal
+   * GET Link.
+   * ( GET <base_uri>/topology/links/<link_id>?if_version_differs=<version> )
+   * }
+   * </pre>
+   * @param linkId link ID.
+   * @param cached the link the caller already has, or null.
+   * @return cached if its version is unchanged; otherwise the current
+   *     value of the link.
+   */
+  public final Link getLink(final String linkId, final Link cached) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    Response resp = getObjectIfModified(this.networkId, String.format(LINK_PATH, linkId), cached);
+    if (resp == null) {
+      return null;
+    }
+    if (resp.statusCode == Response.NOT_MODIFIED) {
+      return cached;
+    }
+    try {
+      return resp.getBody(Link.class);
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
   /**
    * Requests a "PUT Link".
    * <pre>
@@ -763,6 +974,54 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a conditional "GET FlowSet".
+   * <pre>
+   * {@literal
+   * GET FlowSet.
+   * ( GET <base_uri>/flows?if_version_differs=<version> )
+   * }
+   * </pre>
+   * @param cached the flowset the caller already has, or null.
+   * @return cached if its version is unchanged; otherwise the current
+   *     value of the flowset.
+   */
+  public final FlowSet getFlowSet(final FlowSet cached) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    Response resp = getObjectIfModified(this.networkId, FLOWS_PATH, cached);
+    if (resp == null) {
+      return null;
+    }
+    if (resp.statusCode == Response.NOT_MODIFIED) {
+      return cached;
+    }
+    try {
+      return resp.getBody(FlowSet.class);
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Requests a page of "GET Flows".
+   * <pre>
+   * {@literal
+   * GET Flows.
+   * ( GET <base_uri>/flows?limit=<limit>&cursor=<cursor> )
+   * }
+   * </pre>
+   * @param limit max number of flows in the page.
+   * @param cursor cursor returned with the previous page. null for the
+   *     first page.
+   * @return page of the flows. null if failed, e.g., the flows have been
+   *     modified since the cursor was returned.
+   */
+  public final Page<Flow> getFlows(final int limit, final String cursor) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    return getPageToNetwork(this.networkId, FLOWS_PATH, limit, cursor, Flow.class);
+  }
+
   /**
    * Requests a "GET Flow".
    * <pre>
@@ -789,6 +1048,36 @@ public class NetworkInterface {
     }
   }
 
+  /**
+   * Requests a conditional "GET Flow".
+   * <pre>
+   * {@literal
+   * GET Flow.
+   * ( GET <base_uri>/flows/<flow_id>?if_version_differs=<version> )
+   * }
+   * </pre>
+   * @param flowId flow ID.
+   * @param cached the flow the caller already has, or null.
+   * @return cached if its version is unchanged; otherwise the current
+   *     value of the flow.
+   */
+  public final Flow getFlow(final String flowId, final Flow cached) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    Response resp = getObjectIfModified(this.networkId, String.format(FLOW_PATH, flowId), cached);
+    if (resp == null) {
+      return null;
+    }
+    if (resp.statusCode == Response.NOT_MODIFIED) {
+      return cached;
+    }
+    try {
+      return FlowObject.readFlowMessageFrom(resp.getBodyValue());
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
   /**
    * Requests a "PUT Flow".
    * <pre>
@@ -857,6 +1146,65 @@ public class NetworkInterface {
     }
   }
 
+  // //////////////////////////////////////
+  //
+  // Change log's Request
+  //
+  // //////////////////////////////////////
+
+  /**
+   * Requests a "GET Changes".
+   * <pre>
+   * {@literal
+   * GET Changes.
+   * ( GET <base_uri>/changes?since=<version> )
+   * }
+   * </pre>
+   * @param since version returned with the previous changes. null to get
+   *     the current version only.
+   * @return changes since the version. null if failed, e.g., the changes
+   *     are no longer kept; the caller needs to GET the whole state then.
+   */
+  public final NetworkChanges getChanges(final String since) {
+    return getChanges(since, false);
+  }
+
+  /**
+   * Requests a "GET Changes" with the objects changed.
+   * <pre>
+   * {@literal
+   * GET Changes.
+   * ( GET <base_uri>/changes?since=<version>&objects=true )
+   * }
+   * </pre>
+   * @param since version returned with the previous changes. null to get
+   *     the current version only.
+   * @param objects true to get the current objects changed as well.
+   * @return changes since the version. null if failed, e.g., the changes
+   *     are no longer kept; the caller needs to GET the whole state then.
+   */
+  public final NetworkChanges getChanges(final String since,
+      final boolean objects) {
+    log.debug(">>  [networkId : '{}']", this.networkId);
+    String path = CHANGES_PATH;
+    if (since != null) {
+      path = path + "?" + ChangesQuery.SINCE + "=" + since;
+      if (objects) {
+        path = path + "&" + ChangesQuery.OBJECTS + "=true";
+      }
+    }
+    Response resp = getObjectToNetwork(this.networkId, path);
+    if (resp == null) {
+      return null;
+    }
+    try {
+      return resp.getBody(NetworkChanges.class);
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
   // //////////////////////////////////////
   //
   // Packet's Request
@@ -1383,7 +1731,7 @@ public class NetworkInterface {
     log.debug(">>  [networkId : '{}']", this.networkId);
 
     try {
-      Response resp = sendRequest(nwcId, Request.Method.GET, path, LogMessage.getSavedTxid(), null);
+      Response resp = sendGetRequest(nwcId, path);
       if (resp.isError("GET")) {
         log.warn("invalid GET({}) to {}: '{}' {}",
             resp.statusCode, nwcId, path, resp.getBodyValue());
@@ -1396,6 +1744,101 @@ public class NetworkInterface {
     }
   }
 
+  private Response getObjectIfModified(
+      String nwcId, String path, BaseObject cached) {
+    if (cached == null || cached.getVersion() == null) {
+      return getObjectToNetwork(nwcId, path);
+    }
+    String query = path + "?" + Request.IF_VERSION_DIFFERS + "=" + cached.getVersion();
+    Response resp = sendGetRequest(nwcId, query);
+    if (resp.statusCode == Response.NOT_MODIFIED) {
+      return resp;
+    }
+    if (resp.isError("GET")) {
+      log.warn("invalid GET({}) to {}: '{}' {}",
+          resp.statusCode, nwcId, query, resp.getBodyValue());
+      return null;
+    }
+    return resp;
+  }
+
+  private <T> Page<T> getPageToNetwork(
+      String nwcId, String path, int limit, String cursor, Class<T> clazz) {
+    StringBuilder query = new StringBuilder(path);
+    query.append('?').append(PageQuery.LIMIT).append('=').append(limit);
+    if (cursor != null) {
+      try {
+        query.append('&').append(PageQuery.CURSOR).append('=')
+            .append(URLEncoder.encode(cursor, "UTF-8"));
+      } catch (UnsupportedEncodingException e) {
+        log.error("Failed to encode the cursor.", e);
+        return null;
+      }
+    }
+    Response resp = getObjectToNetwork(nwcId, query.toString());
+    if (resp == null) {
+      return null;
+    }
+    try {
+      return Page.readFrom(resp.getBodyValue(), clazz);
+    } catch (Exception e) {
+      log.error("Recieved Message Exception.", e);
+      return null;
+    }
+  }
+
+  /**
+   * Sends a GET to a replica if any, or to the network. The network is
+   * asked only if the replica is unavailable, i.e., it is stale or does
+   * not answer; other answers of the replica, e.g. NOT_FOUND, are returned.
+   */
+  private Response sendGetRequest(String nwcId, String path) {
+    String replicaId = getReplicaId(nwcId, path);
+    if (replicaId != null) {
+      Response resp = sendReplicaRequest(replicaId, path);
+      if (resp != null && resp.statusCode != Response.SERVICE_UNAVAILABLE) {
+        return resp;
+      }
+      log.debug("GET({}) to replica {}: '{}'. retry to {}.",
+          (resp == null) ? null : resp.statusCode, replicaId, path, nwcId);
+      nextReplica(replicaId);
+    }
+    return sendRequest(nwcId, Request.Method.GET, path,
+        LogMessage.getSavedTxid(), null);
+  }
+
+  /**
+   * Sends a GET to a replica.
+   * @return response. null if the replica does not answer.
+   */
+  private Response sendReplicaRequest(String replicaId, String path) {
+    Request req = new Request(replicaId, Request.Method.GET, path,
+        LogMessage.getSavedTxid(), null);
+    try {
+      return this.dispatcher.requestSync(req, sourceObjectId);
+    } catch (Exception e) {
+      log.warn("No answer to GET from replica {}: '{}'", replicaId, path, e);
+      return null;
+    }
+  }
+
+  private synchronized String getReplicaId(String nwcId, String path) {
+    if (replicaIds.isEmpty() || !nwcId.equals(this.networkId)) {
+      return null;
+    }
+    if (!path.startsWith(TOPOLOGY_PATH) && !path.startsWith(FLOWS_PATH)) {
+      return null;
+    }
+    return replicaIds.get(replicaIndex);
+  }
+
+  private synchronized void nextReplica(String failedId) {
+    // unless already moved by another GET.
+    if (!replicaIds.isEmpty() && replicaIds.get(replicaIndex).equals(failedId)) {
+      replicaIndex = (replicaIndex + 1) % replicaIds.size();
+    }
+  }
+
   private Response sendRequest(final String objId,
       final Request.Method method, final String path, final String txid, final Object body) {
     log.debug(">>  [networkId : '{}']", this.networkId);
@@ -81,6 +81,14 @@ public class BaseObjectQuery<T> extends BasicQuery<BaseObject> {
     return true;
   }
 
+  /**
+   * Returns the attributes to be matched.
+   * @return map of attributes. null if not specified.
+   */
+  public Map<String, String> getAttributes() {
+    return this.attributes;
+  }
+
   /**
    * Returns a value of attribute.
    * @param key key.
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+/**
+ * Query of the change log of a Network: "since=V&objects=true".
+ */
+public class ChangesQuery extends BasicQuery<Object> {
+
+  public static final String SINCE = "since";
+  public static final String OBJECTS = "objects";
+
+  private String since = null;
+  private boolean objects = false;
+
+  /**
+   * Constructor.
+   * @param queriesString Queries String.
+   */
+  public ChangesQuery(String queriesString) {
+    super(queriesString);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.o3project.odenos.core.component.network.BasicQuery#parse()
+   */
+  @Override
+  public boolean parse() {
+    if (!super.parse()) {
+      return false;
+    }
+    if (!BasicQuery.checkMapExactly(this.queries, new String[] {SINCE, OBJECTS})) {
+      return false;
+    }
+    this.since = this.queries.get(SINCE);
+    if (this.queries.containsKey(OBJECTS)) {
+      String objects = this.queries.get(OBJECTS).toLowerCase();
+      if (!"true".equals(objects) && !"false".equals(objects)) {
+        return false;
+      }
+      this.objects = Boolean.parseBoolean(objects);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the version to get the changes since.
+   * @return version. null if not specified.
+   */
+  public String getSince() {
+    return this.since;
+  }
+
+  /**
+   * Returns whether the objects changed are returned with the changes.
+   * @return true if returned.
+   */
+  public boolean getObjects() {
+    return this.objects;
+  }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Expires flows by their idle and hard time-outs.
+ *
+ * <p>
+ * The hard time-out counts from the time the flow was installed, and the
+ * idle time-out from the last time its counter reported by the driver
+ * changed. A flow whose driver reports no counter is never idle, since
+ * its activity is unknown. The deadlines are kept in a hierarchical timer wheel: each
+ * level has {@link #WHEEL_SIZE} slots, and a slot of a level spans a
+ * whole rotation of the level below it. A flow is placed in the lowest
+ * level that its deadline falls in, and moves down a level when the slot
+ * comes round, so that tracking, re-tracking and expiring a flow take
+ * constant time however many flows are tracked.
+ *
+ * <p>
+ * The flows expired in a tick are notified as a batch.
+ * Disabled until the tick is set.
+ */
+abstract class FlowExpiry {
+  private static final Logger log = LogManager.getLogger(FlowExpiry.class);
+
+  static final int WHEEL_BITS = 6;
+  static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+  static final int LEVELS = 4;
+
+  /**
+   * Time-outs of a flow.
+   */
+  private static class Track {
+    final String flowId;
+    long idleMillis;
+    long hardMillis;
+    long installedMillis;
+    long activeMillis;
+    String counter;
+    // slot in the wheel. -1 if not placed.
+    int slot = -1;
+
+    Track(String flowId) {
+      this.flowId = flowId;
+    }
+
+    long getDeadline() {
+      long deadline = Long.MAX_VALUE;
+      if (hardMillis > 0) {
+        deadline = installedMillis + hardMillis;
+      }
+      if (idleMillis > 0 && counter != null) {
+        deadline = Math.min(deadline, activeMillis + idleMillis);
+      }
+      return deadline;
+    }
+  }
+
+  private final Map<String, Track> tracks = new HashMap<String, Track>();
+  // LEVELS * WHEEL_SIZE slots of flow IDs.
+  private final List<Set<String>> slots = new ArrayList<Set<String>>();
+  // 0 if disabled.
+  private long tickMillis = 0;
+  // time of the tick 0.
+  private long baseMillis;
+  // the last tick expired.
+  private long currentTick;
+  private Timer timer;
+
+  /**
+   * Constructor.
+   */
+  FlowExpiry() {
+    for (int i = 0; i < LEVELS * WHEEL_SIZE; i++) {
+      slots.add(new HashSet<String>());
+    }
+  }
+
+  /**
+   * Returns the tick.
+   * @return tick in milliseconds. 0 if disabled.
+   */
+  synchronized long getTick() {
+    return tickMillis;
+  }
+
+  /**
+   * Sets the tick, the precision of the time-outs. The flows tracked are
+   * placed in the wheel again.
+   * @param tickMillis tick in milliseconds. 0 disables the expiry.
+   */
+  void setTick(long tickMillis) {
+    setTick(tickMillis, System.currentTimeMillis());
+    synchronized (this) {
+      if (timer != null) {
+        timer.cancel();
+        timer = null;
+      }
+      if (tickMillis <= 0) {
+        return;
+      }
+      timer = new Timer("FlowExpiry", true);
+      timer.schedule(new TimerTask() {
+        @Override
+        public void run() {
+          expire();
+        }
+      }, tickMillis, tickMillis);
+    }
+  }
+
+  /**
+   * Sets the tick without starting the timer.
+   * @param tickMillis tick in milliseconds. 0 disables the expiry.
+   * @param nowMillis current time, the time of the tick 0.
+   */
+  synchronized void setTick(long tickMillis, long nowMillis) {
+    this.tickMillis = tickMillis;
+    for (Set<String> slot : slots) {
+      slot.clear();
+    }
+    baseMillis = nowMillis;
+    currentTick = 0;
+    for (Track track : tracks.values()) {
+      track.slot = -1;
+      if (tickMillis > 0) {
+        place(track);
+      }
+    }
+  }
+
+  /**
+   * Tracks the time-outs of a flow. A flow tracked already keeps its
+   * install time, and is active if its counter changed.
+   * @param flowId flow ID.
+   * @param idleTimeout idle time-out in seconds. 0 for none.
+   * @param hardTimeout hard time-out in seconds. 0 for none.
+   * @param counter counter reported by the driver. null if none, and then
+   *     the idle time-out is not applied.
+   * @param nowMillis current time.
+   */
+  synchronized void track(String flowId, long idleTimeout, long hardTimeout,
+      String counter, long nowMillis) {
+    if ((idleTimeout <= 0 || counter == null) && hardTimeout <= 0) {
+      untrack(flowId);
+      return;
+    }
+    Track track = tracks.get(flowId);
+    if (track == null) {
+      track = new Track(flowId);
+      track.installedMillis = nowMillis;
+      track.activeMillis = nowMillis;
+      tracks.put(flowId, track);
+    } else if (counter != null && !counter.equals(track.counter)) {
+      track.activeMillis = nowMillis;
+    }
+    track.counter = counter;
+    track.idleMillis = idleTimeout * 1000;
+    track.hardMillis = hardTimeout * 1000;
+    if (tickMillis > 0) {
+      unplace(track);
+      place(track);
+    }
+  }
+
+  /**
+   * Stops tracking a flow.
+   * @param flowId flow ID.
+   */
+  synchronized void untrack(String flowId) {
+    Track track = tracks.remove(flowId);
+    if (track != null) {
+      unplace(track);
+    }
+  }
+
+  /**
+   * Returns the number of flows tracked.
+   * @return number of flows.
+   */
+  synchronized int size() {
+    return tracks.size();
+  }
+
+  /**
+   * Advances the wheel to a time, and stops tracking the flows expired.
+   * @param nowMillis current time.
+   * @return IDs of the flows expired.
+   */
+  synchronized List<String> advance(long nowMillis) {
+    List<String> expired = new ArrayList<String>();
+    if (tickMillis <= 0) {
+      return expired;
+    }
+    long targetTick = (nowMillis - baseMillis) / tickMillis;
+    while (currentTick < targetTick) {
+      currentTick++;
+      // moves down the slots coming round, from the highest level.
+      for (int level = LEVELS - 1; level > 0; level--) {
+        if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+          cascade(level);
+        }
+      }
+      Set<String> slot = slots.get(slotIndex(0, currentTick));
+      if (slot.isEmpty()) {
+        continue;
+      }
+      List<String> flowIds = new ArrayList<String>(slot);
+      slot.clear();
+      for (String flowId : flowIds) {
+        Track track = tracks.get(flowId);
+        track.slot = -1;
+        if (toTick(track.getDeadline()) <= currentTick) {
+          tracks.remove(flowId);
+          expired.add(flowId);
+        } else {
+          place(track);
+        }
+      }
+    }
+    return expired;
+  }
+
+  /**
+   * Stops the expiry. The flows are kept tracked.
+   */
+  synchronized void close() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+  }
+
+  private void expire() {
+    List<String> expired = advance(System.currentTimeMillis());
+    if (expired.isEmpty()) {
+      return;
+    }
+    try {
+      onExpired(expired);
+    } catch (Exception e) {
+      log.error("Failed to expire {} flows.", expired.size(), e);
+    }
+  }
+
+  private void cascade(int level) {
+    Set<String> slot = slots.get(slotIndex(level, currentTick));
+    if (slot.isEmpty()) {
+      return;
+    }
+    List<String> flowIds = new ArrayList<String>(slot);
+    slot.clear();
+    for (String flowId : flowIds) {
+      Track track = tracks.get(flowId);
+      track.slot = -1;
+      place(track);
+    }
+  }
+
+  private void place(Track track) {
+    // the current tick has been expired already.
+    long tick = Math.max(toTick(track.getDeadline()), currentTick + 1);
+    long delta = tick - currentTick;
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= (1L << (WHEEL_BITS * (level + 1)))) {
+      level++;
+    }
+    long span = 1L << (WHEEL_BITS * (level + 1));
+    if (delta >= span) {
+      // beyond the wheel. placed again when the slot comes round.
+      tick = currentTick + span - 1;
+    }
+    track.slot = slotIndex(level, tick);
+    slots.get(track.slot).add(track.flowId);
+  }
+
+  private void unplace(Track track) {
+    if (track.slot >= 0) {
+      slots.get(track.slot).remove(track.flowId);
+      track.slot = -1;
+    }
+  }
+
+  private long toTick(long millis) {
+    if (millis == Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    // rounds up, so that no flow expires before its deadline.
+    return (millis - baseMillis + tickMillis - 1) / tickMillis;
+  }
+
+  private static int slotIndex(int level, long tick) {
+    int index = (int) ((tick >>> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1));
+    return level * WHEEL_SIZE + index;
+  }
+
+  /**
+   * Removes the flows expired in a tick.
+   * @param flowIds IDs of the flows expired.
+   * @throws Exception if failed to remove.
+   */
+  protected abstract void onExpired(List<String> flowIds) throws Exception;
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.FlowSet;
+import org.o3project.odenos.core.component.network.flow.query.FlowQuery;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Flows of a Network, partitioned into shards by hash of flow ID.
+ *
+ * <p>
+ * Each shard is a FlowSet guarded by its own monitor, so that flows of
+ * different shards may be modified concurrently. The Network modifies a
+ * flow while holding the monitor of its shard; the methods of this class
+ * read the shards holding their monitors. The whole FlowSet is merged
+ * from the shards on demand, with copies of the flows.
+ *
+ * <p>
+ * A single shard is the FlowSet itself, without copies.
+ */
+class FlowShards {
+
+  private final FlowSet[] shards;
+
+  /**
+   * Constructor.
+   * @param count number of shards.
+   */
+  FlowShards(int count) {
+    shards = new FlowSet[count];
+    for (int i = 0; i < count; i++) {
+      shards[i] = new FlowSet();
+    }
+  }
+
+  /**
+   * Constructor.
+   * @param flowSet flows to partition.
+   * @param count number of shards.
+   */
+  FlowShards(FlowSet flowSet, int count) {
+    shards = new FlowSet[count];
+    if (count == 1) {
+      shards[0] = flowSet;
+      return;
+    }
+    List<Map<String, Flow>> flows = new ArrayList<Map<String, Flow>>(count);
+    List<Map<String, List<String>>> priorities =
+        new ArrayList<Map<String, List<String>>>(count);
+    for (int i = 0; i < count; i++) {
+      flows.add(new HashMap<String, Flow>());
+      priorities.add(new HashMap<String, List<String>>());
+    }
+    for (Map.Entry<String, List<String>> entry : flowSet.priority.entrySet()) {
+      if (entry.getValue() == null) {
+        continue;
+      }
+      for (String flowId : entry.getValue()) {
+        Map<String, List<String>> priority = priorities.get(indexOf(flowId));
+        List<String> flowIds = priority.get(entry.getKey());
+        if (flowIds == null) {
+          flowIds = new ArrayList<String>();
+          priority.put(entry.getKey(), flowIds);
+        }
+        flowIds.add(flowId);
+      }
+    }
+    for (Map.Entry<String, Flow> entry : flowSet.getFlows().entrySet()) {
+      flows.get(indexOf(entry.getKey())).put(entry.getKey(), entry.getValue());
+    }
+    // the version carries on in the sum of the shards.
+    shards[0] = new FlowSet(flowSet.getVersion(), priorities.get(0), flows.get(0));
+    for (int i = 1; i < count; i++) {
+      shards[i] = new FlowSet(null, priorities.get(i), flows.get(i));
+    }
+  }
+
+  /**
+   * Returns the number of shards.
+   * @return number of shards.
+   */
+  int size() {
+    return shards.length;
+  }
+
+  /**
+   * Returns whether the flows are partitioned.
+   * @return true if there are two or more shards.
+   */
+  boolean isSharded() {
+    return shards.length > 1;
+  }
+
+  /**
+   * Returns the index of the shard of a flow.
+   * @param flowId flow ID.
+   * @return index of the shard.
+   */
+  int indexOf(String flowId) {
+    return (flowId.hashCode() & Integer.MAX_VALUE) % shards.length;
+  }
+
+  /**
+   * Returns the shard of a flow. The caller holds its monitor while
+   * modifying the shard.
+   * @param flowId flow ID.
+   * @return shard.
+   */
+  FlowSet get(String flowId) {
+    return shards[indexOf(flowId)];
+  }
+
+  /**
+   * Creates a flow with a new flow ID.
+   * @param msg message of flow.
+   * @return created flow. null if the type of flow is invalid.
+   */
+  Flow createFlow(Flow msg) {
+    if (!isSharded()) {
+      return shards[0].createFlow(msg);
+    }
+    while (true) {
+      String flowId = UUID.randomUUID().toString();
+      FlowSet shard = get(flowId);
+      synchronized (shard) {
+        if (shard.getFlow(flowId) == null) {
+          return shard.createFlow(flowId, msg, Flow.INITIAL_VERSION);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a flow.
+   * @param flowId flow ID.
+   * @return flow, or its copy if sharded. null if not found.
+   */
+  Flow getFlow(String flowId) {
+    FlowSet shard = get(flowId);
+    synchronized (shard) {
+      Flow flow = shard.getFlow(flowId);
+      return (flow != null && isSharded()) ? flow.clone() : flow;
+    }
+  }
+
+  /**
+   * Returns the version of a flow without copying it.
+   * @param flowId flow ID.
+   * @return version. null if not found.
+   */
+  String getFlowVersion(String flowId) {
+    FlowSet shard = get(flowId);
+    synchronized (shard) {
+      Flow flow = shard.getFlow(flowId);
+      return (flow != null) ? flow.getVersion() : null;
+    }
+  }
+
+  /**
+   * Returns the version of the flows, which increases whenever any
+   * shard is modified.
+   * @return version.
+   */
+  String getVersion() {
+    if (!isSharded()) {
+      return shards[0].getVersion();
+    }
+    long version = 0;
+    for (FlowSet shard : shards) {
+      synchronized (shard) {
+        version += Long.parseLong(shard.getVersion());
+      }
+    }
+    return String.valueOf(version);
+  }
+
+  /**
+   * Returns the whole flows.
+   * @return FlowSet. a merged copy if sharded.
+   */
+  FlowSet toFlowSet() {
+    if (!isSharded()) {
+      return shards[0];
+    }
+    return merge(null);
+  }
+
+  /**
+   * Returns a copy of the whole flows, which is not modified later.
+   * @return FlowSet.
+   */
+  FlowSet copyFlowSet() {
+    return merge(null);
+  }
+
+  /**
+   * Returns the flows matching a query.
+   * @param query query of flows.
+   * @return FlowSet of the matched flows.
+   */
+  FlowSet getFlowMessages(FlowQuery query) {
+    if (!isSharded()) {
+      return shards[0].getFlowMessages(query);
+    }
+    return merge(query);
+  }
+
+  private FlowSet merge(FlowQuery query) {
+    long version = 0;
+    Map<String, Flow> flows = new HashMap<String, Flow>();
+    Map<String, List<String>> priorities = new HashMap<String, List<String>>();
+    for (FlowSet shard : shards) {
+      synchronized (shard) {
+        version += Long.parseLong(shard.getVersion());
+        FlowSet matched = (query == null) ? shard : shard.getFlowMessages(query);
+        for (Map.Entry<String, List<String>> entry : matched.priority.entrySet()) {
+          if (entry.getValue() == null) {
+            continue;
+          }
+          List<String> flowIds = priorities.get(entry.getKey());
+          if (flowIds == null) {
+            flowIds = new ArrayList<String>();
+            priorities.put(entry.getKey(), flowIds);
+          }
+          flowIds.addAll(entry.getValue());
+        }
+        for (Map.Entry<String, Flow> entry : matched.getFlows().entrySet()) {
+          flows.put(entry.getKey(), entry.getValue().clone());
+        }
+      }
+    }
+    return new FlowSet(String.valueOf(version), priorities, flows);
+  }
+}
@@ -18,13 +18,16 @@ package org.o3project.odenos.core.component.network;
 
 import org.o3project.odenos.core.component.Component;
 import org.o3project.odenos.core.component.Logic;
+import org.o3project.odenos.core.component.NetworkInterface;
 import org.o3project.odenos.core.component.network.flow.Flow;
 import org.o3project.odenos.core.component.network.flow.FlowChanged;
 import org.o3project.odenos.core.component.network.flow.FlowObject;
 import org.o3project.odenos.core.component.network.flow.FlowObject.FlowStatus;
 import org.o3project.odenos.core.component.network.flow.FlowQueryFactory;
 import org.o3project.odenos.core.component.network.flow.FlowSet;
+import org.o3project.odenos.core.component.network.flow.ofpflow.OFPFlow;
 import org.o3project.odenos.core.component.network.flow.query.FlowQuery;
+import org.o3project.odenos.core.component.network.packet.InPacket;
 import org.o3project.odenos.core.component.network.packet.InPacketAdded;
 import org.o3project.odenos.core.component.network.packet.InPacketQuery;
 import org.o3project.odenos.core.component.network.packet.OutPacketAdded;
@@ -44,20 +47,33 @@ import org.o3project.odenos.core.component.network.topology.Port;
 import org.o3project.odenos.core.component.network.topology.PortChanged;
 import org.o3project.odenos.core.component.network.topology.PortQuery;
 import org.o3project.odenos.core.component.network.topology.Topology;
-import org.o3project.odenos.core.component.network.topology.TopologyChanged;
+import org.o3project.odenos.remoteobject.ObjectProperty;
 import org.o3project.odenos.remoteobject.ObjectSettings;
 import org.o3project.odenos.remoteobject.RequestParser;
+import org.o3project.odenos.remoteobject.message.BaseObject;
 import org.o3project.odenos.remoteobject.message.Request;
 import org.o3project.odenos.remoteobject.message.Request.Method;
 import org.o3project.odenos.remoteobject.message.Response;
 import org.o3project.odenos.remoteobject.messagingclient.MessageDispatcher;
+import org.msgpack.MessagePackable;
+import org.msgpack.type.Value;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import org.o3project.odenos.core.logging.message.LogMessage;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * NetworkComponent manages network topology and flows in accordance with
@@ -77,14 +93,62 @@ public class Network extends Component {
   private RequestParser<IActionCallback> parser;
 
   private Topology topology;
-  private FlowSet flowset;
-  private Map<String,String> deletingFlow = new HashMap<>();
+  private FlowShards flowShards;
+  // true if a snapshot fell due while the shards were modified concurrently.
+  private final AtomicBoolean snapshotDue = new AtomicBoolean(false);
+  // writes the snapshots fallen due. null unless persisted.
+  private ScheduledExecutorService snapshotWriter;
+  // seconds to wait for the snapshots queued on finalizing.
+  private static final long SNAPSHOT_TIMEOUT = 30;
+  // modified concurrently by the shards of flows.
+  private Map<String,String> deletingFlow = new ConcurrentHashMap<>();
   private PacketQueueSet packetQueue;
 
   public static final String PROPERTY_KEY_FLOW_TYPE = "flow_type";
+  public static final String PROPERTY_KEY_PERSISTENCE_DIR = "persistence_dir";
+  public static final String PROPERTY_KEY_FLOW_SHARDS = "flow_shards";
+  public static final String PROPERTY_KEY_REPLICA_OF = "replica_of";
+  public static final String PROPERTY_KEY_REPLICA_MAX_STALENESS = "replica_max_staleness";
 
   protected NetworkObjectSettings objectSettings = new NetworkObjectSettings();
 
+  // persists the state if persistence_dir is given. null otherwise.
+  private NetworkStore store;
+  private volatile boolean recovering = false;
+
+  // follows the primary if replica_of is given. null otherwise.
+  private NetworkReplicator replicator;
+
+  // coalesces bursts of change events. disabled by default.
+  private final NetworkChangedCoalescer coalescer = new NetworkChangedCoalescer() {
+    @Override
+    protected void onFlush(String eventType, List<Change> changes)
+        throws Exception {
+      postCoalescedChanges(eventType, changes);
+    }
+
+    @Override
+    protected void onWindowExpired() {
+      // in order with the requests that change the state.
+      synchronized (Network.this) {
+        awaitReaders();
+        flush();
+      }
+    }
+  };
+
+  // expires flows by their time-outs. disabled by default.
+  private final FlowExpiry flowExpiry = new FlowExpiry() {
+    @Override
+    protected void onExpired(List<String> flowIds) {
+      expireFlows(flowIds);
+    }
+  };
+
+  // recent changes, for the readers to catch up with.
+  private NetworkChangeLog changeLog =
+      new NetworkChangeLog(NetworkChangeLog.DEFAULT_CAPACITY);
+
   /**
    * NetworkObjectSettings class.
    *
@@ -93,6 +157,10 @@ public class Network extends Component {
 
     public static final String KEY_VERBOSE_PORT_EVENT = "verbose_event/port";
     public static final String KEY_VERBOSE_LINK_EVENT = "verbose_event/link";
+    public static final String KEY_COALESCE_EVENT_WINDOW = "coalesce_event/window";
+    public static final String KEY_PACKET_QUEUE_CAPACITY = "packet_queue/capacity";
+    public static final String KEY_PACKET_QUEUE_OVERFLOW = "packet_queue/overflow_policy";
+    public static final String KEY_FLOW_EXPIRY_TICK = "flow_expiry/tick";
 
     private boolean verbosePortEvent = true;
     private boolean verboseLinkEvent = true;
@@ -124,6 +192,55 @@ public class Network extends Component {
         }
       }
 
+      if (key.equals(KEY_COALESCE_EVENT_WINDOW)) {
+        try {
+          long window = Long.parseLong(value);
+          if (window < 0) {
+            throw new NumberFormatException();
+          }
+          coalescer.setWindow(window);
+        } catch (NumberFormatException e) {
+          log.error("{} is wrong as a value of a key {}. expect milliseconds.",
+              value, key);
+        }
+      }
+
+      if (key.equals(KEY_PACKET_QUEUE_CAPACITY)) {
+        try {
+          int capacity = Integer.parseInt(value);
+          if (capacity <= 0) {
+            throw new NumberFormatException();
+          }
+          packetQueue.setCapacity(capacity);
+        } catch (NumberFormatException e) {
+          log.error("{} is wrong as a value of a key {}. expect a positive number.",
+              value, key);
+        }
+      }
+
+      if (key.equals(KEY_PACKET_QUEUE_OVERFLOW)) {
+        try {
+          packetQueue.setOverflowPolicy(
+              PacketQueue.OverflowPolicy.valueOf(value.toUpperCase()));
+        } catch (RuntimeException e) {
+          log.error("{} is wrong as a value of a key {}. expect drop_oldest or drop_newest.",
+              value, key);
+        }
+      }
+
+      if (key.equals(KEY_FLOW_EXPIRY_TICK)) {
+        try {
+          long tick = Long.parseLong(value);
+          if (tick < 0) {
+            throw new NumberFormatException();
+          }
+          flowExpiry.setTick(tick);
+        } catch (NumberFormatException e) {
+          log.error("{} is wrong as a value of a key {}. expect milliseconds.",
+              value, key);
+        }
+      }
+
       return super.setSetting(key, value);
     }
 
@@ -145,7 +262,7 @@ public class Network extends Component {
       MessageDispatcher dispatcher) {
     super(objectId, dispatcher);
     topology = new Topology();
-    flowset = new FlowSet();
+    flowShards = new FlowShards(1);
     packetQueue = new PacketQueueSet();
     parser = createParser();
     objectProperty.setProperty(PROPERTY_KEY_FLOW_TYPE, "BasicFlow");
@@ -176,6 +293,87 @@ public class Network extends Component {
     return DESCRIPTION;
   }
 
+  /**
+   * Recovers the state from persistence_dir, if given, before the
+   * component is announced. If replica_of is given, starts following the
+   * primary instead. flow_shards partitions the flows, so that the
+   * requests modifying flows of different shards are processed
+   * concurrently.
+   */
+  @Override
+  public boolean onInitialize(ObjectProperty prop) {
+    String dir = (prop == null) ? null : prop.getProperty(PROPERTY_KEY_PERSISTENCE_DIR);
+    String primaryId = (prop == null) ? null : prop.getProperty(PROPERTY_KEY_REPLICA_OF);
+    String shards = (prop == null) ? null : prop.getProperty(PROPERTY_KEY_FLOW_SHARDS);
+    if (shards != null) {
+      int count;
+      try {
+        count = Integer.parseInt(shards);
+      } catch (NumberFormatException e) {
+        count = 0;
+      }
+      if (count < 1) {
+        log.error("{} is wrong as a value of a property {}. expect a positive number.",
+            shards, PROPERTY_KEY_FLOW_SHARDS);
+        return false;
+      }
+      flowShards = new FlowShards(count);
+    }
+    if (primaryId != null) {
+      long maxStaleness = NetworkReplicator.DEFAULT_MAX_STALENESS;
+      String value = prop.getProperty(PROPERTY_KEY_REPLICA_MAX_STALENESS);
+      if (value != null) {
+        try {
+          maxStaleness = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+          log.error("{} is wrong as a value of a property {}. expect milliseconds.",
+              value, PROPERTY_KEY_REPLICA_MAX_STALENESS);
+          return false;
+        }
+      }
+      startReplica(new NetworkInterface(messageDispatcher, primaryId, getObjectId()),
+          maxStaleness);
+    } else if (dir != null) {
+      try {
+        recover(new NetworkStore(new File(dir, getObjectId()),
+            NetworkStore.DEFAULT_SNAPSHOT_INTERVAL));
+      } catch (Exception e) {
+        log.error("Failed to recover from {}.", dir, e);
+        return false;
+      }
+    }
+    return super.onInitialize(prop);
+  }
+
+  @Override
+  public void onFinalize() {
+    if (replicator != null) {
+      replicator.close();
+    }
+    flowExpiry.close();
+    coalescer.flush();
+    coalescer.close();
+    if (snapshotWriter != null) {
+      // lets the snapshots queued be written.
+      snapshotWriter.shutdown();
+      try {
+        if (!snapshotWriter.awaitTermination(SNAPSHOT_TIMEOUT, TimeUnit.SECONDS)) {
+          log.warn("Timed out writing the snapshots of {}.", getObjectId());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (store != null) {
+      // written on this thread, as the writer is shut down.
+      synchronized (this) {
+        writeSnapshot();
+        store.close();
+      }
+    }
+    super.onFinalize();
+  }
+
   @Override
   public ObjectSettings getSettings() {
     return objectSettings;
@@ -189,10 +387,43 @@ public class Network extends Component {
     try {
       log.debug("Received request : {}, {} {}", getObjectId(), request.method, request.path);
       log.debug("Received body    : {}, {}", getObjectId(), request.getBodyValue());
+      // the handlers may modify the body.
+      Value body = (store == null) ? null : request.getBodyValue();
+      if (replicator != null) {
+        if (!isReadOnlyOnRequest(request)) {
+          return createErrorResponse(Response.FORBIDDEN,
+              "read-only replica of " + replicator.getPrimaryId());
+        }
+        if (!replicator.isFresh()) {
+          return createErrorResponse(Response.SERVICE_UNAVAILABLE,
+              "replica is behind " + replicator.getPrimaryId());
+        }
+      }
+      String knownVersion = null;
+      if (request.method == Request.Method.GET) {
+        knownVersion = removeIfVersionDiffers(request);
+        if (knownVersion != null
+            && knownVersion.equals(getVersionOnRequest(request))) {
+          return new Response(Response.NOT_MODIFIED, null);
+        }
+      }
       RequestParser<IActionCallback>.ParsedRequest parsed = parser
           .parse(request);
       IActionCallback callback = parsed.getResult();
       res = callback.process(parsed);
+      if (store != null) {
+        journal(request, body, res);
+      }
+      if (knownVersion != null && res.statusCode == Response.OK) {
+        Object resBody = res.getBody2(Object.class);
+        // versions of the whole topology and flows are local to a replica.
+        boolean localVersion = replicator != null
+            && (resBody instanceof Topology || resBody instanceof FlowSet);
+        if (resBody instanceof BaseObject && !localVersion
+            && knownVersion.equals(((BaseObject) resBody).getVersion())) {
+          return new Response(Response.NOT_MODIFIED, null);
+        }
+      }
       return res;
     } catch (Exception e) {
       log.error("Exception in onRequest() : [case:{}] [msg:{}]",
@@ -204,6 +435,111 @@ public class Network extends Component {
     }
   }
 
+  /**
+   * Removes the query of a conditional GET from the path of a request.
+   *
+   * @param request GET request.
+   * @return the version the requester already has. null if not specified.
+   */
+  private static String removeIfVersionDiffers(Request request) {
+    int index = request.path.indexOf('?');
+    if (index < 0) {
+      return null;
+    }
+    String prefix = Request.IF_VERSION_DIFFERS + "=";
+    String version = null;
+    StringBuilder queries = new StringBuilder();
+    for (String query : request.path.substring(index + 1).split("&")) {
+      if (query.startsWith(prefix)) {
+        version = query.substring(prefix.length());
+        continue;
+      }
+      if (queries.length() > 0) {
+        queries.append('&');
+      }
+      queries.append(query);
+    }
+    if (version == null) {
+      return null;
+    }
+    request.path = request.path.substring(0, index)
+        + ((queries.length() > 0) ? "?" + queries : "");
+    return version;
+  }
+
+  /**
+   * Returns the shard of the flow that a request modifies, if the flows
+   * are partitioned. The flows are modified only by PUT or DELETE of
+   * the flow; the others are processed one at a time. A GET of the flow
+   * is in the shard too, so that it follows the PUT or DELETE before it.
+   */
+  @Override
+  protected int getPartitionOnRequest(Request request) {
+    if (!flowShards.isSharded() || replicator != null) {
+      return -1;
+    }
+    if (request.method != Method.PUT && request.method != Method.DELETE
+        && request.method != Method.GET) {
+      return -1;
+    }
+    String path = request.path.startsWith("/") ? request.path.substring(1) : request.path;
+    int index = path.indexOf('?');
+    if (index >= 0) {
+      path = path.substring(0, index);
+    }
+    String[] names = path.split("/");
+    if (names.length < 2 || !"flows".equals(names[0])) {
+      return -1;
+    }
+    return flowShards.indexOf(names[1]);
+  }
+
+  /**
+   * Returns the version of the object which a GET request reads, without
+   * building the response.
+   *
+   * @param request GET request without a query.
+   * @return version. null if unknown.
+   */
+  private String getVersionOnRequest(Request request) {
+    String path = request.path.startsWith("/") ? request.path.substring(1) : request.path;
+    if (path.indexOf('?') >= 0) {
+      return null;
+    }
+    String[] names = path.split("/");
+    // versions of the whole topology and flows are local to a replica.
+    if (names.length == 1 && replicator == null) {
+      if ("topology".equals(names[0])) {
+        return topology.getVersion();
+      }
+      if ("flows".equals(names[0])) {
+        return flowShards.getVersion();
+      }
+      return null;
+    }
+    if (names.length == 2 && "flows".equals(names[0])) {
+      return flowShards.getFlowVersion(names[1]);
+    }
+    if (names.length < 3 || !"topology".equals(names[0])) {
+      return null;
+    }
+    BaseObject target = null;
+    if (names.length == 3 && "nodes".equals(names[1])) {
+      target = getNodeView(names[2]);
+    } else if (names.length == 5 && "nodes".equals(names[1])
+        && "ports".equals(names[3])) {
+      target = getPortView(names[2], names[4]);
+    } else if (names.length == 3 && "links".equals(names[1])) {
+      target = topology.getLinkMapView().get(names[2]);
+    }
+    return (target != null) ? target.getVersion() : null;
+  }
+
+  @Override
+  protected boolean isReadOnlyOnRequest(Request request) {
+    return parser.isReadOnly(request);
+  }
+
   // ******************* Actions about settings *******************
   protected Response getSettingVerbosePort() {
     log.debug("");
@@ -233,6 +569,48 @@ public class Network extends Component {
     return new Response(Response.OK, value);
   }
 
+  protected Response getSettingCoalesceEventWindow() {
+    log.debug("");
+    return new Response(Response.OK,
+        getSettings().getSetting(
+            NetworkObjectSettings.KEY_COALESCE_EVENT_WINDOW));
+  }
+
+  protected Response putSettingCoalesceEventWindow(String value) {
+    log.debug("");
+    objectSettings.setSetting(
+        NetworkObjectSettings.KEY_COALESCE_EVENT_WINDOW, value);
+    return new Response(Response.OK, value);
+  }
+
+  protected Response getSettingPacketQueueCapacity() {
+    log.debug("");
+    return new Response(Response.OK,
+        getSettings().getSetting(
+            NetworkObjectSettings.KEY_PACKET_QUEUE_CAPACITY));
+  }
+
+  protected Response putSettingPacketQueueCapacity(String value) {
+    log.debug("");
+    objectSettings.setSetting(
+        NetworkObjectSettings.KEY_PACKET_QUEUE_CAPACITY, value);
+    return new Response(Response.OK, value);
+  }
+
+  protected Response getSettingPacketQueueOverflow() {
+    log.debug("");
+    return new Response(Response.OK,
+        getSettings().getSetting(
+            NetworkObjectSettings.KEY_PACKET_QUEUE_OVERFLOW));
+  }
+
+  protected Response putSettingPacketQueueOverflow(String value) {
+    log.debug("");
+    objectSettings.setSetting(
+        NetworkObjectSettings.KEY_PACKET_QUEUE_OVERFLOW, value);
+    return new Response(Response.OK, value);
+  }
+
   // ******************* Actions about topology *******************
   protected Response getTopology() {
     log.debug("");
@@ -274,73 +652,313 @@ public class Network extends Component {
       }
     }
 
-    Topology oldTopology = topology;
-    // clear current topology and reconstruct
-    topology = newTopology.clone();
+    // apply only the differences, and notify them object by object.
+    for (Topology.Change change : topology.replace(newTopology)) {
+      BaseObject object = (change.curr != null) ? change.curr : change.prev;
+      if (object instanceof Node) {
+        notifyTopologyNodeChanged((Node) change.prev, (Node) change.curr);
+      } else if (object instanceof Port) {
+        notifyTopologyPortChanged((Port) change.prev, (Port) change.curr);
+      } else if (object instanceof Link) {
+        notifyTopologyLinkChanged((Link) change.prev, (Link) change.curr);
+      }
+    }
+
+    return new Response(Response.OK, topology);
+  }
+
+  private void notifyTopologyNodeChanged(Node prev, Node curr)
+      throws Exception {
+    if (prev == null) {
+      notifyNodeChanged(null, curr.clone(), NodeChanged.Action.add);
+    } else if (curr == null) {
+      notifyNodeChanged(prev, null, NodeChanged.Action.delete);
+    } else if (isNeededVerboseNodeEvent()
+        || !prev.getAttributes().equals(curr.getAttributes())) {
+      // changes of ports only are notified if verbose.
+      notifyNodeChanged(prev, curr.clone(), NodeChanged.Action.update);
+    }
+  }
+
+  private void notifyTopologyPortChanged(Port prev, Port curr)
+      throws Exception {
+    if (prev == null) {
+      notifyPortChanged(null, curr.clone(), PortChanged.Action.add);
+    } else if (curr == null) {
+      notifyPortChanged(prev, null, PortChanged.Action.delete);
+    } else if (isNeededVerbosePortEvent()
+        || !prev.getAttributes().equals(curr.getAttributes())) {
+      // changes of links only are notified if verbose.
+      notifyPortChanged(prev, curr.clone(), PortChanged.Action.update);
+    }
+  }
 
-    if (oldTopology == null) {
-      notifyTopologyChangedToAdd(newTopology);
+  private void notifyTopologyLinkChanged(Link prev, Link curr)
+      throws Exception {
+    if (prev == null) {
+      notifyLinkChanged(null, curr.clone(), LinkChanged.Action.add);
+    } else if (curr == null) {
+      notifyLinkChanged(prev, null, LinkChanged.Action.delete);
     } else {
-      notifyTopologyChangedToUpdate(oldTopology, newTopology);
-    }
-
-    // TODO 
-    /*
-    Topology backupTopology = topology.clone();
-    Topology oldTopology = topology.clone();
-    // old info
-    Map<String, Link> oldLinks = oldTopology.getLinkMap();
-    Map<String, Node> oldNodes = oldTopology.getNodeMap();
-    Response resp;
-
-    // delete old links, nodes, ports.
-    for (String linkId : oldLinks.keySet()) {
-      if (!newLinks.containsKey(linkId)) {
-        resp = this.deleteLink(linkId, oldLinks.get(linkId));
-        if (resp.isError("DELETE")) {
-          this.topology = backupTopology; // rollback
-          return resp;
+      notifyLinkChanged(prev, curr.clone(), LinkChanged.Action.update);
+    }
+  }
+
+  // ******************* Persistence *******************
+  /**
+   * Loads the snapshot and replays the journal. No event is notified
+   * while recovering.
+   */
+  private void recover(NetworkStore newStore) throws Exception {
+    recovering = true;
+    try {
+      NetworkStore.Snapshot snapshot = newStore.load();
+      if (snapshot != null) {
+        topology = snapshot.topology;
+        flowShards = new FlowShards(snapshot.flowSet, flowShards.size());
+        deletingFlow.clear();
+        for (String flowId : snapshot.deletingFlows) {
+          deletingFlow.put(flowId, "");
+        }
+        for (Map.Entry<String, String> entry : snapshot.settings.entrySet()) {
+          objectSettings.setSetting(entry.getKey(), entry.getValue());
+        }
+      }
+      int count = newStore.replayJournal(new NetworkStore.Replayer() {
+        @Override
+        public void replay(Request request) throws Exception {
+          onRequest(request);
+        }
+      });
+      // drops the events held while recovering.
+      coalescer.flush();
+      // the flows are installed at the recovery.
+      for (Flow flow : flowShards.toFlowSet().getFlows().values()) {
+        trackFlow(flow.getFlowId(), flow);
+      }
+      store = newStore;
+      snapshotWriter = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable task) {
+          Thread thread = new Thread(task, "NetworkSnapshot");
+          thread.setDaemon(true);
+          return thread;
         }
+      });
+      // takes a snapshot of a journal that grows slowly, too.
+      snapshotWriter.scheduleWithFixedDelay(new Runnable() {
+        @Override
+        public void run() {
+          if (store.getJournalCount() > 0 && snapshotDue.compareAndSet(false, true)) {
+            writeSnapshotExclusively();
+          }
+        }
+      }, NetworkStore.DEFAULT_SNAPSHOT_PERIOD, NetworkStore.DEFAULT_SNAPSHOT_PERIOD,
+          TimeUnit.MILLISECONDS);
+      if (count >= 0) {
+        // compacts the journal, and drops its torn record if any.
+        writeSnapshot();
       }
+      log.info("Recovered {} from {} with {} journaled requests.",
+          getObjectId(), newStore.getDir(), Math.max(count, 0));
+    } finally {
+      recovering = false;
     }
-    for (String nodeId : oldNodes.keySet()) {
-      if (!newNodes.containsKey(nodeId)) {
-        resp = this.deleteNode(nodeId, oldNodes.get(nodeId));
-        if (resp.isError("DELETE")) {
-          this.topology = backupTopology; // rollback
-          return resp;
+  }
+
+  /**
+   * Appends a request that modified the state to the journal. A creation
+   * by POST is journaled as the PUT of the created object, so that it is
+   * replayed with the same ID.
+   */
+  private void journal(Request request, Value body, Response res) {
+    if (request.method == Method.GET || res.statusCode >= 300) {
+      return;
+    }
+    String path = request.path.startsWith("/") ? request.path.substring(1) : request.path;
+    if (!path.startsWith("topology") && !path.startsWith("flows")
+        && !path.startsWith("settings")) {
+      return;
+    }
+    Method method = request.method;
+    if (method == Method.POST) {
+      Object created = res.getBody2(Object.class);
+      String id = null;
+      if (created instanceof Node) {
+        id = ((Node) created).getId();
+      } else if (created instanceof Port) {
+        id = ((Port) created).getId();
+      } else if (created instanceof Link) {
+        id = ((Link) created).getId();
+      } else if (created instanceof Flow) {
+        id = ((Flow) created).getFlowId();
+      }
+      if (id == null) {
+        log.warn("Not journaled: {} {}", method, path);
+        return;
+      }
+      method = Method.PUT;
+      path = path + "/" + id;
+    }
+
+    try {
+      if (store.append(new Request(getObjectId(), method, path, request.txid, body))) {
+        if (getPartitionOnRequest(request) >= 0) {
+          // the other shards may be modified while writing it.
+          if (snapshotDue.compareAndSet(false, true)) {
+            writeSnapshotExclusively();
+          }
+        } else {
+          writeSnapshot();
         }
+      } else if (snapshotDue.get() && getPartitionOnRequest(request) < 0) {
+        writeSnapshot();
       }
+    } catch (Exception e) {
+      log.error("Failed to journal {} {}.", method, path, e);
     }
+  }
 
-    // add or update nodes, ports, links.
-    for (String nodeId : newNodes.keySet()) {
-      Node newNode = newNodes.get(nodeId);
-      Node oldNode = oldNodes.get(nodeId);
-      if (oldNode != null) {
-        newNode.setVersion(oldNode.getVersion());
+  /**
+   * Takes the snapshot fallen due on the snapshot writer, once no request
+   * is being processed. The readers waiting to begin let it in first, so
+   * that the journal is compacted however long the shards keep being
+   * modified.
+   */
+  private void writeSnapshotExclusively() {
+    snapshotWriter.execute(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (Network.this) {
+          awaitReaders();
+          // written already by an exclusive request, or finalized.
+          if (snapshotDue.get()) {
+            writeSnapshot();
+          }
+        }
       }
-      resp = this.putNode(nodeId, newNode);
-      if (resp.isError("PUT")) {
-        this.topology = backupTopology; // rollback
-        return resp;
+    });
+  }
+
+  /**
+   * Takes a snapshot while no request is being processed. The state is
+   * copied and a new journal is started here; the copy is written on the
+   * snapshot writer, not to block the requests.
+   */
+  private void writeSnapshot() {
+    snapshotDue.set(false);
+    final NetworkStore.Snapshot snapshot = new NetworkStore.Snapshot();
+    snapshot.topology = topology.clone();
+    snapshot.flowSet = flowShards.copyFlowSet();
+    snapshot.deletingFlows.addAll(deletingFlow.keySet());
+    for (String key : objectSettings.getKeys()) {
+      snapshot.settings.put(key, objectSettings.getSetting(key));
+    }
+    final long generation = store.startGeneration();
+    Runnable writer = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          store.writeSnapshot(generation, snapshot);
+        } catch (Exception e) {
+          log.error("Failed to write a snapshot of {}.", getObjectId(), e);
+        }
       }
+    };
+    try {
+      snapshotWriter.execute(writer);
+    } catch (RejectedExecutionException e) {
+      // finalized.
+      writer.run();
     }
-    for (String linkId : newLinks.keySet()) {
-      Link newLink = newLinks.get(linkId);
-      Link oldLink = oldLinks.get(linkId);
-      if (oldLink != null) {
-        newLink.setVersion(oldLink.getVersion());
+  }
+
+  // ******************* Replica *******************
+  /**
+   * Starts following a primary. The replica serves the read-only
+   * requests while it is within the staleness of the primary.
+   */
+  void startReplica(NetworkInterface primary, long maxStaleness) {
+    replicator = new NetworkReplicator(primary, maxStaleness) {
+      @Override
+      protected void onApply(NetworkReplicator.Batch batch) {
+        applyReplicaBatch(batch);
+      }
+    };
+    replicator.start(NetworkReplicator.DEFAULT_SYNC_INTERVAL);
+  }
+
+  /**
+   * Applies the objects from the primary, keeping their versions. The
+   * changes are logged so that the readers can follow the replica.
+   */
+  private void applyReplicaBatch(NetworkReplicator.Batch batch) {
+    synchronized (this) {
+      awaitReaders();
+      if (batch.topology != null) {
+        topology = batch.topology;
+        flowShards = new FlowShards(batch.flowSet, flowShards.size());
+        // a new log tells the readers to resync.
+        changeLog = new NetworkChangeLog(NetworkChangeLog.DEFAULT_CAPACITY);
+      }
+      for (Map.Entry<String, Node> entry : batch.nodes.entrySet()) {
+        Node node = entry.getValue();
+        Node old = (node == null) ? topology.getNodeMap().remove(entry.getKey())
+            : topology.getNodeMap().put(entry.getKey(), node);
+        if (node != null || old != null) {
+          topology.reindexNode((node == null) ? old : node);
+        }
+        logReplicaChange("node", entry.getKey(), old, node);
+      }
+      for (Map.Entry<String, Link> entry : batch.links.entrySet()) {
+        Link link = entry.getValue();
+        Link old = (link == null) ? topology.getLinkMap().remove(entry.getKey())
+            : topology.getLinkMap().put(entry.getKey(), link);
+        if (link != null || old != null) {
+          topology.reindexLink((link == null) ? old : link);
+        }
+        logReplicaChange("link", entry.getKey(), old, link);
       }
-      resp = this.putLink(linkId, newLink);
-      if (resp.isError("PUT")) {
-        this.topology = backupTopology; // rollback
-        return resp;
+      if (!batch.nodes.isEmpty() || !batch.links.isEmpty()) {
+        topology.updateVersion();
+      }
+      for (Map.Entry<String, Flow> entry : batch.flows.entrySet()) {
+        Flow flow = entry.getValue();
+        FlowSet flowset = flowShards.get(entry.getKey());
+        Flow old;
+        if (flow == null) {
+          old = flowset.deleteFlow(entry.getKey());
+        } else {
+          old = flowset.getFlow(entry.getKey());
+          Flow created = flowset.createFlow(entry.getKey(), flow, flow.getVersion());
+          if (created == null) {
+            log.warn("Not replicated: flow {}", entry.getKey());
+            continue;
+          }
+          created.setVersion(flow.getVersion());
+        }
+        logReplicaChange("flow", entry.getKey(), old, flow);
       }
     }
-    */
+  }
 
-    return new Response(Response.OK, newTopology);
+  private void logReplicaChange(String type, String id, BaseObject old,
+      BaseObject curr) {
+    if (old == null && curr == null) {
+      return;
+    }
+    String action = (old == null) ? "add" : (curr == null) ? "delete" : "update";
+    logChange(type, id, null, action, curr);
+  }
+
+  /**
+   * Publishes an event unless the state is being recovered.
+   */
+  private void publishNetworkEvent(String eventType, Object body) throws Exception {
+    if (recovering) {
+      return;
+    }
+    publishEvent(eventType, body);
   }
 
   // ******************* Actions about node *******************
@@ -359,6 +977,7 @@ public class Network extends Component {
 
     if(!node.isAttribute(AttrElements.OPER_STATUS)) {
       node.putAttribute(AttrElements.OPER_STATUS, STATUS_UP);
+      topology.reindexNode(node);
     }
 
     notifyNodeChanged(null, node, NodeChanged.Action.add);
@@ -368,21 +987,36 @@ public class Network extends Component {
 
   protected Response getNodes(boolean hasQuery, String queriesString) {
     log.debug("");
+    PageQuery page = null;
+    if (hasQuery) {
+      page = new PageQuery(queriesString);
+      if (!page.parse()) {
+        return createErrorResponse(Response.BAD_REQUEST,
+            "Query is invalid.");
+      }
+      queriesString = page.getRemainingQueries();
+      hasQuery = queriesString != null;
+    }
+    Map<String, Node> nodes;
     if (hasQuery) {
       NodeQuery query = new NodeQuery(queriesString);
       if (!query.parse()) {
         return createErrorResponse(Response.BAD_REQUEST,
             "Query is invalid.");
       }
-      return new Response(Response.OK, topology.getNodeMessages(query));
+      nodes = topology.getNodeMessages(query);
     } else {
-      return new Response(Response.OK, topology.getNodeMap());
+      nodes = topology.getNodeMapView();
+    }
+    if (page != null && page.isPaged()) {
+      return createPageResponse(page, nodes, topology.getVersion());
     }
+    return new Response(Response.OK, nodes);
   }
 
   protected Response getNode(String nodeId) {
     log.debug("");
-    Node node = topology.getNode(nodeId);
+    Node node = getNodeView(nodeId);
 
     if (node == null) {
       return createErrorResponse(Response.NOT_FOUND, null,
@@ -416,6 +1050,7 @@ public class Network extends Component {
       node = topology.createNode(msg);
       if(!node.isAttribute(AttrElements.OPER_STATUS)) {
         node.putAttribute(AttrElements.OPER_STATUS, STATUS_UP);
+        topology.reindexNode(node);
       }
       action = NodeChanged.Action.add;
       returnCode = Response.CREATED;
@@ -454,6 +1089,7 @@ public class Network extends Component {
     }
 
     node.updateVersion();
+    topology.reindexNode(node);
     notifyNodeChanged(nodeOld, node.clone(), NodeChanged.Action.update);
     return new Response(Response.OK, node);
   }
@@ -504,6 +1140,7 @@ public class Network extends Component {
     if(!port.isAttribute(AttrElements.OPER_STATUS)) {
        port.putAttribute(AttrElements.OPER_STATUS, STATUS_UP);
     }
+    topology.reindexNode(node);
 
     if (port == null) {
       return createErrorResponse(Response.BAD_REQUEST,
@@ -520,28 +1157,44 @@ public class Network extends Component {
 
   protected Response getPorts(boolean hasQuery, String queriesString,
       String nodeId, Port msg) {
+    PageQuery page = null;
     if (hasQuery) {
-      PortQuery query = new PortQuery(queriesString);
+      page = new PageQuery(queriesString);
+      if (!page.parse()) {
+        return createErrorResponse(Response.BAD_REQUEST,
+            "Query is invalid.");
+      }
+      queriesString = page.getRemainingQueries();
+    }
+    PortQuery query = null;
+    if (queriesString != null) {
+      query = new PortQuery(queriesString);
       if (!query.parse()) {
         return createErrorResponse(Response.BAD_REQUEST,
             "Query is invalid.");
       }
-      return new Response(Response.OK, topology.getPortMessages(query,
-          nodeId));
-    } else {
-      Node node = topology.getNode(nodeId);
-
-      if (node == null) {
-        return createErrorResponse(Response.NOT_FOUND, null,
-            "node_id not found");
+    }
+    boolean paged = page != null && page.isPaged();
+    Node node = getNodeView(nodeId);
+    if (node == null) {
+      if (query != null && !paged) {
+        // no port matches the query.
+        return new Response(Response.OK, new HashMap<String, Port>());
       }
-      return new Response(Response.OK, node.getPortMap());
+      return createErrorResponse(Response.NOT_FOUND, null,
+          "node_id not found");
     }
+    Map<String, Port> ports =
+        (query != null) ? node.getPortMessages(query) : node.getPortMapView();
+    if (paged) {
+      return createPageResponse(page, ports, node.getVersion());
+    }
+    return new Response(Response.OK, ports);
   }
 
   protected Response getPort(String nodeId, String portId) {
     log.debug("");
-    Port port = topology.getPort(nodeId, portId);
+    Port port = getPortView(nodeId, portId);
     if (port == null) {
       return createErrorResponse(Response.NOT_FOUND, null,
           "node_id not found");
@@ -607,6 +1260,7 @@ public class Network extends Component {
       action = PortChanged.Action.update;
       returnCode = Response.OK;
     }
+    topology.reindexNode(node);
 
     if (port == null) {
       return createErrorResponse(Response.BAD_REQUEST,
@@ -640,6 +1294,7 @@ public class Network extends Component {
 
     port.updateVersion();
     node.updateVersion();
+    topology.reindexNode(node);
     notifyPortChanged(portOld, port.clone(), PortChanged.Action.update);
     return new Response(Response.OK, port);
   }
@@ -765,20 +1420,20 @@ public class Network extends Component {
 
   // ******************* Actions about link *******************
   private String validateLinkMessage(Link msg) {
-    if (topology.getNode(msg.getSrcNode()) == null) {
+    if (getNodeView(msg.getSrcNode()) == null) {
       return "the src node does not exist";
     }
-    if (topology.getPort(msg.getSrcNode(), msg.getSrcPort()) == null) {
+    if (getPortView(msg.getSrcNode(), msg.getSrcPort()) == null) {
       return "the src port does not exist";
     }
-    if (topology.getNode(msg.getDstNode()) == null) {
+    if (getNodeView(msg.getDstNode()) == null) {
       return "the dst node does not exist";
     }
-    if (topology.getPort(msg.getDstNode(), msg.getDstPort()) == null) {
+    if (getPortView(msg.getDstNode(), msg.getDstPort()) == null) {
       return "the dst port does not exist";
     }
 
-    for (Link link : topology.getLinkMap().values()) {
+    for (Link link : topology.getLinkMapView().values()) {
       if (link.getSrcNode().equals(msg.getSrcNode())
           && link.getSrcPort().equals(msg.getSrcPort())
           && link.getDstNode().equals(msg.getDstNode())
@@ -817,6 +1472,7 @@ public class Network extends Component {
        } else {
          link.putAttribute(AttrElements.OPER_STATUS, STATUS_UP);
        }
+       topology.reindexLink(link);
     }
 
     notifyLinkChanged(null, link, LinkChanged.Action.add);
@@ -844,21 +1500,36 @@ public class Network extends Component {
 
   protected Response getLinks(boolean hasQuery, String queriesString) {
     log.debug("");
+    PageQuery page = null;
+    if (hasQuery) {
+      page = new PageQuery(queriesString);
+      if (!page.parse()) {
+        return createErrorResponse(Response.BAD_REQUEST,
+            "Query is invalid.");
+      }
+      queriesString = page.getRemainingQueries();
+      hasQuery = queriesString != null;
+    }
+    Map<String, Link> links;
     if (hasQuery) {
       LinkQuery query = new LinkQuery(queriesString);
       if (!query.parse()) {
         return createErrorResponse(Response.BAD_REQUEST,
             "Query is invalid.");
       }
-      return new Response(Response.OK, topology.getLinkMessages(query));
+      links = topology.getLinkMessages(query);
     } else {
-      return new Response(Response.OK, topology.getLinkMap());
+      links = topology.getLinkMapView();
     }
+    if (page != null && page.isPaged()) {
+      return createPageResponse(page, links, topology.getVersion());
+    }
+    return new Response(Response.OK, links);
   }
 
   protected Response getLink(String linkId) {
     log.debug("");
-    Link link = topology.getLink(linkId);
+    Link link = topology.getLinkMapView().get(linkId);
     if (link == null) {
       return new Response(Response.NOT_FOUND, null);
     }
@@ -907,6 +1578,7 @@ public class Network extends Component {
          } else {
            link.putAttribute(AttrElements.OPER_STATUS, STATUS_UP);
          }
+         topology.reindexLink(link);
       }
     } else {
       // version conflict
@@ -986,6 +1658,7 @@ public class Network extends Component {
     }
 
     link.updateVersion();
+    topology.reindexLink(link);
     notifyLinkChanged(linkOld, link.clone(), LinkChanged.Action.update);
     return new Response(Response.OK, link);
   }
@@ -1017,7 +1690,7 @@ public class Network extends Component {
 
     String srcNodeId = link.getSrcNode();
     String srcPortId = link.getSrcPort();
-    Port srcPort = topology.getNodeMap().get(srcNodeId).getPort(srcPortId);
+    Port srcPort = getPortView(srcNodeId, srcPortId);
     Port srcOld = new Port(srcPort);
 
     if (srcOld != null) {
@@ -1029,7 +1702,7 @@ public class Network extends Component {
 
     String dstNodeId = link.getSrcNode();
     String dstPortId = link.getSrcPort();
-    Port dstPort = topology.getNodeMap().get(dstNodeId).getPort(dstPortId);
+    Port dstPort = getPortView(dstNodeId, dstPortId);
     Port dstOld = new Port(dstPort);
 
     if (dstOld != null) {
@@ -1079,7 +1752,7 @@ public class Network extends Component {
       msg.setStatus(FlowStatus.NONE.toString());
     }
 
-    Flow flow = flowset.createFlow(msg);
+    Flow flow = flowShards.createFlow(msg);
     if (flow == null) {
       return createErrorResponse(Response.BAD_REQUEST, "Invalid flow type");
     }
@@ -1090,6 +1763,21 @@ public class Network extends Component {
 
   protected Response getFlows(boolean hasQuery, String queriesString) {
     log.debug("");
+    PageQuery page = null;
+    if (hasQuery) {
+      page = new PageQuery(queriesString);
+      if (!page.parse()) {
+        return createErrorResponse(Response.BAD_REQUEST,
+            "Query is invalid.");
+      }
+      if (!page.isPaged()) {
+        page = null;
+      } else {
+        queriesString = page.getRemainingQueries();
+        hasQuery = queriesString != null;
+      }
+    }
+    FlowSet flows = null;
     if (hasQuery) {
       FlowQuery query = FlowQueryFactory.create(queriesString);
       if (query == null) {
@@ -1101,15 +1789,40 @@ public class Network extends Component {
             "Query is invalid.");
       }
       query.setTopology(topology);
-      return new Response(Response.OK, flowset.getFlowMessages(query));
-    } else {
-      return new Response(Response.OK, flowset);
+      flows = flowShards.getFlowMessages(query);
+    }
+    if (flows == null) {
+      flows = flowShards.toFlowSet();
+    }
+    if (page != null) {
+      return createPageResponse(page, flows.getFlows(), flowShards.getVersion());
+    }
+    return new Response(Response.OK, flows);
+  }
+
+  /**
+   * Creates a response of a page of a collection.
+   *
+   * @param page query of the page.
+   * @param all all the objects by ID.
+   * @param version version of the collection.
+   * @return response. CONFLICT if the collection has been modified since
+   *     the cursor was returned.
+   */
+  private <T> Response createPageResponse(PageQuery page, Map<String, T> all,
+      String version) {
+    String cursor = page.getCursor();
+    if (cursor != null && !version.equals(Page.getCursorVersion(cursor))) {
+      return createErrorResponse(Response.CONFLICT,
+          "the collection has been modified since the cursor was returned.");
     }
+    return new Response(Response.OK,
+        Page.create(all, page.getLimit(), cursor, version));
   }
 
   protected Response getFlow(String flowId) {
     log.debug("");
-    Flow flow = flowset.getFlow(flowId);
+    Flow flow = flowShards.getFlow(flowId);
     if (flow == null) {
       return createErrorResponse(Response.NOT_FOUND, null,
           "flow_id not found");
@@ -1119,6 +1832,14 @@ public class Network extends Component {
   }
 
   protected Response putFlow(String flowId, Flow msg) throws Exception {
+    FlowSet flowset = flowShards.get(flowId);
+    synchronized (flowset) {
+      return putFlow(flowset, flowId, msg);
+    }
+  }
+
+  private Response putFlow(FlowSet flowset, String flowId, Flow msg)
+      throws Exception {
     log.debug("");
     Flow flowOld = null;
 
@@ -1190,6 +1911,14 @@ public class Network extends Component {
 
 
   protected Response putFlowAttributes(String flowId, Map<String, String> addAttributes) throws Exception {
+    FlowSet flowset = flowShards.get(flowId);
+    synchronized (flowset) {
+      return putFlowAttributes(flowset, flowId, addAttributes);
+    }
+  }
+
+  private Response putFlowAttributes(FlowSet flowset, String flowId,
+      Map<String, String> addAttributes) throws Exception {
 
     Flow flow = flowset.getFlow(flowId);
     Flow flowOld = flow.clone();
@@ -1205,6 +1934,14 @@ public class Network extends Component {
   }
 
   protected Response deleteFlow(String flowId, Flow msg) throws Exception {
+    FlowSet flowset = flowShards.get(flowId);
+    synchronized (flowset) {
+      return deleteFlow(flowset, flowId, msg);
+    }
+  }
+
+  private Response deleteFlow(FlowSet flowset, String flowId, Flow msg)
+      throws Exception {
     log.debug("");
     Flow flow = flowset.getFlow(flowId);
     if (flow == null) {
@@ -1229,6 +1966,135 @@ public class Network extends Component {
     return new Response(Response.OK, null);
   }
 
+  // ******************* Flow expiry *******************
+  /**
+   * Tracks the time-outs of a flow, or stops tracking it if deleted.
+   */
+  private void trackFlow(String flowId, Flow flow) {
+    if (flow instanceof OFPFlow && !deletingFlow.containsKey(flowId)) {
+      OFPFlow ofpFlow = (OFPFlow) flow;
+      flowExpiry.track(flowId, ofpFlow.getIdleTimeout(), ofpFlow.getHardTimeout(),
+          flow.getAttribute(Flow.PACKET_COUNT), System.currentTimeMillis());
+    } else {
+      flowExpiry.untrack(flowId);
+    }
+  }
+
+  /**
+   * Deletes the flows expired, as DELETE requests to this Network, so
+   * that the deletions are notified and journaled as usual. The driver
+   * tears down the flows established.
+   */
+  private void expireFlows(List<String> flowIds) {
+    if (replicator != null) {
+      return;
+    }
+    synchronized (this) {
+      awaitReaders();
+      for (String flowId : flowIds) {
+        if (deletingFlow.containsKey(flowId)) {
+          continue;
+        }
+        Response res = onRequest(new Request(getObjectId(), Method.DELETE,
+            "flows/" + flowId, null, null));
+        if (res.statusCode != Response.OK) {
+          log.warn("Failed to expire the flow {}: {}", flowId, res.statusCode);
+        }
+      }
+    }
+    log.info("Expired {} flows.", flowIds.size());
+  }
+
+  // ******************* Actions about change log *******************
+  /**
+   * Returns the changes since a version of the change log. Without the
+   * version, the current version is returned with no change; a reader
+   * GETs the whole state after that, and then pulls the changes since it.
+   *
+   * With "objects=true", the current objects changed are returned with
+   * the changes, so that a reader follows them in one round trip.
+   *
+   * @return response. CONFLICT if the changes since the version have been
+   *     dropped from the log; the reader needs to resync.
+   */
+  protected Response getChanges(boolean hasQuery, String queriesString) {
+    log.debug("");
+    String since = null;
+    boolean objects = false;
+    if (hasQuery) {
+      ChangesQuery query = new ChangesQuery(queriesString);
+      if (!query.parse()) {
+        return createErrorResponse(Response.BAD_REQUEST,
+            "Query is invalid.");
+      }
+      since = query.getSince();
+      objects = query.getObjects();
+    }
+    if (since == null) {
+      return new Response(Response.OK, new NetworkChanges(
+          changeLog.getVersion(), new ArrayList<NetworkChanges.Change>()));
+    }
+    NetworkChanges changes = changeLog.since(since);
+    if (changes == null) {
+      return createErrorResponse(Response.CONFLICT,
+          "the changes since the version are no longer kept.");
+    }
+    if (objects) {
+      changes = withObjects(changes);
+    }
+    return new Response(Response.OK, changes);
+  }
+
+  // adds the current objects changed. a deleted object is left out.
+  private NetworkChanges withObjects(NetworkChanges changes) {
+    Map<String, Node> nodeMap = topology.getNodeMapView();
+    Map<String, Link> linkMap = topology.getLinkMapView();
+    Map<String, Node> nodes = new HashMap<String, Node>();
+    Map<String, Link> links = new HashMap<String, Link>();
+    Map<String, Flow> flows = new HashMap<String, Flow>();
+    for (NetworkChanges.Change change : changes.getChanges()) {
+      String id = change.getId();
+      switch (change.getType()) {
+        case "port":
+          id = change.getNode();
+          // fall through. a port is returned in its node.
+        case "node":
+          if (nodeMap.containsKey(id)) {
+            nodes.put(id, nodeMap.get(id));
+          }
+          break;
+        case "link":
+          if (linkMap.containsKey(id)) {
+            links.put(id, linkMap.get(id));
+          }
+          break;
+        case "flow":
+          Flow flow = flowShards.getFlow(id);
+          if (flow != null) {
+            flows.put(id, flow);
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    return new NetworkChanges(changes.getVersion(), changes.getChanges(),
+        nodes, links, flows);
+  }
+
+  /**
+   * Appends a change to the change log unless the state is being
+   * recovered.
+   */
+  private void logChange(String type, String id, String node, String action,
+      BaseObject curr) {
+    if (recovering) {
+      return;
+    }
+    changeLog.add(new NetworkChanges.Change(type, id, node, action,
+        (curr != null) ? curr.getVersion() : null));
+  }
+
   // ******************* Actions about packet *******************
   protected Response getPackets() {
     log.debug("");
@@ -1248,6 +2114,10 @@ public class Network extends Component {
     }
 
     Packet retPacket = queue.enqueuePacket(packet);
+    if (retPacket == null) {
+      return createErrorResponse(Response.SERVICE_UNAVAILABLE, null,
+          "packet queue is full.");
+    }
 
     if (queue == packetQueue.getInQueue()) {
       notifyInPacketAdded(retPacket);
@@ -1410,58 +2280,202 @@ public class Network extends Component {
   protected Response postEvent(String eventType, Object body)
       throws Exception {
     log.debug("");
-    publishEvent(eventType, body);
+    publishNetworkEvent(eventType, body);
     return new Response(Response.ACCEPTED, null);
   }
 
-  private Response notifyTopologyChanged(Topology prev, Topology curr,
-      TopologyChanged.Action action) throws Exception {
-    log.debug("");
-    TopologyChanged msg = new TopologyChanged(prev, curr, action);
-    return postEvent(TopologyChanged.TYPE, msg);
-  }
-
-  private Response notifyTopologyChangedToAdd(Topology curr) throws Exception {
-    log.debug("");
-    return notifyTopologyChanged(null, curr, TopologyChanged.Action.add);
-  }
-
-  private Response notifyTopologyChangedToUpdate(Topology prev, Topology curr)
-      throws Exception {
-    log.debug("");
-    return notifyTopologyChanged(prev, curr, TopologyChanged.Action.update);
-  }
-
   private Response notifyNodeChanged(Node prev, Node curr,
       NodeChanged.Action action) throws Exception {
     log.debug("");
-    NodeChanged msg = new NodeChanged(prev, curr, action);
-    return postEvent(NodeChanged.TYPE, msg);
+    String key = (curr != null) ? curr.getId() : prev.getId();
+    logChange("node", key, null, action.name(), curr);
+    if (coalescer.add(NodeChanged.TYPE, key, prev, curr)) {
+      return new Response(Response.ACCEPTED, null);
+    }
+    return postNodeChanged(new NodeChanged(prev, curr, action));
+  }
+
+  private Response postNodeChanged(NodeChanged msg) throws Exception {
+    return postChangedEvent(NodeChanged.TYPE, msg, NodeChanged.DELTA_TYPE,
+        msg.id, msg.action, msg.version, msg.prev, msg.curr);
   }
 
   private Response notifyPortChanged(Port prev, Port curr,
       PortChanged.Action action) throws Exception {
     log.debug("");
-    PortChanged msg = new PortChanged(prev, curr, action);
-    return postEvent(PortChanged.TYPE, msg);
+    String key = (curr != null) ? curr.getNode() + '\u0000' + curr.getId()
+        : prev.getNode() + '\u0000' + prev.getId();
+    Port port = (curr != null) ? curr : prev;
+    logChange("port", port.getId(), port.getNode(), action.name(), curr);
+    if (coalescer.add(PortChanged.TYPE, key, prev, curr)) {
+      return new Response(Response.ACCEPTED, null);
+    }
+    return postPortChanged(new PortChanged(prev, curr, action));
+  }
+
+  private Response postPortChanged(PortChanged msg) throws Exception {
+    return postChangedEvent(PortChanged.TYPE, msg, PortChanged.DELTA_TYPE,
+        msg.id, msg.action, msg.version, msg.prev, msg.curr);
   }
 
   private Response notifyLinkChanged(Link prev, Link curr,
       LinkChanged.Action action) throws Exception {
     log.debug("");
-    LinkChanged msg = new LinkChanged(prev, curr, action);
-    return postEvent(LinkChanged.TYPE, msg);
+    String key = (curr != null) ? curr.getId() : prev.getId();
+    logChange("link", key, null, action.name(), curr);
+    if (coalescer.add(LinkChanged.TYPE, key, prev, curr)) {
+      return new Response(Response.ACCEPTED, null);
+    }
+    return postLinkChanged(new LinkChanged(prev, curr, action));
+  }
+
+  private Response postLinkChanged(LinkChanged msg) throws Exception {
+    return postChangedEvent(LinkChanged.TYPE, msg, LinkChanged.DELTA_TYPE,
+        msg.id, msg.action, msg.version, msg.prev, msg.curr);
   }
 
   private Response notifyFlowChanged(Flow prev, Flow curr,
       FlowChanged.Action action) throws Exception {
     log.debug("");
-    FlowChanged msg = new FlowChanged(prev, curr, action);
-    return postEvent(FlowChanged.TYPE, msg);
+    String key = (curr != null) ? curr.getFlowId() : prev.getFlowId();
+    logChange("flow", key, null, action.name(), curr);
+    trackFlow(key, curr);
+    if (coalescer.add(FlowChanged.TYPE, key, prev, curr)) {
+      return new Response(Response.ACCEPTED, null);
+    }
+    return postFlowChanged(new FlowChanged(prev, curr, action));
+  }
+
+  private Response postFlowChanged(FlowChanged msg) throws Exception {
+    return postChangedEvent(FlowChanged.TYPE, msg, FlowChanged.DELTA_TYPE,
+        msg.id, msg.action, msg.version, msg.prev, msg.curr);
+  }
+
+  /**
+   * Posts a full change event and/or its compact form, depending on
+   * which of them are subscribed. The full form is posted unless only
+   * the compact form is known to be subscribed.
+   */
+  private Response postChangedEvent(String eventType, Object body,
+      String deltaType, String id, String action, String version,
+      MessagePackable prev, MessagePackable curr) throws Exception {
+    if (messageDispatcher.isEventSubscribed(getObjectId(), deltaType)) {
+      publishNetworkEvent(deltaType,
+          new NetworkChangedDelta(id, action, version, prev, curr));
+      if (!messageDispatcher.isEventSubscribed(getObjectId(), eventType)) {
+        return new Response(Response.ACCEPTED, null);
+      }
+    }
+    return postEvent(eventType, body);
+  }
+
+  /**
+   * Notifies the net changes held by the coalescer. They are published
+   * as a batch event if it is subscribed, and one by one unless only the
+   * batch event is known to be subscribed.
+   */
+  private void postCoalescedChanges(String eventType,
+      List<NetworkChangedCoalescer.Change> changes) throws Exception {
+    switch (eventType) {
+      case NodeChanged.TYPE:
+        List<NodeChanged> nodeMsgs = new ArrayList<NodeChanged>();
+        for (NetworkChangedCoalescer.Change change : changes) {
+          nodeMsgs.add(new NodeChanged((Node) change.prev, (Node) change.curr,
+              NodeChanged.Action.valueOf(change.getAction())));
+        }
+        if (!postBatchEvent(NodeChanged.BATCH_TYPE, nodeMsgs,
+            NodeChanged.TYPE, NodeChanged.DELTA_TYPE)) {
+          for (NodeChanged msg : nodeMsgs) {
+            postNodeChanged(msg);
+          }
+        }
+        break;
+      case PortChanged.TYPE:
+        List<PortChanged> portMsgs = new ArrayList<PortChanged>();
+        for (NetworkChangedCoalescer.Change change : changes) {
+          portMsgs.add(new PortChanged((Port) change.prev, (Port) change.curr,
+              PortChanged.Action.valueOf(change.getAction())));
+        }
+        if (!postBatchEvent(PortChanged.BATCH_TYPE, portMsgs,
+            PortChanged.TYPE, PortChanged.DELTA_TYPE)) {
+          for (PortChanged msg : portMsgs) {
+            postPortChanged(msg);
+          }
+        }
+        break;
+      case LinkChanged.TYPE:
+        List<LinkChanged> linkMsgs = new ArrayList<LinkChanged>();
+        for (NetworkChangedCoalescer.Change change : changes) {
+          linkMsgs.add(new LinkChanged((Link) change.prev, (Link) change.curr,
+              LinkChanged.Action.valueOf(change.getAction())));
+        }
+        if (!postBatchEvent(LinkChanged.BATCH_TYPE, linkMsgs,
+            LinkChanged.TYPE, LinkChanged.DELTA_TYPE)) {
+          for (LinkChanged msg : linkMsgs) {
+            postLinkChanged(msg);
+          }
+        }
+        break;
+      case FlowChanged.TYPE:
+        List<FlowChanged> flowMsgs = new ArrayList<FlowChanged>();
+        for (NetworkChangedCoalescer.Change change : changes) {
+          flowMsgs.add(new FlowChanged((Flow) change.prev, (Flow) change.curr,
+              FlowChanged.Action.valueOf(change.getAction())));
+        }
+        if (!postBatchEvent(FlowChanged.BATCH_TYPE, flowMsgs,
+            FlowChanged.TYPE, FlowChanged.DELTA_TYPE)) {
+          for (FlowChanged msg : flowMsgs) {
+            postFlowChanged(msg);
+          }
+        }
+        break;
+      default:
+        log.warn("Unexpected event: {}", eventType);
+        break;
+    }
   }
 
+  /**
+   * Publishes a batch event if it is subscribed.
+   * @return true if the events need not be posted one by one.
+   */
+  private boolean postBatchEvent(String batchType, List<?> msgs,
+      String eventType, String deltaType) throws Exception {
+    if (!messageDispatcher.isEventSubscribed(getObjectId(), batchType)) {
+      return false;
+    }
+    publishNetworkEvent(batchType, msgs);
+    return !messageDispatcher.isEventSubscribed(getObjectId(), eventType)
+        && !messageDispatcher.isEventSubscribed(getObjectId(), deltaType);
+  }
+
+  /**
+   * Notifies an added packet IN. If the inline form is subscribed, the
+   * packet is published in the event. Unless the ID-only form is also
+   * subscribed, the packet is dequeued at the same time, so that it is
+   * claimed atomically against any DELETE of the packet.
+   */
   private Response notifyInPacketAdded(Packet inpacket) throws Exception {
     log.debug("");
+    if (inpacket instanceof InPacket
+        && messageDispatcher.isEventSubscribed(getObjectId(),
+            InPacketAdded.INLINE_TYPE)) {
+      // dequeued for the subscriber only if it is the one and only.
+      boolean consumed = !messageDispatcher.isEventSubscribed(getObjectId(),
+          InPacketAdded.TYPE)
+          && messageDispatcher.countEventSubscribers(getObjectId(),
+              InPacketAdded.INLINE_TYPE) == 1;
+      if (consumed
+          && packetQueue.getInQueue().pickPacket(inpacket.getPacketId()) == null) {
+        log.debug("packet already claimed: {}", inpacket.getPacketId());
+        return new Response(Response.ACCEPTED, null);
+      }
+      publishNetworkEvent(InPacketAdded.INLINE_TYPE,
+          new InPacketAdded((InPacket) inpacket, consumed));
+      if (consumed) {
+        return new Response(Response.ACCEPTED, null);
+      }
+    }
     InPacketAdded msg = new InPacketAdded(inpacket);
     return postEvent(InPacketAdded.TYPE, msg);
   }
@@ -1475,31 +2489,25 @@ public class Network extends Component {
   private String getNodeByPhysicalId(String physicalId) {
     log.debug("");
 
-    Map<String, Node> nodeMap = topology.getNodeMap();
-    for (Node node : nodeMap.values()) {
-      if (physicalId.equals(node
-          .getAttribute(Logic.AttrElements.PHYSICAL_ID))) {
-        return node.getId();
-      }
-    }
-    return null;
+    Node node = topology.getNodeByPhysicalId(physicalId);
+    return (node != null) ? node.getId() : null;
   }
 
   private Port getPortByPhysicalId(String physicalId) {
     log.debug("");
 
-    for (String nid : topology.getNodeMap().keySet()) {
-      Node node = topology.getNode(nid);
-      for (String pid : node.getPortMap().keySet()) {
-        Port port = node.getPort(pid);
-        if (physicalId.equals(port
-            .getAttribute(Logic.AttrElements.PHYSICAL_ID))) {
-          return port;
-        }
-      }
-    }
+    return topology.getPortByPhysicalId(physicalId);
+  }
 
-    return null;
+  // returns a node only to be read, without copying it.
+  private Node getNodeView(String nodeId) {
+    return topology.getNodeMapView().get(nodeId);
+  }
+
+  // returns a port only to be read, without copying it.
+  private Port getPortView(String nodeId, String portId) {
+    Node node = getNodeView(nodeId);
+    return (node != null) ? node.getPortMapView().get(portId) : null;
   }
 
   /**
@@ -1512,7 +2520,7 @@ public class Network extends Component {
 
         // ******************* Actions about settings
         // *******************
-        addRule(Method.GET, "settings/"
+        addReadOnlyRule(Method.GET, "settings/"
             + NetworkObjectSettings.KEY_VERBOSE_PORT_EVENT,
             new IActionCallback() {
               @Override
@@ -1534,7 +2542,73 @@ public class Network extends Component {
               }
             });
 
-        addRule(Method.GET, "settings/"
+        addReadOnlyRule(Method.GET, "settings/"
+            + NetworkObjectSettings.KEY_COALESCE_EVENT_WINDOW,
+            new IActionCallback() {
+              @Override
+              public Response process(
+                  RequestParser<IActionCallback>.ParsedRequest parsed) {
+                return getSettingCoalesceEventWindow();
+              }
+            });
+
+        addRule(Method.PUT, "settings/"
+            + NetworkObjectSettings.KEY_COALESCE_EVENT_WINDOW,
+            new IActionCallback() {
+              @Override
+              public Response process(
+                  RequestParser<IActionCallback>.ParsedRequest parsed)
+                  throws Exception {
+                return putSettingCoalesceEventWindow(
+                parsed.getRequest().getBody(String.class));
+              }
+            });
+
+        addReadOnlyRule(Method.GET, "settings/"
+            + NetworkObjectSettings.KEY_PACKET_QUEUE_CAPACITY,
+            new IActionCallback() {
+              @Override
+              public Response process(
+                  RequestParser<IActionCallback>.ParsedRequest parsed) {
+                return getSettingPacketQueueCapacity();
+              }
+            });
+
+        addRule(Method.PUT, "settings/"
+            + NetworkObjectSettings.KEY_PACKET_QUEUE_CAPACITY,
+            new IActionCallback() {
+              @Override
+              public Response process(
+                  RequestParser<IActionCallback>.ParsedRequest parsed)
+                  throws Exception {
+                return putSettingPacketQueueCapacity(
+                parsed.getRequest().getBody(String.class));
+              }
+            });
+
+        addReadOnlyRule(Method.GET, "settings/"
+            + NetworkObjectSettings.KEY_PACKET_QUEUE_OVERFLOW,
+            new IActionCallback() {
+              @Override
+              public Response process(
+                  RequestParser<IActionCallback>.ParsedRequest parsed) {
+                return getSettingPacketQueueOverflow();
+              }
+            });
+
+        addRule(Method.PUT, "settings/"
+            + NetworkObjectSettings.KEY_PACKET_QUEUE_OVERFLOW,
+            new IActionCallback() {
+              @Override
+              public Response process(
+                  RequestParser<IActionCallback>.ParsedRequest parsed)
+                  throws Exception {
+                return putSettingPacketQueueOverflow(
+                parsed.getRequest().getBody(String.class));
+              }
+            });
+
+        addReadOnlyRule(Method.GET, "settings/"
             + NetworkObjectSettings.KEY_VERBOSE_LINK_EVENT,
             new IActionCallback() {
               @Override
@@ -1558,7 +2632,7 @@ public class Network extends Component {
 
         // ******************* Actions about topology
         // *******************
-        addRule(Method.GET, "topology", new IActionCallback() {
+        addReadOnlyRule(Method.GET, "topology", new IActionCallback() {
           @Override
           public Response process(
               RequestParser<IActionCallback>.ParsedRequest parsed) {
@@ -1587,7 +2661,7 @@ public class Network extends Component {
           }
         });
 
-        addRule(Method.GET, "topology/nodes", new IActionCallback() {
+        addReadOnlyRule(Method.GET, "topology/nodes", new IActionCallback() {
           @Override
           public Response process(
               RequestParser<IActionCallback>.ParsedRequest parsed) {
@@ -1596,7 +2670,7 @@ public class Network extends Component {
           }
         });
 
-        addRule(Method.GET, "topology/nodes/<node_id>",
+        addReadOnlyRule(Method.GET, "topology/nodes/<node_id>",
             new IActionCallback() {
               @Override
               public Response process(
@@ -1650,7 +2724,7 @@ public class Network extends Component {
               }
             });
 
-        addRule(Method.GET, "topology/nodes/<node_id>/ports",
+        addReadOnlyRule(Method.GET, "topology/nodes/<node_id>/ports",
             new IActionCallback() {
               @Override
               public Response process(
@@ -1663,7 +2737,7 @@ public class Network extends Component {
               }
             });
 
-        addRule(Method.GET, "topology/nodes/<node_id>/ports/<port_id>",
+        addReadOnlyRule(Method.GET, "topology/nodes/<node_id>/ports/<port_id>",
             new IActionCallback() {
               @Override
               public Response process(
@@ -1712,7 +2786,7 @@ public class Network extends Component {
 
         // ******************* Actions about physical node/port
         // *******************
-        addRule(Method.GET, "topology/physical_nodes/<physical_id>",
+        addReadOnlyRule(Method.GET, "topology/physical_nodes/<physical_id>",
             new IActionCallback() {
               @Override
               public Response process(
@@ -1758,7 +2832,7 @@ public class Network extends Component {
               }
             });
 
-        addRule(Method.GET, "topology/physical_ports/<physical_id>",
+        addReadOnlyRule(Method.GET, "topology/physical_ports/<physical_id>",
             new IActionCallback() {
               @Override
               public Response process(
@@ -1814,7 +2888,7 @@ public class Network extends Component {
           }
         });
 
-        addRule(Method.GET, "topology/links", new IActionCallback() {
+        addReadOnlyRule(Method.GET, "topology/links", new IActionCallback() {
           @Override
           public Response process(
               RequestParser<IActionCallback>.ParsedRequest parsed) {
@@ -1823,7 +2897,7 @@ public class Network extends Component {
           }
         });
 
-        addRule(Method.GET, "topology/links/<link_id>",
+        addReadOnlyRule(Method.GET, "topology/links/<link_id>",
             new IActionCallback() {
               @Override
               public Response process(
@@ -1877,7 +2951,7 @@ public class Network extends Component {
           }
         });
 
-        addRule(Method.GET, "flows", new IActionCallback() {
+        addReadOnlyRule(Method.GET, "flows", new IActionCallback() {
           @Override
           public Response process(
               RequestParser<IActionCallback>.ParsedRequest parsed) {
@@ -1886,7 +2960,7 @@ public class Network extends Component {
           }
         });
 
-        addRule(Method.GET, "flows/<flow_id>", new IActionCallback() {
+        addReadOnlyRule(Method.GET, "flows/<flow_id>", new IActionCallback() {
           @Override
           public Response process(
               RequestParser<IActionCallback>.ParsedRequest parsed) {
@@ -1927,6 +3001,16 @@ public class Network extends Component {
               }
             });
 
+        // ******************* Actions about change log *******************
+        addReadOnlyRule(Method.GET, "changes", new IActionCallback() {
+          @Override
+          public Response process(
+              RequestParser<IActionCallback>.ParsedRequest parsed) {
+            return getChanges(parsed.hasQuery(),
+                parsed.getQueriesString());
+          }
+        });
+
         // ******************* Actions about packet *******************
         addRule(Method.GET, "packets", new IActionCallback() {
           @Override
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded in-memory log of the changes of a Network.
+ *
+ * <p>
+ * The latest changes are kept in a ring, so that the changes since a
+ * version are found without scanning the log. A version is
+ * "&lt;epoch&gt;:&lt;sequence&gt;"; the epoch differs for each log, so
+ * that a version of a restarted Network is never taken for a position
+ * in this log.
+ */
+class NetworkChangeLog {
+
+  public static final int DEFAULT_CAPACITY = 10000;
+
+  private static final String VERSION_DELIMITER = ":";
+
+  private final String epoch;
+  private final NetworkChanges.Change[] ring;
+  // sequence number of the last change. the first change is 1.
+  private long sequence = 0;
+
+  /**
+   * Constructor.
+   * @param capacity max number of changes to keep.
+   */
+  NetworkChangeLog(int capacity) {
+    this.epoch = Long.toString(System.currentTimeMillis(), 36);
+    this.ring = new NetworkChanges.Change[capacity];
+  }
+
+  /**
+   * Appends a change.
+   * @param change change of an object.
+   */
+  synchronized void add(NetworkChanges.Change change) {
+    sequence++;
+    ring[index(sequence)] = change;
+  }
+
+  /**
+   * Returns the current version.
+   * @return version of the log.
+   */
+  synchronized String getVersion() {
+    return epoch + VERSION_DELIMITER + sequence;
+  }
+
+  /**
+   * Returns the changes since a version.
+   * @param version version returned by this log.
+   * @return changes. null if the version is not of this log, or the
+   *     changes since it have been dropped from the log.
+   */
+  synchronized NetworkChanges since(String version) {
+    int index = version.indexOf(VERSION_DELIMITER);
+    if (index < 0 || !epoch.equals(version.substring(0, index))) {
+      return null;
+    }
+    long since;
+    try {
+      since = Long.parseLong(version.substring(index + 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+    if (since > sequence || since < sequence - ring.length || since < 0) {
+      return null;
+    }
+    List<NetworkChanges.Change> changes =
+        new ArrayList<NetworkChanges.Change>((int) (sequence - since));
+    for (long seq = since + 1; seq <= sequence; seq++) {
+      changes.add(ring[index(seq)]);
+    }
+    return new NetworkChanges(getVersion(), changes);
+  }
+
+  private int index(long seq) {
+    return (int) ((seq - 1) % ring.length);
+  }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.msgpack.MessagePackable;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.topology.Link;
+import org.o3project.odenos.core.component.network.topology.Node;
+import org.o3project.odenos.core.component.network.topology.Port;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Coalesces bursts of change events of a Network.
+ *
+ * <p>
+ * While the window is enabled, copies of the changed objects are held
+ * instead of being notified. Changes of the same object are merged into
+ * their net effect, i.e., the previous object of the first change and
+ * the current object of the last one, and an add followed by a delete
+ * cancels out. When the window expires after the first held change, the
+ * changes are flushed in a single queue across the event types, in the
+ * order the objects first changed; a net delete is queued at its last
+ * change instead, so that it follows the deletions it depended on.
+ * Consecutive changes of an event type are flushed together.
+ */
+abstract class NetworkChangedCoalescer {
+  private static final Logger log = LogManager.getLogger(NetworkChangedCoalescer.class);
+
+  /**
+   * Net change of an object.
+   */
+  static class Change {
+    final String eventType;
+    final MessagePackable prev;
+    MessagePackable curr;
+
+    Change(String eventType, MessagePackable prev, MessagePackable curr) {
+      this.eventType = eventType;
+      this.prev = prev;
+      this.curr = curr;
+    }
+
+    /**
+     * Returns the net action.
+     * @return "add", "delete" or "update".
+     */
+    String getAction() {
+      if (prev == null) {
+        return "add";
+      }
+      return (curr == null) ? "delete" : "update";
+    }
+  }
+
+  // event type + "/" + object key -> change, in the order of the queue.
+  private Map<String, Change> pending = new LinkedHashMap<String, Change>();
+  private long windowMillis = 0;
+  private Timer timer;
+
+  /**
+   * Returns the window.
+   * @return window in milliseconds. 0 if disabled.
+   */
+  synchronized long getWindow() {
+    return windowMillis;
+  }
+
+  /**
+   * Sets the window. Disabling it flushes the held changes.
+   * @param windowMillis window in milliseconds. 0 to disable.
+   */
+  void setWindow(long windowMillis) {
+    synchronized (this) {
+      this.windowMillis = windowMillis;
+    }
+    if (windowMillis <= 0) {
+      flush();
+    }
+  }
+
+  /**
+   * Holds a change if the window is enabled.
+   * @param eventType type of change event.
+   * @param key key of the object, unique in the event type.
+   * @param prev previous object. null if added.
+   * @param curr current object. null if deleted.
+   * @return true if held. false if the change has to be notified now.
+   */
+  synchronized boolean add(String eventType, String key,
+      MessagePackable prev, MessagePackable curr) {
+    if (windowMillis <= 0) {
+      return false;
+    }
+    if (pending.isEmpty()) {
+      schedule();
+    }
+    String id = eventType + "/" + key;
+    Change change = pending.get(id);
+    if (change == null) {
+      pending.put(id, new Change(eventType, copy(prev), copy(curr)));
+    } else {
+      change.curr = copy(curr);
+      if (change.curr == null) {
+        // queued at the delete.
+        pending.remove(id);
+        pending.put(id, change);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Flushes the held changes.
+   */
+  void flush() {
+    Map<String, Change> flushed;
+    synchronized (this) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      flushed = pending;
+      pending = new LinkedHashMap<String, Change>();
+    }
+    List<Change> changes = new ArrayList<Change>();
+    for (Change change : flushed.values()) {
+      // added and deleted in the window.
+      if (change.prev == null && change.curr == null) {
+        continue;
+      }
+      if (!changes.isEmpty()
+          && !changes.get(0).eventType.equals(change.eventType)) {
+        flush(changes);
+        changes = new ArrayList<Change>();
+      }
+      changes.add(change);
+    }
+    if (!changes.isEmpty()) {
+      flush(changes);
+    }
+  }
+
+  private void flush(List<Change> changes) {
+    String eventType = changes.get(0).eventType;
+    try {
+      onFlush(eventType, changes);
+    } catch (Exception e) {
+      log.error("Failed to flush {}.", eventType, e);
+    }
+  }
+
+  /**
+   * Stops the timer. Held changes are discarded.
+   */
+  synchronized void close() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+    pending.clear();
+  }
+
+  private void schedule() {
+    if (timer == null) {
+      timer = new Timer("NetworkChangedCoalescer", true);
+    }
+    timer.schedule(new TimerTask() {
+      @Override
+      public void run() {
+        onWindowExpired();
+      }
+    }, windowMillis);
+  }
+
+  private static MessagePackable copy(MessagePackable object) {
+    if (object instanceof Node) {
+      return ((Node) object).clone();
+    } else if (object instanceof Port) {
+      return ((Port) object).clone();
+    } else if (object instanceof Link) {
+      return ((Link) object).clone();
+    } else if (object instanceof Flow) {
+      return ((Flow) object).clone();
+    }
+    return object;
+  }
+
+  /**
+   * Called on the timer thread when the window expires. Flushes the held
+   * changes.
+   */
+  protected void onWindowExpired() {
+    flush();
+  }
+
+  /**
+   * Notifies consecutive net changes of an event type.
+   * @param eventType type of change event.
+   * @param changes net changes, in the order of the queue.
+   * @throws Exception if failed to notify.
+   */
+  protected abstract void onFlush(String eventType, List<Change> changes)
+      throws Exception;
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.msgpack.MessagePack;
+import org.msgpack.MessagePackable;
+import org.msgpack.packer.BufferPacker;
+import org.msgpack.packer.Packer;
+import org.msgpack.type.MapValue;
+import org.msgpack.type.Value;
+import org.msgpack.type.ValueFactory;
+import org.msgpack.unpacker.Unpacker;
+import org.o3project.odenos.remoteobject.message.Event;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact form of NodeChanged, PortChanged, LinkChanged and FlowChanged
+ * events, carrying only the fields changed from the previous object.
+ *
+ * <p>
+ * Objects subscribe the compact form by adding an event filter of the
+ * delta event type (e.g., {@code FlowChanged.DELTA_TYPE}) instead of the
+ * full one in their EventSubscription. A Network publishes the compact
+ * form only while it is subscribed, and the full form only while that
+ * is. The full object is available on demand by a GET request.
+ *
+ * <p>
+ * Fields of "changes":
+ * <ul>
+ * <li>add: all the fields of the new object.</li>
+ * <li>update: the changed fields. A removed field is nil. For
+ * "attributes", only the changed attributes are included.</li>
+ * <li>delete: no field other than the identity fields.</li>
+ * </ul>
+ * Identity fields (type, node_id, port_id, link_id and flow_id) are
+ * always included.
+ */
+public class NetworkChangedDelta extends Event {
+
+  private static final int MSG_NUM_MIN = 3;
+  private static final int MSG_NUM_MAX = 4;
+  private static final String ATTRIBUTES = "attributes";
+  private static final Set<String> IDENTITIES = new HashSet<String>(
+      Arrays.asList("type", "node_id", "port_id", "link_id", "flow_id"));
+  private static final MessagePack msgpack = new MessagePack();
+
+  public String id;
+  public String action;
+  public String version;
+  public Map<String, Value> changes = new LinkedHashMap<String, Value>();
+
+  /**
+   * Constructor.
+   */
+  public NetworkChangedDelta() {
+  }
+
+  /**
+   * Constructor.
+   * @param id object ID.
+   * @param action "add", "update" or "delete".
+   * @param version version of the current object (null for "delete").
+   * @param prev previous object.
+   * @param curr current object.
+   * @throws IOException if the objects cannot be packed.
+   */
+  public NetworkChangedDelta(String id, String action, String version,
+      MessagePackable prev, MessagePackable curr) throws IOException {
+    this.id = id;
+    this.action = action;
+    this.version = version;
+
+    Map<Value, Value> prevMap = toMap(prev);
+    Map<Value, Value> currMap = toMap(curr);
+    for (Map.Entry<Value, Value> entry : currMap.entrySet()) {
+      String key = entry.getKey().asRawValue().getString();
+      Value prevValue = prevMap.get(entry.getKey());
+      if (IDENTITIES.contains(key) || prev == null) {
+        changes.put(key, entry.getValue());
+      } else if (ATTRIBUTES.equals(key) && prevValue != null
+          && prevValue.isMapValue() && entry.getValue().isMapValue()) {
+        Map<Value, Value> attributes =
+            diff(prevValue.asMapValue(), entry.getValue().asMapValue());
+        if (!attributes.isEmpty()) {
+          changes.put(key, toValue(attributes));
+        }
+      } else if (!entry.getValue().equals(prevValue)) {
+        changes.put(key, entry.getValue());
+      }
+    }
+    for (Map.Entry<Value, Value> entry : prevMap.entrySet()) {
+      String key = entry.getKey().asRawValue().getString();
+      if (IDENTITIES.contains(key)) {
+        if (!changes.containsKey(key)) {
+          changes.put(key, entry.getValue());
+        }
+      } else if (curr != null && !currMap.containsKey(entry.getKey())) {
+        changes.put(key, ValueFactory.createNilValue());
+      }
+    }
+  }
+
+  private static Map<Value, Value> toMap(MessagePackable object)
+      throws IOException {
+    if (object == null) {
+      return Collections.emptyMap();
+    }
+    BufferPacker pk = msgpack.createBufferPacker();
+    object.writeTo(pk);
+    Value value = msgpack.read(pk.toByteArray());
+    return value.isMapValue() ? value.asMapValue()
+        : Collections.<Value, Value>emptyMap();
+  }
+
+  private static Map<Value, Value> diff(MapValue prev, MapValue curr) {
+    Map<Value, Value> changed = new LinkedHashMap<Value, Value>();
+    for (Map.Entry<Value, Value> entry : curr.entrySet()) {
+      if (!entry.getValue().equals(prev.get(entry.getKey()))) {
+        changed.put(entry.getKey(), entry.getValue());
+      }
+    }
+    for (Value key : prev.keySet()) {
+      if (!curr.containsKey(key)) {
+        changed.put(key, ValueFactory.createNilValue());
+      }
+    }
+    return changed;
+  }
+
+  private static Value toValue(Map<Value, Value> map) {
+    Value[] kvs = new Value[map.size() * 2];
+    int num = 0;
+    for (Map.Entry<Value, Value> entry : map.entrySet()) {
+      kvs[num++] = entry.getKey();
+      kvs[num++] = entry.getValue();
+    }
+    return ValueFactory.createMapValue(kvs);
+  }
+
+  /**
+   * Returns a changed field.
+   * @param key field name.
+   * @return value of the field. null if not changed.
+   */
+  public Value getChange(String key) {
+    return changes.get(key);
+  }
+
+  @Override
+  public void readFrom(Unpacker upk) throws IOException {
+    int size = upk.readMapBegin();
+
+    if (size < MSG_NUM_MIN || MSG_NUM_MAX < size) {
+      throw new IOException();
+    }
+
+    changes = new LinkedHashMap<String, Value>();
+    while (size-- > 0) {
+      switch (upk.readString()) {
+        case "id":
+          id = upk.readString();
+          break;
+        case "version":
+          version = upk.readString();
+          break;
+        case "action":
+          action = upk.readString();
+          break;
+        case "changes":
+          MapValue map = upk.readValue().asMapValue();
+          for (Map.Entry<Value, Value> entry : map.entrySet()) {
+            changes.put(entry.getKey().asRawValue().getString(), entry.getValue());
+          }
+          break;
+        default:
+          throw new IOException();
+      }
+    }
+    upk.readMapEnd();
+  }
+
+  @Override
+  public void writeTo(Packer pk) throws IOException {
+    pk.writeMapBegin((version != null) ? MSG_NUM_MAX : MSG_NUM_MIN);
+
+    pk.write("id").write(id);
+    if (version != null) {
+      pk.write("version").write(version);
+    }
+    pk.write("action").write(action);
+
+    pk.write("changes");
+    pk.writeMapBegin(changes.size());
+    for (Map.Entry<String, Value> entry : changes.entrySet()) {
+      pk.write(entry.getKey());
+      pk.write(entry.getValue());
+    }
+    pk.writeMapEnd();
+
+    pk.writeMapEnd();
+  }
+}
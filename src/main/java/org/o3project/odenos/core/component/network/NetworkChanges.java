@@ -0,0 +1,331 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.msgpack.MessagePackable;
+import org.msgpack.packer.Packer;
+import org.msgpack.unpacker.Unpacker;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.FlowObject;
+import org.o3project.odenos.core.component.network.topology.Link;
+import org.o3project.odenos.core.component.network.topology.Node;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Changes of a Network since a version of its change log.
+ *
+ * <p>
+ * A reader applies the changes in order, and pulls again with the
+ * version of this object. Each change tells only what object was changed.
+ * If requested, the current nodes, links and flows changed are returned
+ * with the changes, so that the reader need not GET each of them; a port
+ * is returned in its node.
+ */
+public class NetworkChanges implements MessagePackable {
+
+  public static final String VERSION = "version";
+  public static final String CHANGES = "changes";
+  public static final String NODES = "nodes";
+  public static final String LINKS = "links";
+  public static final String FLOWS = "flows";
+
+  /**
+   * A change of an object.
+   */
+  public static class Change implements MessagePackable {
+
+    public static final String TYPE = "type";
+    public static final String ID = "id";
+    public static final String NODE = "node";
+    public static final String ACTION = "action";
+    public static final String VERSION = "version";
+
+    private String type;
+    private String id;
+    private String node;
+    private String action;
+    private String version;
+
+    /**
+     * Constructor.
+     * @deprecated {@link #Change(String, String, String, String, String)}.
+     */
+    @Deprecated
+    public Change() {
+    }
+
+    /**
+     * Constructor.
+     * @param type type of the object. "node", "port", "link" or "flow".
+     * @param id ID of the object.
+     * @param node ID of the node of a port. null for other objects.
+     * @param action "add", "update" or "delete".
+     * @param version new version of the object. null if deleted.
+     */
+    public Change(String type, String id, String node, String action,
+        String version) {
+      this.type = type;
+      this.id = id;
+      this.node = node;
+      this.action = action;
+      this.version = version;
+    }
+
+    public String getType() {
+      return type;
+    }
+
+    public String getId() {
+      return id;
+    }
+
+    public String getNode() {
+      return node;
+    }
+
+    public String getAction() {
+      return action;
+    }
+
+    public String getVersion() {
+      return version;
+    }
+
+    @Override
+    public void writeTo(Packer pk) throws IOException {
+      pk.writeMapBegin(5);
+      pk.write(TYPE);
+      pk.write(type);
+      pk.write(ID);
+      pk.write(id);
+      pk.write(NODE);
+      writeNullable(pk, node);
+      pk.write(ACTION);
+      pk.write(action);
+      pk.write(VERSION);
+      writeNullable(pk, version);
+      pk.writeMapEnd();
+    }
+
+    @Override
+    public void readFrom(Unpacker upk) throws IOException {
+      int size = upk.readMapBegin();
+      while (size-- > 0) {
+        switch (upk.readString()) {
+          case TYPE:
+            type = upk.readString();
+            break;
+          case ID:
+            id = upk.readString();
+            break;
+          case NODE:
+            node = readNullable(upk);
+            break;
+          case ACTION:
+            action = upk.readString();
+            break;
+          case VERSION:
+            version = readNullable(upk);
+            break;
+          default:
+            upk.skip();
+            break;
+        }
+      }
+      upk.readMapEnd();
+    }
+  }
+
+  private String version;
+  private List<Change> changes;
+  // the objects changed. null unless requested.
+  private Map<String, Node> nodes;
+  private Map<String, Link> links;
+  private Map<String, Flow> flows;
+
+  /**
+   * Constructor.
+   * @deprecated {@link #NetworkChanges(String, List)}.
+   */
+  @Deprecated
+  public NetworkChanges() {
+  }
+
+  /**
+   * Constructor.
+   * @param version version of the change log after the changes.
+   * @param changes changes in the order they were made.
+   */
+  public NetworkChanges(String version, List<Change> changes) {
+    this.version = version;
+    this.changes = changes;
+  }
+
+  /**
+   * Constructor.
+   * @param version version of the change log after the changes.
+   * @param changes changes in the order they were made.
+   * @param nodes current nodes changed, including those of the ports.
+   * @param links current links changed.
+   * @param flows current flows changed.
+   */
+  public NetworkChanges(String version, List<Change> changes,
+      Map<String, Node> nodes, Map<String, Link> links,
+      Map<String, Flow> flows) {
+    this(version, changes);
+    this.nodes = nodes;
+    this.links = links;
+    this.flows = flows;
+  }
+
+  /**
+   * Returns the version to pull the next changes since.
+   * @return version of the change log.
+   */
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns the changes.
+   * @return changes in the order they were made.
+   */
+  public List<Change> getChanges() {
+    return changes;
+  }
+
+  /**
+   * Returns the current nodes changed. A node changed but not in the map
+   * has been deleted.
+   * @return map of nodes. null if not requested.
+   */
+  public Map<String, Node> getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Returns the current links changed. A link changed but not in the map
+   * has been deleted.
+   * @return map of links. null if not requested.
+   */
+  public Map<String, Link> getLinks() {
+    return links;
+  }
+
+  /**
+   * Returns the current flows changed. A flow changed but not in the map
+   * has been deleted.
+   * @return map of flows. null if not requested.
+   */
+  public Map<String, Flow> getFlows() {
+    return flows;
+  }
+
+  @Override
+  public void writeTo(Packer pk) throws IOException {
+    pk.writeMapBegin((nodes != null) ? 5 : 2);
+    pk.write(VERSION);
+    pk.write(version);
+    pk.write(CHANGES);
+    pk.write(changes);
+    if (nodes != null) {
+      pk.write(NODES);
+      pk.write(nodes);
+      pk.write(LINKS);
+      pk.write(links);
+      pk.write(FLOWS);
+      pk.writeMapBegin(flows.size());
+      for (Map.Entry<String, Flow> entry : flows.entrySet()) {
+        pk.write(entry.getKey());
+        pk.write(entry.getValue());
+      }
+      pk.writeMapEnd();
+    }
+    pk.writeMapEnd();
+  }
+
+  @Override
+  public void readFrom(Unpacker upk) throws IOException {
+    int size = upk.readMapBegin();
+    while (size-- > 0) {
+      switch (upk.readString()) {
+        case VERSION:
+          version = upk.readString();
+          break;
+        case CHANGES:
+          int changesSize = upk.readArrayBegin();
+          changes = new ArrayList<Change>(changesSize);
+          while (changesSize-- > 0) {
+            changes.add(upk.read(Change.class));
+          }
+          upk.readArrayEnd();
+          break;
+        case NODES:
+          nodes = new HashMap<String, Node>();
+          int nodesSize = upk.readMapBegin();
+          while (nodesSize-- > 0) {
+            String nodeId = upk.readString();
+            nodes.put(nodeId, upk.read(Node.class));
+          }
+          upk.readMapEnd();
+          break;
+        case LINKS:
+          links = new HashMap<String, Link>();
+          int linksSize = upk.readMapBegin();
+          while (linksSize-- > 0) {
+            String linkId = upk.readString();
+            links.put(linkId, upk.read(Link.class));
+          }
+          upk.readMapEnd();
+          break;
+        case FLOWS:
+          flows = new HashMap<String, Flow>();
+          int flowsSize = upk.readMapBegin();
+          while (flowsSize-- > 0) {
+            String flowId = upk.readString();
+            flows.put(flowId, FlowObject.readFlowMessageFrom(upk.readValue()));
+          }
+          upk.readMapEnd();
+          break;
+        default:
+          upk.skip();
+          break;
+      }
+    }
+    upk.readMapEnd();
+  }
+
+  private static void writeNullable(Packer pk, String value) throws IOException {
+    if (value == null) {
+      pk.writeNil();
+    } else {
+      pk.write(value);
+    }
+  }
+
+  private static String readNullable(Unpacker upk) throws IOException {
+    if (upk.trySkipNil()) {
+      return null;
+    }
+    return upk.readString();
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.o3project.odenos.core.component.NetworkInterface;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.FlowSet;
+import org.o3project.odenos.core.component.network.topology.Link;
+import org.o3project.odenos.core.component.network.topology.Node;
+import org.o3project.odenos.core.component.network.topology.Topology;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+
+/**
+ * Follows the change log of a primary Network for a replica.
+ *
+ * <p>
+ * Each round pulls the changes since the last round together with the
+ * objects changed, in one request; a change of a port returns its node.
+ * The objects are applied as a batch, so that readers of the replica
+ * never see a part of a round. The first round, and any round after the changes are no
+ * longer kept by the primary, copies the whole state instead.
+ */
+abstract class NetworkReplicator {
+  private static final Logger log = LogManager.getLogger(NetworkReplicator.class);
+
+  public static final long DEFAULT_SYNC_INTERVAL = 100;
+  public static final long DEFAULT_MAX_STALENESS = 1000;
+
+  /**
+   * Objects changed in a round. A null object is deleted.
+   */
+  static class Batch {
+    // the whole state if resynced. null otherwise.
+    Topology topology;
+    FlowSet flowSet;
+    final Map<String, Node> nodes = new LinkedHashMap<String, Node>();
+    final Map<String, Link> links = new LinkedHashMap<String, Link>();
+    final Map<String, Flow> flows = new LinkedHashMap<String, Flow>();
+
+    boolean isEmpty() {
+      return topology == null && nodes.isEmpty() && links.isEmpty()
+          && flows.isEmpty();
+    }
+  }
+
+  private final NetworkInterface primary;
+  private final long maxStalenessMillis;
+  // version of the change log of the primary. null until resynced.
+  private String version;
+  private volatile long syncedMillis = Long.MIN_VALUE;
+  private Timer timer;
+
+  /**
+   * Constructor.
+   * @param primary interface to the primary.
+   * @param maxStalenessMillis max time since the last round to serve reads.
+   */
+  NetworkReplicator(NetworkInterface primary, long maxStalenessMillis) {
+    this.primary = primary;
+    this.maxStalenessMillis = maxStalenessMillis;
+  }
+
+  /**
+   * Returns the ID of the primary.
+   * @return ID of the primary.
+   */
+  String getPrimaryId() {
+    return primary.getNetworkId();
+  }
+
+  /**
+   * Starts the rounds.
+   * @param intervalMillis interval between the rounds in milliseconds.
+   */
+  synchronized void start(long intervalMillis) {
+    if (timer != null) {
+      return;
+    }
+    timer = new Timer("NetworkReplicator", true);
+    timer.schedule(new TimerTask() {
+      @Override
+      public void run() {
+        sync();
+      }
+    }, 0, intervalMillis);
+  }
+
+  /**
+   * Stops the rounds.
+   */
+  synchronized void close() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+  }
+
+  /**
+   * Returns whether the last round is recent enough to serve reads.
+   * @return true if fresh.
+   */
+  boolean isFresh() {
+    long synced = syncedMillis;
+    return synced != Long.MIN_VALUE
+        && System.currentTimeMillis() - synced <= maxStalenessMillis;
+  }
+
+  /**
+   * Runs a round. A failed round is retried by the next one.
+   * @return true if succeeded.
+   */
+  synchronized boolean sync() {
+    long started = System.currentTimeMillis();
+    try {
+      Batch batch = new Batch();
+      String next = (version == null) ? null : pull(batch);
+      if (next == null) {
+        next = resync(batch);
+        if (next == null) {
+          return false;
+        }
+      }
+      if (!batch.isEmpty()) {
+        onApply(batch);
+      }
+      version = next;
+      syncedMillis = started;
+      return true;
+    } catch (Exception e) {
+      log.warn("Failed to sync with {}.", getPrimaryId(), e);
+      return false;
+    }
+  }
+
+  /**
+   * Pulls the objects changed since the version.
+   * @return next version. null if the changes are no longer kept.
+   */
+  private String pull(Batch batch) throws Exception {
+    NetworkChanges changes = primary.getChanges(version, true);
+    if (changes == null) {
+      log.info("Resyncing with {}.", getPrimaryId());
+      return null;
+    }
+    if (changes.getNodes() == null) {
+      throw new Exception("no objects in the changes");
+    }
+    // the objects changed, in the order of their last change.
+    Set<String> nodes = new LinkedHashSet<String>();
+    Set<String> links = new LinkedHashSet<String>();
+    Set<String> flows = new LinkedHashSet<String>();
+    for (NetworkChanges.Change change : changes.getChanges()) {
+      switch (change.getType()) {
+        case "node":
+          putLast(nodes, change.getId());
+          break;
+        case "port":
+          // ports are in their node.
+          putLast(nodes, change.getNode());
+          break;
+        case "link":
+          putLast(links, change.getId());
+          break;
+        case "flow":
+          putLast(flows, change.getId());
+          break;
+        default:
+          break;
+      }
+    }
+    // the objects are read with the changes. one missing has been deleted.
+    for (String nodeId : nodes) {
+      batch.nodes.put(nodeId, changes.getNodes().get(nodeId));
+    }
+    for (String linkId : links) {
+      batch.links.put(linkId, changes.getLinks().get(linkId));
+    }
+    for (String flowId : flows) {
+      batch.flows.put(flowId, changes.getFlows().get(flowId));
+    }
+    return changes.getVersion();
+  }
+
+  /**
+   * GETs the whole state.
+   * @return version of the state. null if failed.
+   */
+  private String resync(Batch batch) {
+    // the state is at or after the version.
+    NetworkChanges changes = primary.getChanges(null);
+    if (changes == null) {
+      return null;
+    }
+    batch.topology = primary.getTopology();
+    batch.flowSet = primary.getFlowSet();
+    if (batch.topology == null || batch.flowSet == null) {
+      return null;
+    }
+    return changes.getVersion();
+  }
+
+  private static void putLast(Set<String> ids, String id) {
+    // re-inserted in the order of the last change.
+    ids.remove(id);
+    ids.add(id);
+  }
+
+  /**
+   * Applies the objects changed in a round.
+   * @param batch changed objects.
+   * @throws Exception if failed to apply.
+   */
+  protected abstract void onApply(Batch batch) throws Exception;
+}
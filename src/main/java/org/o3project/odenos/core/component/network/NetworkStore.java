@@ -0,0 +1,394 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.msgpack.MessagePack;
+import org.msgpack.packer.Packer;
+import org.msgpack.unpacker.Unpacker;
+import org.o3project.odenos.core.component.network.flow.FlowSet;
+import org.o3project.odenos.core.component.network.topology.Topology;
+import org.o3project.odenos.remoteobject.message.Request;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local persistence of the state of a Network.
+ *
+ * <p>
+ * The state is kept as a snapshot plus a journal of the requests that
+ * modified it after the snapshot. Snapshots and journals are numbered by
+ * generation: snapshot-N holds the state when journal-N was started, so
+ * a crash while taking a snapshot never replays a journal twice. A new
+ * journal is started as soon as the state is copied, and the snapshot is
+ * written afterwards; until then, the journals after the latest snapshot
+ * are replayed in order. The older generations are deleted only once the
+ * new snapshot is synced to the disk.
+ */
+class NetworkStore {
+  private static final Logger log = LogManager.getLogger(NetworkStore.class);
+
+  public static final int DEFAULT_SNAPSHOT_INTERVAL = 10000;
+  // milliseconds between the snapshots of a journal that grows slowly.
+  public static final long DEFAULT_SNAPSHOT_PERIOD = 60000;
+
+  private static final String SNAPSHOT_PREFIX = "snapshot-";
+  private static final String JOURNAL_PREFIX = "journal-";
+  private static final String TEMP_SUFFIX = ".tmp";
+
+  /**
+   * State of a Network in a snapshot.
+   */
+  static class Snapshot {
+    Topology topology = new Topology();
+    FlowSet flowSet = new FlowSet();
+    List<String> deletingFlows = new ArrayList<String>();
+    Map<String, String> settings = new HashMap<String, String>();
+  }
+
+  /**
+   * Receives the journaled requests on recovery.
+   */
+  interface Replayer {
+    void replay(Request request) throws Exception;
+  }
+
+  private final MessagePack msgpack = new MessagePack();
+  private final File dir;
+  private final int snapshotInterval;
+  private long generation = 0;
+  // the oldest generation whose files may remain.
+  private long oldest = 0;
+  private int journalCount = 0;
+  private OutputStream journal;
+  private Packer journalPacker;
+
+  /**
+   * Constructor.
+   * @param dir directory to store the files.
+   * @param snapshotInterval number of journaled requests between snapshots.
+   */
+  NetworkStore(File dir, int snapshotInterval) {
+    this.dir = dir;
+    this.snapshotInterval = snapshotInterval;
+  }
+
+  /**
+   * Returns the directory.
+   * @return directory to store the files.
+   */
+  File getDir() {
+    return dir;
+  }
+
+  /**
+   * Loads the latest snapshot. Files of older generations are deleted.
+   * @return snapshot. null if no snapshot is stored.
+   * @throws IOException if failed to read the snapshot.
+   */
+  synchronized Snapshot load() throws IOException {
+    if (!dir.isDirectory() && !dir.mkdirs()) {
+      throw new IOException("cannot create " + dir);
+    }
+    generation = latestGeneration(SNAPSHOT_PREFIX);
+    for (long old = generation - 1; old >= 0; old--) {
+      // left by a crash while taking a snapshot.
+      if (!file(SNAPSHOT_PREFIX, old).exists() && !file(JOURNAL_PREFIX, old).exists()) {
+        break;
+      }
+      deleteFiles(old);
+    }
+    oldest = generation;
+    if (generation == 0) {
+      return null;
+    }
+    return readSnapshot(file(SNAPSHOT_PREFIX, generation));
+  }
+
+  /**
+   * Replays the journals after the latest snapshot, in order.
+   * @param replayer receiver of the journaled requests.
+   * @return number of replayed requests. -1 if there is no journal.
+   * @throws IOException if failed to read the journals.
+   */
+  synchronized int replayJournal(Replayer replayer) throws IOException {
+    long latest = latestGeneration(JOURNAL_PREFIX);
+    int count = -1;
+    for (long gen = generation; gen <= latest; gen++) {
+      File file = file(JOURNAL_PREFIX, gen);
+      if (file.exists()) {
+        count = Math.max(count, 0) + replayJournal(file, replayer);
+      }
+    }
+    generation = Math.max(generation, latest);
+    journalCount = Math.max(count, 0);
+    return count;
+  }
+
+  private int replayJournal(File file, Replayer replayer) throws IOException {
+    int count = 0;
+    InputStream in = new BufferedInputStream(new FileInputStream(file));
+    try {
+      Unpacker unpacker = msgpack.createUnpacker(in);
+      while (true) {
+        Request request;
+        try {
+          request = unpacker.read(Request.class);
+        } catch (EOFException e) {
+          break;
+        } catch (IOException e) {
+          // the last record may be torn by a crash. it is dropped by
+          // the snapshot taken after recovery.
+          log.warn("Truncated journal {} after {} records.", file, count);
+          break;
+        }
+        try {
+          replayer.replay(request);
+        } catch (Exception e) {
+          log.error("Failed to replay {} {}.", request.method, request.path, e);
+        }
+        count++;
+      }
+    } finally {
+      in.close();
+    }
+    return count;
+  }
+
+  /**
+   * Appends a request to the journal.
+   * @param request request that modified the state.
+   * @return true if a snapshot is due.
+   * @throws IOException if failed to write the journal.
+   */
+  synchronized boolean append(Request request) throws IOException {
+    if (journalPacker == null) {
+      journal = new BufferedOutputStream(
+          new FileOutputStream(file(JOURNAL_PREFIX, generation), true));
+      journalPacker = msgpack.createPacker(journal);
+    }
+    journalPacker.write(request);
+    journal.flush();
+    journalCount++;
+    return journalCount >= snapshotInterval;
+  }
+
+  /**
+   * Returns the number of the requests journaled since the last snapshot.
+   * @return number of the requests.
+   */
+  synchronized int getJournalCount() {
+    return journalCount;
+  }
+
+  /**
+   * Starts a new journal. The state at this point is to be written by
+   * {@link #writeSnapshot(long, Snapshot)} with the generation returned.
+   * @return generation of the new journal.
+   */
+  synchronized long startGeneration() {
+    closeJournal();
+    generation++;
+    journalCount = 0;
+    return generation;
+  }
+
+  /**
+   * Starts a new journal and writes a snapshot.
+   * @param snapshot state of the Network.
+   * @throws IOException if failed to write the snapshot.
+   */
+  void writeSnapshot(Snapshot snapshot) throws IOException {
+    writeSnapshot(startGeneration(), snapshot);
+  }
+
+  /**
+   * Writes the snapshot of a generation, and deletes the older generations.
+   * May be called without blocking the journal. The snapshots must be
+   * written in the order of the generations.
+   * @param next generation returned by {@link #startGeneration()}.
+   * @param snapshot state of the Network when the generation was started.
+   * @throws IOException if failed to write the snapshot.
+   */
+  void writeSnapshot(long next, Snapshot snapshot) throws IOException {
+    File temp = new File(dir, SNAPSHOT_PREFIX + next + TEMP_SUFFIX);
+    FileOutputStream file = new FileOutputStream(temp);
+    OutputStream out = new BufferedOutputStream(file);
+    try {
+      Packer packer = msgpack.createPacker(out);
+      packer.writeMapBegin(4);
+      packer.write("topology");
+      packer.write(snapshot.topology);
+      packer.write("flows");
+      packer.write(snapshot.flowSet);
+      packer.write("deleting_flows");
+      packer.write(snapshot.deletingFlows);
+      packer.write("settings");
+      packer.write(snapshot.settings);
+      packer.writeMapEnd();
+      out.flush();
+      // durable before it replaces the older generations.
+      file.getFD().sync();
+    } finally {
+      out.close();
+    }
+    if (!temp.renameTo(file(SNAPSHOT_PREFIX, next))) {
+      throw new IOException("cannot rename " + temp);
+    }
+    syncDir();
+
+    synchronized (this) {
+      for (long old = oldest; old < next; old++) {
+        deleteFiles(old);
+      }
+      oldest = Math.max(oldest, next);
+    }
+  }
+
+  /**
+   * Closes the journal.
+   */
+  synchronized void close() {
+    closeJournal();
+  }
+
+  private Snapshot readSnapshot(File file) throws IOException {
+    Snapshot snapshot = new Snapshot();
+    InputStream in = new BufferedInputStream(new FileInputStream(file));
+    try {
+      Unpacker unpacker = msgpack.createUnpacker(in);
+      int size = unpacker.readMapBegin();
+      while (size-- > 0) {
+        switch (unpacker.readString()) {
+          case "topology":
+            snapshot.topology = unpacker.read(Topology.class);
+            break;
+          case "flows":
+            snapshot.flowSet = unpacker.read(FlowSet.class);
+            break;
+          case "deleting_flows":
+            int flowsSize = unpacker.readArrayBegin();
+            while (flowsSize-- > 0) {
+              snapshot.deletingFlows.add(unpacker.readString());
+            }
+            unpacker.readArrayEnd();
+            break;
+          case "settings":
+            int settingsSize = unpacker.readMapBegin();
+            while (settingsSize-- > 0) {
+              snapshot.settings.put(unpacker.readString(), unpacker.readString());
+            }
+            unpacker.readMapEnd();
+            break;
+          default:
+            unpacker.skip();
+            break;
+        }
+      }
+      unpacker.readMapEnd();
+    } finally {
+      in.close();
+    }
+    return snapshot;
+  }
+
+  private long latestGeneration(String prefix) {
+    long latest = 0;
+    String[] names = dir.list();
+    if (names == null) {
+      return latest;
+    }
+    for (String name : names) {
+      if (!name.startsWith(prefix) || name.endsWith(TEMP_SUFFIX)) {
+        continue;
+      }
+      try {
+        latest = Math.max(latest,
+            Long.parseLong(name.substring(prefix.length())));
+      } catch (NumberFormatException e) {
+        log.warn("Unknown file {} in {}.", name, dir);
+      }
+    }
+    return latest;
+  }
+
+  private void closeJournal() {
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      log.warn("Failed to close the journal.", e);
+    }
+    journal = null;
+    journalPacker = null;
+  }
+
+  // makes the renamed file durable. not supported on some platforms.
+  private void syncDir() {
+    FileChannel channel = null;
+    try {
+      channel = FileChannel.open(dir.toPath(), StandardOpenOption.READ);
+      channel.force(true);
+    } catch (IOException e) {
+      log.debug("Failed to sync {}.", dir);
+    } finally {
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          log.debug("Failed to close {}.", dir);
+        }
+      }
+    }
+  }
+
+  private void deleteFiles(long generation) {
+    File temp = new File(dir, SNAPSHOT_PREFIX + generation + TEMP_SUFFIX);
+    if (temp.exists() && !temp.delete()) {
+      log.warn("Failed to delete {}.", temp);
+    }
+    File snapshot = file(SNAPSHOT_PREFIX, generation);
+    if (snapshot.exists() && !snapshot.delete()) {
+      log.warn("Failed to delete {}.", snapshot);
+    }
+    File journal = file(JOURNAL_PREFIX, generation);
+    if (journal.exists() && !journal.delete()) {
+      log.warn("Failed to delete {}.", journal);
+    }
+  }
+
+  private File file(String prefix, long generation) {
+    return new File(dir, prefix + generation);
+  }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import org.msgpack.MessagePack;
+import org.msgpack.MessagePackable;
+import org.msgpack.packer.Packer;
+import org.msgpack.type.Value;
+import org.msgpack.type.ValueFactory;
+import org.msgpack.unpacker.Unpacker;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.FlowObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * A page of a collection of objects, in the order of their IDs.
+ *
+ * <p>
+ * The cursor to the next page holds the version of the collection and
+ * the last ID in this page. The next page starts after the ID, so that
+ * objects are neither skipped nor repeated across pages; the version
+ * tells the reader that the collection has been modified meanwhile.
+ *
+ * @param <T> type of objects.
+ */
+public class Page<T> implements MessagePackable {
+
+  public static final String ITEMS = "items";
+  public static final String NEXT = "next";
+
+  private static final String CURSOR_DELIMITER = ":";
+  private static final MessagePack msgpack = new MessagePack();
+
+  private Map<String, T> items;
+  private String next;
+
+  /**
+   * Constructor for {@link #readFrom(Unpacker)}.
+   */
+  public Page() {
+    this(new LinkedHashMap<String, T>(), null);
+  }
+
+  /**
+   * Constructor.
+   * @param items objects in this page, in the order of their IDs.
+   * @param next cursor to the next page. null if this is the last page.
+   */
+  public Page(Map<String, T> items, String next) {
+    this.items = items;
+    this.next = next;
+  }
+
+  /**
+   * Creates a page of a collection.
+   *
+   * @param all all the objects by ID.
+   * @param limit max number of objects in the page.
+   * @param cursor cursor returned with the previous page. null for the
+   *     first page.
+   * @param version version of the collection.
+   * @param <T> type of objects.
+   * @return page.
+   */
+  public static <T> Page<T> create(Map<String, T> all, int limit,
+      String cursor, String version) {
+    String after = (cursor == null) ? null : getCursorKey(cursor);
+    // the smallest IDs after the cursor, without sorting all of them.
+    PriorityQueue<String> selected =
+        new PriorityQueue<String>(limit + 1, Collections.reverseOrder());
+    boolean more = false;
+    for (String key : all.keySet()) {
+      if (after != null && key.compareTo(after) <= 0) {
+        continue;
+      }
+      selected.add(key);
+      if (selected.size() > limit) {
+        selected.poll();
+        more = true;
+      }
+    }
+    List<String> keys = new ArrayList<String>(selected);
+    Collections.sort(keys);
+    Map<String, T> items = new LinkedHashMap<String, T>();
+    for (String key : keys) {
+      items.put(key, all.get(key));
+    }
+    String next = null;
+    if (more) {
+      next = version + CURSOR_DELIMITER + keys.get(keys.size() - 1);
+    }
+    return new Page<T>(items, next);
+  }
+
+  /**
+   * Returns the version of the collection in a cursor.
+   * @param cursor cursor.
+   * @return version. null if the cursor is invalid.
+   */
+  public static String getCursorVersion(String cursor) {
+    int index = cursor.indexOf(CURSOR_DELIMITER);
+    if (index < 0) {
+      return null;
+    }
+    return cursor.substring(0, index);
+  }
+
+  private static String getCursorKey(String cursor) {
+    return cursor.substring(cursor.indexOf(CURSOR_DELIMITER) + 1);
+  }
+
+  /**
+   * Returns the objects in this page.
+   * @return map of objects in the order of their IDs.
+   */
+  public Map<String, T> getItems() {
+    return items;
+  }
+
+  /**
+   * Returns the cursor to the next page.
+   * @return cursor. null if this is the last page.
+   */
+  public String getNext() {
+    return next;
+  }
+
+  /**
+   * Returns whether there is a next page.
+   * @return true if there is a next page.
+   */
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  @Override
+  public void writeTo(Packer pk) throws IOException {
+    pk.writeMapBegin(2);
+    pk.write(ITEMS);
+    pk.write(items);
+    pk.write(NEXT);
+    if (next == null) {
+      pk.writeNil();
+    } else {
+      pk.write(next);
+    }
+    pk.writeMapEnd();
+  }
+
+  /**
+   * Reads a page. The type of objects is unknown here, so that they are
+   * read as Values; use {@link #readFrom(Value, Class)} to read them as
+   * their type.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public void readFrom(Unpacker upk) throws IOException {
+    Map<String, T> items = new LinkedHashMap<String, T>();
+    String next = null;
+    int size = upk.readMapBegin();
+    while (size-- > 0) {
+      switch (upk.readString()) {
+        case ITEMS:
+          int itemsSize = upk.readMapBegin();
+          while (itemsSize-- > 0) {
+            String key = upk.readString();
+            items.put(key, (T) upk.readValue());
+          }
+          upk.readMapEnd();
+          break;
+        case NEXT:
+          if (!upk.trySkipNil()) {
+            next = upk.readString();
+          }
+          break;
+        default:
+          upk.skip();
+          break;
+      }
+    }
+    upk.readMapEnd();
+    this.items = items;
+    this.next = next;
+  }
+
+  /**
+   * Reads a page from a response body.
+   *
+   * @param value response body.
+   * @param clazz type of objects. a subclass of Flow is read as a Flow
+   *     of the type in the message.
+   * @param <T> type of objects.
+   * @return page.
+   * @throws IOException if the body is not a page.
+   */
+  public static <T> Page<T> readFrom(Value value, Class<T> clazz)
+      throws IOException {
+    if (value == null || !value.isMapValue()) {
+      throw new IOException("not a page");
+    }
+    Value itemsValue = value.asMapValue().get(ValueFactory.createRawValue(ITEMS));
+    Value nextValue = value.asMapValue().get(ValueFactory.createRawValue(NEXT));
+    if (itemsValue == null || !itemsValue.isMapValue()) {
+      throw new IOException("not a page");
+    }
+    Map<String, T> items = new LinkedHashMap<String, T>();
+    for (Map.Entry<Value, Value> entry : itemsValue.asMapValue().entrySet()) {
+      T item;
+      if (Flow.class.isAssignableFrom(clazz)) {
+        item = clazz.cast(FlowObject.readFlowMessageFrom(entry.getValue()));
+      } else {
+        item = msgpack.convert(entry.getValue(), clazz);
+      }
+      items.put(entry.getKey().asRawValue().getString(), item);
+    }
+    String next = null;
+    if (nextValue != null && !nextValue.isNilValue()) {
+      next = nextValue.asRawValue().getString();
+    }
+    return new Page<T>(items, next);
+  }
+}
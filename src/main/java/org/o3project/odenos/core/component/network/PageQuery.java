@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.util.Map;
+
+/**
+ * Query of a page of a collection: "limit=N" and "cursor=C". The cursor
+ * is URL-encoded.
+ *
+ * <p>
+ * The other queries are left to the query of the collection; see
+ * {@link #getRemainingQueries()}.
+ */
+public class PageQuery extends BasicQuery<Object> {
+
+  public static final String LIMIT = "limit";
+  public static final String CURSOR = "cursor";
+
+  private Integer limit = null;
+  private String cursor = null;
+
+  /**
+   * Constructor.
+   * @param queriesString Queries String.
+   */
+  public PageQuery(String queriesString) {
+    super(queriesString);
+  }
+
+  /*
+   * (non-Javadoc)
+   * @see org.o3project.odenos.core.component.network.BasicQuery#parse()
+   */
+  @Override
+  public boolean parse() {
+    if (!super.parse()) {
+      return false;
+    }
+    if (this.queries.containsKey(LIMIT)) {
+      this.limit = BasicQuery.cretateInteger(this.queries, LIMIT);
+      this.queries.remove(LIMIT);
+      if (this.limit == null || this.limit <= 0) {
+        return false;
+      }
+    }
+    if (this.queries.containsKey(CURSOR)) {
+      // URL-encoded, since the ID in a cursor may contain '&' or '='.
+      try {
+        this.cursor = URLDecoder.decode(this.queries.remove(CURSOR), "UTF-8");
+      } catch (IllegalArgumentException | UnsupportedEncodingException e) {
+        return false;
+      }
+      if (this.limit == null || Page.getCursorVersion(this.cursor) == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether a page is requested.
+   * @return true if limit is specified.
+   */
+  public boolean isPaged() {
+    return this.limit != null;
+  }
+
+  /**
+   * Returns the max number of items in a page.
+   * @return limit. null if not specified.
+   */
+  public Integer getLimit() {
+    return this.limit;
+  }
+
+  /**
+   * Returns the cursor returned with the previous page.
+   * @return cursor. null for the first page.
+   */
+  public String getCursor() {
+    return this.cursor;
+  }
+
+  /**
+   * Returns the queries other than limit and cursor.
+   * @return queries string. null if there is none.
+   */
+  public String getRemainingQueries() {
+    if (this.queries.isEmpty()) {
+      return null;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (Map.Entry<String, String> entry : this.queries.entrySet()) {
+      if (sb.length() > 0) {
+        sb.append('&');
+      }
+      sb.append(entry.getKey()).append('=').append(entry.getValue());
+    }
+    return sb.toString();
+  }
+}
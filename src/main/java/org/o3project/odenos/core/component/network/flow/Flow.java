@@ -54,6 +54,8 @@ public class Flow extends OdenosMessage implements Cloneable {
   public static final String REQ_LATENCY = "req_latency";
   public static final String BANDWIDTH = "bandwidth";
   public static final String LATENCY = "latency";
+  // counter reported by the driver. a change tells the flow is not idle.
+  public static final String PACKET_COUNT = "packet_count";
 
 
   /**
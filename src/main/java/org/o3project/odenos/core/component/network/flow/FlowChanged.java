@@ -42,6 +42,8 @@ public class FlowChanged extends BaseNetworkChanged<Flow> {
   }
 
   public static final String TYPE = "FlowChanged";
+  public static final String DELTA_TYPE = "FlowChangedDelta";
+  public static final String BATCH_TYPE = "FlowChangedBatch";
 
   /**
    * Constructors.
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network.flow;
+
+import org.o3project.odenos.core.component.network.flow.FlowObject.FlowStatus;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlow;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlowMatch;
+import org.o3project.odenos.core.component.network.flow.query.BasicFlowMatchQuery;
+import org.o3project.odenos.core.component.network.flow.query.FlowQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary indexes of flows used to plan a flow query.
+ *
+ * <p>
+ * Flows are indexed by owner, enabled, priority, status, in_node and
+ * in_port of the match conditions and the edge nodes of the actions.
+ * The index does not watch the flows: {@link #put} must be called again
+ * after a flow is modified.
+ */
+class FlowIndex {
+
+  static final String OWNER = Flow.OWNER;
+  static final String ENABLED = Flow.ENABLED;
+  static final String PRIORITY = Flow.PRIORITY;
+  static final String STATUS = Flow.STATUS;
+  static final String IN_NODE = "in_node";
+  static final String IN_PORT = "in_port";
+  static final String OUT_NODE = "out_node";
+
+  // field -> value -> flow IDs
+  private final Map<String, Map<String, Set<String>>> index =
+      new HashMap<String, Map<String, Set<String>>>();
+  // flow ID -> field -> indexed values
+  private final Map<String, Map<String, Set<String>>> indexed =
+      new HashMap<String, Map<String, Set<String>>>();
+  // flows without match conditions, which satisfy any match query.
+  private final Set<String> noMatches = new HashSet<String>();
+
+  /**
+   * Indexes (or re-indexes) a flow.
+   * @param flow flow to be indexed.
+   */
+  void put(Flow flow) {
+    String flowId = flow.getFlowId();
+    remove(flowId);
+
+    Map<String, Set<String>> values = new HashMap<String, Set<String>>();
+    add(values, OWNER, flow.getOwner());
+    add(values, ENABLED, String.valueOf(flow.getEnabled()));
+    add(values, PRIORITY, flow.getPriority());
+    FlowStatus status = FlowStatus.messageValueOf(flow.getStatus());
+    if (status != null) {
+      add(values, STATUS, status.name());
+    }
+    if (flow instanceof BasicFlow) {
+      BasicFlow basicFlow = (BasicFlow) flow;
+      if (basicFlow.getMatches().isEmpty()) {
+        noMatches.add(flowId);
+      }
+      for (BasicFlowMatch match : basicFlow.getMatches()) {
+        add(values, IN_NODE, match.getInNode());
+        if (match.getInNode() != null && match.getInPort() != null) {
+          add(values, IN_PORT, portKey(match.getInNode(), match.getInPort()));
+        }
+      }
+      for (String nodeId : basicFlow.getEdgeActions().keySet()) {
+        add(values, OUT_NODE, nodeId);
+      }
+    }
+
+    for (Map.Entry<String, Set<String>> entry : values.entrySet()) {
+      Map<String, Set<String>> byValue = index.get(entry.getKey());
+      if (byValue == null) {
+        byValue = new HashMap<String, Set<String>>();
+        index.put(entry.getKey(), byValue);
+      }
+      for (String value : entry.getValue()) {
+        Set<String> flowIds = byValue.get(value);
+        if (flowIds == null) {
+          flowIds = new LinkedHashSet<String>();
+          byValue.put(value, flowIds);
+        }
+        flowIds.add(flowId);
+      }
+    }
+    indexed.put(flowId, values);
+  }
+
+  /**
+   * Removes a flow from the index.
+   * @param flowId flow ID.
+   */
+  void remove(String flowId) {
+    noMatches.remove(flowId);
+    Map<String, Set<String>> values = indexed.remove(flowId);
+    if (values == null) {
+      return;
+    }
+    for (Map.Entry<String, Set<String>> entry : values.entrySet()) {
+      Map<String, Set<String>> byValue = index.get(entry.getKey());
+      for (String value : entry.getValue()) {
+        Set<String> flowIds = byValue.get(value);
+        if (flowIds != null) {
+          flowIds.remove(flowId);
+          if (flowIds.isEmpty()) {
+            byValue.remove(value);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the IDs of the flows having a value of a field.
+   * @param field indexed field.
+   * @param value value of the field.
+   * @return set of flow IDs.
+   */
+  Set<String> get(String field, String value) {
+    Map<String, Set<String>> byValue = index.get(field);
+    Set<String> flowIds = (byValue != null) ? byValue.get(value) : null;
+    return (flowIds != null) ? Collections.unmodifiableSet(flowIds)
+        : Collections.<String>emptySet();
+  }
+
+  /**
+   * Returns the IDs of the flows which may match a query, looked up by
+   * the most selective index. The query still needs to be matched
+   * against each of them.
+   * @param query flow query.
+   * @return set of candidate flow IDs. null if no index is usable.
+   */
+  Set<String> getCandidates(FlowQuery query) {
+    List<Set<String>> candidates = null;
+    candidates = select(candidates, OWNER, query.getOwner());
+    if (query.getEnabled() != null) {
+      candidates = select(candidates, ENABLED, query.getEnabled().toString());
+    }
+    candidates = select(candidates, PRIORITY, query.getPriority());
+    if (query.getStatus() != null) {
+      candidates = select(candidates, STATUS, query.getStatus().name());
+    }
+
+    BasicFlowMatchQuery match = query.getMatch();
+    if (match != null && match.getInNode() != null) {
+      // every match condition has to match, so flows without any also do.
+      Set<String> flowIds = (match.getInPort() != null)
+          ? get(IN_PORT, portKey(match.getInNode(), match.getInPort()))
+          : get(IN_NODE, match.getInNode());
+      List<Set<String>> sets = new ArrayList<Set<String>>();
+      sets.add(flowIds);
+      sets.add(noMatches);
+      candidates = select(candidates, sets);
+    }
+
+    if (query.getActions() != null) {
+      candidates = select(candidates, OUT_NODE, query.getActions().getEdgeNodeId());
+    }
+
+    if (candidates == null) {
+      return null;
+    }
+    Set<String> result = new HashSet<String>();
+    for (Set<String> flowIds : candidates) {
+      result.addAll(flowIds);
+    }
+    return result;
+  }
+
+  /**
+   * Removes all the flows.
+   */
+  void clear() {
+    index.clear();
+    indexed.clear();
+    noMatches.clear();
+  }
+
+  private List<Set<String>> select(List<Set<String>> candidates,
+      String field, String value) {
+    if (value == null) {
+      return candidates;
+    }
+    return select(candidates, Collections.singletonList(get(field, value)));
+  }
+
+  private static List<Set<String>> select(List<Set<String>> candidates,
+      List<Set<String>> sets) {
+    if (candidates == null || size(sets) < size(candidates)) {
+      return sets;
+    }
+    return candidates;
+  }
+
+  private static int size(List<Set<String>> sets) {
+    int size = 0;
+    for (Set<String> set : sets) {
+      size += set.size();
+    }
+    return size;
+  }
+
+  private static void add(Map<String, Set<String>> values,
+      String field, String value) {
+    if (value == null) {
+      return;
+    }
+    Set<String> set = values.get(field);
+    if (set == null) {
+      set = new HashSet<String>();
+      values.put(field, set);
+    }
+    set.add(value);
+  }
+
+  private static String portKey(String nodeId, String portId) {
+    return nodeId + '\u0000' + portId;
+  }
+}
@@ -16,9 +16,12 @@
 
 package org.o3project.odenos.core.component.network.flow;
 
+import org.o3project.odenos.core.component.network.BasicQuery;
 import org.o3project.odenos.core.component.network.flow.query.BasicFlowMatchQuery;
 import org.o3project.odenos.core.util.InstanceCreator;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -30,6 +33,19 @@ public class FlowMatchQueryFactory {
   private static String PACKAGEPATH =
       BasicFlowMatchQuery.class.getPackage().getName() + ".";
 
+  private static final int CACHE_SIZE = 256;
+
+  // parsed queries by match string (LRU).
+  private static final Map<String, BasicFlowMatchQuery> cache =
+      Collections.synchronizedMap(
+          new LinkedHashMap<String, BasicFlowMatchQuery>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                Map.Entry<String, BasicFlowMatchQuery> eldest) {
+              return size() > CACHE_SIZE;
+            }
+          });
+
   /**
    * Constructor.
    * @deprecated @see #create(java.lang.Map)
@@ -61,4 +77,32 @@ public class FlowMatchQueryFactory {
     }
     return query;
   }
-}
\ No newline at end of file
+
+  /**
+   * Returns a parsed BasicFlowMatchQuery object.
+   *
+   * <p>
+   * Parsed queries are cached by the match string and shared among
+   * the callers. They must not be modified.
+   *
+   * @param matchString match conditions (e.g. "type=OFPFlowMatch,in_node=n1").
+   * @return BasicFlowMatchQuery object. null if the conditions are invalid.
+   */
+  public static BasicFlowMatchQuery parse(String matchString) {
+    BasicFlowMatchQuery query = cache.get(matchString);
+    if (query != null) {
+      return query;
+    }
+    Map<String, String> match =
+        BasicQuery.convertToMap(matchString.split(","), "=");
+    if (match == null || !match.containsKey("type")) {
+      return null;
+    }
+    query = create(match);
+    if (query == null || !query.parse()) {
+      return null;
+    }
+    cache.put(matchString, query);
+    return query;
+  }
+}
@@ -27,11 +27,17 @@ import org.o3project.odenos.core.component.network.flow.ofpflow.OFPFlow;
 import org.o3project.odenos.core.component.network.flow.query.FlowQuery;
 import org.o3project.odenos.remoteobject.message.OdenosMessage;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -42,6 +48,78 @@ public class FlowSet extends OdenosMessage {
   public String type = "FlowSet";
   public Map<String, List<String>> priority;
   public Map<String, Flow> flows;
+  private final FlowIndex index = new FlowIndex();
+  // flow ID -> priority
+  private final Map<String, String> flowPriorities = new HashMap<String, String>();
+
+  /**
+   * List of flow IDs of a priority, backed by a linked hash set so that
+   * lookup and removal take constant time. Access by index takes linear
+   * time.
+   *
+   * <p>
+   * Unlike the contract of {@link List#add(Object)}, the list holds each
+   * flow ID once: adding an ID already in the list leaves the list
+   * unchanged and returns false, and duplicates in a collection given to
+   * the constructor are dropped.
+   */
+  static class FlowIdList extends AbstractList<String> {
+    private final Set<String> flowIds = new LinkedHashSet<String>();
+
+    FlowIdList() {
+    }
+
+    FlowIdList(Collection<String> flowIds) {
+      this.flowIds.addAll(flowIds);
+    }
+
+    @Override
+    public String get(int index) {
+      if (index < 0 || index >= flowIds.size()) {
+        throw new IndexOutOfBoundsException("Index: " + index);
+      }
+      Iterator<String> it = flowIds.iterator();
+      for (int i = 0; i < index; i++) {
+        it.next();
+      }
+      return it.next();
+    }
+
+    @Override
+    public int size() {
+      return flowIds.size();
+    }
+
+    /**
+     * Appends a flow ID unless the list has it already.
+     * @param flowId flow ID.
+     * @return true if appended. false if the list has it already.
+     */
+    @Override
+    public boolean add(String flowId) {
+      return flowIds.add(flowId);
+    }
+
+    @Override
+    public boolean contains(Object flowId) {
+      return flowIds.contains(flowId);
+    }
+
+    @Override
+    public boolean remove(Object flowId) {
+      return flowIds.remove(flowId);
+    }
+
+    @Override
+    public void clear() {
+      flowIds.clear();
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return flowIds.iterator();
+    }
+  }
 
   /**
    * Constructor.
@@ -65,13 +143,28 @@ public class FlowSet extends OdenosMessage {
     if (priority == null) {
       this.priority = new HashMap<String, List<String>>();
     } else {
-      this.priority = priority;
+      // copied, so that the map of the caller is left as it is.
+      this.priority = new HashMap<String, List<String>>();
+      for (Map.Entry<String, List<String>> entry : priority.entrySet()) {
+        if (entry.getValue() == null) {
+          this.priority.put(entry.getKey(), null);
+          continue;
+        }
+        FlowIdList flowIds = new FlowIdList(entry.getValue());
+        this.priority.put(entry.getKey(), flowIds);
+        for (String flowId : flowIds) {
+          flowPriorities.put(flowId, entry.getKey());
+        }
+      }
     }
     if (flows == null) {
       this.flows = new HashMap<String, Flow>();
     } else {
       this.flows = flows;
     }
+    for (Flow flow : this.flows.values()) {
+      index.put(flow);
+    }
   }
 
   /**
@@ -110,10 +203,8 @@ public class FlowSet extends OdenosMessage {
     flow.setPriority(pri);
     flow.updateVersion();
     flows.put(flowId, flow);
-    if (priority.get(pri) == null) {
-      priority.put(pri, new ArrayList<String>());
-    }
-    priority.get(pri).add(flowId);
+    index.put(flow);
+    putPriority(flowId, pri);
     updateVersion();
     return flow;
   }
@@ -188,12 +279,8 @@ public class FlowSet extends OdenosMessage {
     }
     flow.updateVersion();
     flows.put(flowId, flow);
-    if (priority.get(msg.getPriority()) == null) {
-      priority.put(msg.getPriority(), new ArrayList<String>());
-    }
-    if (!priority.get(msg.getPriority()).contains(flowId)) {
-      priority.get(msg.getPriority()).add(flowId);
-    }
+    index.put(flow);
+    putPriority(flowId, msg.getPriority());
     updateVersion();
     return flow;
   }
@@ -238,11 +325,26 @@ public class FlowSet extends OdenosMessage {
     if (flow == null) {
       return null;
     }
-    String pri = flow.getPriority();
-    priority.get(pri).remove(flow.flowId);
+    String pri = flowPriorities.containsKey(flow.flowId)
+        ? flowPriorities.remove(flow.flowId) : flow.getPriority();
+    List<String> flowIds = priority.get(pri);
+    if (flowIds != null) {
+      flowIds.remove(flow.flowId);
+    }
+    index.remove(flow.flowId);
     return flows.remove(flow.flowId);
   }
 
+  /**
+   * Re-indexes a flow modified in place.
+   * @param flow modified flow.
+   */
+  public void reindexFlow(Flow flow) {
+    if (flow != null && flows.get(flow.getFlowId()) == flow) {
+      index.put(flow);
+    }
+  }
+
   protected String getUniqueFlowId() {
     String id;
     do {
@@ -253,29 +355,60 @@ public class FlowSet extends OdenosMessage {
   }
 
   private String getPriority(String flowId) {
-    for (Map.Entry<String, List<String>> e : priority.entrySet()) {
-      if (e.getValue().contains(flowId)) {
-        return e.getKey();
+    return flowPriorities.get(flowId);
+  }
+
+  /**
+   * Puts a flow ID into the list of a priority, moving it from the list
+   * of its former priority.
+   * @param flowId flow ID.
+   * @param pri priority.
+   */
+  private void putPriority(String flowId, String pri) {
+    boolean moved = flowPriorities.containsKey(flowId);
+    String former = flowPriorities.put(flowId, pri);
+    if (moved && !Objects.equals(former, pri)) {
+      List<String> flowIds = priority.get(former);
+      if (flowIds != null) {
+        flowIds.remove(flowId);
       }
     }
-    return null;
+    List<String> flowIds = priority.get(pri);
+    if (flowIds == null) {
+      flowIds = new FlowIdList();
+      priority.put(pri, flowIds);
+    }
+    flowIds.add(flowId);
   }
 
   /**
    * Return flow message.
+   *
+   * <p>
+   * Only the flows found by the most selective index of the query
+   * are matched, or all the flows if no index is usable.
+   *
    * @param query queries string.
    * @return flow set instance.
    */
   public FlowSet getFlowMessages(FlowQuery query) {
     Map<String, Flow> flows = new HashMap<String, Flow>();
     Map<String, List<String>> priorities = new HashMap<String, List<String>>();
-    for (Flow flow : this.flows.values()) {
+    Collection<Flow> candidates = this.flows.values();
+    Set<String> flowIds = (query != null) ? index.getCandidates(query) : null;
+    if (flowIds != null) {
+      candidates = new ArrayList<Flow>(flowIds.size());
+      for (String flowId : flowIds) {
+        candidates.add(this.flows.get(flowId));
+      }
+    }
+    for (Flow flow : candidates) {
       if (query.matchExactly(flow)) {
         String flowId = flow.getFlowId();
         String pri = getPriority(flowId);
         flows.put(flowId, flow);
         if (!priorities.containsKey(pri)) {
-          priorities.put(pri, new ArrayList<String>());
+          priorities.put(pri, new FlowIdList());
         }
         priorities.get(pri).add(flowId);
       }
@@ -294,6 +427,7 @@ public class FlowSet extends OdenosMessage {
     }
 
     priority.clear();
+    flowPriorities.clear();
     Value priorityValue = map.get(ValueFactory.createRawValue("priority"))
         .asMapValue();
     if (priorityValue != null && !priorityValue.isNilValue()) {
@@ -302,9 +436,10 @@ public class FlowSet extends OdenosMessage {
         String key = entry.getKey().asRawValue().getString();
 
         ArrayValue priorityVarray = entry.getValue().asArrayValue();
-        List<String> priorityArray = new ArrayList<String>();
+        List<String> priorityArray = new FlowIdList();
         for (Value p : priorityVarray) {
           priorityArray.add(p.asRawValue().getString());
+          flowPriorities.put(p.asRawValue().getString(), key);
         }
 
         priority.put(key, priorityArray);
@@ -312,6 +447,7 @@ public class FlowSet extends OdenosMessage {
     }
 
     flows.clear();
+    index.clear();
     Value flowsValue = map.get(ValueFactory.createRawValue("flows"));
     if (flowsValue != null && !flowsValue.isNilValue()) {
       MapValue flowsMap = flowsValue.asMapValue();
@@ -320,6 +456,7 @@ public class FlowSet extends OdenosMessage {
         Flow msg = FlowObject.readFlowMessageFrom(entry.getValue());
 
         flows.put(key, msg);
+        index.put(msg);
       }
     }
 
@@ -48,6 +48,22 @@ public class BasicFlowMatchQuery {
     this.match = match;
   }
 
+  /**
+   * Returns the in_node condition.
+   * @return node ID. null if not specified.
+   */
+  public String getInNode() {
+    return inNode;
+  }
+
+  /**
+   * Returns the in_port condition.
+   * @return port ID. null if not specified.
+   */
+  public String getInPort() {
+    return inPort;
+  }
+
   /**
    * Parse queries.
    * @return true if queries could be parsed.
@@ -52,6 +52,26 @@ public class BasicFlowQuery extends FlowQuery {
     super(queriesString);
   }
 
+  @Override
+  public Boolean getEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public FlowStatus getStatus() {
+    return status;
+  }
+
+  @Override
+  public BasicFlowMatchQuery getMatch() {
+    return match;
+  }
+
+  @Override
+  public FlowActionQuery getActions() {
+    return actions;
+  }
+
   @Override
   public boolean parse() {
     if (!super.parse()) {
@@ -76,22 +96,10 @@ public class BasicFlowQuery extends FlowQuery {
       }
     }
     if (this.queries.containsKey("match")) {
-      Map<String, String> tmp =
-          BasicQuery.convertToMap(
-              this.queries.remove("match").split(","), "=");
-      if (tmp == null) {
-        return false;
-      }
-      if (!tmp.containsKey("type")) {
-        return false;
-      }
-      this.match = FlowMatchQueryFactory.create(tmp);
+      this.match = FlowMatchQueryFactory.parse(this.queries.remove("match"));
       if (this.match == null) {
         return false;
       }
-      if (!this.match.parse()) {
-        return false;
-      }
     }
     if (this.queries.containsKey("path")) {
       Map<String, String> tmp =
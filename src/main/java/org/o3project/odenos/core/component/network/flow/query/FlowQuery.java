@@ -18,7 +18,9 @@ package org.o3project.odenos.core.component.network.flow.query;
 
 import org.o3project.odenos.core.component.network.BaseObjectQuery;
 import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.FlowObject.FlowStatus;
 import org.o3project.odenos.core.component.network.topology.Topology;
+import org.o3project.odenos.remoteobject.message.BaseObject;
 
 /**
  * Prepares a query for Flow class.
@@ -27,6 +29,8 @@ import org.o3project.odenos.core.component.network.topology.Topology;
 public abstract class FlowQuery extends BaseObjectQuery<Flow> {
 
   protected Topology topology = null;
+  protected String owner = null;
+  protected String priority = null;
 
   /**
    * Constructor.
@@ -43,4 +47,80 @@ public abstract class FlowQuery extends BaseObjectQuery<Flow> {
   public void setTopology(Topology topology) {
     this.topology = topology;
   }
+
+  @Override
+  public boolean parse() {
+    if (!super.parse()) {
+      return false;
+    }
+    this.owner = this.queries.remove("owner");
+    this.priority = this.queries.remove("priority");
+    return true;
+  }
+
+  @Override
+  public boolean matchExactly(BaseObject target) {
+    if (!super.matchExactly(target)) {
+      return false;
+    }
+    if (!(target instanceof Flow)) {
+      return false;
+    }
+    Flow flow = (Flow) target;
+    if (this.owner != null && !this.owner.equals(flow.getOwner())) {
+      return false;
+    }
+    if (this.priority != null && !this.priority.equals(flow.getPriority())) {
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the owner condition.
+   * @return owner. null if not specified.
+   */
+  public String getOwner() {
+    return owner;
+  }
+
+  /**
+   * Returns the priority condition.
+   * @return priority. null if not specified.
+   */
+  public String getPriority() {
+    return priority;
+  }
+
+  /**
+   * Returns the enabled condition.
+   * @return enabled. null if not specified.
+   */
+  public Boolean getEnabled() {
+    return null;
+  }
+
+  /**
+   * Returns the status condition.
+   * @return status. null if not specified.
+   */
+  public FlowStatus getStatus() {
+    return null;
+  }
+
+  /**
+   * Returns the match condition.
+   * @return match query. null if not specified.
+   */
+  public BasicFlowMatchQuery getMatch() {
+    return null;
+  }
+
+  /**
+   * Returns the actions condition.
+   * @return action query. null if not specified.
+   */
+  public FlowActionQuery getActions() {
+    return null;
+  }
 }
\ No newline at end of file
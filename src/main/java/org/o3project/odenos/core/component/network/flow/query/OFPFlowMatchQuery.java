@@ -89,6 +89,12 @@ public class OFPFlowMatchQuery
   public Integer ipv6Exthdr = null;
   public Integer ipv6ExthdrMask = null;
 
+  // compiled conditions: bitmask of the specified fields and their values.
+  private boolean compiled = false;
+  private long present = 0;
+  private String[] strings = null;
+  private long[] numbers = null;
+
   /**
    * Constructor.
    * @param params match conditions.
@@ -333,8 +339,12 @@ public class OFPFlowMatchQuery
     if (!super.parse()) {
       return false;
     }
+    if (this.match.size() != 0) {
+      return false;
+    }
 
-    return this.match.size() == 0;
+    compile();
+    return true;
   }
 
   @Override
@@ -348,174 +358,112 @@ public class OFPFlowMatchQuery
       return false;
     }
 
-    if (isInvalidParameter(this.inPhyPort, target.getInPhyPort())) {
-      return false;
-    }
-    if (isInvalidParameter(this.metadata, target.getMetadata())) {
-      return false;
-    }
-    if (isInvalidParameter(this.metadataMask, target.getMetadataMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ethSrc, target.getEthSrc())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ethSrcMask, target.getEthSrcMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ethDst, target.getEthDst())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ethDstMask, target.getEthDstMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.vlanVid, target.getVlanVid())) {
-      return false;
-    }
-    if (isInvalidParameter(this.vlanVidMask, target.getVlanVidMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.vlanPcp, target.getVlanPcp())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ethType, target.getEthType())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipDscp, target.getIpDscp())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipEcn, target.getIpEcn())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipProto, target.getIpProto())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv4Src, target.getIpv4Src())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv4SrcMask, target.getIpv4SrcMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv4Dst, target.getIpv4Dst())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv4DstMask, target.getIpv4DstMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.tcpSrc, target.getTcpSrc())) {
-      return false;
-    }
-    if (isInvalidParameter(this.tcpDst, target.getTcpDst())) {
-      return false;
-    }
-    if (isInvalidParameter(this.udpSrc, target.getUdpSrc())) {
-      return false;
-    }
-    if (isInvalidParameter(this.udpDst, target.getUdpDst())) {
-      return false;
-    }
-    if (isInvalidParameter(this.sctpSrc, target.getSctpSrc())) {
-      return false;
-    }
-    if (isInvalidParameter(this.sctpDst, target.getSctpDst())) {
-      return false;
-    }
-    if (isInvalidParameter(this.icmpv4Type, target.getIcmpv4Type())) {
-      return false;
-    }
-    if (isInvalidParameter(this.icmpv4Code, target.getIcmpv4Code())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpOp, target.getArpOp())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpSpa, target.getArpSpa())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpSpaMask, target.getArpSpaMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpTpa, target.getArpTpa())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpTpaMask, target.getArpTpaMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpSha, target.getArpSha())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpShaMask, target.getArpShaMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpTha, target.getArpTha())) {
-      return false;
-    }
-    if (isInvalidParameter(this.arpThaMask, target.getArpThaMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6Src, target.getIpv6Src())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6SrcMask, target.getIpv6SrcMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6Dst, target.getIpv6Dst())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6DstMask, target.getIpv6DstMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6Flabel, target.getIpv6Flabel())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6FlabelMask, target.getIpv6FlabelMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.icmpv6Type, target.getIcmpv6Type())) {
-      return false;
-    }
-    if (isInvalidParameter(this.icmpv6Code, target.getIcmpv6Code())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6NdTarget, target.getIpv6NdTarget())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6NdSll, target.getIpv6NdSll())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6NdTll, target.getIpv6NdTll())) {
-      return false;
-    }
-    if (isInvalidParameter(this.mplsLabel, target.getMplsLabel())) {
-      return false;
-    }
-    if (isInvalidParameter(this.mplsTc, target.getMplsTc())) {
-      return false;
-    }
-    if (isInvalidParameter(this.mplsBos, target.getMplsBos())) {
-      return false;
-    }
-    if (isInvalidParameter(this.pbbIsid, target.getPbbIsid())) {
-      return false;
-    }
-    if (isInvalidParameter(this.pbbIsidMask, target.getPbbIsidMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.tunnelId, target.getTunnelId())) {
-      return false;
-    }
-    if (isInvalidParameter(this.tunnelIdMask, target.getTunnelIdMask())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6Exthdr, target.getIpv6Exthdr())) {
-      return false;
-    }
-    if (isInvalidParameter(this.ipv6ExthdrMask, target.getIpv6ExthdrMask())) {
-      return false;
+    compile();
+    for (long bits = this.present; bits != 0; bits &= bits - 1) {
+      int field = Long.numberOfTrailingZeros(bits);
+      Object value = getValue(field, target);
+      if (value == null) {
+        return false;
+      }
+      String expected = this.strings[field];
+      if (expected != null) {
+        if (isInvalidParameter(expected, value)) {
+          return false;
+        }
+      } else if (((Number) value).longValue() != this.numbers[field]) {
+        return false;
+      }
     }
     return true;
   }
 
+  /**
+   * Compiles the conditions into a bitmask of the specified fields and
+   * their values, unboxed for numbers. The conditions are compiled once
+   * by {@link #parse()} or the first match, and must not be modified
+   * afterward.
+   */
+  private void compile() {
+    if (this.compiled) {
+      return;
+    }
+    Object[] values = new Object[] {
+        this.inPhyPort,
+        this.metadata,
+        this.metadataMask,
+        this.ethSrc,
+        this.ethSrcMask,
+        this.ethDst,
+        this.ethDstMask,
+        this.vlanVid,
+        this.vlanVidMask,
+        this.vlanPcp,
+        this.ethType,
+        this.ipDscp,
+        this.ipEcn,
+        this.ipProto,
+        this.ipv4Src,
+        this.ipv4SrcMask,
+        this.ipv4Dst,
+        this.ipv4DstMask,
+        this.tcpSrc,
+        this.tcpDst,
+        this.udpSrc,
+        this.udpDst,
+        this.sctpSrc,
+        this.sctpDst,
+        this.icmpv4Type,
+        this.icmpv4Code,
+        this.arpOp,
+        this.arpSpa,
+        this.arpSpaMask,
+        this.arpTpa,
+        this.arpTpaMask,
+        this.arpSha,
+        this.arpShaMask,
+        this.arpTha,
+        this.arpThaMask,
+        this.ipv6Src,
+        this.ipv6SrcMask,
+        this.ipv6Dst,
+        this.ipv6DstMask,
+        this.ipv6Flabel,
+        this.ipv6FlabelMask,
+        this.icmpv6Type,
+        this.icmpv6Code,
+        this.ipv6NdTarget,
+        this.ipv6NdSll,
+        this.ipv6NdTll,
+        this.mplsLabel,
+        this.mplsTc,
+        this.mplsBos,
+        this.pbbIsid,
+        this.pbbIsidMask,
+        this.tunnelId,
+        this.tunnelIdMask,
+        this.ipv6Exthdr,
+        this.ipv6ExthdrMask
+    };
+    long present = 0;
+    String[] strings = new String[values.length];
+    long[] numbers = new long[values.length];
+    for (int field = 0; field < values.length; field++) {
+      if (values[field] == null) {
+        continue;
+      }
+      present |= 1L << field;
+      if (values[field] instanceof String) {
+        strings[field] = (String) values[field];
+      } else {
+        numbers[field] = ((Number) values[field]).longValue();
+      }
+    }
+    this.strings = strings;
+    this.numbers = numbers;
+    this.present = present;
+    this.compiled = true;
+  }
+
   /**
    * check invalid parameters.
    * @param target1 value of query.
@@ -529,4 +477,121 @@ public class OFPFlowMatchQuery
     return !Objects.equals(target1, target2);
   }
 
+  private static Object getValue(int field, OFPFlowMatch target) {
+    switch (field) {
+      case 0:
+        return target.getInPhyPort();
+      case 1:
+        return target.getMetadata();
+      case 2:
+        return target.getMetadataMask();
+      case 3:
+        return target.getEthSrc();
+      case 4:
+        return target.getEthSrcMask();
+      case 5:
+        return target.getEthDst();
+      case 6:
+        return target.getEthDstMask();
+      case 7:
+        return target.getVlanVid();
+      case 8:
+        return target.getVlanVidMask();
+      case 9:
+        return target.getVlanPcp();
+      case 10:
+        return target.getEthType();
+      case 11:
+        return target.getIpDscp();
+      case 12:
+        return target.getIpEcn();
+      case 13:
+        return target.getIpProto();
+      case 14:
+        return target.getIpv4Src();
+      case 15:
+        return target.getIpv4SrcMask();
+      case 16:
+        return target.getIpv4Dst();
+      case 17:
+        return target.getIpv4DstMask();
+      case 18:
+        return target.getTcpSrc();
+      case 19:
+        return target.getTcpDst();
+      case 20:
+        return target.getUdpSrc();
+      case 21:
+        return target.getUdpDst();
+      case 22:
+        return target.getSctpSrc();
+      case 23:
+        return target.getSctpDst();
+      case 24:
+        return target.getIcmpv4Type();
+      case 25:
+        return target.getIcmpv4Code();
+      case 26:
+        return target.getArpOp();
+      case 27:
+        return target.getArpSpa();
+      case 28:
+        return target.getArpSpaMask();
+      case 29:
+        return target.getArpTpa();
+      case 30:
+        return target.getArpTpaMask();
+      case 31:
+        return target.getArpSha();
+      case 32:
+        return target.getArpShaMask();
+      case 33:
+        return target.getArpTha();
+      case 34:
+        return target.getArpThaMask();
+      case 35:
+        return target.getIpv6Src();
+      case 36:
+        return target.getIpv6SrcMask();
+      case 37:
+        return target.getIpv6Dst();
+      case 38:
+        return target.getIpv6DstMask();
+      case 39:
+        return target.getIpv6Flabel();
+      case 40:
+        return target.getIpv6FlabelMask();
+      case 41:
+        return target.getIcmpv6Type();
+      case 42:
+        return target.getIcmpv6Code();
+      case 43:
+        return target.getIpv6NdTarget();
+      case 44:
+        return target.getIpv6NdSll();
+      case 45:
+        return target.getIpv6NdTll();
+      case 46:
+        return target.getMplsLabel();
+      case 47:
+        return target.getMplsTc();
+      case 48:
+        return target.getMplsBos();
+      case 49:
+        return target.getPbbIsid();
+      case 50:
+        return target.getPbbIsidMask();
+      case 51:
+        return target.getTunnelId();
+      case 52:
+        return target.getTunnelIdMask();
+      case 53:
+        return target.getIpv6Exthdr();
+      case 54:
+        return target.getIpv6ExthdrMask();
+      default:
+        return null;
+    }
+  }
+
 }
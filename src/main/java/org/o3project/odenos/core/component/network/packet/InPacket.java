@@ -142,6 +142,8 @@ public class InPacket extends Packet {
 
   /**
    * Return payload.
+   * The array is shared by the copies of the packet and by its encoded
+   * values, so it must not be modified.
    * @return payload.
    */
   public byte[] getData() {
@@ -224,7 +226,8 @@ public class InPacket extends Packet {
     }
     values.put("node", ValueFactory.createRawValue(this.nodeId));
     values.put("port", ValueFactory.createRawValue(this.portId));
-    values.put("data", ValueFactory.createRawValue(this.data));
+    // the payload is shared, not copied, on every encode.
+    values.put("data", ValueFactory.createRawValue(this.data, true));
     if (header != null) {
       values.put("header", header.writeValue());
     }
@@ -16,14 +16,31 @@
 
 package org.o3project.odenos.core.component.network.packet;
 
+import org.msgpack.packer.Packer;
+import org.msgpack.unpacker.Unpacker;
+
+import java.io.IOException;
+
 /**
  * InPacketAdded represents a body of event message delivered when InPacketAdded
  * event occurs.
  *
+ * <p>
+ * The body of {@link #INLINE_TYPE} carries the packet itself in addition
+ * to its ID. If the packet is consumed, the Network has already dequeued
+ * it on behalf of the only subscriber; otherwise the subscribers have to
+ * claim it by deleting it from the Network, as with {@link #TYPE}, and
+ * the first one to delete it wins.
  */
 public class InPacketAdded extends BasePacketAdded {
 
   public static final String TYPE = "InPacketAdded";
+  public static final String INLINE_TYPE = "InPacketAddedInline";
+
+  private static final int INLINE_MSG_NUM = 3;
+
+  private InPacket packet;
+  private boolean consumed;
 
   /**
    * Constructor.
@@ -38,4 +55,76 @@ public class InPacketAdded extends BasePacketAdded {
   public InPacketAdded(final Packet inpacket) {
     super(inpacket);
   }
-}
\ No newline at end of file
+
+  /**
+   * Constructor for the inline form.
+   * @param inpacket packet of packet IN.
+   * @param consumed true if the packet has been dequeued.
+   */
+  public InPacketAdded(final InPacket inpacket, final boolean consumed) {
+    super(inpacket);
+    this.packet = inpacket;
+    this.consumed = consumed;
+  }
+
+  /**
+   * Returns the packet carried inline.
+   * @return packet. null if not carried.
+   */
+  public final InPacket getPacket() {
+    return packet;
+  }
+
+  /**
+   * Returns whether the packet has been dequeued from the Network.
+   * @return true if consumed.
+   */
+  public final boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public void readFrom(Unpacker upk) throws IOException {
+    int size = upk.readMapBegin();
+    if (size != 1 && size != INLINE_MSG_NUM) {
+      throw new IOException();
+    }
+
+    for (int i = 0; i < size; i++) {
+      String key = upk.readString();
+      switch (key) {
+        case "id":
+          setId(upk.readString());
+          break;
+        case "packet":
+          packet = PacketObject.readInPacketFrom(upk.readValue());
+          break;
+        case "consumed":
+          consumed = upk.readBoolean();
+          break;
+        default:
+          throw new IOException();
+      }
+    }
+
+    upk.readMapEnd();
+  }
+
+  @Override
+  public void writeTo(Packer pk) throws IOException {
+    if (packet == null) {
+      super.writeTo(pk);
+      return;
+    }
+    pk.writeMapBegin(INLINE_MSG_NUM);
+
+    pk.write("id");
+    pk.write(getId());
+    pk.write("packet");
+    pk.write(packet);
+    pk.write("consumed");
+    pk.write(consumed);
+
+    pk.writeMapEnd();
+  }
+}
@@ -182,6 +182,8 @@ public class OutPacket extends Packet {
 
   /**
    * Return payload.
+   * The array is shared by the copies of the packet and by its encoded
+   * values, so it must not be modified.
    * @return payload.
    */
   public byte[] getData() {
@@ -305,7 +307,8 @@ public class OutPacket extends Packet {
           ValueFactory.createArrayValue(portExceptIdsValues));
     }
 
-    values.put("data", ValueFactory.createRawValue(this.data));
+    // the payload is shared, not copied, on every encode.
+    values.put("data", ValueFactory.createRawValue(this.data, true));
     if (header != null) {
       values.put("header", header.writeValue());
     }
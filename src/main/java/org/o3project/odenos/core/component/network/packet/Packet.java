@@ -84,6 +84,14 @@ public abstract class Packet extends OdenosMessage {
     this.packetId = packetId;
   }
 
+  /**
+   * Returns the payload.
+   * @return payload. null if the packet has no payload.
+   */
+  public byte[] getData() {
+    return null;
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (obj == null) {
@@ -16,53 +16,171 @@
 
 package org.o3project.odenos.core.component.network.packet;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Queue packet.
  *
+ * <p>
+ * Packets are kept in a bounded ring indexed by their sequence numbers,
+ * so that a packet is looked up, picked or dequeued in constant time.
+ * A packet ID is its sequence number formatted in ten digits. A packet
+ * picked from the middle leaves its slot empty until the head passes it.
+ * When the ring has no slot for a new packet but the queue is not full,
+ * the head packets are moved out of the ring, keeping their sequence
+ * numbers, so that the holes never count as packets. When the queue is
+ * full, a packet is dropped according to the overflow policy.
  */
 public class PacketQueue {
-  private LinkedList<Packet> packets = new LinkedList<Packet>();
-  private Map<String, Packet> packetDict = new HashMap<String, Packet>();
+
+  /**
+   * Policies to drop a packet when the queue is full.
+   *
+   * <ul>
+   * <li>DROP_OLDEST: drops the head packet to enqueue the new one.</li>
+   * <li>DROP_NEWEST: does not enqueue the new packet.</li>
+   * </ul>
+   */
+  public static enum OverflowPolicy {
+    DROP_OLDEST, DROP_NEWEST;
+  }
+
+  public static final int DEFAULT_CAPACITY = 65536;
+  private static final int PACKET_ID_DIGITS = 10;
+
+  private final Object lock = new Object();
+  private Packet[] ring;
+  private int mask;
+  // sequence number of the head slot, and of the next packet.
+  private long head = 0;
+  private long tail = 0;
+  // packets older than the head, moved out of the ring to make room.
+  private final TreeMap<Long, Packet> displaced = new TreeMap<Long, Packet>();
+  // packets in the ring and displaced.
+  private int queueCount = 0;
+  private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
   private long packetCount = 0;
   private long packetBytes = 0;
+  private long dropCount = 0;
 
   /**
    * Constructor.
    */
   public PacketQueue() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructor.
+   * @param capacity max number of packets, rounded up to a power of two.
+   */
+  public PacketQueue(int capacity) {
+    ring = new Packet[ringSize(capacity)];
+    mask = ring.length - 1;
+  }
+
+  private static int ringSize(int capacity) {
+    if (capacity <= 1) {
+      return 1;
+    }
+    return Integer.highestOneBit(Math.min(capacity, 1 << 30) - 1) << 1;
+  }
+
+  /**
+   * Returns the capacity.
+   * @return max number of packets.
+   */
+  public int getCapacity() {
+    synchronized (lock) {
+      return ring.length;
+    }
+  }
+
+  /**
+   * Changes the capacity. If the queue has more packets than the new
+   * capacity, the oldest ones are dropped.
+   * @param capacity max number of packets, rounded up to a power of two.
+   */
+  public void setCapacity(int capacity) {
+    synchronized (lock) {
+      Packet[] newRing = new Packet[ringSize(capacity)];
+      // keeps the newest sequence numbers in the new ring.
+      long newHead = Math.max(head, tail - newRing.length);
+      for (long seq = head; seq < newHead; seq++) {
+        Packet packet = ring[slot(seq)];
+        if (packet != null) {
+          displaced.put(seq, packet);
+        }
+      }
+      for (long seq = newHead; seq < tail; seq++) {
+        newRing[(int) (seq & (newRing.length - 1))] = ring[slot(seq)];
+      }
+      ring = newRing;
+      mask = newRing.length - 1;
+      head = newHead;
+      skipEmptySlots();
+      while (queueCount > ring.length) {
+        dropOldest();
+        ++dropCount;
+      }
+    }
+  }
+
+  /**
+   * Returns the overflow policy.
+   * @return overflow policy.
+   */
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  /**
+   * Sets the overflow policy.
+   * @param overflowPolicy overflow policy.
+   */
+  public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+    if (overflowPolicy != null) {
+      this.overflowPolicy = overflowPolicy;
+    }
   }
 
   /**
    * Enqueue a packet.
    * @param packet target a packet.
-   * @return processed the packet.
+   * @return processed the packet. null if dropped.
    */
   public Packet enqueuePacket(Packet packet) {
     if (packet == null) {
       return null;
     }
 
-    packet.packetId = getUniquePacketId();
-    Class<?> clazz = packet.getClass();
-    Field field;
-    byte[] data;
-    try {
-      field = clazz.getField("data");
-      data = (byte[]) field.get(packet);
-    } catch (Exception e) {
-      return null;
-    }
+    byte[] data = packet.getData();
 
-    synchronized (packets) {
-      packets.add(packet);
-      packetDict.put(packet.getPacketId(), packet);
+    synchronized (lock) {
+      if (queueCount >= ring.length) {
+        ++dropCount;
+        if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+          return null;
+        }
+        dropOldest();
+      }
+      if (tail - head >= ring.length) {
+        // no slot, though there are holes.
+        displaced.put(head, ring[slot(head)]);
+        ring[slot(head)] = null;
+        ++head;
+        skipEmptySlots();
+      }
+
+      packet.packetId = formatPacketId(tail);
+      ring[slot(tail)] = packet;
+      ++tail;
+      ++queueCount;
       ++packetCount;
 
       if (data != null) {
@@ -78,14 +196,15 @@ public class PacketQueue {
    * @return processed the packet.
    */
   public Packet dequeuePacket() {
-    Packet packet;
-    synchronized (packets) {
-      packet = packets.poll();
-      if (packet != null) {
-        packetDict.remove(packet.getPacketId());
+    synchronized (lock) {
+      if (queueCount == 0) {
+        return null;
       }
+      Packet packet = (displaced.isEmpty()) ? ring[slot(head)]
+          : displaced.firstEntry().getValue();
+      dropOldest();
+      return packet;
     }
-    return packet;
   }
 
   /**
@@ -93,7 +212,12 @@ public class PacketQueue {
    * @return packet that in the head of list.
    */
   public Packet peekPacket() {
-    return packets.peek();
+    synchronized (lock) {
+      if (!displaced.isEmpty()) {
+        return displaced.firstEntry().getValue();
+      }
+      return (head == tail) ? null : ring[slot(head)];
+    }
   }
 
   /**
@@ -102,7 +226,16 @@ public class PacketQueue {
    * @return packet associated to packet ID.
    */
   public Packet getPacket(String packetId) {
-    return packetDict.get(packetId);
+    long seq = parsePacketId(packetId);
+    synchronized (lock) {
+      if (seq < head) {
+        return displaced.get(seq);
+      }
+      if (tail <= seq) {
+        return null;
+      }
+      return ring[slot(seq)];
+    }
   }
 
   /**
@@ -111,25 +244,60 @@ public class PacketQueue {
    * @return Packet object.
    */
   public Packet pickPacket(String packetId) {
-    Packet packet = getPacket(packetId);
-
-    synchronized (packets) {
-      if (packet == null || !packets.remove(packet)) {
+    long seq = parsePacketId(packetId);
+    synchronized (lock) {
+      if (seq < head) {
+        Packet packet = displaced.remove(seq);
+        if (packet != null) {
+          --queueCount;
+        }
+        return packet;
+      }
+      if (tail <= seq) {
+        return null;
+      }
+      Packet packet = ring[slot(seq)];
+      if (packet == null) {
         return null;
       }
-      packetDict.remove(packetId);
+      ring[slot(seq)] = null;
+      --queueCount;
+      skipEmptySlots();
+      return packet;
     }
-
-    return packet;
   }
 
   /**
    * Clear queue of packets.
    */
   public void clearPackets() {
-    synchronized (packets) {
-      packets.clear();
-      packetDict.clear();
+    synchronized (lock) {
+      for (long seq = head; seq < tail; seq++) {
+        ring[slot(seq)] = null;
+      }
+      head = tail;
+      displaced.clear();
+      queueCount = 0;
+    }
+  }
+
+  /**
+   * Returns the number of packets in the queue.
+   * @return number of packets.
+   */
+  public int size() {
+    synchronized (lock) {
+      return queueCount;
+    }
+  }
+
+  /**
+   * Returns the number of packets dropped because the queue was full.
+   * @return number of dropped packets.
+   */
+  public long getDropCount() {
+    synchronized (lock) {
+      return dropCount;
     }
   }
 
@@ -154,7 +322,7 @@ public class PacketQueue {
    */
   public Map<String, Packet> getPacketMessages(PacketQuery<?> query) {
     Map<String, Packet> packets = new HashMap<String, Packet>();
-    for (Packet packet : this.packets) {
+    for (Packet packet : snapshot()) {
       if (query.matchExactly(packet)) {
         packets.put(packet.getPacketId(), packet);
       }
@@ -168,22 +336,100 @@ public class PacketQueue {
    * @param status sub statistics of the packets.
    */
   public void calcPacketStatus(PacketStatusSub status) {
-    List<String> packetsList = new ArrayList<String>();
+    List<String> packetsList;
 
-    synchronized (packets) {
-      for (Packet packet : packets) {
+    synchronized (lock) {
+      packetsList = new ArrayList<String>(queueCount);
+      for (Packet packet : displaced.values()) {
         packetsList.add(packet.getPacketId());
       }
+      for (long seq = head; seq < tail; seq++) {
+        Packet packet = ring[slot(seq)];
+        if (packet != null) {
+          packetsList.add(packet.getPacketId());
+        }
+      }
+      status.packetCount = packetCount;
+      status.packetBytes = packetBytes;
+      status.packetQueueCount = queueCount;
+      status.packetDropCount = dropCount;
     }
-    status.packetCount = packetCount;
-    status.packetBytes = packetBytes;
-    status.packetQueueCount = packetsList.size();
     status.packets = packetsList;
   }
 
-  private int packetIdCounter = 0;
+  private List<Packet> snapshot() {
+    synchronized (lock) {
+      List<Packet> packets = new ArrayList<Packet>(queueCount);
+      packets.addAll(displaced.values());
+      for (long seq = head; seq < tail; seq++) {
+        Packet packet = ring[slot(seq)];
+        if (packet != null) {
+          packets.add(packet);
+        }
+      }
+      return packets;
+    }
+  }
+
+  private int slot(long seq) {
+    return (int) (seq & mask);
+  }
+
+  // removes the oldest packet. the queue must not be empty.
+  private void dropOldest() {
+    if (!displaced.isEmpty()) {
+      displaced.pollFirstEntry();
+    } else {
+      ring[slot(head)] = null;
+      ++head;
+      skipEmptySlots();
+    }
+    --queueCount;
+  }
+
+  // keeps the head slot occupied unless the queue is empty.
+  private void skipEmptySlots() {
+    while (head < tail && ring[slot(head)] == null) {
+      ++head;
+    }
+  }
 
-  private String getUniquePacketId() {
-    return String.format("%010d", packetIdCounter++);
+  /**
+   * Formats a sequence number as a packet ID.
+   * @param seq sequence number.
+   * @return packet ID.
+   */
+  static String formatPacketId(long seq) {
+    String digits = Long.toString(seq);
+    if (digits.length() >= PACKET_ID_DIGITS) {
+      return digits;
+    }
+    char[] chars = new char[PACKET_ID_DIGITS];
+    int pad = PACKET_ID_DIGITS - digits.length();
+    for (int i = 0; i < pad; i++) {
+      chars[i] = '0';
+    }
+    digits.getChars(0, digits.length(), chars, pad);
+    return new String(chars);
+  }
+
+  /**
+   * Parses a packet ID as a sequence number.
+   * @param packetId packet ID.
+   * @return sequence number. -1 if invalid.
+   */
+  static long parsePacketId(String packetId) {
+    if (packetId == null || packetId.isEmpty() || packetId.length() > 18) {
+      return -1;
+    }
+    long seq = 0;
+    for (int i = 0; i < packetId.length(); i++) {
+      char ch = packetId.charAt(i);
+      if (ch < '0' || '9' < ch) {
+        return -1;
+      }
+      seq = seq * 10 + (ch - '0');
+    }
+    return seq;
   }
-}
\ No newline at end of file
+}
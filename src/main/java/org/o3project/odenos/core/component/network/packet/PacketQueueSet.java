@@ -48,6 +48,24 @@ public class PacketQueueSet {
     return outQueue;
   }
 
+  /**
+   * Changes the capacity of the queues.
+   * @param capacity max number of packets in each queue.
+   */
+  public void setCapacity(int capacity) {
+    inQueue.setCapacity(capacity);
+    outQueue.setCapacity(capacity);
+  }
+
+  /**
+   * Sets the overflow policy of the queues.
+   * @param policy overflow policy.
+   */
+  public void setOverflowPolicy(PacketQueue.OverflowPolicy policy) {
+    inQueue.setOverflowPolicy(policy);
+    outQueue.setOverflowPolicy(policy);
+  }
+
   /**
    * Returns packet status.
    * @return packet status.
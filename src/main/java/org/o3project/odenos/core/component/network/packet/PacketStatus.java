@@ -28,7 +28,8 @@ import java.util.ArrayList;
  *
  */
 public class PacketStatus implements MessagePackable {
-  private static final int MSG_NUM = 9;
+  private static final int MSG_NUM_MIN = 9;
+  private static final int MSG_NUM = 11;
   PacketStatusSub inStatus;
   PacketStatusSub outStatus;
 
@@ -59,7 +60,7 @@ public class PacketStatus implements MessagePackable {
   @Override
   public void readFrom(Unpacker upk) throws IOException {
     int size = upk.readMapBegin();
-    if (size != MSG_NUM) {
+    if (size != MSG_NUM_MIN && size != MSG_NUM) {
       throw new IOException();
     }
 
@@ -86,6 +87,9 @@ public class PacketStatus implements MessagePackable {
           }
           upk.readArrayEnd();
           break;
+        case "in_packet_drop_count":
+          inStatus.packetDropCount = upk.readLong();
+          break;
         case "out_packet_count":
           outStatus.packetCount = upk.readLong();
           break;
@@ -95,6 +99,9 @@ public class PacketStatus implements MessagePackable {
         case "out_packet_queue_count":
           outStatus.packetQueueCount = upk.readLong();
           break;
+        case "out_packet_drop_count":
+          outStatus.packetDropCount = upk.readLong();
+          break;
         case "out_packets":
           if (!upk.trySkipNil()) {
             listsize = upk.readArrayBegin();
@@ -120,10 +127,12 @@ public class PacketStatus implements MessagePackable {
     pk.write("in_packet_count").write(inStatus.packetCount);
     pk.write("in_packet_bytes").write(inStatus.packetBytes);
     pk.write("in_packet_queue_count").write(inStatus.packetQueueCount);
+    pk.write("in_packet_drop_count").write(inStatus.packetDropCount);
     pk.write("in_packets").write(inStatus.packets);
     pk.write("out_packet_count").write(outStatus.packetCount);
     pk.write("out_packet_bytes").write(outStatus.packetBytes);
     pk.write("out_packet_queue_count").write(outStatus.packetQueueCount);
+    pk.write("out_packet_drop_count").write(outStatus.packetDropCount);
     pk.write("out_packets").write(outStatus.packets);
 
     pk.writeMapEnd();
@@ -26,6 +26,7 @@ public class PacketStatusSub {
   public long packetCount;
   public long packetBytes;
   public long packetQueueCount;
+  public long packetDropCount;
   public List<String> packets;
 
   /**
@@ -52,6 +53,14 @@ public class PacketStatusSub {
     return packetQueueCount;
   }
 
+  /**
+   * Returns a count of packets dropped because the queue was full.
+   * @return count of dropped packets.
+   */
+  public long getPacketDropCount() {
+    return packetDropCount;
+  }
+
   /**
    * Returns a list of packets.
    * @return list of packets.
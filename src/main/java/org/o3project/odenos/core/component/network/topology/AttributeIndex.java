@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network.topology;
+
+import org.o3project.odenos.remoteobject.message.BaseObject;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Secondary index of objects by the values of some attributes.
+ *
+ * <p>
+ * An object is indexed by a key (e.g., node ID) under each declared
+ * attribute it has. The index does not watch the objects: {@link #put}
+ * must be called again after the attributes of an object are modified.
+ */
+public class AttributeIndex {
+
+  // attribute name -> attribute value -> keys
+  private final Map<String, Map<String, Set<String>>> index =
+      new HashMap<String, Map<String, Set<String>>>();
+  // key -> attribute name -> indexed value
+  private final Map<String, Map<String, String>> indexed =
+      new HashMap<String, Map<String, String>>();
+
+  /**
+   * Constructor.
+   * @param attributes attribute names to be indexed.
+   */
+  public AttributeIndex(Collection<String> attributes) {
+    for (String attribute : attributes) {
+      index.put(attribute, new HashMap<String, Set<String>>());
+    }
+  }
+
+  /**
+   * Returns the indexed attribute names.
+   * @return set of attribute names.
+   */
+  public Set<String> getAttributes() {
+    return Collections.unmodifiableSet(index.keySet());
+  }
+
+  /**
+   * Checks if an attribute is indexed.
+   * @param attribute attribute name.
+   * @return true if the attribute is indexed.
+   */
+  public boolean isIndexed(String attribute) {
+    return index.containsKey(attribute);
+  }
+
+  /**
+   * Declares an attribute to be indexed.
+   *
+   * <p>
+   * The objects already put are not indexed by the new attribute
+   * until they are put again.
+   *
+   * @param attribute attribute name.
+   * @return true if the attribute was not indexed yet.
+   */
+  public boolean addAttribute(String attribute) {
+    if (index.containsKey(attribute)) {
+      return false;
+    }
+    index.put(attribute, new HashMap<String, Set<String>>());
+    return true;
+  }
+
+  /**
+   * Indexes (or re-indexes) an object.
+   * @param key key of the object.
+   * @param object object to be indexed.
+   */
+  public void put(String key, BaseObject object) {
+    remove(key);
+    Map<String, String> values = new HashMap<String, String>();
+    for (Map.Entry<String, Map<String, Set<String>>> entry : index.entrySet()) {
+      String value = object.getAttribute(entry.getKey());
+      if (value == null) {
+        continue;
+      }
+      Set<String> keys = entry.getValue().get(value);
+      if (keys == null) {
+        keys = new LinkedHashSet<String>();
+        entry.getValue().put(value, keys);
+      }
+      keys.add(key);
+      values.put(entry.getKey(), value);
+    }
+    if (!values.isEmpty()) {
+      indexed.put(key, values);
+    }
+  }
+
+  /**
+   * Removes an object from the index.
+   * @param key key of the object.
+   */
+  public void remove(String key) {
+    Map<String, String> values = indexed.remove(key);
+    if (values == null) {
+      return;
+    }
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      Map<String, Set<String>> byValue = index.get(entry.getKey());
+      Set<String> keys = byValue.get(entry.getValue());
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          byValue.remove(entry.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the keys of the objects having an attribute value.
+   * @param attribute attribute name.
+   * @param value attribute value.
+   * @return set of keys. null if the attribute is not indexed.
+   */
+  public Set<String> get(String attribute, String value) {
+    Map<String, Set<String>> byValue = index.get(attribute);
+    if (byValue == null) {
+      return null;
+    }
+    Set<String> keys = byValue.get(value);
+    return (keys != null) ? Collections.unmodifiableSet(keys)
+        : Collections.<String>emptySet();
+  }
+
+  /**
+   * Returns the keys of the objects which may match all the attributes,
+   * looked up by the most selective indexed attribute.
+   * @param attributes attributes to be matched.
+   * @return set of candidate keys. null if no attribute is indexed.
+   */
+  public Set<String> getCandidates(Map<String, String> attributes) {
+    if (attributes == null) {
+      return null;
+    }
+    Set<String> candidates = null;
+    for (Map.Entry<String, String> entry : attributes.entrySet()) {
+      Set<String> keys = get(entry.getKey(), entry.getValue());
+      if (keys != null && (candidates == null || keys.size() < candidates.size())) {
+        candidates = keys;
+      }
+    }
+    return (candidates != null) ? new HashSet<String>(candidates) : null;
+  }
+
+  /**
+   * Removes all the objects.
+   */
+  public void clear() {
+    for (Map<String, Set<String>> byValue : index.values()) {
+      byValue.clear();
+    }
+    indexed.clear();
+  }
+}
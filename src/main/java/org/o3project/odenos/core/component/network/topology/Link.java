@@ -41,6 +41,8 @@ public class Link extends BaseObject implements Cloneable {
   private String srcPort;
   private String dstNode;
   private String dstPort;
+  // the topology that may modify this link in place. see Topology#clone().
+  transient Object owner;
 
   /* NetworkElements */
   public static final String TYPE = "type";
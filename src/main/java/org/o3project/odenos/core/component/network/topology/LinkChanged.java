@@ -39,6 +39,8 @@ public class LinkChanged extends BaseNetworkChanged<Link> {
   }
 
   public static final String TYPE = "LinkChanged";
+  public static final String DELTA_TYPE = "LinkChangedDelta";
+  public static final String BATCH_TYPE = "LinkChangedBatch";
 
   /**
    * Constructor.
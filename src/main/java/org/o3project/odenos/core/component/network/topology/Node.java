@@ -26,6 +26,7 @@ import org.msgpack.unpacker.Unpacker;
 import org.o3project.odenos.remoteobject.message.BaseObject;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -39,8 +40,17 @@ public class Node extends BaseObject implements Cloneable {
   private static final int MSG_NUM_MIN = 1;
   private static final int MSG_NUM_MAX = 5;
   private String nodeId = null;
-  private Map<String, Port> ports = new HashMap<String, Port>();
+  private PersistentMap<String, Port> ports = new PersistentMap<String, Port>();
   private Map<String, String> attributes = new HashMap<String, String>();
+  // the ports may be shared with clones. a port is modified in place only
+  // if its owner is this token; otherwise it is copied on the first mutable
+  // access. ports, portOwner and portsOwned are guarded by the monitor of
+  // this node, since getPort() may copy a port.
+  private Object portOwner = new Object();
+  // false if some ports may be owned by another token.
+  private boolean portsOwned = true;
+  // the topology that may modify this node in place. see Topology#clone().
+  transient Object owner;
 
   /* NetworkElements */
   public static final String TYPE = "type";
@@ -101,7 +111,14 @@ public class Node extends BaseObject implements Cloneable {
     this.setType("Node");
     this.setVersion(version);
     this.setId(nodeId);
-    this.ports = ports;
+    this.ports = (ports != null) ? new PersistentMap<String, Port>(ports) : null;
+    if (ports != null) {
+      for (Port port : ports.values()) {
+        if (port != null) {
+          port.owner = portOwner;
+        }
+      }
+    }
 
     if(attributes != null) {
       this.putAttributes(attributes);
@@ -125,11 +142,9 @@ public class Node extends BaseObject implements Cloneable {
     this(msg.getId());
     this.setVersion(msg.getVersion());
     this.putAttributes(new HashMap<String, String>(msg.getAttributes()));
-    Map<String, Port> ports = new HashMap<String, Port>();
-    if (msg.ports != null) {
-      for (Entry<String, Port> entry : msg.ports.entrySet()) {
-        ports.put(entry.getKey(), new Port(entry.getValue()));
-      }
+    PersistentMap<String, Port> ports = new PersistentMap<String, Port>();
+    for (Entry<String, Port> entry : msg.getPortMapView().entrySet()) {
+      ports.put(entry.getKey(), ownPort(entry.getValue()));
     }
     this.ports = ports;
   }
@@ -163,16 +178,44 @@ public class Node extends BaseObject implements Cloneable {
   }
 
   /**
-   * Get ports.
+   * Get ports. The ports shared with a clone are copied, so that they may
+   * be modified.
    * @return map of ports.
    */
-  public Map<String, Port> getPortMap() {
+  public synchronized Map<String, Port> getPortMap() {
     if (ports == null) {
       return new HashMap<String, Port>();
     }
+    if (!portsOwned) {
+      for (Entry<String, Port> entry : ports.entrySet()) {
+        Port port = entry.getValue();
+        if (port != null && port.owner != portOwner) {
+          entry.setValue(ownPort(port));
+        }
+      }
+      portsOwned = true;
+    }
     return ports;
   }
 
+  /**
+   * Returns the ports without copying them, in constant time. The ports
+   * must not be modified.
+   * @return unmodifiable map of ports.
+   */
+  public synchronized Map<String, Port> getPortMapView() {
+    if (ports == null) {
+      return Collections.emptyMap();
+    }
+    return Collections.unmodifiableMap(ports.copy());
+  }
+
+  private Port ownPort(Port port) {
+    Port copy = new Port(port);
+    copy.owner = portOwner;
+    return copy;
+  }
+
   private String getUniquePortId() {
     String id;
     do {
@@ -185,8 +228,9 @@ public class Node extends BaseObject implements Cloneable {
   /**
    * Remove all ports attached to this node.
    */
-  public void clearPorts() {
-    ports.clear();
+  public synchronized void clearPorts() {
+    ports = new PersistentMap<String, Port>();
+    portsOwned = true;
   }
 
   /**
@@ -194,7 +238,7 @@ public class Node extends BaseObject implements Cloneable {
    * @param msg port message.
    * @return port instance.
    */
-  public Port createPort(Port msg) {
+  public synchronized Port createPort(Port msg) {
     String portId;
     if (msg == null || msg.getId() == null) {
       // automatic numbering if node_id is undefined
@@ -206,6 +250,7 @@ public class Node extends BaseObject implements Cloneable {
     if (port == null) {
       port = new Port(portId);
       port.setVersion(INITIAL_VERSION);
+      port.owner = portOwner;
       ports.put(port.getId(), port);
     }
     port.setNode(this.getId());
@@ -223,20 +268,25 @@ public class Node extends BaseObject implements Cloneable {
    * @param portId port ID.
    * @return port associated to the port ID.
    */
-  public Port getPort(String portId) {
-    return ports.get(portId);
+  public synchronized Port getPort(String portId) {
+    Port port = ports.get(portId);
+    if (port != null && port.owner != portOwner) {
+      port = ownPort(port);
+      ports.put(portId, port);
+    }
+    return port;
   }
 
   /**
    * Set ports.
    * @param ports map of ports.
    */
-  public void setPorts(Map<String, Port> ports) {
+  public synchronized void setPorts(Map<String, Port> ports) {
     clearPorts();
-    Map<String, Port> newPorts = new HashMap<String, Port>();
+    PersistentMap<String, Port> newPorts = new PersistentMap<String, Port>();
     if (ports != null) {
       for (Entry<String, Port> entry : ports.entrySet()) {
-        newPorts.put(entry.getKey(), new Port(entry.getValue()));
+        newPorts.put(entry.getKey(), ownPort(entry.getValue()));
       }
     }
     this.ports = newPorts;
@@ -256,7 +306,7 @@ public class Node extends BaseObject implements Cloneable {
    * @param port deleted port.
    * @return deleted the port.
    */
-  public Port deletePort(Port port) {
+  public synchronized Port deletePort(Port port) {
     if (port == null) {
       return null;
     }
@@ -275,7 +325,7 @@ public class Node extends BaseObject implements Cloneable {
    * @param query queries string.
    * @return map of ports.
    */
-  public Map<String, Port> getPortMessages(PortQuery query) {
+  public synchronized Map<String, Port> getPortMessages(PortQuery query) {
     Map<String, Port> ports = new HashMap<String, Port>();
     for (Port port : this.ports.values()) {
       if (query.matchExactly(port)) {
@@ -286,7 +336,7 @@ public class Node extends BaseObject implements Cloneable {
   }
 
   @Override
-  public void readFrom(Unpacker upk) throws IOException {
+  public synchronized void readFrom(Unpacker upk) throws IOException {
     int size = upk.readMapBegin();
 
     if (size < MSG_NUM_MIN || MSG_NUM_MAX < size) {
@@ -315,12 +365,13 @@ public class Node extends BaseObject implements Cloneable {
           }
           break;
         case PORTS:
-          ports.clear();
+          clearPorts();
           // ports.addAll(upk.read(tList(TString)));
           int portsSize = upk.readMapBegin();
           while (portsSize-- > 0) {
             String portId = upk.readString();
             Port port = upk.read(Port.class);
+            port.owner = portOwner;
             ports.put(portId, port);
           }
           upk.readMapEnd();
@@ -336,7 +387,7 @@ public class Node extends BaseObject implements Cloneable {
   }
 
   @Override
-  public void writeTo(Packer pk) throws IOException {
+  public synchronized void writeTo(Packer pk) throws IOException {
     pk.writeMapBegin(MSG_NUM_MAX);
 
     pk.write(TYPE);
@@ -374,27 +425,45 @@ public class Node extends BaseObject implements Cloneable {
 
     Node nodeMessage = (Node) obj;
 
-    if (nodeMessage.getType().equals(this.getType())
-        && nodeMessage.getVersion().equals(this.getVersion())
-        && nodeMessage.getId().equals(this.nodeId)
-        && nodeMessage.getPortMap().equals(this.ports)
-        && nodeMessage.getAttributes().equals(this.getAttributes())) {
-      return true;
+    // copied, not to hold the monitors of both nodes.
+    Map<String, Port> otherPorts = nodeMessage.getPortMapView();
+    synchronized (this) {
+      if (nodeMessage.getType().equals(this.getType())
+          && nodeMessage.getVersion().equals(this.getVersion())
+          && nodeMessage.getId().equals(this.nodeId)
+          && otherPorts.equals(this.ports)
+          && nodeMessage.getAttributes().equals(this.getAttributes())) {
+        return true;
+      }
     }
 
     return false;
   }
 
+  /**
+   * Returns a copy of this node. The ports are shared with the copy, and
+   * each of them is copied when it is first modified through either node,
+   * so that the copy takes constant time in the number of ports.
+   */
   @Override
-  public Node clone() {
-    return new Node(this);
+  public synchronized Node clone() {
+    Node node = new Node(getVersion(), nodeId);
+    node.putAttributes(new HashMap<String, String>(getAttributes()));
+    if (ports != null) {
+      node.ports = ports.copy();
+      node.portsOwned = false;
+      // the ports are owned by neither node.
+      portOwner = new Object();
+      portsOwned = false;
+    }
+    return node;
   }
 
   /* (non-Javadoc)
    * @see java.lang.Object#toString()
    */
   @Override
-  public String toString() {
+  public synchronized String toString() {
 
     ToStringBuilder sb = new ToStringBuilder(this);
     sb.append(VERSION, getVersion());
@@ -39,6 +39,8 @@ public class NodeChanged extends BaseNetworkChanged<Node> {
   }
 
   public static final String TYPE = "NodeChanged";
+  public static final String DELTA_TYPE = "NodeChangedDelta";
+  public static final String BATCH_TYPE = "NodeChangedBatch";
 
   /**
    * Constructor.
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network.topology;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Map whose copies share their entries.
+ *
+ * <p>
+ * The entries are kept in an immutable hash array mapped trie. A copy by
+ * {@link #copy()} takes constant time, and a modification copies only the
+ * path to the entry, so the copies never see each other's modifications.
+ * An iterator walks the trie as of its creation, so the map may be
+ * modified while iterated. Not thread-safe, except that a reader may
+ * iterate a copy while the original is modified.
+ *
+ * @param <K> type of keys.
+ * @param <V> type of values.
+ */
+class PersistentMap<K, V> extends AbstractMap<K, V> {
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final Trie EMPTY = new Trie(0, new Object[0]);
+
+  /**
+   * Node of the trie. A slot holds a Leaf or a child Trie.
+   */
+  private static final class Trie {
+    final int bitmap;
+    final Object[] slots;
+
+    Trie(int bitmap, Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+  }
+
+  /**
+   * Entry of the trie. The entries of the same hash are chained.
+   */
+  private static final class Leaf {
+    final int hash;
+    final Object key;
+    final Object value;
+    final Leaf next;
+
+    Leaf(int hash, Object key, Object value, Leaf next) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+      this.next = next;
+    }
+  }
+
+  private volatile Trie root;
+  private int size;
+
+  /**
+   * Constructor.
+   */
+  PersistentMap() {
+    this(EMPTY, 0);
+  }
+
+  /**
+   * Constructor.
+   * @param map map of the entries.
+   */
+  PersistentMap(Map<? extends K, ? extends V> map) {
+    this(EMPTY, 0);
+    putAll(map);
+  }
+
+  private PersistentMap(Trie root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a copy of this map in constant time.
+   * @return copy.
+   */
+  PersistentMap<K, V> copy() {
+    return new PersistentMap<K, V>(root, size);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return find(root, key) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    Leaf leaf = find(root, key);
+    return (leaf != null) ? (V) leaf.value : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    Leaf old = find(root, key);
+    root = put(root, 0, hash(key), key, value);
+    if (old == null) {
+      size++;
+      return null;
+    }
+    return (V) old.value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    Leaf old = find(root, key);
+    if (old == null) {
+      return null;
+    }
+    root = remove(root, 0, hash(key), key);
+    size--;
+    return (V) old.value;
+  }
+
+  @Override
+  public void clear() {
+    root = EMPTY;
+    size = 0;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new AbstractSet<Map.Entry<K, V>>() {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator() {
+        return new EntryIterator(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private static int hash(Object key) {
+    int hash = Objects.hashCode(key);
+    return hash ^ (hash >>> 16);
+  }
+
+  private static Leaf find(Trie trie, Object key) {
+    int hash = hash(key);
+    for (int shift = 0; ; shift += BITS) {
+      int bit = 1 << ((hash >>> shift) & MASK);
+      if ((trie.bitmap & bit) == 0) {
+        return null;
+      }
+      Object slot = trie.slots[Integer.bitCount(trie.bitmap & (bit - 1))];
+      if (slot instanceof Trie) {
+        trie = (Trie) slot;
+        continue;
+      }
+      for (Leaf leaf = (Leaf) slot; leaf != null; leaf = leaf.next) {
+        if (leaf.hash == hash && Objects.equals(leaf.key, key)) {
+          return leaf;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static Trie put(Trie trie, int shift, int hash, Object key, Object value) {
+    int bit = 1 << ((hash >>> shift) & MASK);
+    int index = Integer.bitCount(trie.bitmap & (bit - 1));
+    if ((trie.bitmap & bit) == 0) {
+      Object[] slots = new Object[trie.slots.length + 1];
+      System.arraycopy(trie.slots, 0, slots, 0, index);
+      slots[index] = new Leaf(hash, key, value, null);
+      System.arraycopy(trie.slots, index, slots, index + 1, trie.slots.length - index);
+      return new Trie(trie.bitmap | bit, slots);
+    }
+    Object slot = trie.slots[index];
+    Object newSlot;
+    if (slot instanceof Trie) {
+      newSlot = put((Trie) slot, shift + BITS, hash, key, value);
+    } else {
+      Leaf leaf = (Leaf) slot;
+      if (leaf.hash == hash) {
+        newSlot = new Leaf(hash, key, value, removeLeaf(leaf, key));
+      } else {
+        newSlot = split(leaf, shift + BITS, new Leaf(hash, key, value, null));
+      }
+    }
+    return replace(trie, index, newSlot);
+  }
+
+  // makes a trie of two chains of different hashes.
+  private static Trie split(Leaf leaf1, int shift, Leaf leaf2) {
+    int index1 = (leaf1.hash >>> shift) & MASK;
+    int index2 = (leaf2.hash >>> shift) & MASK;
+    if (index1 == index2) {
+      return new Trie(1 << index1, new Object[] {split(leaf1, shift + BITS, leaf2)});
+    }
+    Object[] slots = (index1 < index2)
+        ? new Object[] {leaf1, leaf2} : new Object[] {leaf2, leaf1};
+    return new Trie((1 << index1) | (1 << index2), slots);
+  }
+
+  private static Trie remove(Trie trie, int shift, int hash, Object key) {
+    int bit = 1 << ((hash >>> shift) & MASK);
+    int index = Integer.bitCount(trie.bitmap & (bit - 1));
+    Object slot = trie.slots[index];
+    Object newSlot;
+    if (slot instanceof Trie) {
+      Trie child = remove((Trie) slot, shift + BITS, hash, key);
+      newSlot = (child.bitmap != 0) ? child : null;
+    } else {
+      newSlot = removeLeaf((Leaf) slot, key);
+    }
+    if (newSlot != null) {
+      return replace(trie, index, newSlot);
+    }
+    Object[] slots = new Object[trie.slots.length - 1];
+    System.arraycopy(trie.slots, 0, slots, 0, index);
+    System.arraycopy(trie.slots, index + 1, slots, index, slots.length - index);
+    return new Trie(trie.bitmap & ~bit, slots);
+  }
+
+  // returns the chain without the key.
+  private static Leaf removeLeaf(Leaf leaf, Object key) {
+    if (leaf == null) {
+      return null;
+    }
+    if (Objects.equals(leaf.key, key)) {
+      return leaf.next;
+    }
+    Leaf next = removeLeaf(leaf.next, key);
+    return (next == leaf.next) ? leaf : new Leaf(leaf.hash, leaf.key, leaf.value, next);
+  }
+
+  private static Trie replace(Trie trie, int index, Object slot) {
+    Object[] slots = trie.slots.clone();
+    slots[index] = slot;
+    return new Trie(trie.bitmap, slots);
+  }
+
+  /**
+   * Iterator of the entries of a trie.
+   */
+  private class EntryIterator implements Iterator<Map.Entry<K, V>> {
+    private final Deque<Object> stack = new ArrayDeque<Object>();
+    private Leaf next;
+    private Leaf last;
+
+    EntryIterator(Trie trie) {
+      stack.push(trie);
+      advance();
+    }
+
+    private void advance() {
+      if (next != null && next.next != null) {
+        next = next.next;
+        return;
+      }
+      next = null;
+      while (!stack.isEmpty()) {
+        Object item = stack.pop();
+        if (item instanceof Leaf) {
+          next = (Leaf) item;
+          return;
+        }
+        Object[] slots = ((Trie) item).slots;
+        for (int i = slots.length - 1; i >= 0; i--) {
+          stack.push(slots[i]);
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      last = next;
+      advance();
+      return new SimpleEntry<K, V>((K) last.key, (V) last.value) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public V setValue(V value) {
+          PersistentMap.this.put(getKey(), value);
+          return super.setValue(value);
+        }
+      };
+    }
+
+    @Override
+    public void remove() {
+      if (last == null) {
+        throw new IllegalStateException();
+      }
+      PersistentMap.this.remove(last.key);
+      last = null;
+    }
+  }
+}
@@ -41,6 +41,8 @@ public class Port extends BaseObject implements Cloneable {
   private String nodeId;
   private String outLink;
   private String inLink;
+  // the node that may modify this port in place. see Node#clone().
+  transient Object owner;
 
   /* NetworkElements */
   public static final String TYPE = "type";
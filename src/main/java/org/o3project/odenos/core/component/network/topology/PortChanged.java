@@ -44,6 +44,8 @@ public class PortChanged extends Event {
   }
 
   public static final String TYPE = "PortChanged";
+  public static final String DELTA_TYPE = "PortChangedDelta";
+  public static final String BATCH_TYPE = "PortChangedBatch";
   private static final int MSG_NUM_MIN = 5;
   private static final int MSG_NUM_MAX = 6;
 
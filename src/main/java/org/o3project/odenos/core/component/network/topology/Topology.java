@@ -22,9 +22,18 @@ import org.msgpack.unpacker.Unpacker;
 import org.o3project.odenos.remoteobject.message.BaseObject;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -35,15 +44,44 @@ public class Topology extends BaseObject implements Cloneable {
   private static final int MSG_NUM_MIN = 3;
   private static final int MSG_NUM_MAX = 4;
   public String type = "Topology";
-  public Map<String, Node> nodes;
-  public Map<String, Link> links;
+  private PersistentMap<String, Node> nodes;
+  private PersistentMap<String, Link> links;
+  // the nodes and links may be shared with clones. an element is modified
+  // in place only if its owner is this token; otherwise it is copied on the
+  // first mutable access. guarded by the monitor of this topology, since
+  // getNode() and getLink() may copy an element.
+  private Object owner = new Object();
+  // false if some nodes or links may be owned by another token.
+  private boolean nodesOwned = true;
+  private boolean linksOwned = true;
+
+  /* Attributes indexed by default */
+  private static final char PORT_KEY_SEPARATOR = '\u0000';
+
+  public static final List<String> DEFAULT_NODE_INDEXES = Arrays.asList(
+      Node.PHYSICAL_ID, Node.VENDOR, Node.OPER_STATUS);
+  public static final List<String> DEFAULT_PORT_INDEXES = Arrays.asList(
+      Port.PHYSICAL_ID);
+  public static final List<String> DEFAULT_LINK_INDEXES = Arrays.asList(
+      Link.OPER_STATUS);
+
+  // Attribute indexes (not serialized).
+  // Kept consistent by the methods of this class, reindexNode() and reindexLink().
+  // Ports are indexed by portKey(nodeId, portId).
+  private final AttributeIndex nodeIndex = new AttributeIndex(DEFAULT_NODE_INDEXES);
+  private final AttributeIndex portIndex = new AttributeIndex(DEFAULT_PORT_INDEXES);
+  private final AttributeIndex linkIndex = new AttributeIndex(DEFAULT_LINK_INDEXES);
+  // node ID -> port keys indexed
+  private final Map<String, Set<String>> portKeysByNodeId = new HashMap<String, Set<String>>();
+  // false until the indexes of a clone are built on their first use.
+  private volatile boolean indexed = true;
 
   /**
    * Constructor.
    */
   public Topology() {
-    nodes = new HashMap<String, Node>();
-    links = new HashMap<String, Link>();
+    nodes = new PersistentMap<String, Node>();
+    links = new PersistentMap<String, Link>();
   }
 
   /**
@@ -53,14 +91,19 @@ public class Topology extends BaseObject implements Cloneable {
    */
   public Topology(Map<String, Node> nodes,
       Map<String, Link> links) {
-    this.nodes = nodes;
-    this.links = links;
-    if (this.nodes == null) {
-      this.nodes = new HashMap<String, Node>();
+    this.nodes = new PersistentMap<String, Node>();
+    this.links = new PersistentMap<String, Link>();
+    if (nodes != null) {
+      for (Entry<String, Node> entry : nodes.entrySet()) {
+        this.nodes.put(entry.getKey(), own(entry.getValue()));
+      }
     }
-    if (this.links == null) {
-      this.links = new HashMap<String, Link>();
+    if (links != null) {
+      for (Entry<String, Link> entry : links.entrySet()) {
+        this.links.put(entry.getKey(), own(entry.getValue()));
+      }
     }
+    rebuildIndexes();
   }
 
   /**
@@ -108,27 +151,71 @@ public class Topology extends BaseObject implements Cloneable {
   }
 
   /**
-   * Get nodes.
+   * Get nodes. The nodes shared with a clone are copied, so that they may
+   * be modified.
    * @return map of nodes.
    */
-  public Map<String, Node> getNodeMap() {
-    if (nodes == null) {
-      return new HashMap<String, Node>();
+  public synchronized Map<String, Node> getNodeMap() {
+    if (!nodesOwned) {
+      for (Entry<String, Node> entry : nodes.entrySet()) {
+        if (entry.getValue().owner != owner) {
+          entry.setValue(own(entry.getValue().clone()));
+        }
+      }
+      nodesOwned = true;
     }
     return nodes;
   }
 
   /**
-   * Get links.
+   * Get links. The links shared with a clone are copied, so that they may
+   * be modified.
    * @return map of links.
    */
-  public Map<String, Link> getLinkMap() {
-    if (links == null) {
-      return new HashMap<String, Link>();
+  public synchronized Map<String, Link> getLinkMap() {
+    if (!linksOwned) {
+      for (Entry<String, Link> entry : links.entrySet()) {
+        if (entry.getValue().owner != owner) {
+          entry.setValue(own(new Link(entry.getValue())));
+        }
+      }
+      linksOwned = true;
     }
     return links;
   }
 
+  /**
+   * Returns the nodes without copying them, in constant time. The nodes
+   * must not be modified.
+   * @return unmodifiable map of nodes.
+   */
+  public synchronized Map<String, Node> getNodeMapView() {
+    return Collections.unmodifiableMap(nodes.copy());
+  }
+
+  /**
+   * Returns the links without copying them, in constant time. The links
+   * must not be modified.
+   * @return unmodifiable map of links.
+   */
+  public synchronized Map<String, Link> getLinkMapView() {
+    return Collections.unmodifiableMap(links.copy());
+  }
+
+  private Node own(Node node) {
+    if (node != null) {
+      node.owner = owner;
+    }
+    return node;
+  }
+
+  private Link own(Link link) {
+    if (link != null) {
+      link.owner = owner;
+    }
+    return link;
+  }
+
   private String getUniqueNodeId() {
     String id;
     do {
@@ -154,7 +241,7 @@ public class Topology extends BaseObject implements Cloneable {
     Node node = getNode(nodeId);
     if (node == null) {
       // create new Node
-      node = new Node(nodeId);
+      node = own(new Node(nodeId));
       node.setVersion(INITIAL_VERSION);
       nodes.put(nodeId, node);
       updateVersion();
@@ -164,6 +251,7 @@ public class Topology extends BaseObject implements Cloneable {
       node.putAttributes(msg.getAttributes());
     }
     node.updateVersion();
+    reindexNode(node);
 
     return node;
   }
@@ -193,7 +281,7 @@ public class Topology extends BaseObject implements Cloneable {
     }
     Link link = getLink(linkId);
     if (link == null) {
-      link = new Link(linkId);
+      link = own(new Link(linkId));
       link.setVersion(INITIAL_VERSION);
       links.put(linkId, link);
       updateVersion();
@@ -203,17 +291,19 @@ public class Topology extends BaseObject implements Cloneable {
           msg.getDstNode(), msg.getDstPort());
       link.putAttributes(msg.getAttributes());
 
-      Node node = nodes.get(msg.getSrcNode());
+      Node node = getNode(msg.getSrcNode());
       node.updateVersion();
 
-      Port port = nodes.get(msg.getSrcNode()).getPort(msg.getSrcPort());
+      Port port = node.getPort(msg.getSrcPort());
       port.setOutLink(linkId);
       port.updateVersion();
-      port = nodes.get(msg.getDstNode()).getPort(msg.getDstPort());
+      port = getNode(msg.getDstNode()).getPort(msg.getDstPort());
       port.setInLink(linkId);
       port.updateVersion();
     }
     link.updateVersion();
+    ensureIndexes();
+    linkIndex.put(linkId, link);
 
     return link;
   }
@@ -228,7 +318,7 @@ public class Topology extends BaseObject implements Cloneable {
       return false;
     }
 
-    for (Port port : node.getPortMap().values()) {
+    for (Port port : node.getPortMapView().values()) {
       // still has link
       if (port.getInLink() != null || port.getOutLink() != null) {
         return false;
@@ -238,6 +328,8 @@ public class Topology extends BaseObject implements Cloneable {
     if (nodes.remove(node.getId()) == null) {
       return false;
     }
+    ensureIndexes();
+    unindexNode(node.getId());
     updateVersion();
     return true;
   }
@@ -262,6 +354,7 @@ public class Topology extends BaseObject implements Cloneable {
       return false;
     }
     node.updateVersion();
+    reindexNode(node);
 
     return true;
   }
@@ -286,13 +379,13 @@ public class Topology extends BaseObject implements Cloneable {
     }
 
     if (link.getSrcPort() != null) {
-      Port port = nodes.get(link.getSrcNode()).getPort(link.getSrcPort());
+      Port port = getNode(link.getSrcNode()).getPort(link.getSrcPort());
       port.setOutLink(null);
       port.updateVersion();
     }
 
     if (link.getDstPort() != null) {
-      Port port = nodes.get(link.getDstNode()).getPort(link.getDstPort());
+      Port port = getNode(link.getDstNode()).getPort(link.getDstPort());
       port.setInLink(null);
       port.updateVersion();
     }
@@ -300,20 +393,156 @@ public class Topology extends BaseObject implements Cloneable {
     if (links.remove(link.getId()) == null) {
       return false;
     }
+    ensureIndexes();
+    linkIndex.remove(link.getId());
 
     updateVersion();
     return true;
   }
 
   /**
-   * Get a node with specific Node ID.
+   * Change of a node, a port or a link applied by {@link Topology#replace}.
+   * prev is null for an added object, and curr is null for a deleted one.
+   */
+  public static class Change {
+    public final BaseObject prev;
+    public final BaseObject curr;
+
+    Change(BaseObject prev, BaseObject curr) {
+      this.prev = prev;
+      this.curr = curr;
+    }
+  }
+
+  /**
+   * Replaces the nodes, ports and links with those of another topology
+   * in place.
+   *
+   * <p>
+   * Only the objects which differ from the current ones (ignoring their
+   * versions) are replaced, and the version of each of them and of this
+   * topology is incremented once. The objects replaced are not modified,
+   * so they can be passed as previous objects of change events.
+   * Changes are returned in the order: deleted links, deleted ports and
+   * nodes, added or updated nodes with their ports, added or updated links.
+   *
+   * @param newTopology validated topology.
+   * @return list of changes. empty if nothing is changed.
+   */
+  public List<Change> replace(Topology newTopology) {
+    List<Change> changes = new ArrayList<Change>();
+    Map<String, Node> newNodes = newTopology.getNodeMapView();
+    Map<String, Link> newLinks = newTopology.getLinkMapView();
+    ensureIndexes();
+
+    for (Iterator<Link> it = links.values().iterator(); it.hasNext();) {
+      Link link = it.next();
+      if (!newLinks.containsKey(link.getId())) {
+        it.remove();
+        linkIndex.remove(link.getId());
+        changes.add(new Change(link, null));
+      }
+    }
+    for (Iterator<Node> it = nodes.values().iterator(); it.hasNext();) {
+      Node node = it.next();
+      Node newNode = newNodes.get(node.getId());
+      for (Port port : node.getPortMapView().values()) {
+        if (newNode == null || newNode.getPortMapView().get(port.getId()) == null) {
+          changes.add(new Change(port, null));
+        }
+      }
+      if (newNode == null) {
+        it.remove();
+        unindexNode(node.getId());
+        changes.add(new Change(node, null));
+      }
+    }
+
+    for (Map.Entry<String, Node> entry : newNodes.entrySet()) {
+      Node prev = nodes.get(entry.getKey());
+      Node node = new Node(entry.getValue());
+      node.setId(entry.getKey());
+      List<Change> portChanges = new ArrayList<Change>();
+      for (Port port : node.getPortMap().values()) {
+        port.setNode(node.getId());
+        Port prevPort = (prev != null) ? prev.getPortMapView().get(port.getId()) : null;
+        if (prevPort == null) {
+          port.setVersion(INITIAL_VERSION);
+          port.updateVersion();
+          portChanges.add(new Change(null, port));
+        } else if (isSamePort(prevPort, port)) {
+          port.setVersion(prevPort.getVersion());
+        } else {
+          port.setVersion(prevPort.getVersion());
+          port.updateVersion();
+          portChanges.add(new Change(prevPort, port));
+        }
+      }
+      if (prev == null) {
+        node.setVersion(INITIAL_VERSION);
+      } else if (portChanges.isEmpty()
+          && prev.getPortMapView().keySet().equals(node.getPortMapView().keySet())
+          && prev.getAttributes().equals(node.getAttributes())) {
+        continue;
+      } else {
+        node.setVersion(prev.getVersion());
+      }
+      node.updateVersion();
+      nodes.put(node.getId(), own(node));
+      reindexNode(node);
+      changes.add(new Change(prev, node));
+      changes.addAll(portChanges);
+    }
+
+    for (Map.Entry<String, Link> entry : newLinks.entrySet()) {
+      Link prev = links.get(entry.getKey());
+      Link link = new Link(entry.getValue());
+      link.setId(entry.getKey());
+      if (prev != null && isSameLink(prev, link)) {
+        continue;
+      }
+      link.setVersion((prev != null) ? prev.getVersion() : INITIAL_VERSION);
+      link.updateVersion();
+      links.put(link.getId(), own(link));
+      linkIndex.put(link.getId(), link);
+      changes.add(new Change(prev, link));
+    }
+
+    if (!changes.isEmpty()) {
+      updateVersion();
+    }
+    return changes;
+  }
+
+  private static boolean isSamePort(Port prev, Port curr) {
+    return Objects.equals(prev.getInLink(), curr.getInLink())
+        && Objects.equals(prev.getOutLink(), curr.getOutLink())
+        && prev.getAttributes().equals(curr.getAttributes());
+  }
+
+  private static boolean isSameLink(Link prev, Link curr) {
+    return Objects.equals(prev.getSrcNode(), curr.getSrcNode())
+        && Objects.equals(prev.getSrcPort(), curr.getSrcPort())
+        && Objects.equals(prev.getDstNode(), curr.getDstNode())
+        && Objects.equals(prev.getDstPort(), curr.getDstPort())
+        && prev.getAttributes().equals(curr.getAttributes());
+  }
+
+  /**
+   * Get a node with specific Node ID. The node is copied if shared with a
+   * clone, so that it may be modified.
    *
    * @param nodeId
    *            Node ID to find.
    * @return Node object which has specific ID. null if not found.
    */
-  public Node getNode(String nodeId) {
-    return nodes.get(nodeId);
+  public synchronized Node getNode(String nodeId) {
+    Node node = nodes.get(nodeId);
+    if (node != null && node.owner != owner) {
+      node = own(node.clone());
+      nodes.put(nodeId, node);
+    }
+    return node;
   }
 
   /**
@@ -333,13 +562,198 @@ public class Topology extends BaseObject implements Cloneable {
   }
 
   /**
-   * Get a link with specific Link ID.
+   * Get a link with specific Link ID. The link is copied if shared with a
+   * clone, so that it may be modified.
    *
    * @param linkId link id.
    * @return link object
    */
-  public Link getLink(String linkId) {
-    return links.get(linkId);
+  public synchronized Link getLink(String linkId) {
+    Link link = links.get(linkId);
+    if (link != null && link.owner != owner) {
+      link = own(new Link(link));
+      links.put(linkId, link);
+    }
+    return link;
+  }
+
+  /**
+   * Get a node with specific physical_id. Only reads the indexes, so that
+   * it may be called by concurrent readers.
+   *
+   * @param physicalId physical_id attribute of the node.
+   * @return node object. null if not found.
+   */
+  public Node getNodeByPhysicalId(String physicalId) {
+    ensureIndexes();
+    for (String nodeId : nodeIndex.get(Node.PHYSICAL_ID, physicalId)) {
+      Node node = nodes.get(nodeId);
+      // a stale entry if modified without reindexNode().
+      if (node != null && physicalId.equals(node.getAttribute(Node.PHYSICAL_ID))) {
+        return node;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Get a port with specific physical_id. Only reads the indexes, so that
+   * it may be called by concurrent readers.
+   *
+   * @param physicalId physical_id attribute of the port.
+   * @return port object. null if not found.
+   */
+  public Port getPortByPhysicalId(String physicalId) {
+    ensureIndexes();
+    for (String key : portIndex.get(Port.PHYSICAL_ID, physicalId)) {
+      Port port = getPortByKey(key);
+      // a stale entry if modified without reindexNode().
+      if (port != null && physicalId.equals(port.getAttribute(Port.PHYSICAL_ID))) {
+        return port;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Declares a node attribute to be indexed for queries.
+   * @param attribute attribute name.
+   */
+  public void addNodeIndex(String attribute) {
+    if (nodeIndex.addAttribute(attribute)) {
+      rebuildIndexes();
+    }
+  }
+
+  /**
+   * Declares a port attribute to be indexed for queries.
+   * @param attribute attribute name.
+   */
+  public void addPortIndex(String attribute) {
+    if (portIndex.addAttribute(attribute)) {
+      rebuildIndexes();
+    }
+  }
+
+  /**
+   * Declares a link attribute to be indexed for queries.
+   * @param attribute attribute name.
+   */
+  public void addLinkIndex(String attribute) {
+    if (linkIndex.addAttribute(attribute)) {
+      rebuildIndexes();
+    }
+  }
+
+  /**
+   * Declares the same attribute indexes as another topology.
+   * @param topology topology whose indexes are copied.
+   */
+  public void addIndexes(Topology topology) {
+    boolean added = copyIndexAttributes(nodeIndex, topology.nodeIndex);
+    added |= copyIndexAttributes(portIndex, topology.portIndex);
+    added |= copyIndexAttributes(linkIndex, topology.linkIndex);
+    if (added) {
+      rebuildIndexes();
+    }
+  }
+
+  /**
+   * Updates the attribute indexes of a node and its ports.
+   *
+   * <p>
+   * This must be called after the attributes or the ports of a node in
+   * this topology are modified directly.
+   *
+   * @param node modified node.
+   */
+  public void reindexNode(Node node) {
+    ensureIndexes();
+    indexNode(node);
+  }
+
+  private void indexNode(Node node) {
+    unindexNode(node.getId());
+    if (nodes.get(node.getId()) != node) {
+      return;
+    }
+
+    nodeIndex.put(node.getId(), node);
+    Set<String> portKeys = new HashSet<String>();
+    for (Port port : node.getPortMapView().values()) {
+      String key = portKey(node.getId(), port.getId());
+      portIndex.put(key, port);
+      portKeys.add(key);
+    }
+    if (!portKeys.isEmpty()) {
+      portKeysByNodeId.put(node.getId(), portKeys);
+    }
+  }
+
+  /**
+   * Updates the attribute indexes of a link.
+   *
+   * <p>
+   * This must be called after the attributes of a link in this topology
+   * are modified directly.
+   *
+   * @param link modified link.
+   */
+  public void reindexLink(Link link) {
+    ensureIndexes();
+    if (links.get(link.getId()) == link) {
+      linkIndex.put(link.getId(), link);
+    } else {
+      linkIndex.remove(link.getId());
+    }
+  }
+
+  private void unindexNode(String nodeId) {
+    nodeIndex.remove(nodeId);
+    Set<String> portKeys = portKeysByNodeId.remove(nodeId);
+    if (portKeys != null) {
+      for (String key : portKeys) {
+        portIndex.remove(key);
+      }
+    }
+  }
+
+  private void rebuildIndexes() {
+    nodeIndex.clear();
+    portIndex.clear();
+    linkIndex.clear();
+    portKeysByNodeId.clear();
+    for (Node node : nodes.values()) {
+      indexNode(node);
+    }
+    for (Link link : links.values()) {
+      linkIndex.put(link.getId(), link);
+    }
+  }
+
+  // builds the indexes of a clone.
+  private void ensureIndexes() {
+    if (!indexed) {
+      synchronized (this) {
+        if (!indexed) {
+          rebuildIndexes();
+          indexed = true;
+        }
+      }
+    }
+  }
+
+  private static String portKey(String nodeId, String portId) {
+    return nodeId + PORT_KEY_SEPARATOR + portId;
+  }
+
+  private Port getPortByKey(String key) {
+    int separator = key.indexOf(PORT_KEY_SEPARATOR);
+    Node node = nodes.get(key.substring(0, separator));
+    if (node == null) {
+      return null;
+    }
+    return node.getPortMapView().get(key.substring(separator + 1));
   }
 
   /**
@@ -348,9 +762,15 @@ public class Topology extends BaseObject implements Cloneable {
    * @return map of nodes.
    */
   public Map<String, Node> getNodeMessages(NodeQuery query) {
+    ensureIndexes();
     Map<String, Node> nodes = new HashMap<String, Node>();
-    for (Node node : this.nodes.values()) {
-      if (query.matchExactly(node)) {
+    Collection<String> candidates = nodeIndex.getCandidates(query.getAttributes());
+    if (candidates == null) {
+      candidates = this.nodes.keySet();
+    }
+    for (String nodeId : candidates) {
+      Node node = this.nodes.get(nodeId);
+      if (node != null && query.matchExactly(node)) {
         nodes.put(node.getId(), node);
       }
     }
@@ -377,9 +797,15 @@ public class Topology extends BaseObject implements Cloneable {
    * @return map of link.
    */
   public Map<String, Link> getLinkMessages(LinkQuery query) {
+    ensureIndexes();
     Map<String, Link> links = new HashMap<String, Link>();
-    for (Link link : this.links.values()) {
-      if (query.matchExactly(link)) {
+    Collection<String> candidates = linkIndex.getCandidates(query.getAttributes());
+    if (candidates == null) {
+      candidates = this.links.keySet();
+    }
+    for (String linkId : candidates) {
+      Link link = this.links.get(linkId);
+      if (link != null && query.matchExactly(link)) {
         links.put(link.getId(), link);
       }
     }
@@ -408,7 +834,7 @@ public class Topology extends BaseObject implements Cloneable {
           while (nodesSize-- > 0) {
             String nodeId = upk.readString();
             Node node = upk.read(Node.class);
-            nodes.put(nodeId, node);
+            nodes.put(nodeId, own(node));
           }
           upk.readMapEnd();
           break;
@@ -418,7 +844,7 @@ public class Topology extends BaseObject implements Cloneable {
           while (linksSize-- > 0) {
             String linkId = upk.readString();
             Link link = upk.read(Link.class);
-            links.put(linkId, link);
+            links.put(linkId, own(link));
           }
           upk.readMapEnd();
           break;
@@ -427,6 +853,7 @@ public class Topology extends BaseObject implements Cloneable {
       }
     }
     upk.readMapEnd();
+    rebuildIndexes();
   }
 
   @Override
@@ -448,23 +875,36 @@ public class Topology extends BaseObject implements Cloneable {
     pk.writeMapEnd();
   }
 
+  /**
+   * Returns a copy of this topology in constant time. The nodes and links
+   * are shared with the copy, and each of them is copied when it is first
+   * modified through either topology. The indexes of the copy are built
+   * on their first use.
+   */
   @Override
-  public Topology clone() {
+  public synchronized Topology clone() {
+    Topology topology = new Topology();
+    topology.nodes = nodes.copy();
+    topology.links = links.copy();
+    topology.nodesOwned = false;
+    topology.linksOwned = false;
+    copyIndexAttributes(topology.nodeIndex, nodeIndex);
+    copyIndexAttributes(topology.portIndex, portIndex);
+    copyIndexAttributes(topology.linkIndex, linkIndex);
+    topology.indexed = false;
+    // the elements are owned by neither topology.
+    owner = new Object();
+    nodesOwned = false;
+    linksOwned = false;
+    return topology;
+  }
 
-    Map<String, Link> links = new HashMap<String, Link>();
-    if (links != null) {
-      for (Entry<String, Link> entry : this.links.entrySet()) {
-        links.put(entry.getKey(), new Link(entry.getValue()));
-      }
+  private static boolean copyIndexAttributes(AttributeIndex to, AttributeIndex from) {
+    boolean added = false;
+    for (String attribute : from.getAttributes()) {
+      added |= to.addAttribute(attribute);
     }
-    Map<String, Node> nodes = new HashMap<String, Node>();
-    if (nodes != null) {
-      for (Entry<String, Node> entry : this.nodes.entrySet()) {
-        nodes.put(entry.getKey(), new Node(entry.getValue()));
-      }
-    }
-
-    return new Topology(nodes, links);
+    return added;
   }
 
   /* (non-Javadoc)
@@ -20,6 +20,8 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.zookeeper.CreateMode;
 import org.o3project.odenos.core.util.zookeeper.KeepAliveClient;
 import org.o3project.odenos.remoteobject.actor.Mail;
+import org.o3project.odenos.remoteobject.actor.MailClass;
+import org.o3project.odenos.remoteobject.actor.Mailbox;
 import org.o3project.odenos.remoteobject.event.EventSubscription;
 import org.o3project.odenos.remoteobject.event.ObjectPropertyChanged;
 import org.o3project.odenos.remoteobject.event.ObjectSettingsChanged;
@@ -34,8 +36,10 @@ import org.apache.logging.log4j.LogManager;
 import org.o3project.odenos.core.logging.message.LogMessage;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The base class by which a remote calling is possible.
@@ -53,8 +57,20 @@ public class RemoteObject {
 
   // mailbox to receive messages from MessageDispatcher.
   protected Queue<Mail> mailbox;
+  // QoS class per event type. Events not listed here are MailClass.EVENT.
+  protected Map<String, MailClass> eventMailClasses =
+      new ConcurrentHashMap<String, MailClass>();
   // true if Actor is running on this object right now.
   protected boolean running = false;
+  // number of read-only requests being processed right now.
+  private int readers = 0;
+  // writers waiting for the readers.
+  private int writers = 0;
+  // mails of the partitioned requests to process in order, per partition.
+  private final ConcurrentHashMap<Integer, Queue<Mail>> partitionLanes =
+      new ConcurrentHashMap<Integer, Queue<Mail>>();
+  private final ConcurrentHashMap<Integer, Object> partitionLocks =
+      new ConcurrentHashMap<Integer, Object>();
 
   /**
    * Constructor.
@@ -71,7 +87,7 @@ public class RemoteObject {
 
     this.parser = this.createParser();
 
-    this.mailbox = new ConcurrentLinkedQueue<Mail>();
+    this.mailbox = new Mailbox();
   }
 
   public boolean onInitialize(ObjectProperty prop) {
@@ -297,6 +313,131 @@ public class RemoteObject {
     }
   }
 
+  /**
+   * Returns whether a request does not modify the state of this object.
+   * Read-only requests may be processed concurrently with each other,
+   * while other requests and events are processed one at a time.
+   *
+   * @param request a request.
+   * @return true if the request is read-only.
+   * @see #beginRead()
+   */
+  public boolean isReadOnlyRequest(Request request) {
+    if (StringUtils.stripToNull(request.path) == null) {
+      return false;
+    }
+    RequestParser<IActionCallback>.ParsedRequest parsed = parser
+        .parse(request);
+    if (parsed == null) {
+      return isReadOnlyOnRequest(request);
+    }
+    return parsed.isReadOnly();
+  }
+
+  /**
+   * Starts processing a read-only request. The caller may process the
+   * request without holding the monitor of this object until
+   * {@link #endRead()}. Waits while a writer is waiting in
+   * {@link #awaitReaders()}, so that the readers never starve it.
+   */
+  public synchronized void beginRead() {
+    boolean interrupted = false;
+    while (writers > 0) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    readers++;
+  }
+
+  /**
+   * Ends processing a read-only request.
+   */
+  public synchronized void endRead() {
+    readers--;
+    if (readers == 0) {
+      notifyAll();
+    }
+  }
+
+  /**
+   * Waits until no read-only request is being processed. Must be called
+   * while holding the monitor of this object, before processing
+   * a request or an event that modifies the state.
+   */
+  public synchronized void awaitReaders() {
+    boolean interrupted = false;
+    writers++;
+    while (readers > 0) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    writers--;
+    if (writers == 0) {
+      notifyAll();
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the partition of the state that a request modifies or reads.
+   * Requests of a partition are processed in order while holding
+   * {@link #getPartitionLock(int)}, concurrently with the read-only
+   * requests and the requests of other partitions, like a read-only
+   * request between {@link #beginRead()} and {@link #endRead()}. A
+   * read-only request of a partition is processed in order with it too.
+   *
+   * @param request a request.
+   * @return partition of the request. -1 if it is not partitioned.
+   */
+  public int getRequestPartition(Request request) {
+    if (StringUtils.stripToNull(request.path) == null) {
+      return -1;
+    }
+    return getPartitionOnRequest(request);
+  }
+
+  /**
+   * Returns the mails of the requests of a partition waiting to be
+   * processed, in order.
+   *
+   * @param partition partition of requests.
+   * @return queue of mails.
+   */
+  public Queue<Mail> getPartitionLane(int partition) {
+    Queue<Mail> lane = partitionLanes.get(partition);
+    if (lane == null) {
+      partitionLanes.putIfAbsent(partition, new ArrayDeque<Mail>());
+      lane = partitionLanes.get(partition);
+    }
+    return lane;
+  }
+
+  /**
+   * Returns the lock to hold while processing a request of a partition.
+   *
+   * @param partition partition of requests.
+   * @return lock of the partition.
+   */
+  public Object getPartitionLock(int partition) {
+    Object lock = partitionLocks.get(partition);
+    if (lock == null) {
+      partitionLocks.putIfAbsent(partition, new Object());
+      lock = partitionLocks.get(partition);
+    }
+    return lock;
+  }
+
   /**
    * @return true is Actor is running on this object.
    */
@@ -318,6 +459,27 @@ public class RemoteObject {
     return mailbox;
   }
 
+  /**
+   * Declares the mailbox QoS class of an event type.
+   *
+   * @param eventType type of Event
+   * @param mailClass QoS class of the event in the mailbox
+   */
+  protected void setEventMailClass(String eventType, MailClass mailClass) {
+    eventMailClasses.put(eventType, mailClass);
+  }
+
+  /**
+   * Returns the mailbox QoS class of an event type.
+   *
+   * @param eventType type of Event
+   * @return QoS class of the event in the mailbox
+   */
+  public MailClass getEventMailClass(String eventType) {
+    MailClass mailClass = eventMailClasses.get(eventType);
+    return (mailClass != null) ? mailClass : MailClass.EVENT;
+  }
+
   protected interface IActionCallback {
     Response process(
         RequestParser<IActionCallback>.ParsedRequest parser)
@@ -327,7 +489,7 @@ public class RemoteObject {
   private RequestParser<IActionCallback> createParser() {
     return new RequestParser<IActionCallback>() {
       {
-        addRule(Request.Method.GET,
+        addReadOnlyRule(Request.Method.GET,
             "property",
             new IActionCallback() {
               @Override
@@ -348,7 +510,7 @@ public class RemoteObject {
                         ObjectProperty.class));
               }
             });
-        addRule(Request.Method.GET,
+        addReadOnlyRule(Request.Method.GET,
             "settings",
             new IActionCallback() {
               @Override
@@ -469,6 +631,30 @@ public class RemoteObject {
     return res;
   }
 
+  /**
+   * Returns whether a request handled by {@link #onRequest(Request)}
+   * is read-only.
+   *
+   * @param request
+   *            the posted Request
+   * @return true if the request is read-only
+   */
+  protected boolean isReadOnlyOnRequest(Request request) {
+    return false;
+  }
+
+  /**
+   * Returns the partition of the state that a request modifies or reads.
+   *
+   * @param request
+   *            the posted Request
+   * @return partition of the request. -1 if it is not partitioned.
+   * @see #getRequestPartition(Request)
+   */
+  protected int getPartitionOnRequest(Request request) {
+    return -1;
+  }
+
   /**
    * onEvent is handle event which is notified from other RemoteObject.
    *
@@ -18,8 +18,10 @@ package org.o3project.odenos.remoteobject;
 
 import org.o3project.odenos.remoteobject.message.Request;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * RequestParser parses request method and request path to determine what kind
@@ -41,6 +43,7 @@ public class RequestParser<T> {
     private Request original;
     private Map<String, String> params;
     private String queriesString = null;
+    private boolean readOnly = false;
 
     /**
      * Constructor.
@@ -57,6 +60,20 @@ public class RequestParser<T> {
       this.queriesString = queriesString;
     }
 
+    /**
+     * Constructor.
+     * @param original a request.
+     * @param result result.
+     * @param params map of parameters.
+     * @param queriesString queries string.
+     * @param readOnly true if the rule is read-only.
+     */
+    public ParsedRequest(Request original, T result,
+        Map<String, String> params, String queriesString, boolean readOnly) {
+      this(original, result, params, queriesString);
+      this.readOnly = readOnly;
+    }
+
     /**
      * Get original Request object parsed.
      *
@@ -110,6 +127,15 @@ public class RequestParser<T> {
     public boolean hasQuery() {
       return this.queriesString != null;
     }
+
+    /**
+     * Returns whether the matched rule is read-only.
+     *
+     * @return true if the request does not modify the state.
+     */
+    public boolean isReadOnly() {
+      return readOnly;
+    }
   }
 
   /**
@@ -135,6 +161,27 @@ public class RequestParser<T> {
    *            Result object to be returned.
    */
   public void addRule(Request.Method method, String path, T result) {
+    addRule(method, path, result, false);
+  }
+
+  /**
+   * Add read-only parsing rule. A request matching the rule does not
+   * modify the state of the object, so that it may be processed
+   * concurrently with other read-only requests.
+   *
+   * @param method
+   *            Request method condition.
+   * @param path
+   *            Path condition.
+   * @param result
+   *            Result object to be returned.
+   */
+  public void addReadOnlyRule(Request.Method method, String path, T result) {
+    addRule(method, path, result, true);
+  }
+
+  private void addRule(Request.Method method, String path, T result,
+      boolean readOnly) {
     String[] pathStrings = path.split("/");
 
     State state = headState;
@@ -151,7 +198,7 @@ public class RequestParser<T> {
       }
     }
 
-    state.addResult(method, result);
+    state.addResult(method, result, readOnly);
   }
 
   public void setDefaultResult(T result) {
@@ -193,7 +240,20 @@ public class RequestParser<T> {
       return null;
     }
 
-    return new ParsedRequest(req, result, params, queries);
+    return new ParsedRequest(req, result, params, queries,
+        state.isReadOnly(req.method));
+  }
+
+  /**
+   * Returns whether given request matches a read-only rule.
+   *
+   * @param req
+   *            Request to be parsed.
+   * @return true if the request matches a read-only rule.
+   */
+  public boolean isReadOnly(Request req) {
+    ParsedRequest parsed = parse(req);
+    return parsed != null && parsed.isReadOnly();
   }
 
   /**
@@ -226,6 +286,11 @@ public class RequestParser<T> {
      */
     private Map<Request.Method, T> results = new HashMap<Request.Method, T>();
 
+    /**
+     * Request methods whose result is read-only.
+     */
+    private Set<Request.Method> readOnlyMethods = EnumSet.noneOf(Request.Method.class);
+
     public State() {
     }
 
@@ -242,7 +307,26 @@ public class RequestParser<T> {
      *            Result object to be returned.
      */
     public void addResult(Request.Method method, T result) {
+      addResult(method, result, false);
+    }
+
+    /**
+     * Add result object corresponding to request method.
+     *
+     * @param method
+     *            Request method expected.
+     * @param result
+     *            Result object to be returned.
+     * @param readOnly
+     *            true if the result is read-only.
+     */
+    public void addResult(Request.Method method, T result, boolean readOnly) {
       results.put(method, result);
+      if (readOnly) {
+        readOnlyMethods.add(method);
+      } else {
+        readOnlyMethods.remove(method);
+      }
     }
 
     /**
@@ -253,6 +337,7 @@ public class RequestParser<T> {
      */
     public void removeResult(Request.Method method) {
       results.remove(method);
+      readOnlyMethods.remove(method);
     }
 
     /**
@@ -266,6 +351,17 @@ public class RequestParser<T> {
       return results.get(method);
     }
 
+    /**
+     * Returns whether the result of request method is read-only.
+     *
+     * @param method
+     *            Request method.
+     * @return true if the result is read-only.
+     */
+    public boolean isReadOnly(Request.Method method) {
+      return readOnlyMethods.contains(method);
+    }
+
     /**
      * Create State object with transition from this object. If already
      * exists, returns existing State.
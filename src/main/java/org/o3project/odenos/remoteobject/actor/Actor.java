@@ -17,6 +17,7 @@
 package org.o3project.odenos.remoteobject.actor;
 
 import org.o3project.odenos.remoteobject.RemoteObject;
+import org.o3project.odenos.remoteobject.message.Request;
 import org.o3project.odenos.remoteobject.message.Response;
 
 import org.apache.logging.log4j.Logger;
@@ -27,6 +28,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor.AbortPolicy;
@@ -76,9 +78,24 @@ import java.util.concurrent.TimeUnit;
  * Refer to {@link org.o3project.odenos.remoteobject.messagingclient.Config}.
  *
  * <p>
+ * The mailbox is a {@link Mailbox}: a request is read ahead of queued
+ * events by weighted round-robin among {@link MailClass} queues.
+ *
+ * <p>
+ * A request that {@link RemoteObject#isReadOnlyRequest(Request)} is
+ * processed on another worker thread concurrently with other read-only
+ * requests. Requests that modify the state and events are processed one
+ * at a time, after the read-only requests in process have completed.
+ *
+ * <p>
+ * A request of a partition, {@link RemoteObject#getRequestPartition(Request)},
+ * is queued in the lane of the partition. The lanes are processed
+ * concurrently with each other and with the read-only requests; the
+ * requests of a lane are processed in order.
+ *
+ * <p>
  * TODO: study lightweight threads to realize a true Actor Model and
  * increase its performance.
- * TODO: study what the best Queue implementation for the mailbox is.
  *
  * @see org.o3project.odenos.remoteobject.RemoteObject
  * @see org.o3project.odenos.remoteobject.messagingclient.MessageDispatcher
@@ -139,6 +156,12 @@ public class Actor implements Closeable {
    * between RemoteObject instances on same JVM, set
    * MODE.LOCAL_REQUESTS_TO_PUBSUB.
    *
+   * <p>
+   * A request whose deadline has passed while waiting in the mailbox
+   * is not dispatched; {@link Response#REQUEST_TIMEOUT} is returned instead.
+   * Otherwise, the deadline is inherited by requests sent while
+   * dispatching the request.
+   *
    * @param localObject local object
    * @see org.o3project.odenos.remoteobject.messagingclient.Config
    */
@@ -159,9 +182,9 @@ public class Actor implements Closeable {
       }
       // Include MODE.LOCAL_REQUESTS_TO_PUBSUB as MessageDispatcher config
       // to dump all incoming messages including local-loopback messages.
-      log.debug("{} mails: #{} \"{}\" <={}= \"{}\" via {}, {}",
+      log.debug("{} mails: #{} \"{}\" <={}= \"{}\" via {}, {}, {}",
               mailbox.size(), head.serial, head.to, type, head.from,
-              head.via.getSourceDispatcherId(), path);
+              head.via.getSourceDispatcherId(), path, head.mailClass);
     }
 
     // Picks up a worker thread and assigns it to RemoteObject.
@@ -171,19 +194,27 @@ public class Actor implements Closeable {
         Queue<Mail> mailbox = localObject.getMailbox();
         Mail mail = mailbox.poll();
         if (mail != null) {
-          // synchronized with MessageDispatcher#requestSync().
-          synchronized (localObject) {
-            if (mail.request != null) {
-              txid = mail.request.txid;
-              Response response = localObject.dispatchRequest(mail.request);
-              try {
-                mail.via.publishResponseAsync(mail.sno, mail.from, mail.request, response);
-              } catch (IOException e) {
-                log.error("unable to send response", e);
+          int partition = -1;
+          // a read-only request of a partition follows the ones before it.
+          if (mail.request != null
+              && (partition = localObject.getRequestPartition(mail.request)) >= 0) {
+            // Waits for a request or an event in process, if any.
+            localObject.beginRead();
+            readPartition(localObject, mail, partition);
+          } else if (mail.request != null && localObject.isReadOnlyRequest(mail.request)) {
+            // Waits for a request or an event in process, if any.
+            localObject.beginRead();
+            readConcurrently(localObject, mail);
+          } else {
+            // synchronized with MessageDispatcher#requestSync().
+            synchronized (localObject) {
+              localObject.awaitReaders();
+              if (mail.request != null) {
+                processRequest(localObject, mail);
+              } else if (mail.event != null) {
+                txid = mail.event.txid;
+                localObject.dispatchEvent(mail.event);
               }
-            } else if (mail.event != null) {
-              txid = mail.event.txid;
-              localObject.dispatchEvent(mail.event);
             }
           }
         }
@@ -199,6 +230,108 @@ public class Actor implements Closeable {
     });
   }
 
+  /**
+   * Processes a read-only request on another worker thread, so that the
+   * following mails are read without waiting for it.
+   * {@link RemoteObject#beginRead()} must have been called.
+   *
+   * @param localObject local object
+   * @param mail mail of the read-only request
+   */
+  private void readConcurrently(final RemoteObject localObject, final Mail mail) {
+    Runnable task = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          processRequest(localObject, mail);
+        } finally {
+          localObject.endRead();
+        }
+      }
+    };
+    try {
+      threadPoolExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // No room in the pool; processes it on this thread.
+      task.run();
+    }
+  }
+
+  /**
+   * Queues a request in the lane of its partition, and starts processing
+   * the lane on another worker thread unless it is in process.
+   * {@link RemoteObject#beginRead()} must have been called.
+   *
+   * @param localObject local object
+   * @param mail mail of the request
+   * @param partition partition of the request
+   */
+  private void readPartition(final RemoteObject localObject, Mail mail,
+      final int partition) {
+    final Queue<Mail> lane = localObject.getPartitionLane(partition);
+    synchronized (lane) {
+      lane.add(mail);
+      if (lane.size() > 1) {
+        // processed by the task in process.
+        return;
+      }
+    }
+    Runnable task = new Runnable() {
+      @Override
+      public void run() {
+        while (true) {
+          Mail head;
+          synchronized (lane) {
+            head = lane.peek();
+          }
+          try {
+            synchronized (localObject.getPartitionLock(partition)) {
+              processRequest(localObject, head);
+            }
+          } finally {
+            localObject.endRead();
+          }
+          // removed after processed, so that a new mail starts no task.
+          synchronized (lane) {
+            lane.poll();
+            if (lane.isEmpty()) {
+              return;
+            }
+          }
+        }
+      }
+    };
+    try {
+      threadPoolExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // No room in the pool; processes it on this thread.
+      task.run();
+    }
+  }
+
+  private void processRequest(RemoteObject localObject, Mail mail) {
+    txid = mail.request.txid;
+    Response response;
+    if (mail.request.isExpired()) {
+      // The requester has already given up; skips the work.
+      log.warn("request expired in mailbox: {} /{}/{}",
+          mail.request.method, mail.to, mail.request.path);
+      response = new Response(Response.REQUEST_TIMEOUT, null);
+    } else {
+      Request.setCurrentDeadline(mail.request.deadline);
+      try {
+        response = localObject.dispatchRequest(mail.request);
+      } finally {
+        Request.setCurrentDeadline(0);
+      }
+    }
+    try {
+      mail.via.publishResponseAsync(mail.sno, mail.from, mail.request, response);
+    } catch (IOException e) {
+      log.error("unable to send response", e);
+    }
+  }
+
   @Override
   public void close() throws IOException {
     threadPoolExecutor.shutdown();
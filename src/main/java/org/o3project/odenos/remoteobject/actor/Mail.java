@@ -36,7 +36,8 @@ public class Mail {
   public final MessageDispatcher via;
   public final Request request; // Note: null if this mail contains an event.
   public final Event event;     // Note: null if this mail contains a request.
-  
+  public final MailClass mailClass;
+
   /**
    * Constructor.
    * 
@@ -50,6 +51,24 @@ public class Mail {
    */
   public Mail(int serial, int sno, String to, String from,
       MessageDispatcher via, Request request, Event event) {
+    this(serial, sno, to, from, via, request, event,
+        (request != null) ? MailClass.CONTROL : MailClass.EVENT);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param serial serial number for incoming messages.
+   * @param sno sequence number for outgoing request messages.
+   * @param to remote object to send request.
+   * @param from remote object to receive response.
+   * @param via message dispatcher.
+   * @param request request.
+   * @param event event.
+   * @param mailClass QoS class of this mail.
+   */
+  public Mail(int serial, int sno, String to, String from,
+      MessageDispatcher via, Request request, Event event, MailClass mailClass) {
     this.serial = serial;
     this.sno = sno;
     this.to = to;
@@ -57,6 +76,7 @@ public class Mail {
     this.via = via;
     this.request = request;
     this.event = event;
+    this.mailClass = mailClass;
   }
 
 }
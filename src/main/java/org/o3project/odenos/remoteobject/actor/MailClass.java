@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.actor;
+
+/**
+ * QoS class of a {@link Mail}.
+ *
+ * <p>
+ * {@link Mailbox} keeps a queue per class and dequeues mails in a
+ * weighted round-robin manner: per round, at most {@link #getWeight()}
+ * mails of each class are read, in the declaration order of this enum.
+ *
+ * @see Mailbox
+ * @see org.o3project.odenos.remoteobject.RemoteObject#setEventMailClass(String, MailClass)
+ */
+public enum MailClass {
+  // Requests (e.g., GET /settings or PUT from REST API).
+  CONTROL(8),
+  // Events by default (e.g., NodeChanged, ComponentConnectionChanged).
+  EVENT(4),
+  // High-volume data-plane events (e.g., InPacketAdded).
+  BULK(1);
+
+  private final int weight;
+
+  private MailClass(int weight) {
+    this.weight = weight;
+  }
+
+  /**
+   * Returns the number of mails read per round.
+   *
+   * @return weight
+   */
+  public int getWeight() {
+    return weight;
+  }
+}
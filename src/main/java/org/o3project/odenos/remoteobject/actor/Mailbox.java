@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.actor;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Mailbox of {@link org.o3project.odenos.remoteobject.RemoteObject}.
+ *
+ * <p>
+ * This mailbox keeps one FIFO queue per {@link MailClass}, so that a
+ * request does not wait behind every queued data-plane event.
+ * {@link #poll()} serves the queues in a weighted round-robin manner,
+ * which bounds the number of lower-class mails read ahead of a request
+ * while never starving any class.
+ *
+ * <p>
+ * Mails of a same class are read in order of arrival. Mails of different
+ * classes may be reordered.
+ *
+ * @see MailClass
+ * @see Actor
+ */
+public class Mailbox extends AbstractQueue<Mail> {
+
+  private static final MailClass[] CLASSES = MailClass.values();
+
+  private final List<Queue<Mail>> queues = new ArrayList<>(CLASSES.length);
+  private final int[] credits = new int[CLASSES.length];
+
+  /**
+   * Constructor.
+   */
+  public Mailbox() {
+    for (MailClass mailClass : CLASSES) {
+      queues.add(new ConcurrentLinkedQueue<Mail>());
+      credits[mailClass.ordinal()] = mailClass.getWeight();
+    }
+  }
+
+  @Override
+  public boolean offer(Mail mail) {
+    return queues.get(mail.mailClass.ordinal()).offer(mail);
+  }
+
+  /**
+   * Retrieves and removes a mail by weighted round-robin.
+   *
+   * @return a mail, or null if this mailbox is empty
+   */
+  @Override
+  public synchronized Mail poll() {
+    for (int round = 0; round < 2; round++) {
+      for (MailClass mailClass : CLASSES) {
+        int index = mailClass.ordinal();
+        if (credits[index] > 0) {
+          Mail mail = queues.get(index).poll();
+          if (mail != null) {
+            credits[index]--;
+            return mail;
+          }
+        }
+      }
+      // All the non-empty classes have used up their credits.
+      for (MailClass mailClass : CLASSES) {
+        credits[mailClass.ordinal()] = mailClass.getWeight();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Retrieves the head of the highest non-empty class.
+   *
+   * @return a mail, or null if this mailbox is empty
+   */
+  @Override
+  public Mail peek() {
+    for (Queue<Mail> queue : queues) {
+      Mail mail = queue.peek();
+      if (mail != null) {
+        return mail;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (Queue<Mail> queue : queues) {
+      if (!queue.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Queue<Mail> queue : queues) {
+      size += queue.size();
+    }
+    return size;
+  }
+
+  /**
+   * Returns the number of mails of a class.
+   *
+   * @param mailClass class of mails
+   * @return the number of mails
+   */
+  public int size(MailClass mailClass) {
+    return queues.get(mailClass.ordinal()).size();
+  }
+
+  @Override
+  public Iterator<Mail> iterator() {
+    List<Mail> mails = new ArrayList<>();
+    for (Queue<Mail> queue : queues) {
+      mails.addAll(queue);
+    }
+    return mails.iterator();
+  }
+}
@@ -25,15 +25,32 @@ import java.io.IOException;
 /**
  * Request message.
  *
+ * <p>
+ * A request may carry a deadline. The time left until the deadline is
+ * packed as an optional sixth element only when it is set, so that
+ * requests without a deadline keep the original format; the receiver
+ * takes it from its own clock, so that the clocks of the processes need
+ * not agree.
+ *
  */
 public class Request extends MessageBodyUnpacker {
 
   private static final int MSG_NUM = 5;
+  private static final int MSG_NUM_WITH_DEADLINE = 6;
+
+  // Query of a conditional GET: the version the requester already has.
+  // The response is NOT_MODIFIED if the version of the object is the same.
+  public static final String IF_VERSION_DIFFERS = "if_version_differs";
+
+  // Deadline of the request being processed by the current thread.
+  private static final ThreadLocal<Long> currentDeadline = new ThreadLocal<Long>();
 
   public String objectId;
   public Method method;
   public String path;
   public String txid;
+  // absolute deadline in epoch milliseconds of this process.
+  public long deadline = 0; // Note: 0 means no deadline.
 
   public enum Method {
     GET, PUT, POST, DELETE
@@ -72,20 +89,64 @@ public class Request extends MessageBodyUnpacker {
   }
 
 
+  /**
+   * Checks if the deadline has passed.
+   * @return true if the deadline is set and has passed.
+   */
+  public boolean isExpired() {
+    return deadline > 0 && deadline <= System.currentTimeMillis();
+  }
+
+  /**
+   * Returns the time left until the deadline.
+   * @return milliseconds left, or Long.MAX_VALUE if no deadline is set.
+   */
+  public long getRemainingTime() {
+    if (deadline <= 0) {
+      return Long.MAX_VALUE;
+    }
+    return Math.max(0, deadline - System.currentTimeMillis());
+  }
+
+  /**
+   * Sets the deadline of the request being processed by the current thread.
+   * Requests sent from the thread inherit this deadline.
+   * @param deadline absolute deadline in epoch milliseconds, or 0.
+   */
+  public static void setCurrentDeadline(long deadline) {
+    if (deadline > 0) {
+      currentDeadline.set(deadline);
+    } else {
+      currentDeadline.remove();
+    }
+  }
+
+  /**
+   * Returns the deadline of the request being processed by the current thread.
+   * @return absolute deadline in epoch milliseconds, or 0.
+   */
+  public static long getCurrentDeadline() {
+    Long deadline = currentDeadline.get();
+    return (deadline == null) ? 0 : deadline;
+  }
+
   @Override
   public void readFrom(Unpacker unpacker) throws IOException {
-    unpacker.readArrayBegin();
+    int size = unpacker.readArrayBegin();
     objectId = unpacker.readString();
     method = Method.valueOf(unpacker.readString());
     path = unpacker.readString();
     txid = unpacker.readString();
     bodyValue = unpacker.readValue();
+    if (size >= MSG_NUM_WITH_DEADLINE) {
+      deadline = System.currentTimeMillis() + unpacker.readLong();
+    }
     unpacker.readArrayEnd();
   }
 
   @Override
   public void writeTo(Packer packer) throws IOException {
-    packer.writeArrayBegin(MSG_NUM);
+    packer.writeArrayBegin((deadline > 0) ? MSG_NUM_WITH_DEADLINE : MSG_NUM);
     packer.write(objectId);
     packer.write(method.name());
     packer.write(path);
@@ -95,6 +156,10 @@ public class Request extends MessageBodyUnpacker {
     } else {
       packer.write(body);
     }
+    if (deadline > 0) {
+      // at least 1, so that an expired request is still expired.
+      packer.write(Math.max(1, deadline - System.currentTimeMillis()));
+    }
     packer.writeArrayEnd();
   }
 
@@ -32,12 +32,15 @@ public class Response extends MessageBodyUnpacker {
   public static final int CREATED = 201;
   public static final int ACCEPTED = 202;
   public static final int NO_CONTENT = 204;
+  public static final int NOT_MODIFIED = 304;
   public static final int BAD_REQUEST = 400;
   public static final int FORBIDDEN = 403;
   public static final int NOT_FOUND = 404;
   public static final int METHOD_NOT_ALLOWED = 405;
+  public static final int REQUEST_TIMEOUT = 408;
   public static final int CONFLICT = 409;
   public static final int INTERNAL_SERVER_ERROR = 500;
+  public static final int SERVICE_UNAVAILABLE = 503;
 
   private static final int MSG_NUM = 2;
 
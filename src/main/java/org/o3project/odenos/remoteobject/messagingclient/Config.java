@@ -18,6 +18,7 @@ package org.o3project.odenos.remoteobject.messagingclient;
 
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.Map;
 
 /**
  * {@link MessageDispatcher} configuration.
@@ -70,6 +71,16 @@ public interface Config {
   public int getRemoteTransactionsInitialTimeout();
 
   public int getRemoteTransactionsFinalTimeout();
+
+  public int getSubscriptionBatchInterval();
+
+  public String getFlightRecorderFile();
+
+  public int getFlightRecorderSize();
+
+  public Map<String, Double> getMonitorSamplingRates();
+
+  public int getMonitorBandwidth();
   
   public boolean getSystemManagerStatusCheck();
   
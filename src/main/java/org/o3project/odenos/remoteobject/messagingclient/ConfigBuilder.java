@@ -18,6 +18,8 @@ package org.o3project.odenos.remoteobject.messagingclient;
 
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -60,6 +62,21 @@ public class ConfigBuilder {
   private int remoteTransactionsMax = 20;
   private int remoteTransactionsInitialTimeout = 3;
   private int remoteTransactionsFinalTimeout = 30;
+
+  // SUBSCRIBE/UNSUBSCRIBE batching window in milliseconds
+  // "0" means that subscription changes are sent immediately.
+  private int subscriptionBatchInterval = 10;
+
+  // Flight recorder of raw messages
+  // "null" means that the flight recorder is disabled.
+  private String flightRecorderFile = null;
+  private int flightRecorderSize = FlightRecorder.DEFAULT_SIZE;
+
+  // Monitor mirroring (REFLECT_MESSAGE_TO_MONITOR)
+  // Sampling rates by message type or event type (1.0 if not specified),
+  // and bandwidth budget in bytes per second ("0" means unlimited).
+  private Map<String, Double> monitorSamplingRates = new HashMap<>();
+  private int monitorBandwidth = 0;
  
   // Publisher queue size (Note: this is optional and implementation-specific)
   // "0" means that an IPubSubDriver impl class should set its default.
@@ -213,6 +230,81 @@ public class ConfigBuilder {
     return remoteTransactionsFinalTimeout;
   }
   
+  /**
+   * SUBSCRIBE/UNSUBSCRIBE batching window in milliseconds.
+   *
+   * <p>
+   * Set 0 to send every subscription change immediately.
+   *
+   * @param subscriptionBatchInterval batching window in milliseconds
+   * @return ConfigBuilder ConfigBuilder
+   */
+  public ConfigBuilder setSubscriptionBatchInterval(int subscriptionBatchInterval) {
+    this.subscriptionBatchInterval = subscriptionBatchInterval;
+    return this;
+  }
+
+  public int getSubscriptionBatchInterval() {
+    return subscriptionBatchInterval;
+  }
+
+  /**
+   * File of the binary flight recorder.
+   *
+   * <p>
+   * Set null to disable the flight recorder.
+   *
+   * @param flightRecorderFile file path
+   * @return ConfigBuilder ConfigBuilder
+   * @see FlightRecorder
+   */
+  public ConfigBuilder setFlightRecorderFile(String flightRecorderFile) {
+    this.flightRecorderFile = flightRecorderFile;
+    return this;
+  }
+
+  public String getFlightRecorderFile() {
+    return flightRecorderFile;
+  }
+
+  public ConfigBuilder setFlightRecorderSize(int flightRecorderSize) {
+    this.flightRecorderSize = flightRecorderSize;
+    return this;
+  }
+
+  public int getFlightRecorderSize() {
+    return flightRecorderSize;
+  }
+
+  /**
+   * Sampling rates of the messages mirrored to the monitor.
+   *
+   * <p>
+   * Keys are message types ("REQUEST", "RESPONSE" or "EVENT") or event
+   * types (e.g., "InPacketAdded"), and values are from 0.0 to 1.0.
+   *
+   * @param monitorSamplingRates sampling rates
+   * @return ConfigBuilder ConfigBuilder
+   * @see MonitorMirror
+   */
+  public ConfigBuilder setMonitorSamplingRates(Map<String, Double> monitorSamplingRates) {
+    this.monitorSamplingRates = monitorSamplingRates;
+    return this;
+  }
+
+  public Map<String, Double> getMonitorSamplingRates() {
+    return monitorSamplingRates;
+  }
+
+  public ConfigBuilder setMonitorBandwidth(int monitorBandwidth) {
+    this.monitorBandwidth = monitorBandwidth;
+    return this;
+  }
+
+  public int getMonitorBandwidth() {
+    return monitorBandwidth;
+  }
+
   public ConfigBuilder setPublisherQueueSize(int publisherQueueSize) {
     this.publisherQueueSize = publisherQueueSize;
     return this;
@@ -280,6 +372,11 @@ public class ConfigBuilder {
     private final int remoteTransactionsMax;
     private final int remoteTransactionsInitialTimeout;
     private final int remoteTransactionsFinalTimeout;
+    private final int subscriptionBatchInterval;
+    private final String flightRecorderFile;
+    private final int flightRecorderSize;
+    private final Map<String, Double> monitorSamplingRates;
+    private final int monitorBandwidth;
     private final boolean systemManagerStatusCheck;
     private final EnumSet<MODE> mode;
     private final String publishScript;
@@ -297,6 +394,11 @@ public class ConfigBuilder {
       this.remoteTransactionsMax = builder.getRemoteTransactionsMax();
       this.remoteTransactionsInitialTimeout = builder.getRemoteTransactionsInitialTimeout();
       this.remoteTransactionsFinalTimeout = builder.getRemoteTransactionsFinalTimeout();
+      this.subscriptionBatchInterval = builder.getSubscriptionBatchInterval();
+      this.flightRecorderFile = builder.getFlightRecorderFile();
+      this.flightRecorderSize = builder.getFlightRecorderSize();
+      this.monitorSamplingRates = builder.getMonitorSamplingRates();
+      this.monitorBandwidth = builder.getMonitorBandwidth();
       this.systemManagerStatusCheck = builder.getSystemManagerStatusCheck();
       this.mode = builder.getMode();
       this.publishScript = builder.getPublishScript();
@@ -357,6 +459,31 @@ public class ConfigBuilder {
     public int getRemoteTransactionsFinalTimeout() {
       return remoteTransactionsFinalTimeout;
     }
+
+    @Override
+    public int getSubscriptionBatchInterval() {
+      return subscriptionBatchInterval;
+    }
+
+    @Override
+    public String getFlightRecorderFile() {
+      return flightRecorderFile;
+    }
+
+    @Override
+    public int getFlightRecorderSize() {
+      return flightRecorderSize;
+    }
+
+    @Override
+    public Map<String, Double> getMonitorSamplingRates() {
+      return monitorSamplingRates;
+    }
+
+    @Override
+    public int getMonitorBandwidth() {
+      return monitorBandwidth;
+    }
     
     @Override
     public int getPublisherQueueSize() {
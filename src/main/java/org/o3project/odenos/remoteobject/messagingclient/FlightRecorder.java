@@ -0,0 +1,406 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Binary flight recorder of message traffic.
+ *
+ * <p>
+ * Every raw frame sent or received by {@link MessageDispatcher} is recorded
+ * into a bounded ring on a memory-mapped file, together with its timestamp,
+ * channel and direction. The frames are recorded as they are on the wire
+ * (no re-encoding), and the oldest frames are overwritten once the ring is full.
+ *
+ * <p>
+ * The caller of {@link #record(byte, String, byte[])} only hands the frame
+ * over to a bounded queue; a writer thread copies it into the ring. If the
+ * queue is full, the frame is dropped and counted rather than blocking
+ * the caller. Since the ring lives in the page cache, the frames recorded
+ * so far survive a crash of the process.
+ *
+ * <p>
+ * Use {@link FlightRecorderDump} to decode and filter a recorded file offline.
+ *
+ * <pre>
+ * File layout:
+ *   header (64 bytes)
+ *     int  magic "ODFR"
+ *     int  version
+ *     int  capacity of the ring in bytes
+ *     long head (logical offset of the next record)
+ *     long tail (logical offset of the oldest record)
+ *     long number of recorded frames
+ *     long number of dropped frames
+ *   ring (capacity bytes)
+ *     record:
+ *       int   record length
+ *       long  timestamp (milliseconds since the epoch)
+ *       byte  direction (IN or OUT)
+ *       short channel length
+ *       int   original payload length
+ *       byte[] channel (UTF-8)
+ *       byte[] payload (truncated if longer than half of the ring)
+ *     A record length of 0, or less than 4 bytes left at the end of
+ *     the ring, means that the next record starts at the top of the ring.
+ * </pre>
+ *
+ * @see FlightRecorderDump
+ */
+public class FlightRecorder implements Closeable {
+
+  private static final Logger log = LogManager.getLogger(FlightRecorder.class);
+
+  public static final byte IN = 0;
+  public static final byte OUT = 1;
+
+  public static final int DEFAULT_SIZE = 64 * 1024 * 1024;
+
+  static final int MAGIC = 0x4f444652; // "ODFR"
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 64;
+  static final int OFFSET_MAGIC = 0;
+  static final int OFFSET_VERSION = 4;
+  static final int OFFSET_CAPACITY = 8;
+  static final int OFFSET_HEAD = 16;
+  static final int OFFSET_TAIL = 24;
+  static final int OFFSET_RECORDED = 32;
+  static final int OFFSET_DROPPED = 40;
+
+  static final int RECORD_HEADER_SIZE = 19;
+  static final int WRAP = 0;
+
+  static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private static final int QUEUE_SIZE = 16384;
+  private static final Frame STOP = new Frame(0, IN, "", new byte[0], 0);
+
+  private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+  private final AtomicLong dropped = new AtomicLong();
+  private volatile boolean closed = false;
+
+  private final RandomAccessFile file;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+  private final Thread writer;
+
+  // Touched by the writer thread only.
+  private long head;
+  private long tail;
+  private long recorded;
+
+  /**
+   * Constructor.
+   *
+   * <p>
+   * If the file has already been recorded with the same size, new frames
+   * are appended to it.
+   *
+   * @param path file to be recorded
+   * @param size size of the ring in bytes
+   * @throws IOException if the file cannot be mapped
+   */
+  public FlightRecorder(String path, int size) throws IOException {
+    if (size < RECORD_HEADER_SIZE * 2) {
+      throw new IllegalArgumentException("too small flight recorder: " + size);
+    }
+    capacity = size;
+    file = new RandomAccessFile(path, "rw");
+    buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + capacity);
+
+    if (buffer.getInt(OFFSET_MAGIC) == MAGIC
+        && buffer.getInt(OFFSET_VERSION) == VERSION
+        && buffer.getInt(OFFSET_CAPACITY) == capacity) {
+      head = buffer.getLong(OFFSET_HEAD);
+      tail = buffer.getLong(OFFSET_TAIL);
+      recorded = buffer.getLong(OFFSET_RECORDED);
+      dropped.set(buffer.getLong(OFFSET_DROPPED));
+    } else {
+      buffer.putInt(OFFSET_MAGIC, MAGIC);
+      buffer.putInt(OFFSET_VERSION, VERSION);
+      buffer.putInt(OFFSET_CAPACITY, capacity);
+      writeHeader();
+    }
+
+    writer = new Thread(new Writer(), "FlightRecorder-writer");
+    writer.setDaemon(true);
+    writer.start();
+    log.info("flight recorder: {} ({} bytes)", path, capacity);
+  }
+
+  /**
+   * Records a raw frame.
+   *
+   * <p>
+   * This method never blocks. The frame must not be modified afterward.
+   *
+   * @param direction {@link #IN} or {@link #OUT}
+   * @param channel channel of the frame
+   * @param message raw frame
+   */
+  public void record(byte direction, String channel, byte[] message) {
+    if (closed) {
+      return;
+    }
+    Frame frame = new Frame(System.currentTimeMillis(), direction, channel,
+        message, message.length);
+    if (!queue.offer(frame)) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of frames dropped because the writer was too busy.
+   *
+   * @return number of dropped frames
+   */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  /**
+   * Writes the queued frames and closes the file.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      queue.put(STOP);
+      writer.join();
+    } catch (InterruptedException e) {
+      log.warn("flight recorder writer interrupted");
+    }
+    buffer.force();
+    try {
+      file.close();
+    } catch (IOException e) {
+      log.warn("unable to close flight recorder", e);
+    }
+  }
+
+  private void writeHeader() {
+    buffer.putLong(OFFSET_HEAD, head);
+    buffer.putLong(OFFSET_TAIL, tail);
+    buffer.putLong(OFFSET_RECORDED, recorded);
+    buffer.putLong(OFFSET_DROPPED, dropped.get());
+  }
+
+  private void write(Frame frame) {
+    byte[] channel = frame.getChannel().getBytes(UTF8);
+    int channelLength = Math.min(channel.length, Short.MAX_VALUE);
+    // A record may occupy at most the half of the ring.
+    int payloadLength = Math.min(frame.getPayload().length,
+        capacity / 2 - RECORD_HEADER_SIZE - channelLength);
+    if (payloadLength < 0) {
+      dropped.incrementAndGet();
+      return;
+    }
+    int length = RECORD_HEADER_SIZE + channelLength + payloadLength;
+
+    int pos = (int) (head % capacity);
+    if (capacity - pos < length) {
+      // skips the rest of the ring.
+      int skip = capacity - pos;
+      reserve(skip);
+      if (skip >= 4) {
+        buffer.putInt(HEADER_SIZE + pos, WRAP);
+      }
+      head += skip;
+      pos = 0;
+    }
+    reserve(length);
+
+    int offset = HEADER_SIZE + pos;
+    buffer.putInt(offset, length);
+    buffer.putLong(offset + 4, frame.getTimestamp());
+    buffer.put(offset + 12, frame.getDirection());
+    buffer.putShort(offset + 13, (short) channelLength);
+    buffer.putInt(offset + 15, frame.getLength());
+    ByteBuffer data = buffer.duplicate();
+    data.position(offset + RECORD_HEADER_SIZE);
+    data.put(channel, 0, channelLength);
+    data.put(frame.getPayload(), 0, payloadLength);
+
+    head += length;
+    recorded++;
+    buffer.putLong(OFFSET_HEAD, head);
+  }
+
+  // Evicts the oldest records until "length" bytes are free.
+  private void reserve(int length) {
+    if (head + length - tail <= capacity) {
+      return;
+    }
+    while (head + length - tail > capacity) {
+      tail += recordSize(buffer, capacity, tail);
+    }
+    // The tail must be persisted before the evicted records are overwritten.
+    buffer.putLong(OFFSET_TAIL, tail);
+  }
+
+  static int recordSize(ByteBuffer buffer, int capacity, long offset) {
+    int pos = (int) (offset % capacity);
+    int remaining = capacity - pos;
+    if (remaining < 4) {
+      return remaining;
+    }
+    int size = buffer.getInt(HEADER_SIZE + pos);
+    return (size == WRAP) ? remaining : size;
+  }
+
+  /**
+   * Reads all the frames recorded in a mapped flight recorder file.
+   *
+   * @param buffer file contents
+   * @return frames from the oldest one
+   * @throws IOException if the contents are not a flight recorder file
+   */
+  static List<Frame> read(ByteBuffer buffer) throws IOException {
+    if (buffer.limit() < HEADER_SIZE
+        || buffer.getInt(OFFSET_MAGIC) != MAGIC
+        || buffer.getInt(OFFSET_VERSION) != VERSION) {
+      throw new IOException("not a flight recorder file");
+    }
+    int capacity = buffer.getInt(OFFSET_CAPACITY);
+    long head = buffer.getLong(OFFSET_HEAD);
+    long tail = buffer.getLong(OFFSET_TAIL);
+    if (buffer.limit() < HEADER_SIZE + capacity || head - tail > capacity || tail > head) {
+      throw new IOException("broken flight recorder file");
+    }
+
+    List<Frame> frames = new ArrayList<>();
+    long offset = tail;
+    while (offset < head) {
+      int size = recordSize(buffer, capacity, offset);
+      int pos = (int) (offset % capacity);
+      if (size <= 0 || pos + size > capacity) {
+        throw new IOException("broken record at " + offset);
+      }
+      offset += size;
+      int remaining = capacity - pos;
+      if (remaining < 4 || buffer.getInt(HEADER_SIZE + pos) == WRAP) {
+        continue;
+      }
+
+      int base = HEADER_SIZE + pos;
+      long timestamp = buffer.getLong(base + 4);
+      byte direction = buffer.get(base + 12);
+      int channelLength = buffer.getShort(base + 13);
+      int length = buffer.getInt(base + 15);
+      byte[] channel = new byte[channelLength];
+      byte[] payload = new byte[size - RECORD_HEADER_SIZE - channelLength];
+      ByteBuffer data = buffer.duplicate();
+      data.position(base + RECORD_HEADER_SIZE);
+      data.get(channel);
+      data.get(payload);
+      frames.add(new Frame(timestamp, direction, new String(channel, UTF8), payload, length));
+    }
+    return frames;
+  }
+
+  /**
+   * A recorded frame.
+   */
+  public static final class Frame {
+    private final long timestamp;
+    private final byte direction;
+    private final String channel;
+    private final byte[] payload;
+    private final int length;
+
+    Frame(long timestamp, byte direction, String channel, byte[] payload, int length) {
+      this.timestamp = timestamp;
+      this.direction = direction;
+      this.channel = channel;
+      this.payload = payload;
+      this.length = length;
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public byte getDirection() {
+      return direction;
+    }
+
+    public String getChannel() {
+      return channel;
+    }
+
+    public byte[] getPayload() {
+      return payload;
+    }
+
+    /**
+     * Returns the length of the original frame.
+     *
+     * @return length of the frame on the wire
+     */
+    public int getLength() {
+      return length;
+    }
+
+    public boolean isTruncated() {
+      return payload.length < length;
+    }
+  }
+
+  private class Writer implements Runnable {
+    @Override
+    public void run() {
+      while (true) {
+        try {
+          Frame frame = queue.take();
+          do {
+            if (frame == STOP) {
+              writeHeader();
+              return;
+            }
+            write(frame);
+            frame = queue.poll();
+          } while (frame != null);
+          buffer.putLong(OFFSET_RECORDED, recorded);
+          buffer.putLong(OFFSET_DROPPED, dropped.get());
+        } catch (InterruptedException e) {
+          log.debug(e.getMessage());
+        } catch (Exception e) {
+          log.warn("unable to record a frame", e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient;
+
+import org.apache.commons.cli.BasicParser;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.msgpack.MessagePack;
+import org.msgpack.unpacker.BufferUnpacker;
+import org.o3project.odenos.remoteobject.messagingclient.FlightRecorder.Frame;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Offline decoder of {@link FlightRecorder} files.
+ *
+ * <pre>
+ * java -cp "lib/java/*" \
+ *   org.o3project.odenos.remoteobject.messagingclient.FlightRecorderDump \
+ *   [-c channel-regex] [-d in|out] [-t REQUEST|RESPONSE|EVENT] \
+ *   [-f from-epoch-millis] [-u until-epoch-millis] [-x] file
+ * </pre>
+ *
+ * <p>
+ * Each frame is printed in one line:
+ * {@code time|direction|channel|type|sno|sourceObjectId|body}.
+ */
+public class FlightRecorderDump {
+
+  private static final String[] TYPES = {"REQUEST", "RESPONSE", "EVENT"};
+
+  private Pattern channel = null;
+  private Byte direction = null;
+  private String type = null;
+  private long from = Long.MIN_VALUE;
+  private long until = Long.MAX_VALUE;
+  private boolean hex = false;
+
+  private final MessagePack msgpack = new MessagePack();
+  private final SimpleDateFormat dateFormat =
+      new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+  public FlightRecorderDump setChannel(String regex) {
+    this.channel = (regex == null) ? null : Pattern.compile(regex);
+    return this;
+  }
+
+  public FlightRecorderDump setDirection(Byte direction) {
+    this.direction = direction;
+    return this;
+  }
+
+  public FlightRecorderDump setType(String type) {
+    this.type = type;
+    return this;
+  }
+
+  public FlightRecorderDump setFrom(long from) {
+    this.from = from;
+    return this;
+  }
+
+  public FlightRecorderDump setUntil(long until) {
+    this.until = until;
+    return this;
+  }
+
+  public FlightRecorderDump setHex(boolean hex) {
+    this.hex = hex;
+    return this;
+  }
+
+  /**
+   * Reads the frames recorded in a file.
+   *
+   * @param path flight recorder file
+   * @return frames from the oldest one
+   * @throws IOException if the file cannot be read
+   */
+  public static List<Frame> read(String path) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+      MappedByteBuffer buffer = file.getChannel().map(
+          FileChannel.MapMode.READ_ONLY, 0, file.length());
+      return FlightRecorder.read(buffer);
+    }
+  }
+
+  /**
+   * Selects the frames matching the filters.
+   *
+   * @param frames recorded frames
+   * @return matched frames
+   */
+  public List<Frame> filter(List<Frame> frames) {
+    List<Frame> matched = new ArrayList<>();
+    for (Frame frame : frames) {
+      if (frame.getTimestamp() < from || frame.getTimestamp() > until) {
+        continue;
+      }
+      if (direction != null && frame.getDirection() != direction) {
+        continue;
+      }
+      if (channel != null && !channel.matcher(frame.getChannel()).matches()) {
+        continue;
+      }
+      if (type != null && !type.equals(typeOf(frame))) {
+        continue;
+      }
+      matched.add(frame);
+    }
+    return matched;
+  }
+
+  /**
+   * Decodes a frame into one line.
+   *
+   * @param frame recorded frame
+   * @return decoded frame
+   */
+  public String format(Frame frame) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(dateFormat.format(new Date(frame.getTimestamp()))).append('|');
+    sb.append(frame.getDirection() == FlightRecorder.IN ? "IN" : "OUT").append('|');
+    sb.append(frame.getChannel()).append('|');
+    try {
+      BufferUnpacker upk = msgpack.createBufferUnpacker(frame.getPayload());
+      byte type = upk.readByte();
+      sb.append(type >= 0 && type < TYPES.length ? TYPES[type] : type).append('|');
+      sb.append(upk.readInt()).append('|');
+      sb.append(upk.readString()).append('|');
+      sb.append(upk.readValue());
+    } catch (Exception e) {
+      sb.append("(undecodable)");
+    }
+    if (frame.isTruncated()) {
+      sb.append("|(truncated ").append(frame.getPayload().length)
+          .append('/').append(frame.getLength()).append(" bytes)");
+    }
+    if (hex) {
+      sb.append('|');
+      for (byte b : frame.getPayload()) {
+        sb.append(String.format("%02x", b));
+      }
+    }
+    return sb.toString();
+  }
+
+  private String typeOf(Frame frame) {
+    byte[] payload = frame.getPayload();
+    // The delivery header starts with a positive fixint.
+    if (payload.length == 0 || payload[0] < 0 || payload[0] >= TYPES.length) {
+      return null;
+    }
+    return TYPES[payload[0]];
+  }
+
+  /**
+   * Dumps a flight recorder file to the standard output.
+   *
+   * @param args command line arguments
+   */
+  public static void main(String[] args) {
+    Options options = new Options();
+    options.addOption("c", "channel", true, "regular expression of channels");
+    options.addOption("d", "direction", true, "in or out");
+    options.addOption("t", "type", true, "REQUEST, RESPONSE or EVENT");
+    options.addOption("f", "from", true, "epoch milliseconds from which frames are dumped");
+    options.addOption("u", "until", true, "epoch milliseconds until which frames are dumped");
+    options.addOption("x", "hex", false, "dump raw frames in hex as well");
+
+    PrintStream out = System.out;
+    try {
+      CommandLine line = new BasicParser().parse(options, args);
+      if (line.getArgs().length != 1) {
+        throw new ParseException("please specify a flight recorder file");
+      }
+      FlightRecorderDump dump = new FlightRecorderDump()
+          .setChannel(line.getOptionValue("channel"))
+          .setType(line.getOptionValue("type"))
+          .setHex(line.hasOption("hex"));
+      if (line.hasOption("direction")) {
+        dump.setDirection(line.getOptionValue("direction").equalsIgnoreCase("in")
+            ? FlightRecorder.IN : FlightRecorder.OUT);
+      }
+      if (line.hasOption("from")) {
+        dump.setFrom(Long.parseLong(line.getOptionValue("from")));
+      }
+      if (line.hasOption("until")) {
+        dump.setUntil(Long.parseLong(line.getOptionValue("until")));
+      }
+
+      for (Frame frame : dump.filter(read(line.getArgs()[0]))) {
+        out.println(dump.format(frame));
+      }
+    } catch (ParseException | NumberFormatException e) {
+      System.err.println(e.getMessage());
+      new HelpFormatter().printHelp("FlightRecorderDump [options] file", options);
+      System.exit(1);
+    } catch (IOException e) {
+      System.err.println(e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-target latency statistics of remote transactions.
+ *
+ * <p>
+ * This class keeps the latest {@value #SAMPLES} response times per
+ * target (object ID, method and path class) and derives the default timeout
+ * of a request to that target from their 99th percentile.
+ *
+ * @see RemoteTransactions
+ */
+class LatencyTracker {
+
+  static final int SAMPLES = 128;
+  // The percentile is not trusted until this number of samples.
+  static final int MIN_SAMPLES = 16;
+  static final int PERCENTILE = 99;
+  static final int MULTIPLIER = 4;
+
+  private final long minTimeout;
+  private final long maxTimeout;
+
+  private final ConcurrentHashMap<String, Samples> samplesMap =
+      new ConcurrentHashMap<String, Samples>();
+
+  private static class Samples {
+    private final long[] latencies = new long[SAMPLES];
+    private int count = 0;
+    private volatile long percentile = -1;
+
+    private synchronized void add(long latency) {
+      latencies[count % SAMPLES] = latency;
+      count++;
+      // Recalculates once in a while to keep record() cheap.
+      if (count >= MIN_SAMPLES && (count % MIN_SAMPLES) == 0) {
+        long[] sorted = Arrays.copyOf(latencies, Math.min(count, SAMPLES));
+        Arrays.sort(sorted);
+        percentile = sorted[(sorted.length * PERCENTILE - 1) / 100];
+      }
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param minTimeout the lower bound of timeouts in milliseconds
+   * @param maxTimeout the upper bound of timeouts in milliseconds
+   */
+  LatencyTracker(long minTimeout, long maxTimeout) {
+    this.minTimeout = minTimeout;
+    this.maxTimeout = maxTimeout;
+  }
+
+  /**
+   * Records a response time.
+   *
+   * @param target target object ID, method and path class
+   * @param latency response time in milliseconds
+   */
+  void record(String target, long latency) {
+    if (target == null) {
+      return;
+    }
+    Samples samples = samplesMap.get(target);
+    if (samples == null) {
+      samplesMap.putIfAbsent(target, new Samples());
+      samples = samplesMap.get(target);
+    }
+    samples.add(latency);
+  }
+
+  /**
+   * Returns the 99th percentile of response times.
+   *
+   * @param target target object ID, method and path class
+   * @return percentile in milliseconds, or -1 if not enough samples
+   */
+  long getPercentile(String target) {
+    if (target == null) {
+      return -1;
+    }
+    Samples samples = samplesMap.get(target);
+    return (samples == null) ? -1 : samples.percentile;
+  }
+
+  /**
+   * Returns the default timeout of a request to the target.
+   *
+   * @param target target object ID, method and path class
+   * @return timeout in milliseconds
+   */
+  long getTimeout(String target) {
+    long percentile = getPercentile(target);
+    if (percentile < 0) {
+      return maxTimeout;
+    }
+    return Math.max(minTimeout, Math.min(maxTimeout, percentile * MULTIPLIER));
+  }
+}
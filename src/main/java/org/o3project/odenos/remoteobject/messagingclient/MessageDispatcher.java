@@ -36,9 +36,12 @@ import org.o3project.odenos.core.logging.message.LogMessage;
 import java.io.Closeable;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
@@ -46,6 +49,7 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -79,6 +83,11 @@ import java.util.concurrent.atomic.AtomicInteger;
  * DEBUG flag (log4j). The logger dumps messages in a YAML-like format.
  *
  * <p>
+ * For post-mortem analysis at a low cost, set a file to
+ * {@link ConfigBuilder#setFlightRecorderFile(String)}: raw messages are then
+ * recorded by {@link FlightRecorder} and can be decoded by {@link FlightRecorderDump}.
+ *
+ * <p>
  * You may extend this class (override some methods) to enhance the features
  * or add additional capabilities.
  *
@@ -133,9 +142,19 @@ public class MessageDispatcher implements Closeable, IMessageListener {
   protected final IPubSubDriver loopBackDriver;
 
   protected IPubSubDriver monitor = null;
+  protected MonitorMirror monitorMirror = null;
+
+  // Binary flight recorder of raw messages (null if disabled)
+  protected FlightRecorder flightRecorder = null;
 
   protected SubscribersMap subscribersMap = new SubscribersMap();
 
+  // Remote subscription of event channels, checked at most once a period.
+  protected static final long REMOTE_SUBSCRIPTION_CACHE_MILLIS = 1000;
+  // channel -> {expiration time, 1 if subscribed or 0}
+  protected ConcurrentHashMap<String, long[]> remoteSubscriptions =
+      new ConcurrentHashMap<>();
+
   protected RemoteTransactions remoteTransactions = null;
 
   protected final Actor actor;
@@ -229,10 +248,24 @@ public class MessageDispatcher implements Closeable, IMessageListener {
       } else {
         // NOP
       }
+      if (monitor != null) {
+        monitorMirror = new MonitorMirror(monitor, MONITOR_CHANNEL,
+            config.getMonitorSamplingRates(), config.getMonitorBandwidth());
+      }
     } catch (Exception e) {
       log.error("class load error", e);
     }
 
+    // Flight recorder
+    if (config.getFlightRecorderFile() != null) {
+      try {
+        flightRecorder = new FlightRecorder(
+            config.getFlightRecorderFile(), config.getFlightRecorderSize());
+      } catch (Exception e) {
+        log.error("unable to start flight recorder", e);
+      }
+    }
+
     // Remote Transactions pool
     remoteTransactions = new RemoteTransactions(this, config);
 
@@ -254,6 +287,10 @@ public class MessageDispatcher implements Closeable, IMessageListener {
 
     serial++; // Serial number for incoming messages.
 
+    if (flightRecorder != null) {
+      flightRecorder.record(FlightRecorder.IN, channel, message);
+    }
+
     try {
       BufferUnpacker upk = msgpack.createBufferUnpacker(message);
       // read delivery header.
@@ -276,17 +313,8 @@ public class MessageDispatcher implements Closeable, IMessageListener {
           final Request request = upk.read(Request.class);
 
           // Monitoring
-          if (reflectMessageToMonitor) {
-            BufferPacker pk = msgpack.createBufferPacker();
-            pk.write(REQUEST);
-            pk.write(channel);
-            pk.write(sourceObjectId);
-            pk.write(sno);
-            pk.write(request.method.name());
-            pk.write("/" + channel + "/" + request.path);
-            pk.write(request.getBodyValue());
-            byte[] data = pk.toByteArray();
-            monitor.publish(MONITOR_CHANNEL, data);
+          if (monitorMirror != null && monitorMirror.isSampled(REQUEST, null)) {
+            monitorMirror.mirror(channel, Collections.<String>emptyList(), message);
           }
 
           // Logging
@@ -328,16 +356,8 @@ public class MessageDispatcher implements Closeable, IMessageListener {
           Response response = upk.read(Response.class);
 
           // Monitoring
-          if (reflectMessageToMonitor) {
-            BufferPacker pk = msgpack.createBufferPacker();
-            pk.write(RESPONSE);
-            pk.write(channel);
-            pk.write(sourceObjectId);
-            pk.write(sno);
-            pk.write(response.statusCode);
-            pk.write(response.getBodyValue());
-            byte[] data = pk.toByteArray();
-            monitor.publish(MONITOR_CHANNEL, data);
+          if (monitorMirror != null && monitorMirror.isSampled(RESPONSE, null)) {
+            monitorMirror.mirror(channel, Collections.<String>emptyList(), message);
           }
 
           // Logging
@@ -371,6 +391,12 @@ public class MessageDispatcher implements Closeable, IMessageListener {
             return; // Silently discards the event
           }
 
+          // Monitoring: local subscribers of a sampled event
+          List<String> mirrored = null;
+          if (monitorMirror != null && monitorMirror.isSampled(EVENT, event.eventType)) {
+            mirrored = new ArrayList<>();
+          }
+
           // Wraps the event with Mail and deliver it to a mailbox.
           boolean isSingleDispatch = (subscribers.size() == 1) ? true: false; 
           for (String subscriber : subscribers) {
@@ -378,15 +404,8 @@ public class MessageDispatcher implements Closeable, IMessageListener {
             if (localObject != null) {
 
               // Monitoring
-              if (reflectMessageToMonitor) {
-                BufferPacker pk = msgpack.createBufferPacker();
-                pk.write(EVENT);
-                pk.write(subscriber);
-                pk.write(event.publisherId);
-                pk.write(event.publisherId + ":" + event.getEventType());
-                pk.write(event.getBodyValue());
-                byte[] data = pk.toByteArray();
-                monitor.publish(MONITOR_CHANNEL, data);
+              if (mirrored != null) {
+                mirrored.add(subscriber);
               }
 
               // Logging
@@ -402,7 +421,7 @@ public class MessageDispatcher implements Closeable, IMessageListener {
 
               Event eventToBeDispatched = isSingleDispatch ? event: deepCopy(event);
               mail = new Mail(serial, sno, subscriber, channel, this, null,
-                  eventToBeDispatched);
+                  eventToBeDispatched, localObject.getEventMailClass(event.eventType));
               mailbox = localObject.getMailbox();
               synchronized (mailbox) {
                 mailbox.add(mail);
@@ -414,6 +433,9 @@ public class MessageDispatcher implements Closeable, IMessageListener {
               }
             }
           }
+          if (mirrored != null && !mirrored.isEmpty()) {
+            monitorMirror.mirror(channel, mirrored, message);
+          }
           break;
 
         default:
@@ -509,6 +531,12 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     // TODO: Graceful termination of all the components and the transport
     // TODO: subscriptionFeeder termination
     driverImpl.close();
+    if (flightRecorder != null) {
+      flightRecorder.close();
+    }
+    if (monitorMirror != null) {
+      monitorMirror.close();
+    }
     remoteTransactions.onFinalize();
     subscribersMap.clear();
     log.info("terminated");
@@ -704,6 +732,11 @@ public class MessageDispatcher implements Closeable, IMessageListener {
    *       +-------[pubsub server]-------+
    * </pre>
    *
+   * <p>
+   * If the request has no deadline, it inherits the deadline of the request
+   * being processed by the calling thread, or gets a default deadline
+   * adapted to the latency of the target object.
+   *
    * @param request Request to be sent
    * @return Response response to the request
    * @throws Exception exception
@@ -717,6 +750,17 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     LogMessage.setSavedTxid(request.txid);
     request.txid = LogMessage.getSavedTxid();
 
+    // A nested request inherits the deadline of the request being processed.
+    if (request.deadline <= 0) {
+      long inherited = Request.getCurrentDeadline();
+      request.deadline = (inherited > 0)
+          ? inherited : remoteTransactions.getDefaultDeadline(request);
+    }
+    if (request.isExpired()) {
+      LogMessage.delSavedTxid();
+      throw new TimeoutException("deadline expired before sending to " + request.objectId);
+    }
+
     String objectId = request.objectId;
     Response response;
     RemoteObject localObject = localObjectsMap.get(objectId);
@@ -724,17 +768,11 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     if (localObject != null && !loopbackDisabled) {
 
       // Monitoring
-      if (reflectMessageToMonitor) {
-        BufferPacker pk = msgpack.createBufferPacker();
-        pk.write(REQUEST);
-        pk.write(objectId);
-        pk.write(sourceObjectId);
-        pk.write(sno);
-        pk.write(request.method.name());
-        pk.write("/" + request.objectId + "/" + request.path);
-        pk.write(request.getBodyValue());
-        byte[] data = pk.toByteArray();
-        monitor.publish(MONITOR_CHANNEL, data);
+      // A loopback request never hits the wire, so it is packed here
+      // as it would be sent.
+      if (monitorMirror != null && monitorMirror.isSampled(REQUEST, null)) {
+        monitorMirror.mirror(objectId, Collections.<String>emptyList(),
+            packMessage(TYPE_REQUEST, sno, sourceObjectId, request));
       }
 
       // Logging
@@ -749,23 +787,41 @@ public class MessageDispatcher implements Closeable, IMessageListener {
 
       // Loopback of request/response
       // synchronized with Actor#read()
-      synchronized (localObject) {
-        Request requested = deepCopy(request);
-        Response responsed = localObject.dispatchRequest(requested);
-        response = deepCopy(responsed);
+      long callerDeadline = Request.getCurrentDeadline();
+      int partition;
+      if ((partition = localObject.getRequestPartition(request)) >= 0) {
+        localObject.beginRead();
+        try {
+          synchronized (localObject.getPartitionLock(partition)) {
+            response = loopback(localObject, request);
+          }
+        } finally {
+          localObject.endRead();
+          Request.setCurrentDeadline(callerDeadline);
+        }
+      } else if (localObject.isReadOnlyRequest(request)) {
+        localObject.beginRead();
+        try {
+          response = loopback(localObject, request);
+        } finally {
+          localObject.endRead();
+          Request.setCurrentDeadline(callerDeadline);
+        }
+      } else {
+        synchronized (localObject) {
+          localObject.awaitReaders();
+          try {
+            response = loopback(localObject, request);
+          } finally {
+            Request.setCurrentDeadline(callerDeadline);
+          }
+        }
       }
 
       // Monitoring
-      if (reflectMessageToMonitor) {
-        BufferPacker pk = msgpack.createBufferPacker();
-        pk.write(RESPONSE);
-        pk.write(sourceObjectId);
-        pk.write(objectId);
-        pk.write(sno);
-        pk.write(response.statusCode);
-        pk.write(response.getBodyValue());
-        byte[] data = pk.toByteArray();
-        monitor.publish(MONITOR_CHANNEL, data);
+      if (monitorMirror != null && monitorMirror.isSampled(RESPONSE, null)) {
+        monitorMirror.mirror(sourceObjectId, Collections.<String>emptyList(),
+            packMessage(TYPE_RESPONSE, sno, objectId, response));
       }
 
       // Logging
@@ -786,6 +842,30 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     return response;
   }
 
+  private byte[] packMessage(final byte type, final int sno, final String sourceObjectId,
+      final Object body) throws IOException {
+    BufferPacker pk = msgpack.createBufferPacker();
+    // write delivery header.
+    pk.write(type);
+    pk.write(sno);
+    pk.write(sourceObjectId);
+    // write delivery body.
+    pk.write(body);
+    return pk.toByteArray();
+  }
+
+  /**
+   * Dispatches a copy of a request to a local object and returns a copy of
+   * the response.
+   */
+  private Response loopback(RemoteObject localObject, Request request)
+      throws IOException {
+    Request requested = deepCopy(request);
+    Request.setCurrentDeadline(requested.deadline);
+    Response responsed = localObject.dispatchRequest(requested);
+    return deepCopy(responsed);
+  }
+
   /**
    * Deep copy.
    *
@@ -839,6 +919,9 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     }
     // PUBLISH to pubsub server 
     driverImpl.publish(channel, message);
+    if (flightRecorder != null) {
+      flightRecorder.record(FlightRecorder.OUT, channel, message);
+    }
   }
 
   /**
@@ -878,6 +961,9 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     String channel = request.objectId;
     // PUBLISH
     driverImpl.publish(channel, message);
+    if (flightRecorder != null) {
+      flightRecorder.record(FlightRecorder.OUT, channel, message);
+    }
   }
 
   /**
@@ -905,6 +991,9 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     byte[] message = pk.toByteArray();
     // PUBLISH
     driverImpl.publish(channel, message);
+    if (flightRecorder != null) {
+      flightRecorder.record(FlightRecorder.OUT, channel, message);
+    }
   }
 
   /**
@@ -1029,6 +1118,82 @@ public class MessageDispatcher implements Closeable, IMessageListener {
     return eventManagerId;
   }
 
+  /**
+   * Checks if an event is known to be subscribed by any object.
+   *
+   * <p>
+   * Local subscribers are checked on every call. Remote subscribers are
+   * checked on the pubsub server, and the result is cached for
+   * {@link #REMOTE_SUBSCRIPTION_CACHE_MILLIS}. Returns false if the
+   * subscription cannot be checked.
+   *
+   * @param publisherId publisher ID
+   * @param eventType event type
+   * @return true if the event is subscribed
+   */
+  public boolean isEventSubscribed(final String publisherId, final String eventType) {
+    String channel = channelString(publisherId, eventType);
+    Collection<String> subscribers = subscribersMap.getSubscribers(channel);
+    if (subscribers != null && !subscribers.isEmpty()) {
+      return true;
+    }
+    if (driverImpl == null || driverImpl instanceof LoopBackDriver) {
+      return false;
+    }
+    return checkRemoteSubscription(channel) > 0;
+  }
+
+  /**
+   * Counts the subscribers of an event.
+   *
+   * <p>
+   * Only local subscribers can be counted; -1 is returned if the event is
+   * subscribed via the pubsub server, or if the subscription cannot be
+   * checked. The pubsub server is checked as in
+   * {@link #isEventSubscribed(String, String)}, so the result may be
+   * {@link #REMOTE_SUBSCRIPTION_CACHE_MILLIS} old.
+   *
+   * @param publisherId publisher ID
+   * @param eventType event type
+   * @return number of the subscribers. -1 if unknown.
+   */
+  public int countEventSubscribers(final String publisherId, final String eventType) {
+    String channel = channelString(publisherId, eventType);
+    Collection<String> subscribers = subscribersMap.getSubscribers(channel);
+    int count = (subscribers == null) ? 0 : subscribers.size();
+    if (driverImpl == null || driverImpl instanceof LoopBackDriver) {
+      return count;
+    }
+    if (count > 0 && (!localObjectsMap.containsKey(publisherId) || loopbackDisabled)) {
+      // subscribed via the pubsub server by this dispatcher too.
+      return -1;
+    }
+    return (checkRemoteSubscription(channel) == 0) ? count : -1;
+  }
+
+  /**
+   * Checks if a channel is subscribed on the pubsub server, with the
+   * result cached for {@link #REMOTE_SUBSCRIPTION_CACHE_MILLIS}.
+   * @return 1 if subscribed, 0 if not, -1 if unable to check.
+   */
+  private long checkRemoteSubscription(final String channel) {
+    long now = System.currentTimeMillis();
+    long[] cached = remoteSubscriptions.get(channel);
+    if (cached != null && cached[0] > now) {
+      return cached[1];
+    }
+    long subscribed;
+    try {
+      subscribed = driverImpl.channelExist(channel) ? 1 : 0;
+    } catch (Exception e) {
+      log.warn("unable to check the subscription of {}", channel);
+      subscribed = -1;
+    }
+    remoteSubscriptions.put(channel,
+        new long[] {now + REMOTE_SUBSCRIPTION_CACHE_MILLIS, subscribed});
+    return subscribed;
+  }
+
   /**
    * Returns a ChannelChecker instance.
    *
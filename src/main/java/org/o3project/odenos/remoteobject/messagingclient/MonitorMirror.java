@@ -0,0 +1,237 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.msgpack.MessagePack;
+import org.msgpack.packer.BufferPacker;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mirrors messages to the monitor channel.
+ *
+ * <p>
+ * Messages are sampled at a rate configured per message type ("REQUEST",
+ * "RESPONSE" or "EVENT") or per event type (e.g., "InPacketAdded"), which
+ * takes precedence. A sampled message is handed over to a bounded queue,
+ * and a mirror thread publishes it within the bandwidth budget. Messages
+ * exceeding the queue or the budget are dropped and counted.
+ *
+ * <p>
+ * The original raw message is forwarded as it is, prefixed by a short
+ * header:
+ * <pre>
+ *   string   "RAW"
+ *   string   channel on which the message was received
+ *   string[] destination object IDs (subscribers of an event, or empty)
+ *   ...      the raw message (delivery header and body)
+ * </pre>
+ */
+public class MonitorMirror implements Closeable {
+
+  private static final Logger log = LogManager.getLogger(MonitorMirror.class);
+
+  public static final String RAW = "RAW";
+
+  private static final int QUEUE_SIZE = 4096;
+  private static final Mirror STOP = new Mirror(null, null, null);
+
+  private final IPubSubDriver driver;
+  private final String monitorChannel;
+  private final Map<String, Double> samplingRates;
+  private final long bandwidth;
+
+  private final BlockingQueue<Mirror> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+  private final AtomicLong dropped = new AtomicLong();
+  private final MessagePack msgpack = new MessagePack();
+  private final Thread mirror;
+  private volatile boolean closed = false;
+
+  // Token bucket of the bandwidth budget (touched by the mirror thread only).
+  private double tokens;
+  private long lastRefill;
+
+  private static final class Mirror {
+    private final String channel;
+    private final Collection<String> destinations;
+    private final byte[] message;
+
+    private Mirror(String channel, Collection<String> destinations, byte[] message) {
+      this.channel = channel;
+      this.destinations = destinations;
+      this.message = message;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param driver pubsub driver to publish the mirrored messages
+   * @param monitorChannel monitor channel
+   * @param samplingRates sampling rates (0.0 to 1.0) by message type or event type
+   * @param bandwidth bandwidth budget in bytes per second (0: unlimited)
+   */
+  public MonitorMirror(IPubSubDriver driver, String monitorChannel,
+      Map<String, Double> samplingRates, long bandwidth) {
+    this.driver = driver;
+    this.monitorChannel = monitorChannel;
+    this.samplingRates = (samplingRates == null)
+        ? Collections.<String, Double>emptyMap() : new HashMap<>(samplingRates);
+    this.bandwidth = bandwidth;
+    this.tokens = bandwidth;
+    this.lastRefill = System.nanoTime();
+
+    mirror = new Thread(new MirrorThread(), "MonitorMirror");
+    mirror.setDaemon(true);
+    mirror.start();
+  }
+
+  /**
+   * Decides whether a message is to be mirrored.
+   *
+   * @param messageType "REQUEST", "RESPONSE" or "EVENT"
+   * @param eventType event type (null for requests and responses)
+   * @return true if the message is sampled
+   */
+  public boolean isSampled(String messageType, String eventType) {
+    double rate = getSamplingRate(messageType, eventType);
+    if (rate >= 1.0) {
+      return true;
+    } else if (rate <= 0.0) {
+      return false;
+    }
+    return ThreadLocalRandom.current().nextDouble() < rate;
+  }
+
+  /**
+   * Returns the sampling rate of a message.
+   *
+   * @param messageType "REQUEST", "RESPONSE" or "EVENT"
+   * @param eventType event type (null for requests and responses)
+   * @return sampling rate
+   */
+  public double getSamplingRate(String messageType, String eventType) {
+    Double rate = (eventType != null) ? samplingRates.get(eventType) : null;
+    if (rate == null) {
+      rate = samplingRates.get(messageType);
+    }
+    return (rate != null) ? rate : 1.0;
+  }
+
+  /**
+   * Queues a sampled message to be mirrored.
+   *
+   * <p>
+   * This method never blocks. The message must not be modified afterward.
+   *
+   * @param channel channel on which the message was received
+   * @param destinations destination object IDs
+   * @param message raw message
+   */
+  public void mirror(String channel, Collection<String> destinations, byte[] message) {
+    if (closed || !queue.offer(new Mirror(channel, destinations, message))) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  /**
+   * Returns the number of messages dropped due to the queue or the budget.
+   *
+   * @return number of dropped messages
+   */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      queue.put(STOP);
+      mirror.join();
+    } catch (InterruptedException e) {
+      log.warn("monitor mirror interrupted");
+    }
+  }
+
+  byte[] encode(Mirror entry) throws Exception {
+    BufferPacker pk = msgpack.createBufferPacker(entry.message.length + 64);
+    pk.write(RAW);
+    pk.write(entry.channel);
+    pk.writeArrayBegin(entry.destinations.size());
+    for (String destination : entry.destinations) {
+      pk.write(destination);
+    }
+    pk.writeArrayEnd();
+    byte[] header = pk.toByteArray();
+    byte[] data = new byte[header.length + entry.message.length];
+    System.arraycopy(header, 0, data, 0, header.length);
+    System.arraycopy(entry.message, 0, data, header.length, entry.message.length);
+    return data;
+  }
+
+  private boolean acquire(int length) {
+    if (bandwidth <= 0) {
+      return true;
+    }
+    long now = System.nanoTime();
+    tokens = Math.min(bandwidth, tokens + (now - lastRefill) * bandwidth / 1e9);
+    lastRefill = now;
+    if (tokens < length) {
+      return false;
+    }
+    tokens -= length;
+    return true;
+  }
+
+  private class MirrorThread implements Runnable {
+    @Override
+    public void run() {
+      while (true) {
+        try {
+          Mirror entry = queue.take();
+          if (entry == STOP) {
+            return;
+          }
+          byte[] data = encode(entry);
+          if (acquire(data.length)) {
+            driver.publish(monitorChannel, data);
+          } else {
+            dropped.incrementAndGet();
+          }
+        } catch (InterruptedException e) {
+          log.debug(e.getMessage());
+        } catch (Exception e) {
+          log.warn("unable to mirror a message", e);
+        }
+      }
+    }
+  }
+}
@@ -16,6 +16,7 @@
 
 package org.o3project.odenos.remoteobject.messagingclient;
 
+import org.apache.commons.lang.StringUtils;
 import org.o3project.odenos.remoteobject.message.Request;
 import org.o3project.odenos.remoteobject.message.Response;
 
@@ -37,9 +38,16 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>
  * This class works under requestSync() of MessageDispatcher.
  * 
+ * <p>
+ * Every request has an absolute deadline. A request sent while processing
+ * another request inherits the deadline of the latter, so nested requests
+ * never wait longer than their originator. Otherwise, the deadline is derived
+ * from the latency observed for the target object (see {@link LatencyTracker}),
+ * between the initial and the final timeout.
+ *
  * <pre>
  * sendRequest()
- *       | put & poll (3sec timeout then 27sec timeout)
+ *       | put &amp; poll (initial timeout, then until the deadline)
  *       V
  * [[rendezvous(sno)][rendezvous(sno)]...] responseMap 
  *       ^
@@ -59,6 +67,7 @@ class RemoteTransactions {
   private ArrayBlockingQueue<SynchronousQueue<Response>> rendezvousPool;
   private final int secondTimeout;
   private final int initialTimeout;
+  private final LatencyTracker latencyTracker;
 
   private MessageDispatcher dispatcher = null;
 
@@ -73,6 +82,9 @@ class RemoteTransactions {
     initialTimeout = config.getRemoteTransactionsInitialTimeout();
     secondTimeout =
         config.getRemoteTransactionsFinalTimeout() - initialTimeout;
+    latencyTracker = new LatencyTracker(
+        TimeUnit.SECONDS.toMillis(initialTimeout),
+        TimeUnit.SECONDS.toMillis(config.getRemoteTransactionsFinalTimeout()));
     rendezvousPool = new ArrayBlockingQueue
         <SynchronousQueue<Response>>(config.getRemoteTransactionsMax());
     for (int i = 0; i < config.getRemoteTransactionsMax(); i++) {
@@ -88,6 +100,16 @@ class RemoteTransactions {
     rendezvousPool.clear();
   }
 
+  /**
+   * Returns the default deadline of a request.
+   *
+   * @param request a request.
+   * @return absolute deadline in epoch milliseconds.
+   */
+  long getDefaultDeadline(Request request) {
+    return System.currentTimeMillis() + latencyTracker.getTimeout(target(request));
+  }
+
   /**
    * Sends Request to RemoteObject. 
    * 
@@ -109,6 +131,9 @@ class RemoteTransactions {
       throws InterruptedException, IOException,
       TimeoutException, IllegalArgumentException {
 
+    long start = System.currentTimeMillis();
+    long deadline = (request.deadline > 0) ? request.deadline : getDefaultDeadline(request);
+
     // Increments Sequence No.
     int sno = seqno.getAndIncrement();
     // Rendezvous point for Request/Response
@@ -134,7 +159,9 @@ class RemoteTransactions {
     }
 
     // Waits for the response from RemoteObjet
-    Response response = rendezvous.poll(initialTimeout, TimeUnit.SECONDS);
+    Response response = rendezvous.poll(
+        Math.min(TimeUnit.SECONDS.toMillis(initialTimeout), remaining(deadline)),
+        TimeUnit.MILLISECONDS);
 
     if (response == null) { // INITIAL_TIMEOUT expired
       if (log.isDebugEnabled()) {
@@ -142,15 +169,17 @@ class RemoteTransactions {
       }
       // Checks if the channel (i.e., object ID) exists)
       if (dispatcher.getChannelChecker().channelExist(request.objectId)) {
-        // Waits for the response
-        response = rendezvous.poll(secondTimeout, TimeUnit.SECONDS);
+        // Waits for the response until the deadline
+        response = rendezvous.poll(remaining(deadline), TimeUnit.MILLISECONDS);
         // Returns the rendezvous point object to the pool
         rendezvousPool.put(rendezvous);
-        if (response == null) { // remoteRequestTimeout expired
+        if (response == null) { // deadline expired
           if (log.isDebugEnabled()) {
             log.debug("request timeout (final)");
           }
           responseMap.remove(sno);
+          // takes at least until the deadline, so that the estimate grows.
+          latencyTracker.record(target(request), deadline - start);
           throw new TimeoutException("no reply from " + request.objectId);
         }
       } else { // The channel does not exist
@@ -165,9 +194,35 @@ class RemoteTransactions {
     } else {
       rendezvousPool.put(rendezvous);
     }
+    latencyTracker.record(target(request), System.currentTimeMillis() - start);
     return response;
   }
 
+  /**
+   * Returns the target of a request: object ID, method and path class.
+   * The path class is the first element of the path and the number of
+   * elements, e.g., "flows/2" for "flows/&lt;flow_id&gt;", so that a slow
+   * collection and a fast object of a target are timed separately.
+   */
+  static String target(Request request) {
+    if (request.objectId == null || request.method == null) {
+      return null;
+    }
+    String path = (request.path == null) ? "" : request.path;
+    int index = path.indexOf('?');
+    if (index >= 0) {
+      path = path.substring(0, index);
+    }
+    String[] names = StringUtils.split(path, '/');
+    String first = (names.length > 0) ? names[0] : "";
+    return request.objectId + ":" + request.method.name() + ":"
+        + first + "/" + names.length;
+  }
+
+  private static long remaining(long deadline) {
+    return Math.max(0, deadline - System.currentTimeMillis());
+  }
+
   /**
    * Signals Response to rendezvous point.
    * 
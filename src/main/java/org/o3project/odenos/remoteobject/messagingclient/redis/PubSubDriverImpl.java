@@ -25,6 +25,7 @@ import org.apache.logging.log4j.LogManager;
 import org.o3project.odenos.core.logging.message.LogMessage;
 
 import java.io.Closeable;
+import java.util.Collections;
 import java.util.Set;
 
 import org.o3project.odenos.remoteobject.messagingclient.Config;
@@ -57,6 +58,11 @@ import static redis.clients.jedis.Protocol.DEFAULT_PORT;
  * to a remote Redis server via some sort of bridge: B2B (back-to-back)
  * Redis client, although this package does not include such bridge.
  *
+ * <p>
+ * SUBSCRIBE/UNSUBSCRIBE requests are debounced by {@link SubscriptionBatcher}
+ * and sent as multi-channel commands. The batching window is
+ * {@link Config#getSubscriptionBatchInterval()}.
+ *
  * <pre>
  * 1. Two independent Redis servers
  *
@@ -110,6 +116,7 @@ public class PubSubDriverImpl implements IPubSubDriver, Closeable {
   private PublisherClient publisherClient;
   private SubscriberClient subscriberClient;
   private ChannelCheckerClient channelCheckerClient;
+  private SubscriptionBatcher subscriptionBatcher;
 
   private boolean connected = false;
 
@@ -155,6 +162,18 @@ public class PubSubDriverImpl implements IPubSubDriver, Closeable {
             config.getPublishScript());
     this.subscriberClient = new SubscriberClient(redisServerAddress, this);
     this.channelCheckerClient = new ChannelCheckerClient(redisServerAddress);
+    this.subscriptionBatcher =
+        new SubscriptionBatcher(config.getSubscriptionBatchInterval()) {
+          @Override
+          protected void sendSubscribe(Set<String> channels) {
+            subscriberClient.subscribeChannels(channels);
+          }
+
+          @Override
+          protected void sendUnsubscribe(Set<String> channels) {
+            subscriberClient.unsubscribeChannels(channels);
+          }
+        };
   }
 
   /**
@@ -197,10 +216,16 @@ public class PubSubDriverImpl implements IPubSubDriver, Closeable {
   }
 
   /**
-   * Closes SubscriberClient and PublisherClient.
+   * Closes SubscriberClient and PublisherClient, after sending the
+   * pending subscription changes.
    */
   @Override
   public void close() {
+    subscriptionBatcher.close();
+    closeClients();
+  }
+
+  private void closeClients() {
     channelCheckerClient.close();
     publisherClient.close();
     subscriberClient.close();
@@ -211,24 +236,45 @@ public class PubSubDriverImpl implements IPubSubDriver, Closeable {
     return (publisherClient.isStarted() && subscriberClient.isStarted());
   }
 
+  /**
+   * Subscribes channels.
+   *
+   * <p>
+   * The channels are the events that this process subscribes, so this
+   * returns after the SUBSCRIBE has been sent, so that no event published
+   * after the return is lost. The subscriptions of the callers within
+   * the window are sent together.
+   *
+   * @param channels channels to be subscribed
+   */
   @Override
   public void subscribeChannels(Set<String> channels) {
-    subscriberClient.subscribeChannels(channels);
+    subscriptionBatcher.awaitFlushed(subscriptionBatcher.subscribe(channels, false));
   }
 
+  /**
+   * Subscribes a channel.
+   *
+   * <p>
+   * The channel is an object ID or a dispatcher ID that remote objects
+   * send requests or responses to, so the subscription is flushed
+   * before the next publication at the latest.
+   *
+   * @param channel channel to be subscribed
+   */
   @Override
   public void subscribeChannel(String channel) {
-    subscriberClient.subscribeChannel(channel);
+    subscriptionBatcher.subscribe(Collections.singleton(channel), true);
   }
 
   @Override
   public void unsubscribeChannels(Set<String> channels) {
-    subscriberClient.unsubscribeChannels(channels);
+    subscriptionBatcher.unsubscribe(channels);
   }
 
   @Override
   public void unsubscribeChannel(String channel) {
-    subscriberClient.unsubscribeChannel(channel);
+    subscriptionBatcher.unsubscribe(Collections.singleton(channel));
   }
 
   @Override
@@ -263,6 +309,9 @@ public class PubSubDriverImpl implements IPubSubDriver, Closeable {
 
   @Override
   public void publish(String channel, byte[] message) {
+    if (subscriptionBatcher.hasUrgent()) {
+      subscriptionBatcher.flush();
+    }
     publisherClient.publish(channel, message);
   }
 
@@ -325,7 +374,8 @@ public class PubSubDriverImpl implements IPubSubDriver, Closeable {
         log.debug("sessionId: {}, acceptedOnDisconnected: {}", sessionId, acceptedOnDisconnected);
       }
       acceptedOnDisconnected = sessionId;
-      close();
+      // keeps the batcher to reconnect.
+      closeClients();
       if (listener != null) {  // checks if this is monitoring-only client or not.
         listener.onDisconnected();
       }
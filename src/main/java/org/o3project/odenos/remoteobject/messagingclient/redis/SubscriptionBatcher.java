@@ -0,0 +1,266 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient.redis;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Debounces SUBSCRIBE/UNSUBSCRIBE requests.
+ *
+ * <p>
+ * Channel subscription changes are collected over a short window and
+ * flushed as one multi-channel SUBSCRIBE and one multi-channel
+ * UNSUBSCRIBE. A subscribe and an unsubscribe of the same channel
+ * within the window cancel each other out and are never sent.
+ *
+ * <p>
+ * Subscriptions marked as "urgent" (channels that a remote object may
+ * address as soon as this process has published something, such as
+ * an object ID or the dispatcher ID) are flushed by
+ * {@link PubSubDriverImpl#publish(String, byte[])} before the publication,
+ * so that they always reach the pubsub server first. A caller that has to
+ * receive the events of the channels on return waits with
+ * {@link #awaitFlushed(long)}; the callers waiting at once still share
+ * a batch.
+ *
+ * <p>
+ * If the window is zero or negative, every change is sent immediately.
+ * So is every change after {@link #close()}.
+ *
+ * @see PubSubDriverImpl
+ */
+public abstract class SubscriptionBatcher {
+
+  private static final Logger log = LogManager.getLogger(SubscriptionBatcher.class);
+
+  private final long interval;
+
+  // channel -> true (SUBSCRIBE) or false (UNSUBSCRIBE), in arrival order.
+  private final Map<String, Boolean> pending = new LinkedHashMap<>();
+  private final Object flushLock = new Object();
+  private volatile boolean urgent = false;
+  private volatile boolean closed = false;
+  // sequence numbers of the changes queued and flushed.
+  private long queued = 0;
+  private long flushed = 0;
+
+  private Thread flusher = null;
+
+  /**
+   * Constructor.
+   *
+   * @param interval batching window in milliseconds
+   */
+  public SubscriptionBatcher(long interval) {
+    this.interval = interval;
+    if (interval > 0) {
+      flusher = new Thread(new FlushThread(), "SubscriptionBatcher-flush");
+      flusher.setDaemon(true);
+      flusher.start();
+    }
+  }
+
+  /**
+   * Sends SUBSCRIBE for the channels.
+   *
+   * @param channels channels to be subscribed
+   */
+  protected abstract void sendSubscribe(Set<String> channels);
+
+  /**
+   * Sends UNSUBSCRIBE for the channels.
+   *
+   * @param channels channels to be unsubscribed
+   */
+  protected abstract void sendUnsubscribe(Set<String> channels);
+
+  /**
+   * Queues channels to be subscribed.
+   *
+   * @param channels channels to be subscribed
+   * @param urgent true if the channels must be subscribed before
+   *     the next publication
+   * @return sequence number of the change, for {@link #awaitFlushed(long)}
+   */
+  public long subscribe(Collection<String> channels, boolean urgent) {
+    long seq;
+    synchronized (this) {
+      for (String channel : channels) {
+        add(channel, true);
+      }
+      if (urgent) {
+        this.urgent = true;
+      }
+      seq = ++queued;
+      notifyAll();
+    }
+    if (interval <= 0 || closed) {
+      flush();
+    }
+    return seq;
+  }
+
+  /**
+   * Queues channels to be unsubscribed.
+   *
+   * @param channels channels to be unsubscribed
+   */
+  public void unsubscribe(Collection<String> channels) {
+    synchronized (this) {
+      for (String channel : channels) {
+        add(channel, false);
+      }
+      ++queued;
+      notifyAll();
+    }
+    if (interval <= 0 || closed) {
+      flush();
+    }
+  }
+
+  /**
+   * Checks if urgent subscriptions are waiting to be flushed.
+   *
+   * @return true if urgent subscriptions are pending
+   */
+  public boolean hasUrgent() {
+    return urgent;
+  }
+
+  /**
+   * Checks if any subscription change is waiting to be flushed.
+   *
+   * @return true if some changes are pending
+   */
+  public synchronized boolean hasPending() {
+    return !pending.isEmpty();
+  }
+
+  /**
+   * Waits until a change has been sent.
+   *
+   * @param seq sequence number returned by
+   *     {@link #subscribe(Collection, boolean)}
+   */
+  public synchronized void awaitFlushed(long seq) {
+    boolean interrupted = false;
+    while (flushed < seq) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Sends all the pending changes right now.
+   */
+  public void flush() {
+    // flushLock keeps successive batches in order on the wire.
+    synchronized (flushLock) {
+      Set<String> subscribes = new HashSet<>();
+      Set<String> unsubscribes = new HashSet<>();
+      long seq;
+      synchronized (this) {
+        for (Map.Entry<String, Boolean> entry : pending.entrySet()) {
+          if (entry.getValue()) {
+            subscribes.add(entry.getKey());
+          } else {
+            unsubscribes.add(entry.getKey());
+          }
+        }
+        pending.clear();
+        urgent = false;
+        seq = queued;
+      }
+      try {
+        if (!unsubscribes.isEmpty()) {
+          sendUnsubscribe(unsubscribes);
+        }
+        if (!subscribes.isEmpty()) {
+          sendSubscribe(subscribes);
+        }
+      } finally {
+        // a failure is logged by the caller; the waiters do not hang.
+        synchronized (this) {
+          flushed = Math.max(flushed, seq);
+          notifyAll();
+        }
+      }
+    }
+  }
+
+  /**
+   * Sends the pending changes, and stops the flusher thread.
+   */
+  public void close() {
+    Thread thread;
+    synchronized (this) {
+      closed = true;
+      thread = flusher;
+      flusher = null;
+    }
+    flush();
+    if (thread != null) {
+      thread.interrupt();
+    }
+  }
+
+  // Must be called with the monitor held.
+  private void add(String channel, boolean subscribe) {
+    Boolean prev = pending.get(channel);
+    if (prev != null && prev != subscribe) {
+      // SUBSCRIBE followed by UNSUBSCRIBE (or vice versa) is a no-op.
+      pending.remove(channel);
+    } else {
+      pending.put(channel, subscribe);
+    }
+  }
+
+  private class FlushThread implements Runnable {
+    @Override
+    public void run() {
+      while (!closed) {
+        try {
+          synchronized (SubscriptionBatcher.this) {
+            while (pending.isEmpty() && !closed) {
+              SubscriptionBatcher.this.wait();
+            }
+          }
+          Thread.sleep(interval); // collects changes over the window
+          flush();
+        } catch (InterruptedException e) {
+          // interrupted by close(), which flushes the changes itself.
+          log.debug(e.getMessage());
+        } catch (Exception e) {
+          log.warn("unable to flush subscriptions", e);
+        }
+      }
+    }
+  }
+}
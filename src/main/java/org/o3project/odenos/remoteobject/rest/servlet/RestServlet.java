@@ -19,6 +19,7 @@ package org.o3project.odenos.remoteobject.rest.servlet;
 import org.json.simple.JSONValue;
 import org.msgpack.MessagePack;
 import org.msgpack.type.Value;
+import org.msgpack.type.ValueFactory;
 import org.o3project.odenos.remoteobject.message.Request;
 import org.o3project.odenos.remoteobject.message.Response;
 import org.o3project.odenos.remoteobject.rest.Attributes;
@@ -124,6 +125,12 @@ public class RestServlet extends HttpServlet {
     if (req.getQueryString() != null) {
       path = path + "?" + URLDecoder.decode(req.getQueryString(), "utf-8");
     }
+    String ifNoneMatch = parseEntityTag(req.getHeader("If-None-Match"));
+    if (method == Request.Method.GET && ifNoneMatch != null) {
+      // conditional GET by the version of the object.
+      path = path + ((path.indexOf('?') < 0) ? "?" : "&")
+          + Request.IF_VERSION_DIFFERS + "=" + ifNoneMatch;
+    }
     Object reqBody = JSONValue.parse(req.getReader());
 
     RESTTranslator translator = (RESTTranslator) req.getServletContext()
@@ -151,7 +158,38 @@ public class RestServlet extends HttpServlet {
         return;
       }
 
-      resp.getWriter().write(value.asArrayValue().get(1).toString());
+      Value body = value.asArrayValue().get(1);
+      if (method == Request.Method.GET && body.isMapValue()) {
+        Value version = body.asMapValue().get(ValueFactory.createRawValue("version"));
+        if (version != null && version.isRawValue()) {
+          resp.setHeader("ETag", "\"" + version.asRawValue().getString() + "\"");
+        }
+      }
+      resp.getWriter().write(body.toString());
+    }
+  }
+
+  /**
+   * Returns the version in an If-None-Match header.
+   *
+   * @param header value of the header.
+   * @return version. null if not specified.
+   */
+  static String parseEntityTag(String header) {
+    if (header == null) {
+      return null;
+    }
+    String tag = header.trim();
+    if (tag.startsWith("W/")) {
+      tag = tag.substring(2);
+    }
+    if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+      tag = tag.substring(1, tag.length() - 1);
+    }
+    // a list of tags and "*" are not used for versions.
+    if (tag.isEmpty() || tag.equals("*") || tag.contains("\"") || tag.contains(",")) {
+      return null;
     }
+    return tag;
   }
 }
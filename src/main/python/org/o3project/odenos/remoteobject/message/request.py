@@ -23,7 +23,7 @@ class Request:
         POST = "POST"
         DELETE = "DELETE"
 
-    def __init__(self, object_id, method, path, body=None):
+    def __init__(self, object_id, method, path, body=None, timeout=0):
         self.object_id = object_id
         self.method = method
         self.path = path
@@ -31,6 +31,8 @@ class Request:
         if hasattr(body, "packed_object"):
             body = body.packed_object()
         self.body = body
+        # milliseconds left until the deadline when sent (0: no deadline)
+        self.timeout = timeout
 
     @classmethod
     def create_from_packed(cls, packed):
@@ -38,4 +40,7 @@ class Request:
         return cls(*packed)
 
     def packed_object(self):
+        if self.timeout:
+            return (self.object_id, self.method, self.path, self.txid,
+                    self.body, self.timeout)
         return (self.object_id, self.method, self.path, self.txid, self.body)
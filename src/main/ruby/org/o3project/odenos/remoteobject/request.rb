@@ -23,6 +23,8 @@ module Odenos
       array_accessor :object, :path,           2
       array_accessor :object, :txid,           3
       array_accessor :object, :request_body,   4
+      # milliseconds left until the deadline when sent (optional)
+      array_accessor :object, :timeout,        5
 
       alias_method :body, :request_body
 
@@ -39,8 +41,8 @@ module Odenos
           unless ary.first.is_a?(Array)
             fail ArgumentError, 'expect Array'
           end
-          if ary.first.length != 5
-            fail ArgumentError, 'expect Request Array(5)'
+          unless [5, 6].include?(ary.first.length)
+            fail ArgumentError, 'expect Request Array(5 or 6)'
           end
 
           super(ary.first)
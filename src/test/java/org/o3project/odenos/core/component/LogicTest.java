@@ -25,6 +25,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -2300,6 +2301,41 @@ public class LogicTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.Logic#delInPacket(NetworkInterface, InPacketAdded)}
+   * .
+   */
+  @Test
+  public void testDelInPacketInPacketAdded() {
+
+    /*
+     * setting
+     */
+    NetworkInterface networkInterface = Mockito.mock(NetworkInterface.class);
+    InPacket packet = new InPacket("PacketId", "NodeId1", "PortId1",
+        "data".getBytes(), new HashMap<String, String>());
+    InPacket claimed = new InPacket("PacketId", "NodeId2", "PortId2",
+        "data".getBytes(), new HashMap<String, String>());
+    doReturn(claimed).when(target)
+        .delInPacket(networkInterface, "PacketId");
+
+    /*
+     * test & check
+     */
+    assertThat(target.delInPacket(networkInterface,
+        new InPacketAdded(packet, true)), is(packet));
+    verify(target, never()).delInPacket(networkInterface, "PacketId");
+
+    assertThat(target.delInPacket(networkInterface,
+        new InPacketAdded(packet, false)), is(claimed));
+    assertThat(target.delInPacket(networkInterface,
+        new InPacketAdded(packet)), is(claimed));
+    assertThat(target.getInPacket(networkInterface,
+        new InPacketAdded(packet, false)), is(packet));
+    verify(target, never()).getInPacket(networkInterface, "PacketId");
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.Logic#conversion(java.lang.String, org.o3project.odenos.core.component.network.packet.OutPacketAdded)}
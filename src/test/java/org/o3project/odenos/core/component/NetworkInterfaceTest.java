@@ -24,6 +24,7 @@ import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -397,6 +398,100 @@ public class NetworkInterfaceTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.NetworkInterface#setReadReplicas(List)}
+   * .
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testSetReadReplicas() throws Exception {
+
+    /*
+     * setting
+     */
+    target.setReadReplicas(Arrays.asList("Replica1", "Replica2"));
+
+    Response mockResponse = Mockito.spy(new Response(Response.OK,
+        new Object()));
+    doReturn(new Node()).when(mockResponse).getBody(Node.class);
+    PowerMockito.doReturn(new Response(Response.SERVICE_UNAVAILABLE, null))
+        .when(target, "sendReplicaRequest", eq("Replica1"), anyString());
+    PowerMockito.doReturn(mockResponse).when(target, "sendRequest",
+        eq("NetworkId"), anyObject(), anyString(), anyString(), anyObject());
+    PowerMockito.doReturn(mockResponse).when(target, "sendReplicaRequest",
+        eq("Replica2"), anyString());
+
+    /*
+     * test
+     */
+    // Replica1 is behind, then retried to the network.
+    Node result1 = target.getNode("nodeId");
+    // goes to the next replica.
+    Node result2 = target.getNode("nodeId");
+    // packets are not replicated.
+    target.getPackets();
+
+    /*
+     * check
+     */
+    assertThat(result1, is(notNullValue()));
+    assertThat(result2, is(notNullValue()));
+    PowerMockito.verifyPrivate(target, times(1)).invoke("sendReplicaRequest",
+        eq("Replica1"), anyString());
+    PowerMockito.verifyPrivate(target, times(1)).invoke("sendReplicaRequest",
+        eq("Replica2"), anyString());
+    PowerMockito.verifyPrivate(target, times(2)).invoke("sendRequest",
+        eq("NetworkId"), anyObject(), anyString(), anyString(), anyObject());
+
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.NetworkInterface#setReadReplicas(List)}
+   * .
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testSetReadReplicas_Answers() throws Exception {
+
+    /*
+     * setting
+     */
+    target.setReadReplicas(Arrays.asList("Replica1"));
+
+    PowerMockito.doReturn(new Response(Response.NOT_FOUND, null))
+        .when(target, "sendReplicaRequest", eq("Replica1"), eq("topology/nodes/node1"));
+    PowerMockito.doReturn(null)
+        .when(target, "sendReplicaRequest", eq("Replica1"), eq("topology/nodes/node2"));
+    PowerMockito.doReturn(new Response(Response.NOT_FOUND, null)).when(target,
+        "sendRequest", eq("NetworkId"), anyObject(), anyString(), anyString(),
+        anyObject());
+
+    /*
+     * test
+     */
+    // the answer of the replica is returned.
+    target.getNode("node1");
+    // no answer, then retried to the network.
+    target.getNode("node2");
+
+    /*
+     * check
+     */
+    PowerMockito.verifyPrivate(target, times(2)).invoke("sendReplicaRequest",
+        eq("Replica1"), anyString());
+    PowerMockito.verifyPrivate(target, times(1)).invoke("sendRequest",
+        eq("NetworkId"), anyObject(), eq("topology/nodes/node2"), anyString(),
+        anyObject());
+    PowerMockito.verifyPrivate(target, never()).invoke("sendRequest",
+        eq("NetworkId"), anyObject(), eq("topology/nodes/node1"), anyString(),
+        anyObject());
+
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.NetworkInterface#putNode(Node)}
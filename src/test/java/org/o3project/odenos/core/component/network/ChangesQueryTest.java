@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class for ChangesQuery.
+ */
+public class ChangesQueryTest {
+
+  @Test
+  public void testParse() {
+    ChangesQuery target = new ChangesQuery("since=abc:3");
+
+    assertTrue(target.parse());
+    assertThat(target.getSince(), is("abc:3"));
+    assertFalse(target.getObjects());
+  }
+
+  @Test
+  public void testParse_Objects() {
+    ChangesQuery target = new ChangesQuery("since=abc:3&objects=true");
+
+    assertTrue(target.parse());
+    assertThat(target.getSince(), is("abc:3"));
+    assertTrue(target.getObjects());
+  }
+
+  @Test
+  public void testParse_Empty() {
+    ChangesQuery target = new ChangesQuery("");
+
+    assertTrue(target.parse());
+    assertThat(target.getSince(), is(nullValue()));
+  }
+
+  @Test
+  public void testParse_Invalid() {
+    assertFalse(new ChangesQuery("limit=1").parse());
+    assertFalse(new ChangesQuery("since").parse());
+    assertFalse(new ChangesQuery("since=abc:3&objects=yes").parse());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test class for FlowExpiry.
+ */
+public class FlowExpiryTest {
+
+  private FlowExpiry target;
+
+  /**
+   * @throws Exception throws Exception in targets
+   */
+  @Before
+  public void setUp() throws Exception {
+    target = new FlowExpiry() {
+      @Override
+      protected void onExpired(List<String> flowIds) {
+      }
+    };
+    // ticks of 100 milliseconds from the time 0.
+    target.setTick(100, 0);
+  }
+
+  @Test
+  public void testAdvance_HardTimeout() {
+    target.track("flow1", 0, 1, null, 0);
+    target.track("flow2", 0, 2, null, 0);
+    // an update keeps the install time.
+    target.track("flow1", 0, 1, null, 500);
+
+    assertThat(target.advance(999), is(Collections.<String>emptyList()));
+    assertThat(target.advance(1000), is(Arrays.asList("flow1")));
+    assertThat(target.advance(1999), is(Collections.<String>emptyList()));
+    assertThat(target.advance(2000), is(Arrays.asList("flow2")));
+    assertThat(target.size(), is(0));
+  }
+
+  @Test
+  public void testAdvance_IdleTimeout() {
+    target.track("flow1", 1, 0, "10", 0);
+    // the counter changed.
+    target.track("flow1", 1, 0, "20", 800);
+    assertThat(target.advance(1000), is(Collections.<String>emptyList()));
+    // the counter did not change.
+    target.track("flow1", 1, 0, "20", 1500);
+
+    assertThat(target.advance(1799), is(Collections.<String>emptyList()));
+    assertThat(target.advance(1800), is(Arrays.asList("flow1")));
+  }
+
+  @Test
+  public void testAdvance_IdleTimeoutWithoutCounter() {
+    // the activity is unknown without the counter.
+    target.track("flow1", 1, 0, null, 0);
+    target.track("flow2", 1, 3, null, 0);
+    assertThat(target.size(), is(1));
+
+    assertThat(target.advance(2000), is(Collections.<String>emptyList()));
+    assertThat(target.advance(3000), is(Arrays.asList("flow2")));
+  }
+
+  @Test
+  public void testAdvance_Cascade() {
+    // beyond the first and the second levels.
+    target.track("flow1", 0, 600, null, 0);
+    target.track("flow2", 0, 10000, null, 0);
+
+    assertThat(target.advance(599900), is(Collections.<String>emptyList()));
+    assertThat(target.advance(600000), is(Arrays.asList("flow1")));
+    assertThat(target.advance(9999900), is(Collections.<String>emptyList()));
+    assertThat(target.advance(10000000), is(Arrays.asList("flow2")));
+  }
+
+  @Test
+  public void testUntrack() {
+    target.track("flow1", 0, 1, null, 0);
+    target.track("flow2", 1, 0, "0", 0);
+    target.untrack("flow1");
+    // no time-out.
+    target.track("flow2", 0, 0, null, 0);
+
+    assertThat(target.size(), is(0));
+    assertThat(target.advance(5000), is(Collections.<String>emptyList()));
+  }
+
+  @Test
+  public void testSetTick() {
+    target.setTick(0, 0);
+    target.track("flow1", 0, 1, null, 0);
+    assertThat(target.advance(5000), is(Collections.<String>emptyList()));
+
+    // placed when enabled.
+    target.setTick(100, 5000);
+    assertThat(target.advance(5100), is(Arrays.asList("flow1")));
+  }
+}
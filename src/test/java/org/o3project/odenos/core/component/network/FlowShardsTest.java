@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.FlowSet;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlow;
+
+/**
+ * Test class for FlowShards.
+ */
+public class FlowShardsTest {
+
+  @Test
+  public void testCreateFlow() {
+    FlowShards target = new FlowShards(4);
+    Flow flow = target.createFlow(new BasicFlow("FlowId", "Owner", true, "1"));
+
+    String flowId = flow.getFlowId();
+    assertThat(target.isSharded(), is(true));
+    assertThat(target.get(flowId).getFlow(flowId), is(sameInstance(flow)));
+    // a copy out of the monitor of the shard.
+    assertThat(target.getFlow(flowId), is(not(sameInstance(flow))));
+    assertThat(target.getFlow(flowId).getFlowId(), is(flowId));
+    assertThat(target.getFlow("unknown"), is(nullValue()));
+    assertThat(target.toFlowSet().getFlows().size(), is(1));
+    assertThat(target.toFlowSet().priority.get("1").get(0), is(flowId));
+  }
+
+  @Test
+  public void testPartition() {
+    FlowSet flowSet = new FlowSet();
+    for (int i = 0; i < 20; i++) {
+      flowSet.createFlow("flow" + i, new BasicFlow("flow" + i, "Owner", true, "1"),
+          Flow.INITIAL_VERSION);
+    }
+
+    FlowShards target = new FlowShards(flowSet, 3);
+
+    for (int i = 0; i < 20; i++) {
+      String flowId = "flow" + i;
+      assertThat(target.indexOf(flowId), is((flowId.hashCode() & Integer.MAX_VALUE) % 3));
+      assertThat(target.get(flowId).getFlow(flowId), is(sameInstance(flowSet.getFlow(flowId))));
+    }
+    assertThat(target.getVersion(), is(flowSet.getVersion()));
+    FlowSet merged = target.toFlowSet();
+    assertThat(merged.getFlows().size(), is(20));
+    assertThat(merged.priority.get("1").size(), is(20));
+  }
+
+  @Test
+  public void testGetVersion() {
+    FlowShards target = new FlowShards(2);
+    String version = target.getVersion();
+    Flow flow = target.createFlow(new BasicFlow("FlowId", "Owner", true, "1"));
+
+    assertThat(target.getVersion(), is(not(version)));
+    version = target.getVersion();
+    target.get(flow.getFlowId()).deleteFlow(flow);
+    assertThat(target.getVersion(), is(not(version)));
+    assertThat(target.toFlowSet().getVersion(), is(target.getVersion()));
+  }
+
+  @Test
+  public void testSingleShard() {
+    FlowSet flowSet = new FlowSet();
+    FlowShards target = new FlowShards(flowSet, 1);
+
+    assertThat(target.isSharded(), is(false));
+    assertThat(target.toFlowSet(), is(sameInstance(flowSet)));
+    assertThat(target.get("FlowId"), is(sameInstance(flowSet)));
+    Flow flow = target.createFlow(new BasicFlow("FlowId", "Owner", true, "1"));
+    assertThat(target.getFlow(flow.getFlowId()), is(sameInstance(flow)));
+    assertThat(target.getVersion(), is(flowSet.getVersion()));
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Test class for NetworkChangeLog.
+ */
+public class NetworkChangeLogTest {
+
+  private static NetworkChanges.Change change(String id) {
+    return new NetworkChanges.Change("node", id, null, "add", "1");
+  }
+
+  @Test
+  public void testSince() {
+    NetworkChangeLog target = new NetworkChangeLog(10);
+    String version = target.getVersion();
+    target.add(change("n1"));
+    target.add(change("n2"));
+
+    NetworkChanges result = target.since(version);
+    assertThat(result.getChanges().size(), is(2));
+    assertThat(result.getChanges().get(0).getId(), is("n1"));
+    assertThat(result.getChanges().get(1).getId(), is("n2"));
+    assertThat(result.getVersion(), is(target.getVersion()));
+
+    assertThat(target.since(result.getVersion()).getChanges().size(), is(0));
+  }
+
+  @Test
+  public void testSince_Truncated() {
+    NetworkChangeLog target = new NetworkChangeLog(2);
+    String version = target.getVersion();
+    target.add(change("n1"));
+    String version1 = target.getVersion();
+    target.add(change("n2"));
+    target.add(change("n3"));
+
+    assertThat(target.since(version), is(nullValue()));
+    NetworkChanges result = target.since(version1);
+    assertThat(result.getChanges().size(), is(2));
+    assertThat(result.getChanges().get(0).getId(), is("n2"));
+    assertThat(result.getChanges().get(1).getId(), is("n3"));
+  }
+
+  @Test
+  public void testSince_Invalid() {
+    NetworkChangeLog target = new NetworkChangeLog(2);
+    String version = target.getVersion();
+    String epoch = version.substring(0, version.indexOf(':'));
+
+    assertThat(target.since("other:0"), is(nullValue()));
+    assertThat(target.since(epoch + ":1"), is(nullValue()));
+    assertThat(target.since(epoch + ":x"), is(nullValue()));
+    assertThat(target.since("0"), is(nullValue()));
+  }
+}
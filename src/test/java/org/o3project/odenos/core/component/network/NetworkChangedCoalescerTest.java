@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.odenos.core.component.network.topology.Link;
+import org.o3project.odenos.core.component.network.topology.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for NetworkChangedCoalescer.
+ */
+public class NetworkChangedCoalescerTest {
+
+  private NetworkChangedCoalescer target;
+  private Map<String, List<NetworkChangedCoalescer.Change>> flushed;
+  private List<String> flushedTypes;
+
+  @Before
+  public void setUp() {
+    flushed = Collections.synchronizedMap(
+        new LinkedHashMap<String, List<NetworkChangedCoalescer.Change>>());
+    flushedTypes = Collections.synchronizedList(new ArrayList<String>());
+    target = new NetworkChangedCoalescer() {
+      @Override
+      protected void onFlush(String eventType,
+          List<NetworkChangedCoalescer.Change> changes) {
+        flushed.put(eventType, new ArrayList<NetworkChangedCoalescer.Change>(changes));
+        flushedTypes.add(eventType);
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    target.close();
+  }
+
+  @Test
+  public void testAdd_Disabled() {
+    assertFalse(target.add("NodeChanged", "n1", null, new Node("n1")));
+    target.flush();
+    assertTrue(flushed.isEmpty());
+  }
+
+  @Test
+  public void testFlush_NetEffect() {
+    target.setWindow(60000);
+    Node n1v0 = new Node("0", "n1");
+    Node n1v1 = new Node("1", "n1");
+    Node n1v2 = new Node("2", "n1");
+    Node n2 = new Node("n2");
+    Node n3 = new Node("n3");
+
+    // update, update -> update from the first to the last.
+    assertTrue(target.add("NodeChanged", "n1", n1v0, n1v1));
+    assertTrue(target.add("NodeChanged", "n1", n1v1, n1v2));
+    // add, delete -> nothing.
+    assertTrue(target.add("NodeChanged", "n2", null, n2));
+    assertTrue(target.add("NodeChanged", "n2", n2, null));
+    // delete, add -> update.
+    assertTrue(target.add("NodeChanged", "n3", n3, null));
+    assertTrue(target.add("NodeChanged", "n3", null, n3));
+    assertTrue(target.add("LinkChanged", "l1", null, n3));
+    target.flush();
+
+    assertThat(flushed.keySet().toArray(), is(new Object[] {"NodeChanged", "LinkChanged"}));
+    List<NetworkChangedCoalescer.Change> changes = flushed.get("NodeChanged");
+    assertThat(changes.size(), is(2));
+    assertThat(changes.get(0).prev, is((Object) n1v0));
+    assertThat(changes.get(0).curr, is((Object) n1v2));
+    assertThat(changes.get(0).getAction(), is("update"));
+    assertThat(changes.get(1).getAction(), is("update"));
+    assertThat(flushed.get("LinkChanged").get(0).getAction(), is("add"));
+
+    flushed.clear();
+    target.flush();
+    assertTrue(flushed.isEmpty());
+  }
+
+  @Test
+  public void testFlush_ArrivalOrder() {
+    target.setWindow(60000);
+    Node n1 = new Node("n1");
+    Link l1 = new Link("l1");
+
+    target.add("NodeChanged", "n1", null, n1);
+    target.add("LinkChanged", "l1", null, l1);
+    target.add("NodeChanged", "n2", null, new Node("n2"));
+    // the node deleted follows the link deleted.
+    target.add("LinkChanged", "l1", l1, null);
+    target.add("NodeChanged", "n3", new Node("n3"), new Node("n3"));
+    target.add("NodeChanged", "n1", n1, null);
+    target.add("LinkChanged", "l2", null, new Link("l2"));
+    target.flush();
+
+    // l1 added and deleted in the window.
+    assertThat(flushedTypes.toArray(),
+        is(new Object[] {"NodeChanged", "LinkChanged"}));
+    List<NetworkChangedCoalescer.Change> changes = flushed.get("NodeChanged");
+    assertThat(changes.size(), is(2));
+    assertThat(((Node) changes.get(0).curr).getId(), is("n2"));
+    assertThat(((Node) changes.get(1).prev).getId(), is("n3"));
+    assertThat(flushed.get("LinkChanged").size(), is(1));
+  }
+
+  @Test
+  public void testFlush_OrderAcrossTypes() {
+    target.setWindow(60000);
+    Node n1 = new Node("n1");
+    Link l1 = new Link("l1");
+
+    target.add("NodeChanged", "n1", n1, n1);
+    target.add("LinkChanged", "l1", l1, null);
+    target.add("NodeChanged", "n1", n1, null);
+    target.flush();
+
+    assertThat(flushedTypes.toArray(),
+        is(new Object[] {"LinkChanged", "NodeChanged"}));
+    assertThat(flushed.get("NodeChanged").get(0).getAction(), is("delete"));
+  }
+
+  @Test
+  public void testAdd_Copies() {
+    target.setWindow(60000);
+    Node n1 = new Node("1", "n1");
+    target.add("NodeChanged", "n1", null, n1);
+    n1.setVersion("2");
+    target.flush();
+
+    Node held = (Node) flushed.get("NodeChanged").get(0).curr;
+    assertThat(held.getVersion(), is("1"));
+    assertFalse(held == n1);
+  }
+
+  @Test
+  public void testSetWindow_DisableFlushes() {
+    target.setWindow(60000);
+    target.add("NodeChanged", "n1", new Node("n1"), null);
+    assertTrue(flushed.isEmpty());
+
+    target.setWindow(0);
+    assertThat(flushed.get("NodeChanged").get(0).getAction(), is("delete"));
+    assertFalse(target.add("NodeChanged", "n1", null, new Node("n1")));
+  }
+
+  @Test(timeout = 5000)
+  public void testWindowExpires() throws Exception {
+    target.setWindow(10);
+    target.add("NodeChanged", "n1", null, new Node("n1"));
+    while (flushed.isEmpty()) {
+      Thread.sleep(5);
+    }
+    assertThat(flushed.get("NodeChanged").size(), is(1));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.msgpack.MessagePack;
+import org.msgpack.packer.BufferPacker;
+import org.msgpack.type.ValueFactory;
+import org.msgpack.unpacker.BufferUnpacker;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlow;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlowMatch;
+import org.o3project.odenos.core.component.network.topology.Port;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+/**
+ * Test class for NetworkChangedDelta.
+ */
+public class NetworkChangedDeltaTest {
+
+  private static BasicFlow flow() {
+    BasicFlow flow = new BasicFlow("FlowId", "Owner", true, "256");
+    flow.setStatus("none");
+    flow.addMatch(new BasicFlowMatch("Node1", "Port1"));
+    flow.putAttribute("bandwidth", "10");
+    flow.putAttribute("latency", "5");
+    return flow;
+  }
+
+  @Test
+  public void testUpdateCarriesChangedFieldsOnly() throws Exception {
+    BasicFlow prev = flow();
+    Flow curr = prev.clone();
+    curr.setStatus("established");
+    curr.putAttribute("bandwidth", "20");
+    curr.deleteAttribute("latency");
+
+    NetworkChangedDelta target =
+        new NetworkChangedDelta("FlowId", "update", "2", prev, curr);
+
+    assertThat(target.changes.keySet(), is((Object) new HashSet<String>(
+        Arrays.asList("type", "flow_id", "status", "attributes"))));
+    assertThat(target.getChange("status").asRawValue().getString(), is("established"));
+    assertThat(target.getChange("attributes").asMapValue().size(), is(2));
+    assertTrue(target.getChange("attributes").asMapValue()
+        .get(ValueFactory.createRawValue("latency")).isNilValue());
+  }
+
+  @Test
+  public void testAddAndDelete() throws Exception {
+    Port port = new Port("PortId", "NodeId");
+
+    NetworkChangedDelta added = new NetworkChangedDelta("PortId", "add", "1", null, port);
+    NetworkChangedDelta deleted = new NetworkChangedDelta("PortId", "delete", null, port, null);
+
+    assertTrue(added.changes.containsKey("attributes"));
+    assertThat(added.getChange("node_id").asRawValue().getString(), is("NodeId"));
+    assertThat(deleted.changes.keySet(), is((Object) new HashSet<String>(
+        Arrays.asList("type", "node_id", "port_id"))));
+  }
+
+  @Test
+  public void testWriteAndRead() throws Exception {
+    BasicFlow prev = flow();
+    Flow curr = prev.clone();
+    curr.setStatus("established");
+    NetworkChangedDelta target =
+        new NetworkChangedDelta("FlowId", "update", "2", prev, curr);
+
+    MessagePack msgpack = new MessagePack();
+    BufferPacker pk = msgpack.createBufferPacker();
+    pk.write(target);
+    BufferUnpacker upk = msgpack.createBufferUnpacker(pk.toByteArray());
+    NetworkChangedDelta result = upk.read(NetworkChangedDelta.class);
+
+    assertThat(result.id, is("FlowId"));
+    assertThat(result.action, is("update"));
+    assertThat(result.version, is("2"));
+    assertThat(result.changes, is(target.changes));
+
+    target = new NetworkChangedDelta("FlowId", "delete", null, prev, null);
+    pk = msgpack.createBufferPacker();
+    pk.write(target);
+    result = msgpack.createBufferUnpacker(pk.toByteArray()).read(NetworkChangedDelta.class);
+    assertThat(result.version, is(nullValue()));
+  }
+}
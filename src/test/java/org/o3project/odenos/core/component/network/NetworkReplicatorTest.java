@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.o3project.odenos.core.component.NetworkInterface;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlow;
+import org.o3project.odenos.core.component.network.topology.Node;
+import org.o3project.odenos.core.component.network.topology.Port;
+import org.o3project.odenos.remoteobject.message.Request;
+import org.o3project.odenos.remoteobject.message.Response;
+import org.o3project.odenos.remoteobject.messagingclient.MessageDispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test class for NetworkReplicator.
+ */
+public class NetworkReplicatorTest {
+
+  private Network primary;
+  private boolean primaryDown;
+  private int requests;
+  private List<NetworkReplicator.Batch> applied;
+  private NetworkReplicator target;
+
+  @Before
+  public void setUp() throws Exception {
+    MessageDispatcher dispatcher = Mockito.mock(MessageDispatcher.class);
+    primary = new Network("primary", dispatcher);
+    doAnswer(new Answer<Response>() {
+      @Override
+      public Response answer(InvocationOnMock invocation) {
+        if (primaryDown) {
+          return new Response(Response.SERVICE_UNAVAILABLE, null);
+        }
+        requests++;
+        return primary.onRequest((Request) invocation.getArguments()[0]);
+      }
+    }).when(dispatcher).requestSync(any(Request.class), anyString());
+
+    applied = new ArrayList<NetworkReplicator.Batch>();
+    target = new NetworkReplicator(
+        new NetworkInterface(dispatcher, "primary", "replica"), 60000) {
+      @Override
+      protected void onApply(NetworkReplicator.Batch batch) {
+        applied.add(batch);
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    target.close();
+  }
+
+  @Test
+  public void testSync_Resync() throws Exception {
+    primary.putNode("n1", new Node());
+    assertFalse(target.isFresh());
+
+    assertTrue(target.sync());
+
+    assertThat(applied.size(), is(1));
+    assertThat(applied.get(0).topology.getNode("n1"), is(notNullValue()));
+    assertThat(applied.get(0).flowSet, is(notNullValue()));
+    assertTrue(target.isFresh());
+  }
+
+  @Test
+  public void testSync_Changes() throws Exception {
+    primary.putNode("n1", new Node());
+    primary.putNode("n2", new Node());
+    target.sync();
+    applied.clear();
+
+    primary.putPort("n1", "p1", new Port());
+    primary.deleteNode("n2", null);
+    primary.putNode("n3", new Node());
+    primary.deleteNode("n3", null);
+    primary.postFlow(new BasicFlow("f1", "Owner", true, "1"));
+    requests = 0;
+
+    assertTrue(target.sync());
+
+    // the objects are returned with the changes.
+    assertThat(requests, is(1));
+    NetworkReplicator.Batch batch = applied.get(0);
+    assertThat(batch.topology, is(nullValue()));
+    assertThat(batch.nodes.get("n1").getPort("p1"), is(notNullValue()));
+    assertTrue(batch.nodes.containsKey("n2"));
+    assertThat(batch.nodes.get("n2"), is(nullValue()));
+    // added and deleted.
+    assertThat(batch.nodes.get("n3"), is(nullValue()));
+    assertThat(batch.flows.size(), is(1));
+    Flow flow = batch.flows.values().iterator().next();
+    assertThat(flow.getOwner(), is("Owner"));
+
+    // nothing changed.
+    applied.clear();
+    assertTrue(target.sync());
+    assertTrue(applied.isEmpty());
+  }
+
+  @Test
+  public void testSync_PrimaryDown() {
+    primaryDown = true;
+
+    assertFalse(target.sync());
+    assertTrue(applied.isEmpty());
+    assertFalse(target.isFresh());
+  }
+}
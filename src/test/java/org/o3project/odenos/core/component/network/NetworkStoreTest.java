@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.msgpack.type.ValueFactory;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlow;
+import org.o3project.odenos.core.component.network.topology.Node;
+import org.o3project.odenos.remoteobject.message.Request;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test class for NetworkStore.
+ */
+public class NetworkStoreTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private File dir;
+  private List<Request> replayed;
+  private NetworkStore.Replayer replayer;
+
+  @Before
+  public void setUp() {
+    dir = new File(folder.getRoot(), "network1");
+    replayed = new ArrayList<Request>();
+    replayer = new NetworkStore.Replayer() {
+      @Override
+      public void replay(Request request) {
+        replayed.add(request);
+      }
+    };
+  }
+
+  private Request request(String path) {
+    return new Request("network1", Request.Method.PUT, path, "txid",
+        ValueFactory.createRawValue("body"));
+  }
+
+  @Test
+  public void testLoad_Empty() throws Exception {
+    NetworkStore target = new NetworkStore(dir, 10);
+
+    assertThat(target.load(), is(nullValue()));
+    assertThat(target.replayJournal(replayer), is(-1));
+    assertTrue(dir.isDirectory());
+  }
+
+  @Test
+  public void testAppendAndReplay() throws Exception {
+    NetworkStore target = new NetworkStore(dir, 10);
+    target.load();
+    assertFalse(target.append(request("topology/nodes/n1")));
+    assertFalse(target.append(request("flows/f1")));
+    target.close();
+
+    NetworkStore restarted = new NetworkStore(dir, 10);
+    assertThat(restarted.load(), is(nullValue()));
+    assertThat(restarted.replayJournal(replayer), is(2));
+    assertThat(replayed.get(0).path, is("topology/nodes/n1"));
+    assertThat(replayed.get(1).method, is(Request.Method.PUT));
+    assertThat(replayed.get(1).getBodyValue().asRawValue().getString(), is("body"));
+  }
+
+  @Test
+  public void testAppend_SnapshotDue() throws Exception {
+    NetworkStore target = new NetworkStore(dir, 2);
+    target.load();
+
+    assertFalse(target.append(request("topology/nodes/n1")));
+    assertTrue(target.append(request("topology/nodes/n2")));
+  }
+
+  @Test
+  public void testWriteSnapshot() throws Exception {
+    NetworkStore target = new NetworkStore(dir, 10);
+    target.load();
+    target.append(request("topology/nodes/n1"));
+
+    NetworkStore.Snapshot snapshot = new NetworkStore.Snapshot();
+    snapshot.topology.createNode(new Node("n1"));
+    snapshot.flowSet.createFlow("f1", new BasicFlow("f1"), "1");
+    snapshot.deletingFlows.add("f1");
+    snapshot.settings.put("verbose_event/port", "false");
+    target.writeSnapshot(snapshot);
+    target.append(request("topology/nodes/n2"));
+    target.close();
+
+    assertThat(Arrays.asList(dir.list()).contains("journal-0"), is(false));
+
+    NetworkStore restarted = new NetworkStore(dir, 10);
+    NetworkStore.Snapshot result = restarted.load();
+    assertThat(result, is(notNullValue()));
+    assertThat(result.topology.getNode("n1"), is(notNullValue()));
+    assertThat(result.flowSet.getFlow("f1"), is(notNullValue()));
+    assertThat(result.deletingFlows, is(Arrays.asList("f1")));
+    assertThat(result.settings.get("verbose_event/port"), is("false"));
+    // only the journal after the snapshot.
+    assertThat(restarted.replayJournal(replayer), is(1));
+    assertThat(replayed.get(0).path, is("topology/nodes/n2"));
+  }
+
+  @Test
+  public void testStartGeneration() throws Exception {
+    NetworkStore target = new NetworkStore(dir, 10);
+    target.load();
+    target.append(request("topology/nodes/n1"));
+
+    // crashes before the snapshot of the new generation is written.
+    long generation = target.startGeneration();
+    target.append(request("topology/nodes/n2"));
+    target.close();
+
+    NetworkStore restarted = new NetworkStore(dir, 10);
+    assertThat(restarted.load(), is(nullValue()));
+    assertThat(restarted.replayJournal(replayer), is(2));
+    assertThat(replayed.get(0).path, is("topology/nodes/n1"));
+    assertThat(replayed.get(1).path, is("topology/nodes/n2"));
+
+    // the older generation is deleted once the snapshot is written.
+    target.writeSnapshot(generation, new NetworkStore.Snapshot());
+    assertThat(Arrays.asList(dir.list()).contains("journal-0"), is(false));
+    assertThat(Arrays.asList(dir.list()).contains("snapshot-1"), is(true));
+    assertThat(Arrays.asList(dir.list()).contains("journal-1"), is(true));
+  }
+
+  @Test
+  public void testReplayJournal_Torn() throws Exception {
+    NetworkStore target = new NetworkStore(dir, 10);
+    target.load();
+    target.append(request("topology/nodes/n1"));
+    target.close();
+    FileOutputStream out = new FileOutputStream(new File(dir, "journal-0"), true);
+    try {
+      // the beginning of a record.
+      out.write(new byte[] {(byte) 0x95, (byte) 0xa8});
+    } finally {
+      out.close();
+    }
+
+    NetworkStore restarted = new NetworkStore(dir, 10);
+    restarted.load();
+    assertThat(restarted.replayJournal(replayer), is(1));
+  }
+}
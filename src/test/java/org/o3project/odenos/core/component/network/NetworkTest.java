@@ -20,10 +20,15 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyObject;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -31,10 +36,16 @@ import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.msgpack.type.ValueFactory;
+import org.o3project.odenos.core.component.NetworkInterface;
 import org.o3project.odenos.core.component.network.flow.Flow;
 import org.o3project.odenos.core.component.network.flow.FlowChanged;
 import org.o3project.odenos.core.component.network.flow.FlowObject.FlowStatus;
@@ -59,8 +70,10 @@ import org.o3project.odenos.core.component.network.topology.Port;
 import org.o3project.odenos.core.component.network.topology.PortChanged;
 import org.o3project.odenos.core.component.network.topology.Topology;
 import org.o3project.odenos.core.component.network.topology.TopologyChanged;
+import org.o3project.odenos.remoteobject.ObjectProperty;
 import org.o3project.odenos.remoteobject.ObjectSettings;
 import org.o3project.odenos.remoteobject.RequestParser;
+import org.o3project.odenos.remoteobject.message.Event;
 import org.o3project.odenos.remoteobject.message.Request;
 import org.o3project.odenos.remoteobject.message.Request.Method;
 import org.o3project.odenos.remoteobject.message.Response;
@@ -88,6 +101,9 @@ public class NetworkTest {
 
   private MessageDispatcher dispatcher;
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   /**
    * @throws java.lang.Exception throws Exception in targets
    */
@@ -210,6 +226,196 @@ public class NetworkTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RemoteObject#isReadOnlyRequest(org.o3project.odenos.remoteobject.message.Request)}
+   * .
+   */
+  @Test
+  public void testIsReadOnlyRequest() {
+
+    assertThat(target.isReadOnlyRequest(new Request("objectId",
+        Request.Method.GET, "topology/nodes/n1", "txid", null)), is(true));
+    assertThat(target.isReadOnlyRequest(new Request("objectId",
+        Request.Method.GET, "flows?type=BasicFlow", "txid", null)), is(true));
+    assertThat(target.isReadOnlyRequest(new Request("objectId",
+        Request.Method.GET, "settings/verbose_event/port", "txid", null)), is(true));
+    assertThat(target.isReadOnlyRequest(new Request("objectId",
+        Request.Method.PUT, "topology/nodes/n1", "txid", null)), is(false));
+    // packet queues are not read-only.
+    assertThat(target.isReadOnlyRequest(new Request("objectId",
+        Request.Method.GET, "packets/in/head", "txid", null)), is(false));
+
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.Network#onRequest(org.o3project.odenos.remoteobject.message.Request)}
+   * .
+   */
+  @Test
+  public void testOnRequestIfVersionDiffers() throws Exception {
+
+    /*
+     * setting
+     */
+    target.putNode("NodeId", new Node());
+    Response result = target.onRequest(new Request("objectId",
+        Request.Method.GET, "topology/nodes/NodeId", "txid", null));
+    String version = result.getBody(Node.class).getVersion();
+
+    /*
+     * test
+     */
+    result = target.onRequest(new Request("objectId", Request.Method.GET,
+        "topology/nodes/NodeId?" + Request.IF_VERSION_DIFFERS + "=" + version,
+        "txid", null));
+    assertThat(result.statusCode, is(Response.NOT_MODIFIED));
+    assertThat(result.isBodyNull(), is(true));
+
+    result = target.onRequest(new Request("objectId", Request.Method.GET,
+        "topology/nodes/NodeId?" + Request.IF_VERSION_DIFFERS + "=stale",
+        "txid", null));
+    assertThat(result.statusCode, is(Response.OK));
+    assertThat(result.getBody(Node.class).getId(), is("NodeId"));
+
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.Network#onRequest(org.o3project.odenos.remoteobject.message.Request)}
+   * .
+   */
+  @Test
+  public void testOnRequestIfVersionDiffers_Flows() throws Exception {
+
+    /*
+     * setting
+     */
+    FlowShards flowShards = new FlowShards(new FlowSet(), 4);
+    Whitebox.setInternalState(target, "flowShards", flowShards);
+    target.putFlow("FlowId", new BasicFlow());
+    String version = flowShards.getVersion();
+
+    /*
+     * test
+     */
+    Response result = target.onRequest(new Request("objectId", Request.Method.GET,
+        "flows?" + Request.IF_VERSION_DIFFERS + "=" + version, "txid", null));
+
+    /*
+     * check
+     */
+    assertThat(result.statusCode, is(Response.NOT_MODIFIED));
+    verify(target, never()).getFlows(anyBoolean(), anyString());
+
+    result = target.onRequest(new Request("objectId", Request.Method.GET,
+        "flows/FlowId?" + Request.IF_VERSION_DIFFERS + "="
+        + flowShards.getFlowVersion("FlowId"), "txid", null));
+    assertThat(result.statusCode, is(Response.NOT_MODIFIED));
+
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.Network#getChanges(boolean, java.lang.String)}
+   * .
+   */
+  @Test
+  public void testGetChanges() throws Exception {
+
+    /*
+     * setting
+     */
+    Response result = target.getChanges(false, null);
+    NetworkChanges changes = result.getBody(NetworkChanges.class);
+    assertThat(changes.getChanges().size(), is(0));
+
+    target.putNode("NodeId", new Node());
+    target.putPort("NodeId", "PortId", new Port());
+    target.deleteNode("NodeId", null);
+
+    /*
+     * test
+     */
+    result = target.getChanges(true, "since=" + changes.getVersion());
+
+    /*
+     * check
+     */
+    assertThat(result.statusCode, is(Response.OK));
+    changes = result.getBody(NetworkChanges.class);
+    List<NetworkChanges.Change> list = changes.getChanges();
+    assertThat(list.get(0).getType(), is("node"));
+    assertThat(list.get(0).getAction(), is("add"));
+    assertThat(list.get(0).getVersion(), is(notNullValue()));
+    // the node is also updated by the port if verbose.
+    assertThat(list.get(2).getType(), is("port"));
+    assertThat(list.get(2).getId(), is("PortId"));
+    assertThat(list.get(2).getNode(), is("NodeId"));
+    NetworkChanges.Change last = list.get(list.size() - 1);
+    assertThat(last.getType(), is("node"));
+    assertThat(last.getAction(), is("delete"));
+    assertThat(last.getVersion(), is(nullValue()));
+
+    result = target.getChanges(true, "since=" + changes.getVersion());
+    assertThat(result.getBody(NetworkChanges.class).getChanges().size(), is(0));
+
+    result = target.getChanges(true, "since=unknown:0");
+    assertThat(result.statusCode, is(Response.CONFLICT));
+
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.Network#startReplica(org.o3project.odenos.core.component.NetworkInterface, long)}
+   * .
+   */
+  @Test(timeout = 10000)
+  public void testStartReplica() throws Exception {
+
+    /*
+     * setting
+     */
+    final Network primary = new Network("primary", dispatcher);
+    primary.putNode("NodeId", new Node());
+    doAnswer(new Answer<Response>() {
+      @Override
+      public Response answer(InvocationOnMock invocation) {
+        return primary.onRequest((Request) invocation.getArguments()[0]);
+      }
+    }).when(dispatcher).requestSync(any(Request.class), anyString());
+    target = new Network("replica", dispatcher);
+
+    /*
+     * test
+     */
+    target.startReplica(new NetworkInterface(dispatcher, "primary", "replica"), 60000);
+
+    /*
+     * check
+     */
+    Request get = new Request("replica", Method.GET, "topology/nodes/NodeId", "txid", null);
+    while (target.onRequest(get).statusCode != Response.OK) {
+      Thread.sleep(10);
+    }
+    String version = primary.getNode("NodeId").getBody(Node.class).getVersion();
+    assertThat(target.onRequest(get).getBody(Node.class).getVersion(), is(version));
+
+    primary.putNode("NodeId2", new Node());
+    get = new Request("replica", Method.GET, "topology/nodes/NodeId2", "txid", null);
+    while (target.onRequest(get).statusCode != Response.OK) {
+      Thread.sleep(10);
+    }
+
+    Response result = target.onRequest(new Request("replica", Method.PUT,
+        "topology/nodes/NodeId3", "txid", new Node()));
+    assertThat(result.statusCode, is(Response.FORBIDDEN));
+
+    target.onFinalize();
+
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.network.Network#getSuperType()}.
@@ -508,6 +714,49 @@ public class NetworkTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.Network#putTopology(Topology)}
+   * .
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testPutTopologyNotifiesDifferences() throws Exception {
+
+    /*
+     * setting
+     */
+    Node node1 = new Node("0", "node1");
+    node1.getPortMap().put("port1", new Port("0", "port1", "node1"));
+    Node node2 = new Node("0", "node2");
+    Map<String, Node> nodes = new HashMap<String, Node>();
+    nodes.put("node1", node1);
+    nodes.put("node2", node2);
+    target.putTopology(new Topology(nodes, new HashMap<String, Link>()));
+
+    node2.putAttribute(Node.OPER_STATUS, "DOWN");
+    Topology topology = new Topology("1", nodes, new HashMap<String, Link>());
+
+    /*
+     * test
+     */
+    Response result = target.putTopology(topology);
+
+    /*
+     * check
+     */
+    assertThat(result.statusCode, is(Response.OK));
+    Topology resultTopology = result.getBody(Topology.class);
+    assertThat(resultTopology.getVersion(), is("2"));
+    assertThat(resultTopology.getNode("node1").getVersion(), is("1"));
+    assertThat(resultTopology.getNode("node2").getVersion(), is("2"));
+
+    verify(target, times(3)).postEvent(eq(NodeChanged.TYPE), anyObject());
+    verify(target, times(1)).postEvent(eq(PortChanged.TYPE), anyObject());
+    verify(target, never()).postEvent(eq(TopologyChanged.TYPE), anyObject());
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.network.Network#postNode(Node)}
@@ -643,6 +892,50 @@ public class NetworkTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.Network#getNodes(boolean, java.lang.String)}
+   * .
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testGetNodesWithPage() throws Exception {
+
+    /*
+     * setting
+     */
+    target.putNode("NodeId1", new Node());
+    target.putNode("NodeId2", new Node());
+    target.putNode("NodeId3", new Node());
+
+    /*
+     * test
+     */
+    Response result = target.getNodes(true, "limit=2");
+    assertThat(result.statusCode, is(Response.OK));
+    Page<Node> page = Page.readFrom(result.getBodyValue(), Node.class);
+    assertThat(page.getItems().keySet().toArray(),
+        is(new Object[] {"NodeId1", "NodeId2"}));
+
+    result = target.getNodes(true, "limit=2&cursor=" + page.getNext());
+    assertThat(result.statusCode, is(Response.OK));
+    page = Page.readFrom(result.getBodyValue(), Node.class);
+    assertThat(page.getItems().keySet().toArray(),
+        is(new Object[] {"NodeId3"}));
+    assertThat(page.hasNext(), is(false));
+
+    /*
+     * check the cursor of a modified topology
+     */
+    result = target.getNodes(true, "limit=2");
+    String cursor = Page.readFrom(result.getBodyValue(), Node.class).getNext();
+    target.putNode("NodeId4", new Node());
+    result = target.getNodes(true, "limit=2&cursor=" + cursor);
+    assertThat(result.statusCode, is(Response.CONFLICT));
+
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.network.Network#getNodes(boolean, java.lang.String)}
@@ -2211,7 +2504,7 @@ public class NetworkTest {
 
     FlowSet flowSet = new FlowSet("1", priority, flows);
 
-    Whitebox.setInternalState(target, "flowset", flowSet);
+    Whitebox.setInternalState(target, "flowShards", new FlowShards(flowSet, 1));
 
     /*
      * test
@@ -2254,7 +2547,7 @@ public class NetworkTest {
 
     FlowSet flowSet = new FlowSet("1", priority, flows);
 
-    Whitebox.setInternalState(target, "flowset", flowSet);
+    Whitebox.setInternalState(target, "flowShards", new FlowShards(flowSet, 1));
 
     /*
      * test
@@ -3995,97 +4288,108 @@ public class NetworkTest {
   }
 
   /**
-   * Test method for {@link org.o3project.odenos.core.component.network.Network#notifyTopologyChanged(Topology, Topology, TopologyChanged.Action)}.
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#notifyFlowChanged(Flow, Flow, FlowChanged.Action)}.
    *
    * @throws Exception throws Exception in targets
    */
   @Test
-  public void testNotifyTopologyChanged() throws Exception {
+  public void testNotifyFlowChanged_DeltaOnly() throws Exception {
 
     /*
      * setting
      */
-    Topology prev = new Topology();
-    Topology curr = new Topology();
-    TopologyChanged.Action action = TopologyChanged.Action.add;
+    Flow prev = new BasicFlow("FlowId");
+    prev.setStatus("none");
+    Flow curr = prev.clone();
+    curr.setStatus("established");
+    doReturn(true).when(dispatcher).isEventSubscribed("ojectId", FlowChanged.DELTA_TYPE);
+    doReturn(false).when(dispatcher).isEventSubscribed("ojectId", FlowChanged.TYPE);
 
     /*
      * test
      */
-    Response result = Whitebox.invokeMethod(target,
-        "notifyTopologyChanged", prev, curr, action);
+    Response result = Whitebox.invokeMethod(target, "notifyFlowChanged",
+        prev, curr, FlowChanged.Action.update);
 
     /*
      * check
      */
-    verify(target).postEvent(eq("TopologyChanged"),
-        (TopologyChanged) anyObject());
-
+    verify(target, never()).postEvent(eq(FlowChanged.TYPE), anyObject());
+    verify(dispatcher).publishEventAsync((Event) anyObject());
     assertThat(result.statusCode, is(Response.ACCEPTED));
   }
 
   /**
-   * Test method for {@link org.o3project.odenos.core.component.network.Network#notifyTopologyChangedToAdd(Topology)}.
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#notifyNodeChanged(Node, Node, NodeChanged.Action)}.
    *
    * @throws Exception throws Exception in targets
    */
   @Test
-  public void testNotifyTopologyChangedToAdd() throws Exception {
+  public void testNotifyNodeChanged() throws Exception {
 
     /*
      * setting
      */
-    createPowerSpy();
-
-    Topology curr = new Topology();
+    Node prev = new Node("NodeIdPrev");
+    Node curr = new Node("NodeIdCurr");
+    NodeChanged.Action action = NodeChanged.Action.add;
 
     /*
      * test
      */
-    Response result = Whitebox.invokeMethod(target,
-        "notifyTopologyChangedToAdd", curr);
+    Response result = Whitebox.invokeMethod(target, "notifyNodeChanged",
+        prev, curr, action);
 
     /*
      * check
      */
-    PowerMockito.verifyPrivate(target).invoke("notifyTopologyChanged",
-        (Topology) null, curr,
-        TopologyChanged.Action.add);
+    verify(target).postEvent(eq("NodeChanged"), (NodeChanged) anyObject());
 
     assertThat(result.statusCode, is(Response.ACCEPTED));
 
   }
 
   /**
-   * Test method for {@link org.o3project.odenos.core.component.network.Network#notifyTopologyChangedToUpdate(Topology, Topology)}.
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#notifyNodeChanged(Node, Node, NodeChanged.Action)}.
    *
    * @throws Exception throws Exception in targets
    */
   @Test
-  public void testNotifyTopologyChangedToUpdate() throws Exception {
+  public void testNotifyNodeChanged_Coalesced() throws Exception {
 
     /*
      * setting
      */
-    createPowerSpy();
-
-    Topology prev = new Topology();
-    Topology curr = new Topology();
+    Node node = new Node("0", "NodeId");
+    Node updated = new Node("1", "NodeId");
+    target.putSettingCoalesceEventWindow("60000");
 
     /*
      * test
      */
-    Response result = Whitebox.invokeMethod(target,
-        "notifyTopologyChangedToUpdate", prev, curr);
+    Response result = Whitebox.invokeMethod(target, "notifyNodeChanged",
+        (Node) null, node, NodeChanged.Action.add);
+    Whitebox.invokeMethod(target, "notifyNodeChanged",
+        node, updated, NodeChanged.Action.update);
 
     /*
      * check
      */
-    PowerMockito.verifyPrivate(target).invoke("notifyTopologyChanged",
-        prev, curr, TopologyChanged.Action.update);
-
     assertThat(result.statusCode, is(Response.ACCEPTED));
+    verify(dispatcher, never()).publishEventAsync((Event) anyObject());
+
+    NetworkChangedCoalescer coalescer =
+        Whitebox.getInternalState(target, "coalescer");
+    coalescer.flush();
+
+    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    verify(dispatcher).publishEventAsync(captor.capture());
+    assertThat(captor.getValue().eventType, is(NodeChanged.TYPE));
+    NodeChanged msg = (NodeChanged) captor.getValue().getBody(NodeChanged.class);
+    assertThat(msg.action, is("add"));
+    assertThat(msg.curr, is(updated));
 
+    target.putSettingCoalesceEventWindow("0");
   }
 
   /**
@@ -4094,28 +4398,30 @@ public class NetworkTest {
    * @throws Exception throws Exception in targets
    */
   @Test
-  public void testNotifyNodeChanged() throws Exception {
+  public void testNotifyNodeChanged_CoalescedBatch() throws Exception {
 
     /*
      * setting
      */
-    Node prev = new Node("NodeIdPrev");
-    Node curr = new Node("NodeIdCurr");
-    NodeChanged.Action action = NodeChanged.Action.add;
+    doReturn(true).when(dispatcher).isEventSubscribed("ojectId", NodeChanged.BATCH_TYPE);
+    target.putSettingCoalesceEventWindow("60000");
 
     /*
      * test
      */
-    Response result = Whitebox.invokeMethod(target, "notifyNodeChanged",
-        prev, curr, action);
+    Whitebox.invokeMethod(target, "notifyNodeChanged",
+        (Node) null, new Node("NodeId1"), NodeChanged.Action.add);
+    Whitebox.invokeMethod(target, "notifyNodeChanged",
+        (Node) null, new Node("NodeId2"), NodeChanged.Action.add);
+    target.putSettingCoalesceEventWindow("0");
 
     /*
      * check
      */
-    verify(target).postEvent(eq("NodeChanged"), (NodeChanged) anyObject());
-
-    assertThat(result.statusCode, is(Response.ACCEPTED));
-
+    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    verify(dispatcher).publishEventAsync(captor.capture());
+    assertThat(captor.getValue().eventType, is(NodeChanged.BATCH_TYPE));
+    assertThat(((List<?>) captor.getValue().getBody(List.class)).size(), is(2));
   }
 
   /**
@@ -4237,6 +4543,321 @@ public class NetworkTest {
 
   }
 
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#postInPacket(Packet)}.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testPostInPacket_InlineOnly() throws Exception {
+
+    /*
+     * setting
+     */
+    doReturn(true).when(dispatcher).isEventSubscribed("ojectId", InPacketAdded.INLINE_TYPE);
+    doReturn(1).when(dispatcher).countEventSubscribers("ojectId", InPacketAdded.INLINE_TYPE);
+    PacketQueueSet queues = Whitebox.getInternalState(target, "packetQueue");
+
+    /*
+     * test
+     */
+    Response result = target.postInPacket(new InPacket());
+
+    /*
+     * check
+     */
+    assertThat(result.statusCode, is(Response.OK));
+    assertThat(queues.getInQueue().size(), is(0));
+    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    verify(dispatcher).publishEventAsync(captor.capture());
+    assertThat(captor.getValue().eventType, is(InPacketAdded.INLINE_TYPE));
+    InPacketAdded msg = captor.getValue().getBody(InPacketAdded.class);
+    assertThat(msg.isConsumed(), is(true));
+    assertThat(msg.getPacket().getPacketId(), is(msg.getId()));
+    verify(dispatcher, times(1)).countEventSubscribers(anyString(), anyString());
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#postInPacket(Packet)}.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testPostInPacket_InlineSubscribers() throws Exception {
+
+    /*
+     * setting
+     */
+    doReturn(true).when(dispatcher).isEventSubscribed("ojectId", InPacketAdded.INLINE_TYPE);
+    doReturn(2).when(dispatcher).countEventSubscribers("ojectId", InPacketAdded.INLINE_TYPE);
+    PacketQueueSet queues = Whitebox.getInternalState(target, "packetQueue");
+
+    /*
+     * test
+     */
+    Response result = target.postInPacket(new InPacket());
+
+    /*
+     * check
+     */
+    assertThat(result.statusCode, is(Response.OK));
+    // claimed by the first subscriber deleting it.
+    assertThat(queues.getInQueue().size(), is(1));
+    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    verify(dispatcher, times(2)).publishEventAsync(captor.capture());
+    assertThat(captor.getAllValues().get(0).eventType, is(InPacketAdded.INLINE_TYPE));
+    InPacketAdded msg = captor.getAllValues().get(0).getBody(InPacketAdded.class);
+    assertThat(msg.isConsumed(), is(false));
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#postInPacket(Packet)}.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testPostInPacket_InlineAndId() throws Exception {
+
+    /*
+     * setting
+     */
+    doReturn(true).when(dispatcher).isEventSubscribed("ojectId", InPacketAdded.INLINE_TYPE);
+    doReturn(true).when(dispatcher).isEventSubscribed("ojectId", InPacketAdded.TYPE);
+    PacketQueueSet queues = Whitebox.getInternalState(target, "packetQueue");
+
+    /*
+     * test
+     */
+    Response result = target.postInPacket(new InPacket());
+
+    /*
+     * check
+     */
+    assertThat(result.statusCode, is(Response.OK));
+    assertThat(queues.getInQueue().size(), is(1));
+    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    verify(dispatcher, times(2)).publishEventAsync(captor.capture());
+    assertThat(captor.getAllValues().get(0).eventType, is(InPacketAdded.INLINE_TYPE));
+    InPacketAdded msg = captor.getAllValues().get(0).getBody(InPacketAdded.class);
+    assertThat(msg.isConsumed(), is(false));
+    assertThat(captor.getAllValues().get(1).eventType, is(InPacketAdded.TYPE));
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#onInitialize(ObjectProperty)}.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testOnInitialize_Recover() throws Exception {
+
+    /*
+     * setting
+     */
+    ObjectProperty prop = new ObjectProperty("Network", "ojectId");
+    prop.setProperty(Network.PROPERTY_KEY_PERSISTENCE_DIR, folder.getRoot().getPath());
+    Network network = new Network("ojectId", dispatcher);
+    assertThat(network.onInitialize(prop), is(true));
+
+    Response nodeRes = network.onRequest(new Request("ojectId", Method.POST,
+        "topology/nodes", "txid", new Node("NodeId")));
+    String nodeId = nodeRes.getBody(Node.class).getId();
+    network.onRequest(new Request("ojectId", Method.PUT,
+        "topology/nodes/" + nodeId + "/ports/PortId", "txid", new Port("PortId")));
+    Flow flow = new BasicFlow("FlowId", "Owner", true, "Priority");
+    Response flowRes = network.onRequest(new Request("ojectId", Method.POST,
+        "flows", "txid", flow));
+    String flowId = flowRes.getBody(Flow.class).getFlowId();
+    network.onRequest(new Request("ojectId", Method.GET,
+        "topology/nodes", "txid", null));
+    Mockito.reset(dispatcher);
+
+    /*
+     * test
+     */
+    // restarts without finalizing.
+    Network restarted = new Network("ojectId", dispatcher);
+    boolean result = restarted.onInitialize(prop);
+
+    /*
+     * check
+     */
+    assertThat(result, is(true));
+    Response node = restarted.getNode(nodeId);
+    assertThat(node.statusCode, is(Response.OK));
+    assertThat(node.getBody(Node.class).getPort("PortId"), is(notNullValue()));
+    assertThat(node.getBody(Node.class).getVersion(),
+        is(network.getNode(nodeId).getBody(Node.class).getVersion()));
+    assertThat(restarted.getFlow(flowId).statusCode, is(Response.OK));
+    verify(dispatcher, never()).publishEventAsync((Event) anyObject());
+
+    // recovers from the snapshot taken on the recovery.
+    Network restarted2 = new Network("ojectId", dispatcher);
+    assertThat(restarted2.onInitialize(prop), is(true));
+    assertThat(restarted2.getFlow(flowId).statusCode, is(Response.OK));
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#onInitialize(ObjectProperty)}.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testOnInitialize_FlowShards() throws Exception {
+
+    /*
+     * setting
+     */
+    ObjectProperty prop = new ObjectProperty("Network", "ojectId");
+    prop.setProperty(Network.PROPERTY_KEY_PERSISTENCE_DIR, folder.getRoot().getPath());
+    prop.setProperty(Network.PROPERTY_KEY_FLOW_SHARDS, "4");
+    Network network = new Network("ojectId", dispatcher);
+
+    /*
+     * test
+     */
+    assertThat(network.onInitialize(prop), is(true));
+    for (int i = 0; i < 8; i++) {
+      Response res = network.onRequest(new Request("ojectId", Method.PUT,
+          "flows/flow" + i, "txid", new BasicFlow("flow" + i, "Owner", true, "1")));
+      assertThat(res.statusCode, is(Response.CREATED));
+    }
+    network.onRequest(new Request("ojectId", Method.DELETE,
+        "flows/flow0", "txid", null));
+
+    /*
+     * check
+     */
+    Response flows = network.onRequest(new Request("ojectId", Method.GET,
+        "flows", "txid", null));
+    assertThat(flows.getBody(FlowSet.class).getFlows().size(), is(7));
+    assertThat(network.getFlow("flow1").getBody(Flow.class).getFlowId(), is("flow1"));
+
+    // recovers into the shards.
+    Network restarted = new Network("ojectId", dispatcher);
+    assertThat(restarted.onInitialize(prop), is(true));
+    assertThat(restarted.getFlow("flow0").statusCode, is(Response.NOT_FOUND));
+    assertThat(restarted.getFlow("flow7").statusCode, is(Response.OK));
+
+    prop.setProperty(Network.PROPERTY_KEY_FLOW_SHARDS, "0");
+    assertThat(new Network("ojectId", dispatcher).onInitialize(prop), is(false));
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#onRequest(Request)}.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test(timeout = 10000)
+  public void testOnRequest_SnapshotOfFlowShards() throws Exception {
+
+    /*
+     * setting
+     */
+    ObjectProperty prop = new ObjectProperty("Network", "ojectId");
+    prop.setProperty(Network.PROPERTY_KEY_PERSISTENCE_DIR, folder.getRoot().getPath());
+    prop.setProperty(Network.PROPERTY_KEY_FLOW_SHARDS, "4");
+    Network network = new Network("ojectId", dispatcher);
+    assertThat(network.onInitialize(prop), is(true));
+    Object store = Whitebox.getInternalState(network, "store");
+    long generation = Whitebox.getInternalState(store, "generation");
+    Whitebox.setInternalState(store, "snapshotInterval", 2);
+
+    /*
+     * test
+     */
+    // only the shards are modified.
+    for (int i = 0; i < 2; i++) {
+      network.onRequest(new Request("ojectId", Method.PUT,
+          "flows/flow" + i, "txid", new BasicFlow("flow" + i, "Owner", true, "1")));
+    }
+
+    /*
+     * check
+     */
+    while ((Long) Whitebox.getInternalState(store, "generation") == generation) {
+      Thread.sleep(10);
+    }
+    Network restarted = new Network("ojectId", dispatcher);
+    assertThat(restarted.onInitialize(prop), is(true));
+    assertThat(restarted.getFlow("flow1").statusCode, is(Response.OK));
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#expireFlows(List)}.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test(timeout = 10000)
+  public void testExpireFlows() throws Exception {
+
+    /*
+     * setting
+     */
+    Network network = new Network("ojectId", dispatcher);
+    OFPFlow flow = new OFPFlow("FlowId");
+    flow.setHardTimeout(1);
+    network.onRequest(new Request("ojectId", Method.PUT, "flows/FlowId", "txid", flow));
+    network.onRequest(new Request("ojectId", Method.PUT, "flows/Permanent", "txid",
+        new OFPFlow("Permanent")));
+
+    /*
+     * test
+     */
+    network.getSettings().setSetting("flow_expiry/tick", "10");
+
+    /*
+     * check
+     */
+    while (network.getFlow("FlowId").statusCode != Response.NOT_FOUND) {
+      Thread.sleep(10);
+    }
+    network.onFinalize();
+    assertThat(network.getFlow("Permanent").statusCode, is(Response.OK));
+    ArgumentCaptor<Event> captor = ArgumentCaptor.forClass(Event.class);
+    verify(dispatcher, atLeastOnce()).publishEventAsync(captor.capture());
+    List<FlowChanged> flowChanges = new ArrayList<>();
+    for (Event event : captor.getAllValues()) {
+      if (event.eventType.equals(FlowChanged.TYPE)) {
+        flowChanges.add(event.getBody(FlowChanged.class));
+      }
+    }
+    assertThat(flowChanges.size(), is(3));
+    FlowChanged deleted = flowChanges.get(2);
+    assertThat(deleted.action, is(FlowChanged.Action.delete.name()));
+    assertThat(deleted.prev.getFlowId(), is("FlowId"));
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.Network#getPartitionOnRequest(Request)}.
+   */
+  @Test
+  public void testGetPartitionOnRequest() {
+    Network network = new Network("ojectId", dispatcher);
+    Request put = new Request("ojectId", Method.PUT, "flows/flow1", "txid", null);
+    assertThat(network.getRequestPartition(put), is(-1));
+
+    ObjectProperty prop = new ObjectProperty("Network", "ojectId");
+    prop.setProperty(Network.PROPERTY_KEY_FLOW_SHARDS, "4");
+    assertThat(network.onInitialize(prop), is(true));
+
+    int partition = ("flow1".hashCode() & Integer.MAX_VALUE) % 4;
+    assertThat(network.getRequestPartition(put), is(partition));
+    assertThat(network.getRequestPartition(new Request("ojectId", Method.PUT,
+        "flows/flow1/attributes", "txid", null)), is(partition));
+    assertThat(network.getRequestPartition(new Request("ojectId", Method.DELETE,
+        "flows/flow1", "txid", null)), is(partition));
+    // in order with the PUT and DELETE of the flow.
+    assertThat(network.getRequestPartition(new Request("ojectId", Method.GET,
+        "flows/flow1", "txid", null)), is(partition));
+    assertThat(network.getRequestPartition(new Request("ojectId", Method.GET,
+        "flows", "txid", null)), is(-1));
+    assertThat(network.getRequestPartition(new Request("ojectId", Method.POST,
+        "flows", "txid", null)), is(-1));
+    assertThat(network.getRequestPartition(new Request("ojectId", Method.PUT,
+        "topology/nodes/flow1", "txid", null)), is(-1));
+  }
+
   /**
    * Test method for {@link org.o3project.odenos.core.component.network.Network#notifyOutPacketAdded(Packet)}.
    *
@@ -4342,7 +4963,7 @@ public class NetworkTest {
     Port port2 = new Port("1", "PortId2", "NodeId2", "OutLink2", "Inlink2",
         attributes2);
     Map<String, Port> ports2 = new HashMap<>();
-    ports1.put("PortId2", port2);
+    ports2.put("PortId2", port2);
     Node node2 = new Node("1", "NodeId2", ports2,
         new HashMap<String, String>());
     nodes.put("NodeId2", node2);
@@ -4352,7 +4973,7 @@ public class NetworkTest {
     Port port3 = new Port("1", "PortId2", "NodeId2", "OutLink2", "Inlink2",
         attributes2);
     Map<String, Port> ports3 = new HashMap<>();
-    ports1.put("PortId3", port3);
+    ports3.put("PortId3", port3);
     Node node3 = new Node("1", "NodeId3", ports3,
         new HashMap<String, String>());
     nodes.put("NodeId3", node3);
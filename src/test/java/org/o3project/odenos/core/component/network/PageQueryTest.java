@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Test class for PageQuery.
+ */
+public class PageQueryTest {
+
+  @Test
+  public void testParse() {
+    PageQuery target = new PageQuery("limit=10&cursor=3:n1&attributes=a=b");
+
+    assertTrue(target.parse());
+    assertTrue(target.isPaged());
+    assertThat(target.getLimit(), is(10));
+    assertThat(target.getCursor(), is("3:n1"));
+    assertThat(target.getRemainingQueries(), is("attributes=a=b"));
+  }
+
+  @Test
+  public void testParse_EncodedCursor() {
+    PageQuery target = new PageQuery("limit=10&cursor=3%3Aa%26b%3Dc");
+
+    assertTrue(target.parse());
+    assertThat(target.getCursor(), is("3:a&b=c"));
+    assertThat(target.getRemainingQueries(), is(nullValue()));
+  }
+
+  @Test
+  public void testParse_NotPaged() {
+    PageQuery target = new PageQuery("attributes=a=b");
+
+    assertTrue(target.parse());
+    assertFalse(target.isPaged());
+    assertThat(target.getCursor(), is(nullValue()));
+    assertThat(target.getRemainingQueries(), is("attributes=a=b"));
+  }
+
+  @Test
+  public void testParse_NoRemainingQueries() {
+    PageQuery target = new PageQuery("limit=1");
+
+    assertTrue(target.parse());
+    assertThat(target.getRemainingQueries(), is(nullValue()));
+  }
+
+  @Test
+  public void testParse_Invalid() {
+    assertFalse(new PageQuery("limit=0").parse());
+    assertFalse(new PageQuery("limit=x").parse());
+    // a cursor without limit.
+    assertFalse(new PageQuery("cursor=3:n1").parse());
+    assertFalse(new PageQuery("limit=1&cursor=n1").parse());
+    assertFalse(new PageQuery("limit=1&cursor=3:%zz").parse());
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.msgpack.MessagePack;
+import org.msgpack.type.Value;
+import org.o3project.odenos.core.component.network.flow.Flow;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlow;
+import org.o3project.odenos.core.component.network.topology.Node;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Test class for Page.
+ */
+public class PageTest {
+
+  private Map<String, Node> createNodes(int size) {
+    Map<String, Node> nodes = new HashMap<String, Node>();
+    for (int i = 0; i < size; i++) {
+      String nodeId = String.format("n%02d", i);
+      nodes.put(nodeId, new Node(nodeId));
+    }
+    return nodes;
+  }
+
+  @Test
+  public void testCreate() {
+    Map<String, Node> nodes = createNodes(5);
+
+    Page<Node> first = Page.create(nodes, 2, null, "7");
+    assertThat(first.getItems().keySet().toArray(),
+        is(new Object[] {"n00", "n01"}));
+    assertThat(first.getNext(), is("7:n01"));
+
+    Page<Node> second = Page.create(nodes, 2, first.getNext(), "7");
+    assertThat(second.getItems().keySet().toArray(),
+        is(new Object[] {"n02", "n03"}));
+
+    Page<Node> last = Page.create(nodes, 2, second.getNext(), "7");
+    assertThat(last.getItems().keySet().toArray(), is(new Object[] {"n04"}));
+    assertFalse(last.hasNext());
+  }
+
+  @Test
+  public void testCreate_ExactlyLimit() {
+    Page<Node> page = Page.create(createNodes(2), 2, null, "1");
+
+    assertThat(page.getItems().size(), is(2));
+    assertThat(page.getNext(), is(nullValue()));
+  }
+
+  @Test
+  public void testGetCursorVersion() {
+    assertThat(Page.getCursorVersion("12:a:b"), is("12"));
+    assertThat(Page.getCursorVersion("ab"), is(nullValue()));
+  }
+
+  @Test
+  public void testWriteRead() throws Exception {
+    MessagePack msgpack = new MessagePack();
+    Page<Node> page = Page.create(createNodes(3), 2, null, "1");
+
+    Value value = msgpack.read(msgpack.write(page));
+    Page<Node> result = Page.readFrom(value, Node.class);
+
+    assertThat(result.getItems().keySet().toArray(),
+        is(new Object[] {"n00", "n01"}));
+    assertThat(result.getItems().get("n00").getId(), is("n00"));
+    assertThat(result.getNext(), is("1:n01"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testWriteReadValues() throws Exception {
+    MessagePack msgpack = new MessagePack();
+    Page<Node> page = Page.create(createNodes(3), 2, null, "1");
+
+    Page<Value> result = msgpack.read(msgpack.write(page), Page.class);
+
+    assertThat(result.getItems().keySet().toArray(),
+        is(new Object[] {"n00", "n01"}));
+    assertThat(msgpack.convert(result.getItems().get("n01"), Node.class).getId(),
+        is("n01"));
+    assertThat(result.getNext(), is("1:n01"));
+  }
+
+  @Test
+  public void testWriteRead_Flow() throws Exception {
+    MessagePack msgpack = new MessagePack();
+    Map<String, Flow> flows = new HashMap<String, Flow>();
+    flows.put("f1", new BasicFlow("f1"));
+    Page<Flow> page = Page.create(flows, 2, null, "1");
+
+    Value value = msgpack.read(msgpack.write(page));
+    Page<Flow> result = Page.readFrom(value, Flow.class);
+
+    assertTrue(result.getItems().get("f1") instanceof BasicFlow);
+    assertFalse(result.hasNext());
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network.flow;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.odenos.core.component.network.flow.FlowObject.FlowStatus;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlow;
+import org.o3project.odenos.core.component.network.flow.basic.BasicFlowMatch;
+import org.o3project.odenos.core.component.network.flow.basic.FlowActionOutput;
+import org.o3project.odenos.core.component.network.flow.query.FlowQuery;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Test class for FlowIndex.
+ */
+public class FlowIndexTest {
+
+  private FlowIndex target;
+
+  private static Set<String> set(String... keys) {
+    return new HashSet<String>(Arrays.asList(keys));
+  }
+
+  private static BasicFlow flow(String flowId, String owner, String status,
+      String inNode, String inPort, String outNode) {
+    BasicFlow flow = new BasicFlow(flowId, owner, true, "256");
+    flow.setStatus(status);
+    if (inNode != null) {
+      flow.addMatch(new BasicFlowMatch(inNode, inPort));
+    }
+    if (outNode != null) {
+      flow.addEdgeAction(outNode, new FlowActionOutput("port9"));
+    }
+    return flow;
+  }
+
+  private static FlowQuery query(String queriesString) {
+    FlowQuery query = FlowQueryFactory.create(queriesString);
+    assertTrue(query.parse());
+    return query;
+  }
+
+  @Before
+  public void setUp() {
+    target = new FlowIndex();
+    target.put(flow("f1", "LSW", "established", "n1", "p1", "n2"));
+    target.put(flow("f2", "LSW", "none", "n1", "p2", "n3"));
+    target.put(flow("f3", "other", "none", "n2", "p1", "n3"));
+    target.put(flow("f4", "other", "none", null, null, null));
+  }
+
+  @Test
+  public void testGet() {
+    assertThat(target.get(FlowIndex.OWNER, "LSW"), is(set("f1", "f2")));
+    assertThat(target.get(FlowIndex.STATUS, FlowStatus.NONE.name()),
+        is(set("f2", "f3", "f4")));
+    assertThat(target.get(FlowIndex.IN_NODE, "n1"), is(set("f1", "f2")));
+    assertThat(target.get(FlowIndex.OUT_NODE, "n3"), is(set("f2", "f3")));
+    assertTrue(target.get(FlowIndex.OWNER, "unknown").isEmpty());
+  }
+
+  @Test
+  public void testPutAgainAndRemove() {
+    BasicFlow flow = flow("f2", "other", "none", "n2", "p2", null);
+    target.put(flow);
+    target.remove("f3");
+
+    assertThat(target.get(FlowIndex.OWNER, "LSW"), is(set("f1")));
+    assertThat(target.get(FlowIndex.IN_NODE, "n2"), is(set("f2")));
+    assertTrue(target.get(FlowIndex.OUT_NODE, "n3").isEmpty());
+  }
+
+  @Test
+  public void testGetCandidates() {
+    assertThat(target.getCandidates(query("type=BasicFlow&owner=LSW&status=none")),
+        is(set("f1", "f2")));
+    assertThat(target.getCandidates(query("type=BasicFlow&status=established")),
+        is(set("f1")));
+    // flows without match conditions satisfy any match query.
+    assertThat(target.getCandidates(
+        query("type=BasicFlow&match=type=BasicFlowMatch,in_node=n1,in_port=p2")),
+        is(set("f2", "f4")));
+    assertThat(target.getCandidates(
+        query("type=BasicFlow&actions=type=FlowActionOutput,edge_node=n2")),
+        is(set("f1")));
+    assertNull(target.getCandidates(query("type=BasicFlow&attributes=a=b")));
+  }
+}
@@ -18,6 +18,7 @@ package org.o3project.odenos.core.component.network.flow;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import org.junit.After;
@@ -25,7 +26,9 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.o3project.odenos.core.component.network.flow.ofpflow.OFPFlowMatch;
 import org.o3project.odenos.core.component.network.flow.query.BasicFlowMatchQuery;
+import org.o3project.odenos.core.component.network.flow.query.OFPFlowMatchQuery;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -161,4 +164,50 @@ public class FlowMatchQueryFactoryTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.flow.FlowMatchQueryFactory#parse(java.lang.String)}
+   * .
+   */
+  @Test
+  public void testParse() {
+
+    /*
+     * test
+     */
+    BasicFlowMatchQuery result = FlowMatchQueryFactory.parse(
+        "type=OFPFlowMatch,in_node=Node1,eth_type=2048,ipv4_dst=10.0.0.1");
+
+    /*
+     * check
+     */
+    assertThat(result, is(OFPFlowMatchQuery.class));
+    assertThat(result.getInNode(), is("Node1"));
+    assertThat(FlowMatchQueryFactory.parse(
+        "type=OFPFlowMatch,in_node=Node1,eth_type=2048,ipv4_dst=10.0.0.1"),
+        is(sameInstance(result)));
+
+    OFPFlowMatch match = new OFPFlowMatch("Node1", "Port1");
+    match.setEthType(2048);
+    match.setIpv4Dst("10.0.0.1");
+    assertThat(result.matchExactly(match), is(true));
+    match.setEthType(2054);
+    assertThat(result.matchExactly(match), is(false));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.flow.FlowMatchQueryFactory#parse(java.lang.String)}
+   * .
+   */
+  @Test
+  public void testParse_Invalid() {
+
+    assertThat(FlowMatchQueryFactory.parse("in_node=Node1"), is(nullValue()));
+    assertThat(FlowMatchQueryFactory.parse("type=OFPFlowMatch,eth_type=x"),
+        is(nullValue()));
+    assertThat(FlowMatchQueryFactory.parse("type=OFPFlowMatch,unknown=1"),
+        is(nullValue()));
+  }
+
 }
@@ -16,10 +16,12 @@
 
 package org.o3project.odenos.core.component.network.flow;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.times;
@@ -49,8 +51,10 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -165,14 +169,14 @@ public class FlowSetTest {
     /*
      * check
      */
-    verify(priority, times(1)).clear();
     verify(flows, times(1)).clear();
 
     assertThat(result, is(true));
 
-    assertThat(priority.size(), is(2));
-    assertThat(priority.containsKey("FlowId1"), is(true));
-    assertThat(priority.containsKey("FlowId2"), is(true));
+    // the priorities given to the constructor are copied.
+    assertThat(target.priority.size(), is(2));
+    assertThat(target.priority.containsKey("FlowId1"), is(true));
+    assertThat(target.priority.containsKey("FlowId2"), is(true));
 
     assertThat(flows.size(), is(2));
     assertThat(flows.containsKey("FlowId1"), is(true));
@@ -275,6 +279,25 @@ public class FlowSetTest {
     assertThat(target.priority.size(), is(2));
     assertThat(target.flows, is(notNullValue()));
     assertThat(target.flows.size(), is(4));
+
+    // the map of the caller is left as it is.
+    assertThat(target.priority, is(not(sameInstance(priority))));
+    assertThat(priority.get("Priority1"), is(instanceOf(ArrayList.class)));
+    target.priority.get("Priority1").add("FlowId5");
+    assertThat(priority.get("Priority1").size(), is(2));
+  }
+
+  /**
+   * Test method for add of a list of flow IDs of a priority.
+   */
+  @Test
+  public void testFlowIdListAdd() {
+    List<String> target = new FlowSet.FlowIdList(Arrays.asList("FlowId1", "FlowId1"));
+
+    assertThat(target.size(), is(1));
+    assertThat(target.add("FlowId2"), is(true));
+    assertThat(target.add("FlowId1"), is(false));
+    assertThat(target, is(Arrays.asList("FlowId1", "FlowId2")));
   }
 
   /**
@@ -991,6 +1014,46 @@ public class FlowSetTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.flow.FlowSet#getFlowMessages(org.o3project.odenos.core.component.network.flow.query.FlowQuery)}
+   * .
+   */
+  @Test
+  public void testGetFlowMessages_Indexed() {
+
+    /*
+     * setting
+     */
+    BasicFlow flow1 = new BasicFlow("FlowId1", "Owner1", true, "256");
+    flow1.addMatch(new BasicFlowMatch("Node1", "Port1"));
+    BasicFlow flow2 = new BasicFlow("FlowId2", "Owner2", true, "256");
+    flow2.addMatch(new BasicFlowMatch("Node2", "Port1"));
+    BasicFlow flow3 = new BasicFlow("FlowId3", "Owner1", true, "256");
+    flow3.addMatch(new BasicFlowMatch("Node2", "Port2"));
+
+    target.createFlow("FlowId1", flow1, "1");
+    target.createFlow("FlowId2", flow2, "1");
+    target.createFlow("FlowId3", flow3, "1");
+    target.deleteFlow("FlowId2");
+
+    FlowQuery query = FlowQueryFactory.create(
+        "type=BasicFlow&owner=Owner1&match=type=BasicFlowMatch,in_node=Node2");
+    query.parse();
+
+    /*
+     * test
+     */
+    FlowSet result = target.getFlowMessages(query);
+
+    /*
+     * check
+     */
+    assertThat(result.getFlows().keySet(),
+        is((Set<String>) new HashSet<String>(Arrays.asList("FlowId3"))));
+    assertThat(result.priority.get("256"), is(Arrays.asList("FlowId3")));
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.network.flow.FlowSet#getFlowMessages(org.o3project.odenos.core.component.network.flow.query.FlowQuery)}
@@ -1026,7 +1089,7 @@ public class FlowSetTest {
     priority.put("Flow2", new ArrayList<>(Arrays.asList("FlowId2")));
     priority.put("Flow3", new ArrayList<>(Arrays.asList("FlowId3")));
 
-    Whitebox.setInternalState(target, "priority", priority);
+    target = new FlowSet("1", priority, new HashMap<String, Flow>());
 
     /*
      * test
@@ -1040,6 +1103,40 @@ public class FlowSetTest {
 
   }
 
+  /**
+   * Test method for {@link org.o3project.odenos.core.component.network.flow.FlowSet#getPriority(String)}.
+   * @throws Exception throws Exception in targets
+   *
+   */
+  @Test
+  public void testGetPriority_Moved() throws Exception {
+
+    /*
+     * setting
+     */
+    target.createFlow(FlowType.BASIC_FLOW, "100", "FlowId1");
+    target.createFlow(FlowType.BASIC_FLOW, "100", "FlowId2");
+    BasicFlow flow = new BasicFlow("FlowId1", "Owner", true, "200");
+
+    /*
+     * test
+     */
+    target.createFlow("FlowId1", flow, "1");
+
+    /*
+     * check
+     */
+    String result = Whitebox.invokeMethod(target, "getPriority", "FlowId1");
+    assertThat(result, is("200"));
+    assertThat(target.priority.get("100"), is((List<String>) Arrays.asList("FlowId2")));
+    assertThat(target.priority.get("200"), is((List<String>) Arrays.asList("FlowId1")));
+
+    target.deleteFlow("FlowId1");
+    assertThat(target.priority.get("200").isEmpty(), is(true));
+    result = Whitebox.invokeMethod(target, "getPriority", "FlowId1");
+    assertThat(result, is(nullValue()));
+  }
+
   /**
    * Test method for {@link org.o3project.odenos.core.component.network.flow.FlowSet#toString()}.
    * @throws Exception throws Exception in targets
@@ -19,6 +19,7 @@ package org.o3project.odenos.core.component.network.packet;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.After;
 import org.junit.AfterClass;
@@ -26,6 +27,7 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.msgpack.MessagePack;
 
 /**
  * Test class for InPacketAdded.
@@ -106,4 +108,45 @@ public class InPacketAddedTest {
     assertThat(result.packetId, is(nullValue()));
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.InPacketAdded#writeTo(org.msgpack.packer.Packer)}
+   * and readFrom with the packet inline.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testWriteReadInline() throws Exception {
+    InPacket packet = new InPacket("0000000001", "NodeId", "PortId",
+        new byte[] {1, 2}, null);
+    target = new InPacketAdded(packet, true);
+
+    MessagePack msgpack = new MessagePack();
+    byte[] bytes = msgpack.write(target);
+    InPacketAdded result = msgpack.read(bytes, InPacketAdded.class);
+
+    assertThat(result.getId(), is("0000000001"));
+    assertTrue(result.isConsumed());
+    assertThat(result.getPacket().getNodeId(), is("NodeId"));
+    assertThat(result.getPacket().getData(), is(new byte[] {1, 2}));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.InPacketAdded#readFrom(org.msgpack.unpacker.Unpacker)}
+   * with the ID-only form.
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testReadIdOnly() throws Exception {
+    MessagePack msgpack = new MessagePack();
+    byte[] bytes = msgpack.write(new InPacketAdded(new InPacket(
+        "0000000002", "NodeId", "PortId", null, null)));
+    InPacketAdded result = msgpack.read(bytes, InPacketAdded.class);
+
+    assertThat(result.getId(), is("0000000002"));
+    assertThat(result.getPacket(), is(nullValue()));
+  }
+
 }
@@ -18,6 +18,7 @@ package org.o3project.odenos.core.component.network.packet;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
@@ -678,6 +679,7 @@ public class InPacketTest {
      * check
      */
     assertThat(result, is(true));
+    assertThat(map.get("data").asRawValue().getByteArray(), is(sameInstance(data)));
 
   }
 
@@ -32,7 +32,6 @@ import org.powermock.reflect.Whitebox;
 import org.powermock.reflect.internal.WhiteboxImpl;
 
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -88,11 +87,8 @@ public class PacketQueueTest {
     /*
      * check
      */
-    LinkedList<Packet> packets = WhiteboxImpl.getInternalState(target, "packets");
-    Map<String, Packet> packetDict = WhiteboxImpl.getInternalState(target, "packetDict");
 
-    assertThat(packets.size(), is(0));
-    assertThat(packetDict.size(), is(0));
+    assertThat(target.size(), is(0));
 
     long packetCount = WhiteboxImpl.getInternalState(target, "packetCount");
     assertThat(packetCount, is(0L));
@@ -130,11 +126,8 @@ public class PacketQueueTest {
     assertThat(packet1.getPacketId(), is("0000000001"));
     assertThat(packet2.getPacketId(), is("0000000002"));
 
-    LinkedList<Packet> packets = WhiteboxImpl.getInternalState(target, "packets");
-    assertThat(packets.size(), is(3));
+    assertThat(target.size(), is(3));
 
-    Map<String, Packet> packetDict = WhiteboxImpl.getInternalState(target, "packetDict");
-    assertThat(packetDict.size(), is(3));
 
     long packetCount = WhiteboxImpl.getInternalState(target, "packetCount");
     assertThat(packetCount, is(3L));
@@ -158,12 +151,9 @@ public class PacketQueueTest {
     /*
      * check
      */
-    LinkedList<Packet> packets = WhiteboxImpl.getInternalState(target, "packets");
-    Map<String, Packet> packetDict = WhiteboxImpl.getInternalState(target, "packetDict");
 
     assertThat(packet, is(nullValue()));
-    assertThat(packets.size(), is(0));
-    assertThat(packetDict.size(), is(0));
+    assertThat(target.size(), is(0));
 
     long packetCount = WhiteboxImpl.getInternalState(target, "packetCount");
     assertThat(packetCount, is(0L));
@@ -369,11 +359,8 @@ public class PacketQueueTest {
     /*
      * check
      */
-    LinkedList<Packet> packets = WhiteboxImpl.getInternalState(target, "packets");
-    Map<String, Packet> packetDict = WhiteboxImpl.getInternalState(target, "packetDict");
 
-    assertThat(packets.size(), is(0));
-    assertThat(packetDict.size(), is(0));
+    assertThat(target.size(), is(0));
 
     long packetCount = WhiteboxImpl.getInternalState(target, "packetCount");
     assertThat(packetCount, is(3L));
@@ -490,9 +477,8 @@ public class PacketQueueTest {
     /*
      * check
      */
-    LinkedList<Packet> packets = WhiteboxImpl.getInternalState(target, "packets");
     assertThat(query.matchExactly(packet), is(true));
-    assertThat(packets.size(), is(1));
+    assertThat(target.size(), is(1));
     assertThat(result.size(), is(1));
   }
 
@@ -528,9 +514,8 @@ public class PacketQueueTest {
     /*
      * check
      */
-    LinkedList<Packet> packets = WhiteboxImpl.getInternalState(target, "packets");
     assertThat(query.matchExactly(packet), is(false));
-    assertThat(packets.size(), is(1));
+    assertThat(target.size(), is(1));
     assertThat(result.size(), is(0));
   }
 
@@ -570,30 +555,227 @@ public class PacketQueueTest {
 
   /**
    * Test method for
-   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#getUniquePacketId()}
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#formatPacketId(long)}
    * .
    */
   @Test
-  public final void testGetUniquePacketId() throws Exception {
+  public final void testFormatPacketId() {
+    assertThat(PacketQueue.formatPacketId(0), is("0000000000"));
+    assertThat(PacketQueue.formatPacketId(12), is("0000000012"));
+    assertThat(PacketQueue.formatPacketId(12345678901L), is("12345678901"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#parsePacketId(String)}
+   * .
+   */
+  @Test
+  public final void testParsePacketId() {
+    assertThat(PacketQueue.parsePacketId("0000000012"), is(12L));
+    assertThat(PacketQueue.parsePacketId("12345678901"), is(12345678901L));
+    assertThat(PacketQueue.parsePacketId("Packet"), is(-1L));
+    assertThat(PacketQueue.parsePacketId(""), is(-1L));
+    assertThat(PacketQueue.parsePacketId(null), is(-1L));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#enqueuePacket(org.o3project.odenos.core.component.network.packet.Packet)}
+   * .
+   */
+  @Test
+  public final void testEnqueuePacketDropOldest() {
+
+    /*
+     * set
+     */
+    PacketQueue target = new InPacketQueue();
+    target.setCapacity(2);
+
+    /*
+     * test
+     */
+    target.enqueuePacket(new InPacket());
+    target.enqueuePacket(new InPacket());
+    Packet packet = target.enqueuePacket(new InPacket());
+
+    /*
+     * check
+     */
+    assertThat(packet.getPacketId(), is("0000000002"));
+    assertThat(target.size(), is(2));
+    assertThat(target.getDropCount(), is(1L));
+    assertThat(target.peekPacket().getPacketId(), is("0000000001"));
+    assertThat(target.getPacket("0000000000"), is(nullValue()));
+    assertThat(target.getPacketStatus().getInStatus().getPacketDropCount(), is(1L));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#enqueuePacket(org.o3project.odenos.core.component.network.packet.Packet)}
+   * .
+   */
+  @Test
+  public final void testEnqueuePacketDropNewest() {
+
+    /*
+     * set
+     */
+    PacketQueue target = new PacketQueue(2);
+    target.setOverflowPolicy(PacketQueue.OverflowPolicy.DROP_NEWEST);
+
+    /*
+     * test
+     */
+    target.enqueuePacket(new InPacket());
+    target.enqueuePacket(new InPacket());
+    Packet packet = target.enqueuePacket(new InPacket());
+
+    /*
+     * check
+     */
+    assertThat(packet, is(nullValue()));
+    assertThat(target.size(), is(2));
+    assertThat(target.getDropCount(), is(1L));
+    assertThat(target.peekPacket().getPacketId(), is("0000000000"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#enqueuePacket(org.o3project.odenos.core.component.network.packet.Packet)}
+   * .
+   */
+  @Test
+  public final void testEnqueuePacketHolesDropNewest() {
+
+    /*
+     * set
+     */
+    PacketQueue target = new PacketQueue(4);
+    target.setOverflowPolicy(PacketQueue.OverflowPolicy.DROP_NEWEST);
+    for (int i = 0; i < 4; i++) {
+      target.enqueuePacket(new InPacket());
+    }
+    target.pickPacket("0000000001");
+    target.pickPacket("0000000002");
+    target.pickPacket("0000000003");
+
+    /*
+     * test
+     */
+    Packet packet = target.enqueuePacket(new InPacket());
+
+    /*
+     * check
+     */
+    assertThat(packet.getPacketId(), is("0000000004"));
+    assertThat(target.size(), is(2));
+    assertThat(target.getDropCount(), is(0L));
+    assertThat(target.getPacket("0000000000").getPacketId(), is("0000000000"));
+    assertThat(target.dequeuePacket().getPacketId(), is("0000000000"));
+    assertThat(target.dequeuePacket().getPacketId(), is("0000000004"));
+    assertThat(target.dequeuePacket(), is(nullValue()));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#enqueuePacket(org.o3project.odenos.core.component.network.packet.Packet)}
+   * .
+   */
+  @Test
+  public final void testEnqueuePacketHolesDropOldest() {
+
+    /*
+     * set
+     */
+    PacketQueue target = new PacketQueue(4);
+    for (int i = 0; i < 4; i++) {
+      target.enqueuePacket(new InPacket());
+    }
+    target.pickPacket("0000000001");
+    target.pickPacket("0000000002");
+    target.pickPacket("0000000003");
+
+    /*
+     * test
+     */
+    for (int i = 0; i < 3; i++) {
+      target.enqueuePacket(new InPacket());
+    }
+    Packet packet = target.enqueuePacket(new InPacket());
+
+    /*
+     * check
+     */
+    assertThat(packet.getPacketId(), is("0000000007"));
+    assertThat(target.size(), is(4));
+    assertThat(target.getDropCount(), is(1L));
+    assertThat(target.getPacket("0000000000"), is(nullValue()));
+    assertThat(target.peekPacket().getPacketId(), is("0000000004"));
+    assertThat(target.pickPacket("0000000005").getPacketId(), is("0000000005"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#pickPacket(java.lang.String)}
+   * .
+   */
+  @Test
+  public final void testPickPacketMiddle() {
+
+    /*
+     * set
+     */
+    for (int i = 0; i < 4; i++) {
+      target.enqueuePacket(new InPacket());
+    }
+
+    /*
+     * test
+     */
+    Packet packet1 = target.pickPacket("0000000001");
+    Packet packet0 = target.dequeuePacket();
+
+    /*
+     * check
+     */
+    assertThat(packet1.getPacketId(), is("0000000001"));
+    assertThat(packet0.getPacketId(), is("0000000000"));
+    assertThat(target.pickPacket("0000000001"), is(nullValue()));
+    assertThat(target.size(), is(2));
+    assertThat(target.peekPacket().getPacketId(), is("0000000002"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.packet.PacketQueue#setCapacity(int)}
+   * .
+   */
+  @Test
+  public final void testSetCapacity() {
 
     /*
      * set
      */
-    PacketQueue target = spy(new PacketQueue());
+    for (int i = 0; i < 5; i++) {
+      target.enqueuePacket(new InPacket());
+    }
 
     /*
      * test
      */
-    String result00 = Whitebox.invokeMethod(target, "getUniquePacketId");
-    String result01 = Whitebox.invokeMethod(target, "getUniquePacketId");
-    String result02 = Whitebox.invokeMethod(target, "getUniquePacketId");
+    target.setCapacity(3);
 
     /*
      * check
      */
-    assertThat(result00, is("0000000000"));
-    assertThat(result01, is("0000000001"));
-    assertThat(result02, is("0000000002"));
+    assertThat(target.getCapacity(), is(4));
+    assertThat(target.size(), is(4));
+    assertThat(target.getDropCount(), is(1L));
+    assertThat(target.peekPacket().getPacketId(), is("0000000001"));
+    assertThat(target.enqueuePacket(new InPacket()).getPacketId(), is("0000000005"));
+    assertThat(target.getPacket("0000000004").getPacketId(), is("0000000004"));
   }
 
 }
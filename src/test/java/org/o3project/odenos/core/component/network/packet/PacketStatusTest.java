@@ -42,7 +42,7 @@ import java.io.IOException;
  */
 public class PacketStatusTest {
 
-  private static final int MSG_NUM = 9;
+  private static final int MSG_NUM = 11;
   private PacketStatus target;
 
   /**
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network.topology;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class for AttributeIndex.
+ */
+public class AttributeIndexTest {
+
+  private AttributeIndex target;
+
+  private static Set<String> set(String... keys) {
+    return new HashSet<String>(Arrays.asList(keys));
+  }
+
+  private static Node node(String nodeId, String vendor, String operStatus) {
+    Node node = new Node(nodeId);
+    node.putAttribute(Node.VENDOR, vendor);
+    node.putAttribute(Node.OPER_STATUS, operStatus);
+    return node;
+  }
+
+  @Before
+  public void setUp() {
+    target = new AttributeIndex(Arrays.asList(Node.VENDOR, Node.OPER_STATUS));
+    target.put("n1", node("n1", "NEC", "UP"));
+    target.put("n2", node("n2", "NEC", "DOWN"));
+    target.put("n3", node("n3", "other", "DOWN"));
+  }
+
+  @Test
+  public void testGet() {
+    assertThat(target.get(Node.VENDOR, "NEC"), is(set("n1", "n2")));
+    assertThat(target.get(Node.OPER_STATUS, "DOWN"), is(set("n2", "n3")));
+    assertTrue(target.get(Node.VENDOR, "unknown").isEmpty());
+    assertNull(target.get(Node.PHYSICAL_ID, "n1"));
+  }
+
+  @Test
+  public void testPutAgain() {
+    target.put("n2", node("n2", "NEC", "UP"));
+
+    assertThat(target.get(Node.OPER_STATUS, "DOWN"), is(set("n3")));
+    assertThat(target.get(Node.OPER_STATUS, "UP"), is(set("n1", "n2")));
+  }
+
+  @Test
+  public void testRemove() {
+    target.remove("n3");
+
+    assertThat(target.get(Node.VENDOR, "other"), is(Collections.<String>emptySet()));
+    assertThat(target.get(Node.OPER_STATUS, "DOWN"), is(set("n2")));
+  }
+
+  @Test
+  public void testGetCandidates() {
+    Map<String, String> attributes = new HashMap<String, String>();
+    attributes.put(Node.VENDOR, "other");
+    attributes.put(Node.OPER_STATUS, "DOWN");
+    attributes.put("not_indexed", "x");
+    assertThat(target.getCandidates(attributes), is(set("n3")));
+
+    attributes.clear();
+    attributes.put("not_indexed", "x");
+    assertNull(target.getCandidates(attributes));
+    assertNull(target.getCandidates(null));
+  }
+
+  @Test
+  public void testAddAttribute() {
+    assertTrue(target.addAttribute(Node.PHYSICAL_ID));
+    assertFalse(target.addAttribute(Node.PHYSICAL_ID));
+    assertTrue(target.isIndexed(Node.PHYSICAL_ID));
+    assertTrue(target.get(Node.PHYSICAL_ID, "n1").isEmpty());
+
+    target.put("n1", node("n1", "NEC", "UP"));
+    assertThat(target.get(Node.PHYSICAL_ID, "n1"), is(set("n1")));
+  }
+}
@@ -1061,6 +1061,65 @@ public class NodeTest {
     assertThat(result.getAttribute("node_att123"), is("node_val123"));
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Node#clone()}.
+   */
+  @Test
+  public void testCloneSharesPortsUntilModified() {
+    Node param = new Node("node1");
+    param.createPort(new Port("port1"));
+    param.createPort(new Port("port2"));
+    Port port2 = param.getPort("port2");
+
+    Node result = param.clone();
+    // the ports are shared with the clone.
+    assertTrue(result.getPortMapView().get("port2") == port2);
+
+    // the port modified by the original is copied.
+    param.getPort("port1").putAttribute("key", "value");
+    assertThat(param.getPort("port1").getAttribute("key"), is("value"));
+    assertNull(result.getPortMapView().get("port1").getAttribute("key"));
+    assertTrue(result.getPortMapView().get("port2") == port2);
+
+    // the port deleted by the clone remains in the original.
+    result.deletePort("port2");
+    assertNull(result.getPort("port2"));
+    assertThat(param.getPort("port2"), is(notNullValue()));
+    assertFalse(param.getPort("port2") == port2);
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Node#writeTo(org.msgpack.packer.Packer)}.
+   */
+  @Test(timeout = 10000)
+  public void testWriteToWhilePortsCopied() throws Exception {
+    final Node param = new Node("node1");
+    for (int i = 0; i < 100; i++) {
+      param.createPort(new Port("port" + i));
+    }
+    final Node other = param.clone();
+    Thread reader = new Thread() {
+      @Override
+      public void run() {
+        for (int i = 0; i < 200; i++) {
+          param.clone();
+          param.getPortMap();
+          other.equals(param);
+        }
+      }
+    };
+    reader.start();
+    MessagePack msgpack = new MessagePack();
+    for (int i = 0; i < 200; i++) {
+      msgpack.write(param);
+      param.equals(other);
+    }
+    reader.join();
+    assertThat(msgpack.read(msgpack.write(param), Node.class), is(param));
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.network.topology.Node#getUniquePortId()}.
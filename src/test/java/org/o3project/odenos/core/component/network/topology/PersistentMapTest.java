@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.core.component.network.topology;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test class for PersistentMap.
+ */
+public class PersistentMapTest {
+
+  /**
+   * Key whose hash collides with the other keys of the same hash.
+   */
+  private static final class Key {
+    final int hash;
+    final int id;
+
+    Key(int hash, int id) {
+      this.hash = hash;
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Key && ((Key) obj).hash == hash && ((Key) obj).id == id;
+    }
+  }
+
+  /**
+   * Test method for {@link PersistentMap#put(Object, Object)} and
+   * {@link PersistentMap#remove(Object)}.
+   */
+  @Test
+  public void testPutRemove() {
+    PersistentMap<Key, Integer> target = new PersistentMap<Key, Integer>();
+    Map<Key, Integer> expected = new HashMap<Key, Integer>();
+    Random random = new Random(1);
+    for (int i = 0; i < 10000; i++) {
+      // few hashes, so that many keys collide.
+      Key key = new Key(random.nextInt(64) * 0x01010101, random.nextInt(64));
+      if (random.nextInt(3) == 0) {
+        assertThat(target.remove(key), is(expected.remove(key)));
+      } else {
+        assertThat(target.put(key, i), is(expected.put(key, i)));
+      }
+      assertThat(target.size(), is(expected.size()));
+    }
+    assertThat(target, is(expected));
+    assertThat(new HashMap<Key, Integer>(target), is(expected));
+  }
+
+  /**
+   * Test method for {@link PersistentMap#copy()}.
+   */
+  @Test
+  public void testCopy() {
+    PersistentMap<String, Integer> target = new PersistentMap<String, Integer>();
+    for (int i = 0; i < 100; i++) {
+      target.put("key" + i, i);
+    }
+
+    PersistentMap<String, Integer> result = target.copy();
+    target.put("key0", -1);
+    target.remove("key1");
+    result.put("key2", -2);
+
+    assertThat(target.get("key0"), is(-1));
+    assertNull(target.get("key1"));
+    assertThat(target.get("key2"), is(2));
+    assertThat(target.size(), is(99));
+    assertThat(result.get("key0"), is(0));
+    assertThat(result.get("key1"), is(1));
+    assertThat(result.get("key2"), is(-2));
+    assertThat(result.size(), is(100));
+  }
+
+  /**
+   * Test method for {@link PersistentMap#entrySet()}.
+   */
+  @Test
+  public void testIteratorWritesThrough() {
+    PersistentMap<String, Integer> target = new PersistentMap<String, Integer>();
+    for (int i = 0; i < 100; i++) {
+      target.put("key" + i, i);
+    }
+    PersistentMap<String, Integer> copy = target.copy();
+
+    for (Iterator<Map.Entry<String, Integer>> it = target.entrySet().iterator(); it.hasNext();) {
+      Map.Entry<String, Integer> entry = it.next();
+      if (entry.getValue() % 2 == 0) {
+        it.remove();
+      } else {
+        entry.setValue(-entry.getValue());
+      }
+    }
+
+    assertThat(target.size(), is(50));
+    assertFalse(target.containsKey("key0"));
+    assertThat(target.get("key1"), is(-1));
+    assertThat(copy.size(), is(100));
+    assertTrue(copy.containsKey("key0"));
+    assertThat(copy.get("key1"), is(1));
+  }
+}
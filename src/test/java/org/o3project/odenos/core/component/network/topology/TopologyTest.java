@@ -42,8 +42,12 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Test class for Topology.
@@ -188,18 +192,18 @@ public class TopologyTest {
 
     assertThat(target, is(notNullValue()));
     assertThat(target.getVersion(), is("0"));
-    assertThat(target.nodes, is(notNullValue()));
-    assertThat(target.links, is(notNullValue()));
-    assertThat(target.nodes.size(), is(2));
-    assertThat(target.links.size(), is(2));
-    assertThat(target.nodes.get("node1_id123"), is(notNullValue()));
-    assertThat(target.nodes.get("node2_id123"), is(notNullValue()));
-    assertThat(target.links.get("link1_id123"), is(notNullValue()));
-    assertThat(target.links.get("link2_id123"), is(notNullValue()));
-    assertThat(target.nodes.get("node1_id123").getId(), is("node1_id123"));
-    assertThat(target.nodes.get("node2_id123").getId(), is("node2_id123"));
-    assertThat(target.links.get("link1_id123").getId(), is("link1_id123"));
-    assertThat(target.links.get("link2_id123").getId(), is("link2_id123"));
+    assertThat(target.getNodeMap(), is(notNullValue()));
+    assertThat(target.getLinkMap(), is(notNullValue()));
+    assertThat(target.getNodeMap().size(), is(2));
+    assertThat(target.getLinkMap().size(), is(2));
+    assertThat(target.getNodeMap().get("node1_id123"), is(notNullValue()));
+    assertThat(target.getNodeMap().get("node2_id123"), is(notNullValue()));
+    assertThat(target.getLinkMap().get("link1_id123"), is(notNullValue()));
+    assertThat(target.getLinkMap().get("link2_id123"), is(notNullValue()));
+    assertThat(target.getNodeMap().get("node1_id123").getId(), is("node1_id123"));
+    assertThat(target.getNodeMap().get("node2_id123").getId(), is("node2_id123"));
+    assertThat(target.getLinkMap().get("link1_id123").getId(), is("link1_id123"));
+    assertThat(target.getLinkMap().get("link2_id123").getId(), is("link2_id123"));
   }
 
   /**
@@ -214,18 +218,18 @@ public class TopologyTest {
 
     assertThat(target, is(notNullValue()));
     assertThat(target.getVersion(), is("101"));
-    assertThat(target.nodes, is(notNullValue()));
-    assertThat(target.links, is(notNullValue()));
-    assertThat(target.nodes.size(), is(2));
-    assertThat(target.links.size(), is(2));
-    assertThat(target.nodes.get("node1_id123"), is(notNullValue()));
-    assertThat(target.nodes.get("node2_id123"), is(notNullValue()));
-    assertThat(target.links.get("link1_id123"), is(notNullValue()));
-    assertThat(target.links.get("link2_id123"), is(notNullValue()));
-    assertThat(target.nodes.get("node1_id123").getId(), is("node1_id123"));
-    assertThat(target.nodes.get("node2_id123").getId(), is("node2_id123"));
-    assertThat(target.links.get("link1_id123").getId(), is("link1_id123"));
-    assertThat(target.links.get("link2_id123").getId(), is("link2_id123"));
+    assertThat(target.getNodeMap(), is(notNullValue()));
+    assertThat(target.getLinkMap(), is(notNullValue()));
+    assertThat(target.getNodeMap().size(), is(2));
+    assertThat(target.getLinkMap().size(), is(2));
+    assertThat(target.getNodeMap().get("node1_id123"), is(notNullValue()));
+    assertThat(target.getNodeMap().get("node2_id123"), is(notNullValue()));
+    assertThat(target.getLinkMap().get("link1_id123"), is(notNullValue()));
+    assertThat(target.getLinkMap().get("link2_id123"), is(notNullValue()));
+    assertThat(target.getNodeMap().get("node1_id123").getId(), is("node1_id123"));
+    assertThat(target.getNodeMap().get("node2_id123").getId(), is("node2_id123"));
+    assertThat(target.getLinkMap().get("link1_id123").getId(), is("link1_id123"));
+    assertThat(target.getLinkMap().get("link2_id123").getId(), is("link2_id123"));
   }
 
   /**
@@ -1355,6 +1359,237 @@ public class TopologyTest {
     assertThat(target.getNode("node2_id123").getPortMap().size(), is(2));
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#getNodeByPhysicalId(String)}
+   * .
+   */
+  @Test
+  public void testGetNodeByPhysicalId() throws Exception {
+    target = new Topology("101", nodes, links);
+    assertThat(target.getNodeByPhysicalId("node1_id123").getId(), is("node1_id123"));
+    assertNull(target.getNodeByPhysicalId("unknown"));
+
+    Node msg = new Node("node3_id123");
+    msg.putAttribute(Node.PHYSICAL_ID, "dpid:3");
+    target.createNode(msg);
+    assertThat(target.getNodeByPhysicalId("dpid:3").getId(), is("node3_id123"));
+
+    msg.putAttribute(Node.PHYSICAL_ID, "dpid:4");
+    target.createNode(msg);
+    assertNull(target.getNodeByPhysicalId("dpid:3"));
+    assertThat(target.getNodeByPhysicalId("dpid:4").getId(), is("node3_id123"));
+
+    target.deleteNode(target.getNode("node3_id123"));
+    assertNull(target.getNodeByPhysicalId("dpid:4"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#getPortByPhysicalId(String)}
+   * .
+   */
+  @Test
+  public void testGetPortByPhysicalId() throws Exception {
+    target = new Topology("101", nodes, links);
+    Port port = target.getPortByPhysicalId("port2_id123@node1_id123");
+    assertThat(port.getId(), is("port2_id123"));
+    assertThat(port.getNode(), is("node1_id123"));
+
+    Node node = target.getNode("node2_id123");
+    Port msg = new Port("port9_id123", "node2_id123");
+    msg.putAttribute(Port.PHYSICAL_ID, "dpid:2:9");
+    node.createPort(msg);
+    target.reindexNode(node);
+    assertThat(target.getPortByPhysicalId("dpid:2:9").getId(), is("port9_id123"));
+
+    target.deletePort("node2_id123", "port9_id123");
+    assertNull(target.getPortByPhysicalId("dpid:2:9"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#getPortByPhysicalId(String)}
+   * .
+   */
+  @Test
+  public void testGetPortByPhysicalIdModifiedDirectly() throws Exception {
+    target = new Topology("101", nodes, links);
+    target.getPort("node1_id123", "port2_id123").putAttribute(Port.PHYSICAL_ID, "dpid:1:2");
+
+    // stale index entry is not matched, and found once reindexed.
+    assertNull(target.getPortByPhysicalId("port2_id123@node1_id123"));
+    assertNull(target.getPortByPhysicalId("dpid:1:2"));
+    target.reindexNode(target.getNode("node1_id123"));
+    assertThat(target.getPortByPhysicalId("dpid:1:2").getId(), is("port2_id123"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#readFrom(Unpacker)}
+   * .
+   */
+  @Test
+  public void testGetNodeByPhysicalIdAfterReadFrom() throws Exception {
+    MessagePack msg = new MessagePack();
+    byte[] bytes = msg.write(new Topology("101", nodes, links));
+    Topology result = msg.read(bytes, Topology.class);
+    assertThat(result.getNodeByPhysicalId("node2_id123").getId(), is("node2_id123"));
+    assertThat(result.getPortByPhysicalId("port3_id123@node2_id123").getId(),
+        is("port3_id123"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#getNodeMessages(NodeQuery)}
+   * with attribute indexes.
+   */
+  @Test
+  public void testGetNodeMessagesWithIndex() throws Exception {
+    target = new Topology("101", nodes, links);
+    target.getNode("node1_id123").putAttribute(Node.OPER_STATUS, "DOWN");
+    target.reindexNode(target.getNode("node1_id123"));
+
+    NodeQuery query = new NodeQuery("attributes=oper_status=DOWN");
+    assertTrue(query.parse());
+    Map<String, Node> result = target.getNodeMessages(query);
+    assertThat(result.size(), is(1));
+    assertTrue(result.containsKey("node1_id123"));
+
+    // not indexed attribute
+    target.addNodeIndex("node2_att123");
+    query = new NodeQuery("attributes=node2_att123=node2_val123");
+    assertTrue(query.parse());
+    result = target.getNodeMessages(query);
+    assertThat(result.size(), is(1));
+    assertTrue(result.containsKey("node2_id123"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#getLinkMessages(LinkQuery)}
+   * with attribute indexes.
+   */
+  @Test
+  public void testGetLinkMessagesWithIndex() throws Exception {
+    target = new Topology("101", nodes, links);
+    Link link = target.getLink("link1_id123");
+    link.putAttribute(Link.OPER_STATUS, "DOWN");
+    target.reindexLink(link);
+
+    LinkQuery query = new LinkQuery("attributes=oper_status=DOWN");
+    assertTrue(query.parse());
+    Map<String, Link> result = target.getLinkMessages(query);
+    assertThat(result.size(), is(1));
+    assertTrue(result.containsKey("link1_id123"));
+
+    target.deleteLink("link1_id123");
+    assertThat(target.getLinkMessages(query).size(), is(0));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#clone()}
+   * with attribute indexes.
+   */
+  @Test
+  public void testCloneKeepsIndexes() throws Exception {
+    target = new Topology("101", nodes, links);
+    target.addNodeIndex("node1_att123");
+
+    Topology result = target.clone();
+    NodeQuery query = new NodeQuery("attributes=node1_att123=node1_val123");
+    assertTrue(query.parse());
+    assertThat(result.getNodeMessages(query).size(), is(1));
+  }
+
+  private static Topology topology(String... portIds) {
+    Node node1 = new Node("0", "node1");
+    Node node2 = new Node("0", "node2");
+    for (String portId : portIds) {
+      node1.getPortMap().put(portId, new Port("0", portId, "node1"));
+    }
+    node2.getPortMap().put("port2", new Port("0", "port2", "node2"));
+    Map<String, Node> nodes = new HashMap<String, Node>();
+    nodes.put("node1", node1);
+    nodes.put("node2", node2);
+    return new Topology(nodes, new HashMap<String, Link>());
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#replace(Topology)}
+   * .
+   */
+  @Test
+  public void testReplace() throws Exception {
+    target = new Topology();
+    List<Topology.Change> changes = target.replace(topology("port1"));
+
+    assertThat(changes.size(), is(4));
+    assertThat(target.getVersion(), is("1"));
+    assertThat(target.getNode("node1").getVersion(), is("1"));
+    assertThat(target.getPort("node1", "port1").getVersion(), is("1"));
+
+    // the same topology changes nothing.
+    changes = target.replace(topology("port1"));
+    assertTrue(changes.isEmpty());
+    assertThat(target.getVersion(), is("1"));
+
+    Node prevNode = target.getNode("node1");
+    Node prevNode2 = target.getNode("node2");
+    Topology newTopology = topology("port3");
+    newTopology.getNodeMap().remove("node2");
+    changes = target.replace(newTopology);
+
+    // deleted port1, port2 and node2, then updated node1 and added port3.
+    assertThat(changes.size(), is(5));
+    Set<Object> deleted = new HashSet<Object>();
+    for (int i = 0; i < 3; i++) {
+      assertNull(changes.get(i).curr);
+      deleted.add(changes.get(i).prev);
+    }
+    assertThat(deleted, is((Object) new HashSet<Object>(Arrays.asList(
+        prevNode.getPort("port1"), prevNode2.getPort("port2"), prevNode2))));
+    assertThat(changes.get(3).prev, is((Object) prevNode));
+    assertThat(changes.get(3).curr, is((Object) target.getNode("node1")));
+    assertNull(changes.get(4).prev);
+    assertThat(((Port) changes.get(4).curr).getId(), is("port3"));
+
+    assertThat(target.getVersion(), is("2"));
+    assertThat(target.getNode("node1").getVersion(), is("2"));
+    assertThat(prevNode.getVersion(), is("1"));
+    assertNull(target.getNode("node2"));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#replace(Topology)}
+   * .
+   */
+  @Test
+  public void testReplaceLinks() throws Exception {
+    target = new Topology();
+    Topology newTopology = topology("port1");
+    newTopology.getLinkMap().put("link1",
+        new Link("0", "link1", "node1", "port1", "node2", "port2",
+            new HashMap<String, String>()));
+    target.replace(newTopology);
+    assertThat(target.getLink("link1").getVersion(), is("1"));
+
+    newTopology.getLink("link1").putAttribute("cost", "10");
+    List<Topology.Change> changes = target.replace(newTopology);
+    assertThat(changes.size(), is(1));
+    assertThat(((Link) changes.get(0).curr).getAttribute("cost"), is("10"));
+    assertThat(target.getLink("link1").getVersion(), is("2"));
+
+    newTopology.getLinkMap().clear();
+    changes = target.replace(newTopology);
+    assertThat(changes.size(), is(1));
+    assertNull(changes.get(0).curr);
+    assertNull(target.getLink("link1"));
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.core.component.network.topology.Topology#toString()}
@@ -1383,4 +1618,46 @@ public class TopologyTest {
         is(true));
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.core.component.network.topology.Topology#clone()}
+   * .
+   */
+  @Test
+  public void testCloneSharesNodesUntilModified() {
+    target = new Topology();
+    Node node1 = target.createNode(new Node("node1"));
+    node1.createPort(new Port("port1"));
+    Node node2 = target.createNode(new Node("node2"));
+    node2.createPort(new Port("port2"));
+    target.reindexNode(node1);
+    target.reindexNode(node2);
+    Link link1 = target.createLink(new Link("link1", "node1", "port1", "node2", "port2"));
+
+    Topology result = target.clone();
+    // the nodes and links are shared with the clone.
+    assertTrue(result.getNodeMapView().get("node1") == node1);
+    assertTrue(result.getLinkMapView().get("link1") == link1);
+    // reading does not copy them.
+    assertTrue(target.getNodeMapView().get("node1") == node1);
+    assertTrue(target.getNodeMapView().get("node1").getPortMapView().get("port1")
+        == node1.getPortMapView().get("port1"));
+
+    // the node modified by the original is copied.
+    target.getNode("node1").putAttribute("key", "value");
+    assertThat(target.getNode("node1").getAttribute("key"), is("value"));
+    assertNull(result.getNodeMapView().get("node1").getAttribute("key"));
+    assertTrue(result.getNodeMapView().get("node1") == node1);
+    assertTrue(result.getNodeMapView().get("node2") == node2);
+
+    // the link deleted by the original remains in the clone.
+    assertTrue(target.deleteLink("link1"));
+    assertNull(target.getLinkMapView().get("link1"));
+    assertTrue(result.getLinkMapView().get("link1") == link1);
+    assertThat(node1.getPortMapView().get("port1").getOutLink(), is("link1"));
+
+    // the indexes of the clone are built on their first use.
+    assertTrue(result.getNodeByPhysicalId("node2") == node2);
+  }
+
 }
@@ -17,9 +17,13 @@
 package org.o3project.odenos.remoteobject;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
@@ -35,6 +39,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
+import org.o3project.odenos.remoteobject.actor.MailClass;
 import org.o3project.odenos.remoteobject.event.EventSubscription;
 import org.o3project.odenos.remoteobject.event.ObjectPropertyChanged;
 import org.o3project.odenos.remoteobject.event.ObjectSettingsChanged;
@@ -1265,4 +1270,134 @@ public class RemoteObjectTest {
 
     assertThat(result, is(false));
   }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RemoteObject#getEventMailClass(String)}.
+   */
+  @Test
+  public final void testGetEventMailClass() {
+    assertThat(target.getEventMailClass("InPacketAdded"), is(MailClass.EVENT));
+
+    target.setEventMailClass("InPacketAdded", MailClass.BULK);
+
+    assertThat(target.getEventMailClass("InPacketAdded"), is(MailClass.BULK));
+    assertThat(target.getEventMailClass("NodeChanged"), is(MailClass.EVENT));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RemoteObject#isReadOnlyRequest(Request)}.
+   */
+  @Test
+  public final void testIsReadOnlyRequest() {
+    assertTrue(target.isReadOnlyRequest(new Request(objectId,
+        Request.Method.GET, "property", "txid", null)));
+    assertTrue(target.isReadOnlyRequest(new Request(objectId,
+        Request.Method.GET, "settings", "txid", null)));
+    assertFalse(target.isReadOnlyRequest(new Request(objectId,
+        Request.Method.PUT, "property", "txid", null)));
+    assertFalse(target.isReadOnlyRequest(new Request(objectId,
+        Request.Method.GET, "unknown", "txid", null)));
+    assertFalse(target.isReadOnlyRequest(new Request(objectId,
+        Request.Method.GET, "", "txid", null)));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RemoteObject#getRequestPartition(Request)}.
+   */
+  @Test
+  public final void testGetRequestPartition() {
+    RemoteObject object = new RemoteObject(objectId, dispatcher) {
+      @Override
+      protected int getPartitionOnRequest(Request request) {
+        return request.path.length();
+      }
+    };
+    assertThat(target.getRequestPartition(new Request(objectId,
+        Request.Method.PUT, "flows/1", "txid", null)), is(-1));
+    assertThat(object.getRequestPartition(new Request(objectId,
+        Request.Method.PUT, "flows/1", "txid", null)), is(7));
+    assertThat(object.getRequestPartition(new Request(objectId,
+        Request.Method.PUT, "", "txid", null)), is(-1));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RemoteObject#getPartitionLane(int)}
+   * and {@link org.o3project.odenos.remoteobject.RemoteObject#getPartitionLock(int)}.
+   */
+  @Test
+  public final void testGetPartitionLane() {
+    assertThat(target.getPartitionLane(1), is(sameInstance(target.getPartitionLane(1))));
+    assertThat(target.getPartitionLane(1), is(not(sameInstance(target.getPartitionLane(2)))));
+    assertThat(target.getPartitionLock(1), is(sameInstance(target.getPartitionLock(1))));
+    assertThat(target.getPartitionLock(1), is(not(sameInstance(target.getPartitionLock(2)))));
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RemoteObject#awaitReaders()}.
+   */
+  @Test(timeout = 5000)
+  public final void testAwaitReaders() throws Exception {
+    final RemoteObject object = new RemoteObject(objectId, dispatcher);
+    object.beginRead();
+    Thread reader = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(50);
+        } catch (InterruptedException e) {
+          return;
+        }
+        object.endRead();
+      }
+    });
+    reader.start();
+
+    synchronized (object) {
+      object.awaitReaders();
+      assertThat((Integer) Whitebox.getInternalState(object, "readers"), is(0));
+    }
+    reader.join();
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RemoteObject#beginRead()}.
+   */
+  @Test(timeout = 5000)
+  public final void testBeginReadAfterWaitingWriter() throws Exception {
+    final RemoteObject object = new RemoteObject(objectId, dispatcher);
+    object.beginRead();
+    Thread writer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (object) {
+          object.awaitReaders();
+        }
+      }
+    });
+    writer.start();
+    while ((Integer) Whitebox.getInternalState(object, "writers") == 0) {
+      Thread.sleep(1);
+    }
+    Thread reader = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        object.beginRead();
+      }
+    });
+    reader.start();
+    reader.join(100);
+
+    // waits for the writer, not to starve it.
+    assertThat(reader.isAlive(), is(true));
+    object.endRead();
+    writer.join();
+    reader.join();
+    assertThat((Integer) Whitebox.getInternalState(object, "readers"), is(1));
+  }
 }
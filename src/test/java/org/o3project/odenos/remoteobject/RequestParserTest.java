@@ -412,6 +412,45 @@ public class RequestParserTest {
     assertThat(result.getResult(), is("result"));
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RequestParser#addReadOnlyRule(Request.Method, String, Object)}.
+   */
+  @Test
+  public void testAddReadOnlyRule() {
+    target.addReadOnlyRule(Method.GET, "path/to/<param>", "get");
+    target.addRule(Method.PUT, "path/to/<param>", "put");
+
+    RequestParser<String>.ParsedRequest result =
+        target.parse(new Request("testID", Method.GET, "path/to/abc?q=v",
+            "txid", "testBody"));
+    assertThat(result.getResult(), is("get"));
+    assertTrue(result.isReadOnly());
+
+    result = target.parse(new Request("testID", Method.PUT, "path/to/abc",
+        "txid", "testBody"));
+    assertThat(result.getResult(), is("put"));
+    assertFalse(result.isReadOnly());
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.RequestParser#isReadOnly(org.o3project.odenos.remoteobject.message.Request)}.
+   */
+  @Test
+  public void testIsReadOnly() {
+    target.addReadOnlyRule(Method.GET, "path/to/<param>", "get");
+    target.setDefaultResult("default");
+
+    assertTrue(target.isReadOnly(new Request("testID", Method.GET,
+        "path/to/abc", "txid", "testBody")));
+    assertFalse(target.isReadOnly(new Request("testID", Method.DELETE,
+        "path/to/abc", "txid", "testBody")));
+    // the default result is not read-only.
+    assertFalse(target.isReadOnly(new Request("testID", Method.GET,
+        "unknown", "txid", "testBody")));
+  }
+
   /**
    * Test method for
    * {@link org.o3project.odenos.remoteobject.RequestParser#parse(org.o3project.odenos.remoteobject.message.Request)}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.actor;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.o3project.odenos.remoteobject.message.Event;
+import org.o3project.odenos.remoteobject.message.Request;
+
+public class MailboxTest {
+
+  private Mailbox target;
+  private int serial;
+
+  @Before
+  public void setUp() {
+    target = new Mailbox();
+    serial = 0;
+  }
+
+  private Mail request() {
+    Request request = new Request("obj", Request.Method.GET, "settings", null, null);
+    return new Mail(serial++, 0, "obj", "from", null, request, null);
+  }
+
+  private Mail event(MailClass mailClass) {
+    Event event = new Event("pub", "InPacketAdded", null, null);
+    return new Mail(serial++, 0, "obj", "from", null, null, event, mailClass);
+  }
+
+  @Test
+  public void testMailClassDefault() {
+    assertThat(request().mailClass, is(MailClass.CONTROL));
+    Event event = new Event("pub", "NodeChanged", null, null);
+    assertThat(new Mail(0, 0, "obj", "from", null, null, event).mailClass,
+        is(MailClass.EVENT));
+  }
+
+  @Test
+  public void testEmpty() {
+    assertTrue(target.isEmpty());
+    assertThat(target.size(), is(0));
+    assertThat(target.poll(), is(nullValue()));
+    assertThat(target.peek(), is(nullValue()));
+  }
+
+  @Test
+  public void testFifoWithinClass() {
+    Mail first = event(MailClass.BULK);
+    Mail second = event(MailClass.BULK);
+    target.add(first);
+    target.add(second);
+
+    assertThat(target.size(), is(2));
+    assertThat(target.poll(), is(first));
+    assertThat(target.poll(), is(second));
+    assertTrue(target.isEmpty());
+  }
+
+  @Test
+  public void testRequestOvertakesEvents() {
+    for (int i = 0; i < 100; i++) {
+      target.add(event(MailClass.BULK));
+    }
+    Mail request = request();
+    target.add(request);
+
+    assertThat(target.size(), is(101));
+    assertThat(target.size(MailClass.BULK), is(100));
+    assertThat(target.peek(), is(request));
+    // at most one round of lower-class mails is read ahead of the request.
+    int count = 0;
+    while (target.poll() != request) {
+      count++;
+    }
+    assertTrue(count <= MailClass.BULK.getWeight());
+  }
+
+  @Test
+  public void testWeightedRoundRobin() {
+    int rounds = 3;
+    for (MailClass mailClass : MailClass.values()) {
+      for (int i = 0; i < mailClass.getWeight() * rounds; i++) {
+        target.add((mailClass == MailClass.CONTROL) ? request() : event(mailClass));
+      }
+    }
+    for (int round = 0; round < rounds; round++) {
+      for (MailClass mailClass : MailClass.values()) {
+        for (int i = 0; i < mailClass.getWeight(); i++) {
+          assertThat(target.poll().mailClass, is(mailClass));
+        }
+      }
+    }
+    assertTrue(target.isEmpty());
+  }
+
+  @Test
+  public void testNoStarvation() {
+    target.add(event(MailClass.BULK));
+    for (int i = 0; i < 1000; i++) {
+      target.add(request());
+    }
+    int count = 0;
+    while (target.poll().mailClass != MailClass.BULK) {
+      count++;
+    }
+    assertTrue(count <= MailClass.CONTROL.getWeight());
+  }
+}
@@ -18,7 +18,9 @@ package org.o3project.odenos.remoteobject.message;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -31,6 +33,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.msgpack.MessagePack;
+import org.msgpack.packer.BufferPacker;
 import org.msgpack.packer.Packer;
 import org.msgpack.type.Value;
 import org.msgpack.unpacker.Unpacker;
@@ -204,6 +208,74 @@ public class RequestTest {
 
   }
 
+  /**
+   * Test method for {@link org.o3project.odenos.remoteobject.message.Request#writeTo(org.msgpack.packer.Packer)}.
+   * @throws IOException throws IOException in targets
+   */
+  @Test
+  public final void testWriteToWithDeadline() throws IOException {
+    Packer packer = Mockito.mock(Packer.class);
+    doReturn(packer).when(packer).write(anyObject());
+    target.deadline = 12345L;
+
+    target.writeTo(packer);
+
+    verify(packer).writeArrayBegin(6);
+    // the time left, at least 1.
+    verify(packer).write(1L);
+    verify(packer).writeArrayEnd();
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.remoteobject.message.Request#readFrom(org.msgpack.unpacker.Unpacker)}.
+   * @throws IOException throws IOException in targets
+   */
+  @Test
+  public final void testReadFromWithDeadline() throws IOException {
+    MessagePack msgpack = new MessagePack();
+    Request request = new Request("objectId", Method.PUT, "path", "txid", "body");
+    long start = System.currentTimeMillis();
+    request.deadline = start + 60000;
+    BufferPacker pk = msgpack.createBufferPacker();
+    pk.write(request);
+
+    Request result = msgpack.createBufferUnpacker(pk.toByteArray()).read(Request.class);
+
+    assertThat(result.objectId, is("objectId"));
+    assertThat(result.method, is(Method.PUT));
+    // on the clock of the receiver.
+    assertTrue(result.deadline > start && result.deadline <= System.currentTimeMillis() + 60000);
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.remoteobject.message.Request#isExpired()}.
+   */
+  @Test
+  public final void testIsExpired() {
+    assertFalse(target.isExpired());
+    assertThat(target.getRemainingTime(), is(Long.MAX_VALUE));
+
+    target.deadline = System.currentTimeMillis() - 1;
+    assertTrue(target.isExpired());
+    assertThat(target.getRemainingTime(), is(0L));
+
+    target.deadline = System.currentTimeMillis() + 60000;
+    assertFalse(target.isExpired());
+    assertTrue(target.getRemainingTime() > 0);
+  }
+
+  /**
+   * Test method for {@link org.o3project.odenos.remoteobject.message.Request#getCurrentDeadline()}.
+   */
+  @Test
+  public final void testCurrentDeadline() {
+    assertThat(Request.getCurrentDeadline(), is(0L));
+    Request.setCurrentDeadline(12345L);
+    assertThat(Request.getCurrentDeadline(), is(12345L));
+    Request.setCurrentDeadline(0);
+    assertThat(Request.getCurrentDeadline(), is(0L));
+  }
+
   /**
    * Test method for {@link org.o3project.odenos.remoteobject.message.Request#toString()}.
    */
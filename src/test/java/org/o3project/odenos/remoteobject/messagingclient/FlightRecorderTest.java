@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.msgpack.MessagePack;
+import org.msgpack.packer.BufferPacker;
+import org.o3project.odenos.remoteobject.messagingclient.FlightRecorder.Frame;
+
+import java.util.List;
+
+public class FlightRecorderTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private String path() {
+    return folder.getRoot().getPath() + "/test.frec";
+  }
+
+  private static byte[] bytes(int length, int value) {
+    byte[] data = new byte[length];
+    for (int i = 0; i < length; i++) {
+      data[i] = (byte) value;
+    }
+    return data;
+  }
+
+  @Test
+  public void testRecordAndRead() throws Exception {
+    FlightRecorder target = new FlightRecorder(path(), 4096);
+    target.record(FlightRecorder.IN, "object1", bytes(10, 1));
+    target.record(FlightRecorder.OUT, "object2:EventType", bytes(20, 2));
+    target.close();
+
+    List<Frame> frames = FlightRecorderDump.read(path());
+    assertThat(frames.size(), is(2));
+    assertThat(frames.get(0).getDirection(), is(FlightRecorder.IN));
+    assertThat(frames.get(0).getChannel(), is("object1"));
+    assertThat(frames.get(0).getPayload(), is(bytes(10, 1)));
+    assertThat(frames.get(1).getDirection(), is(FlightRecorder.OUT));
+    assertThat(frames.get(1).getChannel(), is("object2:EventType"));
+    assertThat(frames.get(1).getPayload(), is(bytes(20, 2)));
+    assertFalse(frames.get(1).isTruncated());
+    assertTrue(frames.get(0).getTimestamp() <= frames.get(1).getTimestamp());
+  }
+
+  @Test
+  public void testOldestFramesOverwritten() throws Exception {
+    FlightRecorder target = new FlightRecorder(path(), 256);
+    for (int i = 0; i < 100; i++) {
+      target.record(FlightRecorder.IN, "ch", bytes(7 + i % 13, i));
+    }
+    target.close();
+
+    List<Frame> frames = FlightRecorderDump.read(path());
+    assertTrue(frames.size() > 3);
+    assertTrue(frames.size() < 100);
+    // The newest frames are kept in order.
+    int first = 100 - frames.size();
+    for (int i = 0; i < frames.size(); i++) {
+      assertThat(frames.get(i).getPayload(), is(bytes(7 + (first + i) % 13, first + i)));
+    }
+  }
+
+  @Test
+  public void testLargeFrameTruncated() throws Exception {
+    FlightRecorder target = new FlightRecorder(path(), 256);
+    target.record(FlightRecorder.OUT, "ch", bytes(1000, 3));
+    target.close();
+
+    List<Frame> frames = FlightRecorderDump.read(path());
+    assertThat(frames.size(), is(1));
+    assertTrue(frames.get(0).isTruncated());
+    assertThat(frames.get(0).getLength(), is(1000));
+    assertThat(frames.get(0).getPayload().length,
+        is(128 - FlightRecorder.RECORD_HEADER_SIZE - 2));
+  }
+
+  @Test
+  public void testReopenAppends() throws Exception {
+    FlightRecorder target = new FlightRecorder(path(), 4096);
+    target.record(FlightRecorder.IN, "ch", bytes(5, 1));
+    target.close();
+    target = new FlightRecorder(path(), 4096);
+    target.record(FlightRecorder.IN, "ch", bytes(5, 2));
+    target.close();
+
+    List<Frame> frames = FlightRecorderDump.read(path());
+    assertThat(frames.size(), is(2));
+    assertThat(frames.get(1).getPayload(), is(bytes(5, 2)));
+  }
+
+  @Test
+  public void testDumpFilterAndFormat() throws Exception {
+    MessagePack msgpack = new MessagePack();
+    BufferPacker pk = msgpack.createBufferPacker();
+    pk.write(MessageDispatcher.TYPE_EVENT);
+    pk.write(0);
+    pk.write("event");
+    pk.write("body");
+    byte[] event = pk.toByteArray();
+
+    FlightRecorder target = new FlightRecorder(path(), 4096);
+    target.record(FlightRecorder.IN, "object1", bytes(4, 0));
+    target.record(FlightRecorder.OUT, "object2:EventType", event);
+    target.close();
+
+    List<Frame> frames = FlightRecorderDump.read(path());
+    FlightRecorderDump dump = new FlightRecorderDump()
+        .setChannel("object2:.*")
+        .setDirection(FlightRecorder.OUT);
+    List<Frame> matched = dump.filter(frames);
+    assertThat(matched.size(), is(1));
+    assertTrue(dump.format(matched.get(0)).endsWith("|OUT|object2:EventType|EVENT|0|event|\"body\""));
+
+    dump = new FlightRecorderDump().setType("EVENT");
+    assertThat(dump.filter(frames).size(), is(1));
+    dump = new FlightRecorderDump().setFrom(Long.MAX_VALUE);
+    assertThat(dump.filter(frames).size(), is(0));
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LatencyTrackerTest {
+
+  private LatencyTracker target;
+
+  @Before
+  public void setUp() {
+    target = new LatencyTracker(3000, 30000);
+  }
+
+  @Test
+  public void testGetTimeoutWithoutSamples() {
+    assertThat(target.getPercentile("obj:GET"), is(-1L));
+    assertThat(target.getTimeout("obj:GET"), is(30000L));
+    assertThat(target.getTimeout(null), is(30000L));
+  }
+
+  @Test
+  public void testGetTimeoutWithFastTarget() {
+    for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+      target.record("obj:GET", 10);
+    }
+    assertThat(target.getPercentile("obj:GET"), is(10L));
+    // bounded by the lower limit.
+    assertThat(target.getTimeout("obj:GET"), is(3000L));
+    // other targets are not affected.
+    assertThat(target.getTimeout("obj:PUT"), is(30000L));
+  }
+
+  @Test
+  public void testGetTimeoutWithSlowTarget() {
+    for (int i = 0; i < LatencyTracker.SAMPLES; i++) {
+      target.record("obj:PUT", (i < LatencyTracker.SAMPLES - 1) ? 1000 : 20000);
+    }
+    assertThat(target.getPercentile("obj:PUT"), is(1000L));
+    assertThat(target.getTimeout("obj:PUT"), is(1000L * LatencyTracker.MULTIPLIER));
+
+    for (int i = 0; i < LatencyTracker.SAMPLES; i++) {
+      target.record("obj:PUT", 20000);
+    }
+    // bounded by the upper limit.
+    assertThat(target.getTimeout("obj:PUT"), is(30000L));
+  }
+
+  @Test
+  public void testRecordWithNullTarget() {
+    target.record(null, 10);
+    assertThat(target.getPercentile(null), is(-1L));
+  }
+}
@@ -239,6 +239,18 @@ public class MessageDispatcherTest {
       }
   }
 
+  @Test
+  public final void testCountEventSubscribersCached() throws Exception {
+      IPubSubDriver driverImpl = Mockito.mock(IPubSubDriver.class);
+      Mockito.when(driverImpl.channelExist(Mockito.anyString())).thenReturn(false);
+      Whitebox.setInternalState(target, "driverImpl", driverImpl);
+      assertThat(target.countEventSubscribers("object1", "event1"), is(0));
+      Mockito.when(driverImpl.channelExist(Mockito.anyString())).thenReturn(true);
+      assertThat(target.countEventSubscribers("object1", "event1"), is(0));
+      assertThat(target.isEventSubscribed("object1", "event1"), is(false));
+      Mockito.verify(driverImpl, Mockito.times(1)).channelExist(Mockito.anyString());
+  }
+
   @Test
   public final void testContainObjectId() {
       RemoteObject mockLocalObject = Mockito.mock(RemoteObject.class);
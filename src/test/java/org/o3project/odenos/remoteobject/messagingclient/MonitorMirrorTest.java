@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.msgpack.MessagePack;
+import org.msgpack.unpacker.BufferUnpacker;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MonitorMirrorTest {
+
+  private MonitorMirror target;
+
+  @After
+  public void tearDown() {
+    if (target != null) {
+      target.close();
+    }
+  }
+
+  @Test
+  public void testGetSamplingRate() {
+    Map<String, Double> rates = new HashMap<>();
+    rates.put("EVENT", 0.5);
+    rates.put("InPacketAdded", 0.01);
+    rates.put("RESPONSE", 0.0);
+    target = new MonitorMirror(mock(IPubSubDriver.class), "_monitor", rates, 0);
+
+    assertThat(target.getSamplingRate("REQUEST", null), is(1.0));
+    assertThat(target.getSamplingRate("EVENT", "NodeChanged"), is(0.5));
+    assertThat(target.getSamplingRate("EVENT", "InPacketAdded"), is(0.01));
+    assertTrue(target.isSampled("REQUEST", null));
+    assertFalse(target.isSampled("RESPONSE", null));
+  }
+
+  @Test
+  public void testMirrorForwardsRawMessage() throws Exception {
+    IPubSubDriver driver = mock(IPubSubDriver.class);
+    target = new MonitorMirror(driver, "_monitor", null, 0);
+    byte[] message = new byte[] {0x02, 0x00, (byte) 0xa1, 0x41};
+
+    target.mirror("pub:EventType", Arrays.asList("sub1", "sub2"), message);
+
+    ArgumentCaptor<byte[]> captor = ArgumentCaptor.forClass(byte[].class);
+    verify(driver, timeout(1000)).publish(eq("_monitor"), captor.capture());
+    BufferUnpacker upk = new MessagePack().createBufferUnpacker(captor.getValue());
+    assertThat(upk.readString(), is(MonitorMirror.RAW));
+    assertThat(upk.readString(), is("pub:EventType"));
+    assertThat(upk.readArrayBegin(), is(2));
+    assertThat(upk.readString(), is("sub1"));
+    assertThat(upk.readString(), is("sub2"));
+    upk.readArrayEnd();
+    byte[] data = captor.getValue();
+    List<Byte> tail = Arrays.asList(data[data.length - 4], data[data.length - 3],
+        data[data.length - 2], data[data.length - 1]);
+    assertThat(tail, is(Arrays.asList((byte) 0x02, (byte) 0x00, (byte) 0xa1, (byte) 0x41)));
+  }
+
+  @Test
+  public void testBandwidthBudget() throws Exception {
+    IPubSubDriver driver = mock(IPubSubDriver.class);
+    target = new MonitorMirror(driver, "_monitor", null, 100);
+
+    target.mirror("ch", Collections.<String>emptyList(), new byte[60]);
+    target.mirror("ch", Collections.<String>emptyList(), new byte[60]);
+    target.close();
+
+    verify(driver, times(1)).publish(eq("_monitor"), any(byte[].class));
+    assertThat(target.getDropped(), is(1L));
+  }
+
+  @Test
+  public void testMirrorAfterClose() {
+    IPubSubDriver driver = mock(IPubSubDriver.class);
+    target = new MonitorMirror(driver, "_monitor", null, 0);
+    target.close();
+
+    target.mirror("ch", Collections.<String>emptyList(), new byte[1]);
+
+    verify(driver, never()).publish(eq("_monitor"), any(byte[].class));
+    assertThat(target.getDropped(), is(1L));
+  }
+}
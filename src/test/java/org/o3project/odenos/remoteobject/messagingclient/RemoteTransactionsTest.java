@@ -18,8 +18,10 @@ package org.o3project.odenos.remoteobject.messagingclient;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
 
 import org.junit.After;
@@ -34,10 +36,12 @@ import org.o3project.odenos.remoteobject.messagingclient.RemoteTransactions;
 import org.powermock.reflect.Whitebox;
 import org.powermock.reflect.internal.WhiteboxImpl;
 
+import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class RemoteTransactionsTest {
 
@@ -199,6 +203,42 @@ public class RemoteTransactionsTest {
     }
   }
 
+  @Test(timeout = 5000)
+  public final void testSendRequestRecordsTimeout() throws Exception {
+    Request request = new Request("object1", Request.Method.GET, "flows", "txid", null);
+    request.deadline = System.currentTimeMillis() + 50;
+    MessageDispatcher disp = Mockito.mock(MessageDispatcher.class);
+    IPubSubDriver checker = Mockito.mock(IPubSubDriver.class);
+    Mockito.when(checker.channelExist(anyString())).thenReturn(true);
+    Mockito.when(disp.getChannelChecker()).thenReturn(checker);
+    Whitebox.setInternalState(target, "dispatcher", disp);
+    try {
+      target.sendRequest(request);
+      fail();
+    } catch (TimeoutException e) {
+      // expected.
+    }
+    LatencyTracker tracker = Whitebox.getInternalState(target, "latencyTracker");
+    Map<?, ?> samplesMap = Whitebox.getInternalState(tracker, "samplesMap");
+    assertThat(samplesMap.containsKey("object1:GET:flows/1"), is(true));
+  }
+
+  @Test
+  public final void testTarget() {
+    assertThat(RemoteTransactions.target(
+        new Request("object1", Request.Method.GET, "flows", "txid", null)),
+        is("object1:GET:flows/1"));
+    assertThat(RemoteTransactions.target(
+        new Request("object1", Request.Method.GET, "/flows/f1?x=1", "txid", null)),
+        is("object1:GET:flows/2"));
+    assertThat(RemoteTransactions.target(
+        new Request("object1", Request.Method.PUT, "", "txid", null)),
+        is("object1:PUT:/0"));
+    assertThat(RemoteTransactions.target(
+        new Request(null, Request.Method.PUT, "", "txid", null)),
+        is(nullValue()));
+  }
+
   //@Test(expected = TimeoutException.class)
   public final void testSignalResponseWithSecondTimeoutException() throws Exception {
     if (!skip) {
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015 NEC Corporation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.o3project.odenos.remoteobject.messagingclient.redis;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class SubscriptionBatcherTest {
+
+  private static class RecordingBatcher extends SubscriptionBatcher {
+    List<Set<String>> subscribed = new ArrayList<>();
+    List<Set<String>> unsubscribed = new ArrayList<>();
+
+    RecordingBatcher(long interval) {
+      super(interval);
+    }
+
+    @Override
+    protected synchronized void sendSubscribe(Set<String> channels) {
+      subscribed.add(channels);
+    }
+
+    @Override
+    protected synchronized void sendUnsubscribe(Set<String> channels) {
+      unsubscribed.add(channels);
+    }
+  }
+
+  private static Set<String> set(String... channels) {
+    return new HashSet<>(Arrays.asList(channels));
+  }
+
+  @Test
+  public void testFlushMergesChanges() {
+    RecordingBatcher target = new RecordingBatcher(60000);
+    target.subscribe(set("a:x", "b:x"), false);
+    target.subscribe(set("c:x"), false);
+    target.unsubscribe(set("d:x"));
+
+    assertTrue(target.hasPending());
+    assertTrue(target.subscribed.isEmpty());
+
+    target.flush();
+
+    assertThat(target.subscribed.size(), is(1));
+    assertThat(target.subscribed.get(0), is(set("a:x", "b:x", "c:x")));
+    assertThat(target.unsubscribed.size(), is(1));
+    assertThat(target.unsubscribed.get(0), is(set("d:x")));
+    assertFalse(target.hasPending());
+  }
+
+  @Test
+  public void testCancellingPairsAreDropped() {
+    RecordingBatcher target = new RecordingBatcher(60000);
+    target.subscribe(set("a:x", "b:x"), false);
+    target.unsubscribe(set("a:x"));
+    target.unsubscribe(set("c:x"));
+    target.subscribe(set("c:x"), false);
+
+    target.flush();
+
+    assertThat(target.subscribed.size(), is(1));
+    assertThat(target.subscribed.get(0), is(set("b:x")));
+    assertTrue(target.unsubscribed.isEmpty());
+  }
+
+  @Test
+  public void testFlushWithNoChanges() {
+    RecordingBatcher target = new RecordingBatcher(60000);
+    target.subscribe(set("a:x"), false);
+    target.unsubscribe(set("a:x"));
+
+    target.flush();
+
+    assertTrue(target.subscribed.isEmpty());
+    assertTrue(target.unsubscribed.isEmpty());
+  }
+
+  @Test
+  public void testUrgent() {
+    RecordingBatcher target = new RecordingBatcher(60000);
+    target.subscribe(set("a:x"), false);
+    assertFalse(target.hasUrgent());
+
+    target.subscribe(Collections.singleton("object"), true);
+    assertTrue(target.hasUrgent());
+
+    target.flush();
+    assertFalse(target.hasUrgent());
+  }
+
+  @Test(timeout = 5000)
+  public void testClose() throws Exception {
+    RecordingBatcher target = new RecordingBatcher(60000);
+    Thread flusher = (Thread) Whitebox.getInternalState(target, "flusher");
+    target.subscribe(set("a:x"), false);
+
+    target.close();
+
+    assertThat(target.subscribed.size(), is(1));
+    assertThat(target.subscribed.get(0), is(set("a:x")));
+    flusher.join();
+    // sent immediately after closed.
+    target.unsubscribe(set("a:x"));
+    assertThat(target.unsubscribed.size(), is(1));
+  }
+
+  @Test
+  public void testZeroIntervalSendsImmediately() {
+    RecordingBatcher target = new RecordingBatcher(0);
+    target.subscribe(set("a:x"), false);
+    target.unsubscribe(set("b:x"));
+
+    assertThat(target.subscribed.size(), is(1));
+    assertThat(target.unsubscribed.size(), is(1));
+    assertFalse(target.hasPending());
+  }
+
+  @Test(timeout = 5000)
+  public void testAwaitFlushed() throws Exception {
+    final RecordingBatcher target = new RecordingBatcher(10);
+    final long[] seqs = new long[2];
+    Thread other = new Thread() {
+      @Override
+      public void run() {
+        seqs[1] = target.subscribe(set("b:x"), false);
+        target.awaitFlushed(seqs[1]);
+      }
+    };
+    other.start();
+    seqs[0] = target.subscribe(set("a:x"), false);
+    target.awaitFlushed(seqs[0]);
+    other.join();
+
+    // subscribed on return.
+    synchronized (target) {
+      Set<String> all = new HashSet<>();
+      for (Set<String> channels : target.subscribed) {
+        all.addAll(channels);
+      }
+      assertThat(all, is(set("a:x", "b:x")));
+    }
+    assertFalse(target.hasPending());
+  }
+
+  @Test
+  public void testFlushedAfterInterval() throws InterruptedException {
+    RecordingBatcher target = new RecordingBatcher(10);
+    target.subscribe(set("a:x"), false);
+    target.subscribe(set("b:x"), false);
+
+    for (int i = 0; i < 100; i++) {
+      synchronized (target) {
+        if (!target.subscribed.isEmpty()) {
+          break;
+        }
+      }
+      Thread.sleep(10);
+    }
+
+    assertFalse(target.hasPending());
+    synchronized (target) {
+      assertThat(target.subscribed.size(), is(1));
+      assertThat(target.subscribed.get(0), is(set("a:x", "b:x")));
+    }
+  }
+}
@@ -16,6 +16,9 @@
 
 package org.o3project.odenos.remoteobject.rest.servlet;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
@@ -311,4 +314,63 @@ public class RestServletTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.rest.servlet.RestServlet#doRequestToComponent(javax.servlet.http.HttpServletRequest, javax.servlet.http.HttpServletResponse, org.o3project.odenos.remoteobject.message.Request.Method)}
+   * .
+   *
+   * @throws Exception throws Exception in targets
+   */
+  @Test
+  public void testDoRequestToComponentWithIfNoneMatch() throws Exception {
+
+    /*
+     * setting
+     */
+    LogMessage.initParameters(9000000);
+
+    HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+    HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
+
+    ServletContext servletContext = Mockito.mock(ServletContext.class);
+    RESTTranslator translator = Mockito.mock(RESTTranslator.class);
+
+    doReturn("/ObjectId/Path/c").when(request).getRequestURI();
+    doReturn("\"3\"").when(request).getHeader("If-None-Match");
+    doReturn(servletContext).when(request).getServletContext();
+    doReturn(translator).when(servletContext).getAttribute(
+        Attributes.REST_TRANSLATOR);
+
+    doReturn(new Response(Response.NOT_MODIFIED, null)).when(translator).request(
+        eq("ObjectId"), eq(Request.Method.GET),
+        eq("Path/c?" + Request.IF_VERSION_DIFFERS + "=3"), anyString(), anyObject());
+
+    /*
+     * test
+     */
+    target.doRequestToComponent(request, response, Request.Method.GET);
+
+    /*
+     * check
+     */
+    verify(response).setStatus(Response.NOT_MODIFIED);
+    verify(response, never()).getWriter();
+
+  }
+
+  /**
+   * Test method for
+   * {@link org.o3project.odenos.remoteobject.rest.servlet.RestServlet#parseEntityTag(java.lang.String)}
+   * .
+   */
+  @Test
+  public void testParseEntityTag() {
+    assertThat(RestServlet.parseEntityTag("\"3\""), is("3"));
+    assertThat(RestServlet.parseEntityTag("W/\"3\""), is("3"));
+    assertThat(RestServlet.parseEntityTag("3"), is("3"));
+    assertThat(RestServlet.parseEntityTag("*"), is(nullValue()));
+    assertThat(RestServlet.parseEntityTag("\"3\", \"4\""), is(nullValue()));
+    assertThat(RestServlet.parseEntityTag(null), is(nullValue()));
+  }
+
 }